@@ -0,0 +1,45 @@
+package su.kidoz.kaillera.controller.connectcontroller.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parses the messages the connect port receives: connection requests from
+ * clients and pings from server lists.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectMessageBenchmark {
+
+    @Param({ConnectMessage_HELLO.ID, ConnectMessage_PING.ID})
+    private String message;
+
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setUp() {
+        ConnectMessage sample = switch (message) {
+            case ConnectMessage_HELLO.ID -> new ConnectMessage_HELLO("0.83");
+            case ConnectMessage_PING.ID -> new ConnectMessage_PING();
+            default -> throw new IllegalArgumentException("Unknown message: " + message);
+        };
+        encoded = sample.toBuffer();
+    }
+
+    @Benchmark
+    public ConnectMessage parse() throws MessageFormatException {
+        encoded.rewind();
+        return ConnectMessage.parse(encoded);
+    }
+}
@@ -0,0 +1,75 @@
+package su.kidoz.kaillera.controller.messaging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reads and writes the terminated string fields every lobby message carries,
+ * for plain ASCII names, accented Latin-1 text and multi-byte chat.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProtocolStringCodecBenchmark {
+
+    @Param({"ascii", "latin1", "utf8"})
+    private String text;
+
+    @Param({"UTF-8", "ISO-8859-1"})
+    private String charsetName;
+
+    private String value;
+    private Charset charset;
+    private ByteBuffer encoded;
+    private ByteBuffer output;
+
+    @Setup
+    public void setUp() {
+        value = switch (text) {
+            case "ascii" -> "Street Fighter II' - Champion Edition (World 920313)";
+            case "latin1" -> "Joueur numéro un, prêt à jouer";
+            case "utf8" -> "プレイヤー1 - ストリートファイターII";
+            default -> throw new IllegalArgumentException("Unknown text: " + text);
+        };
+        charset = Charset.forName(charsetName);
+
+        encoded = ByteBuffer.allocate(256);
+        ProtocolStringCodec.write(encoded, value, 0x00, charset);
+        encoded.flip();
+        output = ByteBuffer.allocate(256);
+    }
+
+    @Benchmark
+    public String read() {
+        encoded.rewind();
+        return ProtocolStringCodec.read(encoded, 0x00, charset);
+    }
+
+    @Benchmark
+    public ByteBuffer write() {
+        output.clear();
+        ProtocolStringCodec.write(output, value, 0x00, charset);
+        return output;
+    }
+
+    @Benchmark
+    public int encodedLength() {
+        return ProtocolStringCodec.encodedLength(value, charset);
+    }
+
+    @Benchmark
+    public byte[] getBytes() {
+        // The allocating encode the codec replaced, for comparison
+        return value.getBytes(charset);
+    }
+}
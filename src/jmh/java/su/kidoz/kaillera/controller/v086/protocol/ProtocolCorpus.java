@@ -0,0 +1,149 @@
+package su.kidoz.kaillera.controller.v086.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+
+/**
+ * Sample V086 traffic for the protocol benchmarks: one representative message
+ * for each message ID, and the bundles a server sends and receives most.
+ *
+ * <p>
+ * Messages are encoded with their own {@code writeTo}, so the corpus follows
+ * the codec as it changes.
+ */
+final class ProtocolCorpus {
+
+    static final int FIRST_MESSAGE_ID = 0x01;
+    static final int LAST_MESSAGE_ID = 0x17;
+
+    /** Bundle kinds accepted by {@link #bundle(String)}. */
+    static final String GAME_DATA = "gameData";
+    static final String SERVER_STATUS = "serverStatus";
+    static final String CHAT = "chat";
+
+    /** Message number and length, which precede the message ID and body. */
+    static final int MESSAGE_HEADER_SIZE = 4;
+
+    // Two players, three frames of 2-byte input each
+    private static final int GAME_DATA_SIZE = 12;
+
+    private ProtocolCorpus() {
+    }
+
+    /**
+     * Returns a representative message with the given ID.
+     */
+    static V086Message message(int messageNumber, int messageID) throws MessageFormatException {
+        return switch (messageID) {
+            case Quit.ID -> new Quit_Notification(messageNumber, "Player One", 12, "Bye!");
+            case UserJoined.ID -> new UserJoined(messageNumber, "Player One", 12, 45, (byte) 1);
+            case UserInformation.ID -> new UserInformation(messageNumber, "Player One",
+                    "MAME32k 0.64 (Feb  1 2003)", (byte) 1);
+            case ServerStatus.ID -> serverStatus(messageNumber, 10, 5);
+            case ServerACK.ID -> new ServerACK(messageNumber);
+            case ClientACK.ID -> new ClientACK(messageNumber);
+            case Chat.ID -> new Chat_Notification(messageNumber, "Player One",
+                    "anyone up for a game of sf2?");
+            case GameChat.ID -> new GameChat_Notification(messageNumber, "Player One", "gg");
+            case KeepAlive.ID -> new KeepAlive(messageNumber);
+            case CreateGame.ID -> new CreateGame_Notification(messageNumber, "Player One",
+                    "Street Fighter II' - Champion Edition (World 920313)",
+                    "MAME32k 0.64 (Feb  1 2003)", 7, 0);
+            case QuitGame.ID -> new QuitGame_Notification(messageNumber, "Player One", 12);
+            case JoinGame.ID -> new JoinGame_Notification(messageNumber, 7, 0, "Player Two", 60,
+                    13, (byte) 1);
+            case PlayerInformation.ID -> playerInformation(messageNumber);
+            case GameStatus.ID -> new GameStatus(messageNumber, 7, 0, (byte) 1, (byte) 2,
+                    (byte) 4);
+            case GameKick.ID -> new GameKick(messageNumber, 13);
+            case CloseGame.ID -> new CloseGame(messageNumber, 7, 0);
+            case StartGame.ID -> new StartGame_Notification(messageNumber, 1, (short) 1,
+                    (short) 2);
+            case GameData.ID -> new GameData(messageNumber, gameData(messageNumber));
+            case CachedGameData.ID -> new CachedGameData(messageNumber, messageNumber & 0xFF);
+            case PlayerDrop.ID -> new PlayerDrop_Notification(messageNumber, "Player Two",
+                    (byte) 2);
+            case AllReady.ID -> new AllReady(messageNumber);
+            case ConnectionRejected.ID -> new ConnectionRejected(messageNumber, "Player One", 12,
+                    "Name already in use");
+            case InformationMessage.ID -> new InformationMessage(messageNumber, "server",
+                    "Welcome to the server!");
+            default -> throw new IllegalArgumentException("Unknown message ID: " + messageID);
+        };
+    }
+
+    /**
+     * Returns the messages of a bundle, newest first, the way they are sent.
+     */
+    static V086Message[] bundle(String kind) throws MessageFormatException {
+        return switch (kind) {
+            // A client sends its last three frames every packet
+            case GAME_DATA -> new V086Message[]{new GameData(3, gameData(3)),
+                    new GameData(2, gameData(2)), new GameData(1, gameData(1))};
+            // The server splits the lobby into chunks that fit one packet
+            case SERVER_STATUS -> new V086Message[]{serverStatus(2, 10, 5),
+                    new UserInformation(1, "Player One", "MAME32k 0.64 (Feb  1 2003)",
+                            (byte) 1)};
+            case CHAT -> new V086Message[]{
+                    new Chat_Notification(3, "Player One", "anyone up for a game of sf2?"),
+                    new Chat_Notification(2, "Player Two", "sure, creating one now"),
+                    new GameChat_Notification(1, "Player One", "gg")};
+            default -> throw new IllegalArgumentException("Unknown bundle: " + kind);
+        };
+    }
+
+    /**
+     * Encodes a message with its header, as it appears inside a bundle.
+     */
+    static ByteBuffer encode(V086Message message) {
+        ByteBuffer buffer = ByteBuffer.allocate(message.getLength() + MESSAGE_HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        message.writeTo(buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes a bundle into a heap buffer the size of a receive buffer.
+     */
+    static ByteBuffer encode(V086Message[] messages) {
+        ByteBuffer buffer = ByteBuffer.allocate(2048).order(ByteOrder.LITTLE_ENDIAN);
+        new V086Bundle(messages).writeTo(buffer);
+        return buffer.flip();
+    }
+
+    private static byte[] gameData(int frame) {
+        byte[] data = new byte[GAME_DATA_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (frame + i);
+        }
+        return data;
+    }
+
+    private static ServerStatus serverStatus(int messageNumber, int numUsers, int numGames)
+            throws MessageFormatException {
+        List<ServerStatus.User> users = new ArrayList<>(numUsers);
+        for (int i = 0; i < numUsers; i++) {
+            users.add(new ServerStatus.User("Player " + i, 30 + i, (byte) (i % 3), 100 + i,
+                    (byte) 1));
+        }
+        List<ServerStatus.Game> games = new ArrayList<>(numGames);
+        for (int i = 0; i < numGames; i++) {
+            games.add(new ServerStatus.Game("Street Fighter II' - Champion Edition (World 920313)",
+                    200 + i, "MAME32k 0.64 (Feb  1 2003)", "Player " + i, "1/2", (byte) 0));
+        }
+        return new ServerStatus(messageNumber, users, games);
+    }
+
+    private static PlayerInformation playerInformation(int messageNumber)
+            throws MessageFormatException {
+        List<PlayerInformation.Player> players = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            players.add(new PlayerInformation.Player("Player " + i, 30 + i, 100 + i, (byte) 1));
+        }
+        return new PlayerInformation(messageNumber, players);
+    }
+}
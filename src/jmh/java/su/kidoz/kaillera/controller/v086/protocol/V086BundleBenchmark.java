@@ -0,0 +1,67 @@
+package su.kidoz.kaillera.controller.v086.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parses and writes whole bundles of typical traffic: the three GameData
+ * messages a client sends every frame, a ServerStatus chunk and lobby chat.
+ *
+ * <p>
+ * {@link #parse} is the materializing parser the relay uses, {@link #read}
+ * the header scan the game server does before handling each message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class V086BundleBenchmark {
+
+    @Param({ProtocolCorpus.GAME_DATA, ProtocolCorpus.SERVER_STATUS, ProtocolCorpus.CHAT})
+    private String bundle;
+
+    private V086Bundle outgoing;
+    private ByteBuffer encoded;
+    private ByteBuffer output;
+    private V086BundleReader reader;
+
+    @Setup
+    public void setUp() throws MessageFormatException {
+        V086Message[] messages = ProtocolCorpus.bundle(bundle);
+        outgoing = new V086Bundle(messages);
+        encoded = ProtocolCorpus.encode(messages);
+        output = ByteBuffer.allocateDirect(encoded.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+        reader = new V086BundleReader();
+    }
+
+    @Benchmark
+    public V086Bundle parse()
+            throws ParseException, V086BundleFormatException, MessageFormatException {
+        encoded.rewind();
+        return V086Bundle.parse(encoded, -1);
+    }
+
+    @Benchmark
+    public int read() throws ParseException, V086BundleFormatException {
+        encoded.rewind();
+        return reader.read(encoded, -1);
+    }
+
+    @Benchmark
+    public ByteBuffer writeTo() {
+        output.clear();
+        outgoing.writeTo(output);
+        return output;
+    }
+}
@@ -0,0 +1,55 @@
+package su.kidoz.kaillera.controller.v086.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parses and writes a representative message of every V086 message ID.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class V086MessageBenchmark {
+
+    private static final int MESSAGE_NUMBER = 1234;
+
+    @Param({"0x01", "0x02", "0x03", "0x04", "0x05", "0x06", "0x07", "0x08", "0x09", "0x0A",
+            "0x0B", "0x0C", "0x0D", "0x0E", "0x0F", "0x10", "0x11", "0x12", "0x13", "0x14",
+            "0x15", "0x16", "0x17"})
+    private String messageID;
+
+    private V086Message message;
+    private ByteBuffer encoded;
+    private ByteBuffer output;
+
+    @Setup
+    public void setUp() throws MessageFormatException {
+        message = ProtocolCorpus.message(MESSAGE_NUMBER, Integer.decode(messageID));
+        encoded = ProtocolCorpus.encode(message);
+        output = ByteBuffer.allocate(encoded.capacity()).order(encoded.order());
+    }
+
+    @Benchmark
+    public V086Message parse() throws ParseException, MessageFormatException {
+        encoded.position(ProtocolCorpus.MESSAGE_HEADER_SIZE);
+        return V086Message.parse(MESSAGE_NUMBER, message.getLength(), encoded);
+    }
+
+    @Benchmark
+    public ByteBuffer writeTo() {
+        output.clear();
+        message.writeTo(output);
+        return output;
+    }
+}
@@ -0,0 +1,49 @@
+package su.kidoz.kaillera.model.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays every player but the first on its own thread, frame after frame, so
+ * the benchmark thread playing player 1 contends with them the way a real
+ * game's players do.
+ */
+final class BackgroundPlayers {
+
+    /**
+     * Plays one frame as the given player.
+     */
+    interface Frame {
+        void play(int playerNumber) throws Exception;
+    }
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    BackgroundPlayers(int numPlayers, Frame frame) {
+        for (int playerNumber = 2; playerNumber <= numPlayers; playerNumber++) {
+            int player = playerNumber;
+            threads.add(Thread.ofPlatform().daemon().name("player-" + player).start(() -> {
+                try {
+                    while (running) {
+                        frame.play(player);
+                    }
+                } catch (Exception e) {
+                    // The game was stopped underneath us
+                }
+            }));
+        }
+    }
+
+    /**
+     * Stops the players. {@code unblock} must wake any player waiting for
+     * input that will no longer arrive.
+     */
+    void stop(Runnable unblock) throws InterruptedException {
+        running = false;
+        unblock.run();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
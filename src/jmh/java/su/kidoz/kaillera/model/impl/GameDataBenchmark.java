@@ -0,0 +1,117 @@
+package su.kidoz.kaillera.model.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.model.event.DefaultEventDispatcher;
+import su.kidoz.kaillera.model.exception.GameDataException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Runs {@link KailleraGameImpl#addData} end to end for a started game whose
+ * players have no network connection: their events are dispatched to no
+ * listeners, and the server is a stub.
+ *
+ * <p>
+ * {@link #addData} measures player 1 while the other players add their input
+ * on their own threads, so the score is the game's frame rate including lock
+ * contention between players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameDataBenchmark {
+
+    private static final int BYTES_PER_ACTION = 2;
+    private static final int BUFFER_SIZE = 1024;
+    private static final int TIMEOUT_MILLIS = 1000;
+    // Never desynch a player for pausing between iterations
+    private static final int DESYNCH_TIMEOUTS = Integer.MAX_VALUE;
+
+    @Param({"2", "4", "8"})
+    private int numPlayers;
+
+    // Actions per message: 1 (LAN) through 6 (Bad)
+    @Param({"1", "2", "3", "4", "5", "6"})
+    private int connectionType;
+
+    private KailleraUserImpl[] users;
+    private byte[][] messages;
+    private KailleraGameImpl game;
+    private BackgroundPlayers otherPlayers;
+
+    @Setup
+    public void setUp() throws Exception {
+        KailleraServerImpl server = mock(KailleraServerImpl.class);
+        AccessManager accessManager = mock(AccessManager.class);
+        when(accessManager.getAccess(any())).thenReturn(AccessManager.ACCESS_NORMAL);
+        when(server.getAccessManager()).thenReturn(accessManager);
+
+        users = new KailleraUserImpl[numPlayers];
+        messages = new byte[numPlayers][connectionType * BYTES_PER_ACTION];
+        for (int i = 0; i < numPlayers; i++) {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", 27888 + i);
+            KailleraUserImpl user = new KailleraUserImpl(i + 1, "v086", address,
+                    new DefaultEventDispatcher(), server);
+            user.setName("Player" + (i + 1));
+            user.setSocketAddress(address);
+            user.setClientType("Benchmark");
+            user.setConnectionType((byte) connectionType);
+            // Drains the user's event queue, including the GameDataEvent responses
+            Thread.ofVirtual().start(user);
+            users[i] = user;
+        }
+
+        game = new KailleraGameImpl(1, "Benchmark ROM", users[0], server, BUFFER_SIZE,
+                TIMEOUT_MILLIS, DESYNCH_TIMEOUTS);
+        for (KailleraUserImpl user : users) {
+            game.join(user);
+        }
+        game.start(users[0]);
+        for (int i = 0; i < numPlayers; i++) {
+            game.ready(users[i], i + 1);
+        }
+
+        otherPlayers = new BackgroundPlayers(numPlayers, this::play);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        otherPlayers.stop(() -> {
+            for (int i = 0; i < numPlayers; i++) {
+                try {
+                    game.drop(users[i], i + 1);
+                } catch (Exception e) {
+                    // Already dropped
+                }
+            }
+        });
+        for (KailleraUserImpl user : users) {
+            user.stop();
+        }
+    }
+
+    @Benchmark
+    public void addData() throws GameDataException {
+        play(1);
+    }
+
+    private void play(int playerNumber) throws GameDataException {
+        byte[] message = messages[playerNumber - 1];
+        message[0]++;
+        game.addData(users[playerNumber - 1], playerNumber, message);
+    }
+}
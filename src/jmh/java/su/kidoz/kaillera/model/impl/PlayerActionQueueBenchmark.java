@@ -0,0 +1,100 @@
+package su.kidoz.kaillera.model.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Exchanges input through one {@link PlayerActionQueue} per player, the way
+ * {@link KailleraGameImpl#addData} does: each player adds its message to its
+ * own queue, then reads that frame from every player's queue.
+ *
+ * <p>
+ * {@link #frame} measures one player's frame while the other players run on
+ * their own threads, so every queue has concurrent readers and the score is
+ * the frame rate the slowest hand-off allows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayerActionQueueBenchmark {
+
+    private static final int BYTES_PER_ACTION = 2;
+    private static final int BUFFER_SIZE = 1024;
+    private static final int TIMEOUT_MILLIS = 1000;
+
+    @Param({"2", "4", "8"})
+    private int numPlayers;
+
+    // Actions per message: 1 (LAN) through 6 (Bad)
+    @Param({"1", "2", "3", "4", "5", "6"})
+    private int connectionType;
+
+    private PlayerActionQueue[] queues;
+    private byte[][] messages;
+    private byte[][] responses;
+    private BackgroundPlayers otherPlayers;
+
+    @Setup
+    public void setUp() {
+        queues = new PlayerActionQueue[numPlayers];
+        messages = new byte[numPlayers][connectionType * BYTES_PER_ACTION];
+        responses = new byte[numPlayers][numPlayers * connectionType * BYTES_PER_ACTION];
+        for (int i = 0; i < numPlayers; i++) {
+            queues[i] = new PlayerActionQueue(i + 1, null, numPlayers, BUFFER_SIZE,
+                    TIMEOUT_MILLIS, false);
+            queues[i].setSynched(true);
+        }
+        otherPlayers = new BackgroundPlayers(numPlayers, this::play);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        otherPlayers.stop(() -> {
+            for (PlayerActionQueue queue : queues) {
+                queue.setSynched(false);
+            }
+        });
+    }
+
+    @Benchmark
+    public byte[] frame() {
+        play(1);
+        return responses[0];
+    }
+
+    private void play(int playerNumber) {
+        byte[] message = messages[playerNumber - 1];
+        message[0]++;
+        queues[playerNumber - 1].addActions(message);
+
+        byte[] response = responses[playerNumber - 1];
+        int offset = 0;
+        for (int action = 0; action < connectionType; action++) {
+            for (PlayerActionQueue queue : queues) {
+                take(queue, playerNumber, response, offset);
+                offset += BYTES_PER_ACTION;
+            }
+        }
+    }
+
+    private static void take(PlayerActionQueue queue, int playerNumber, byte[] response,
+            int offset) {
+        while (true) {
+            try {
+                queue.getAction(playerNumber, response, offset, BYTES_PER_ACTION);
+                return;
+            } catch (PlayerTimeoutException e) {
+                // Only between iterations, when player 1 pauses; nothing was read
+            }
+        }
+    }
+}
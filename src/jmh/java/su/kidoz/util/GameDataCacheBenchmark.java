@@ -0,0 +1,114 @@
+package su.kidoz.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Drives the game data caches with a stream of frames in which a given share
+ * repeats recent input, as held buttons and idle players do.
+ *
+ * <p>
+ * {@link #send} is the outbound path: look the frame up and add it on a miss.
+ * {@link #receive} is the inbound path: read a cached frame by key on a hit
+ * and add the frame on a miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameDataCacheBenchmark {
+
+    private static final int CACHE_SIZE = 256;
+    private static final int NUM_PLAYERS = 2;
+    private static final int BYTES_PER_ACTION = 2;
+    private static final int STREAM_LENGTH = 4096;
+    // Repeated frames are drawn from this many recent distinct frames
+    private static final int RECENT_FRAMES = 64;
+
+    @Param({"server", "client"})
+    private String cache;
+
+    @Param({"0.5", "0.8", "0.95"})
+    private double hitRatio;
+
+    // Actions per message: 1 (LAN) through 6 (Bad)
+    @Param({"1", "2", "3", "4", "5", "6"})
+    private int connectionType;
+
+    private GameDataCache gameDataCache;
+    private byte[][] frames;
+    private boolean[] repeats;
+    private int[] keys;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        gameDataCache = switch (cache) {
+            case "server" -> new ServerGameDataCache(CACHE_SIZE);
+            case "client" -> new ClientGameDataCache(CACHE_SIZE);
+            default -> throw new IllegalArgumentException("Unknown cache: " + cache);
+        };
+
+        Random random = new Random(1);
+        int frameSize = NUM_PLAYERS * connectionType * BYTES_PER_ACTION;
+        byte[][] recent = new byte[RECENT_FRAMES][];
+        int distinct = 0;
+
+        frames = new byte[STREAM_LENGTH][];
+        repeats = new boolean[STREAM_LENGTH];
+        keys = new int[STREAM_LENGTH];
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            if (distinct > 0 && random.nextDouble() < hitRatio) {
+                frames[i] = recent[random.nextInt(Math.min(distinct, RECENT_FRAMES))];
+                repeats[i] = true;
+            } else {
+                byte[] frame = new byte[frameSize];
+                random.nextBytes(frame);
+                frames[i] = frame;
+                recent[distinct % RECENT_FRAMES] = frame;
+                distinct++;
+            }
+            keys[i] = random.nextInt(CACHE_SIZE);
+        }
+
+        // Start from a full cache, as a game in progress has
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            byte[] frame = new byte[frameSize];
+            random.nextBytes(frame);
+            gameDataCache.add(frame);
+        }
+    }
+
+    @Benchmark
+    public int send() {
+        byte[] frame = frames[next()];
+        int index = gameDataCache.indexOf(frame);
+        if (index < 0) {
+            index = gameDataCache.add(frame);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public int receive() {
+        int i = next();
+        if (repeats[i]) {
+            return gameDataCache.get(keys[i]).length;
+        }
+        return gameDataCache.add(frames[i]);
+    }
+
+    private int next() {
+        int i = position;
+        position = (i + 1) & (STREAM_LENGTH - 1);
+        return i;
+    }
+}
@@ -0,0 +1,110 @@
+package su.kidoz.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the copy-then-compare action scan the autofire scanner used to do
+ * with the in-place {@link InputComparison}, and the boxed {@link HashMap}
+ * index the server game data cache used to keep with its current index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InputComparisonBenchmark {
+
+    private static final int SCAN_BYTES = 2048;
+    private static final int CACHE_SIZE = 256;
+
+    @Param({"2", "4", "8"})
+    private int actionSize;
+
+    private byte[] scanData;
+    private byte[][] frames;
+    private HashMap<Integer, Integer> legacyIndex;
+    private byte[][] legacyArray;
+    private ServerGameDataCache cache;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+
+        // Mostly repeated input with occasional changes, like a held button
+        scanData = new byte[SCAN_BYTES];
+        byte[] action = new byte[actionSize];
+        for (int offset = 0; offset + actionSize <= SCAN_BYTES; offset += actionSize) {
+            if (random.nextInt(8) == 0) {
+                random.nextBytes(action);
+            }
+            System.arraycopy(action, 0, scanData, offset, actionSize);
+        }
+
+        // Frames of game data for two players, three actions each
+        frames = new byte[CACHE_SIZE][];
+        legacyIndex = new HashMap<>(CACHE_SIZE, .05f);
+        legacyArray = new byte[CACHE_SIZE][];
+        cache = new ServerGameDataCache(CACHE_SIZE);
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            byte[] frame = new byte[actionSize * 6];
+            random.nextBytes(frame);
+            frames[i] = frame;
+            legacyArray[i] = frame;
+            legacyIndex.put(Arrays.hashCode(frame), i);
+            cache.add(frame);
+        }
+    }
+
+    @Benchmark
+    public int scanWithCopies() {
+        byte[] thisAction = new byte[actionSize];
+        byte[] lastAction = new byte[actionSize];
+        int repeats = 0;
+        for (int offset = 0; offset + actionSize <= SCAN_BYTES; offset += actionSize) {
+            System.arraycopy(scanData, offset, thisAction, 0, actionSize);
+            if (Arrays.equals(thisAction, lastAction)) {
+                repeats++;
+            }
+            System.arraycopy(thisAction, 0, lastAction, 0, actionSize);
+        }
+        return repeats;
+    }
+
+    @Benchmark
+    public int scanInPlace() {
+        int repeats = 0;
+        for (int offset = actionSize; offset + actionSize <= SCAN_BYTES; offset += actionSize) {
+            if (InputComparison.equals(scanData, offset, scanData, offset - actionSize,
+                    actionSize)) {
+                repeats++;
+            }
+        }
+        return repeats;
+    }
+
+    @Benchmark
+    public int cacheLookupBoxedIndex() {
+        byte[] frame = frames[probe++ & (CACHE_SIZE - 1)];
+        Integer i = legacyIndex.get(Arrays.hashCode(frame));
+        if (i == null || !Arrays.equals(legacyArray[i], frame)) {
+            return -1;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public int cacheLookup() {
+        return cache.indexOf(frames[probe++ & (CACHE_SIZE - 1)]);
+    }
+}
@@ -85,6 +85,32 @@ public class ControllersConfig {
         @Min(1)
         private int bufferSize = 1024;
 
+        /** Sustained HELLOs per second accepted from one address; 0 disables. */
+        @Min(0)
+        private int helloRatePerAddress = 2;
+
+        @Min(1)
+        private int helloBurstPerAddress = 5;
+
+        /** Sustained HELLOs per second accepted in total; 0 disables. */
+        @Min(0)
+        private int helloRateGlobal = 200;
+
+        @Min(1)
+        private int helloBurstGlobal = 400;
+
+        /** Upper bound on addresses with a live per-address bucket. */
+        @Min(1)
+        private int maxTrackedAddresses = 10000;
+
+        /** Admitted HELLOs waiting for a worker; overflow is answered with TOO. */
+        @Min(1)
+        private int acceptQueueSize = 128;
+
+        @Min(1)
+        @Max(64)
+        private int acceptWorkers = 4;
+
         public int getPort() {
             return port;
         }
@@ -100,6 +126,62 @@ public class ControllersConfig {
         public void setBufferSize(int bufferSize) {
             this.bufferSize = bufferSize;
         }
+
+        public int getHelloRatePerAddress() {
+            return helloRatePerAddress;
+        }
+
+        public void setHelloRatePerAddress(int helloRatePerAddress) {
+            this.helloRatePerAddress = helloRatePerAddress;
+        }
+
+        public int getHelloBurstPerAddress() {
+            return helloBurstPerAddress;
+        }
+
+        public void setHelloBurstPerAddress(int helloBurstPerAddress) {
+            this.helloBurstPerAddress = helloBurstPerAddress;
+        }
+
+        public int getHelloRateGlobal() {
+            return helloRateGlobal;
+        }
+
+        public void setHelloRateGlobal(int helloRateGlobal) {
+            this.helloRateGlobal = helloRateGlobal;
+        }
+
+        public int getHelloBurstGlobal() {
+            return helloBurstGlobal;
+        }
+
+        public void setHelloBurstGlobal(int helloBurstGlobal) {
+            this.helloBurstGlobal = helloBurstGlobal;
+        }
+
+        public int getMaxTrackedAddresses() {
+            return maxTrackedAddresses;
+        }
+
+        public void setMaxTrackedAddresses(int maxTrackedAddresses) {
+            this.maxTrackedAddresses = maxTrackedAddresses;
+        }
+
+        public int getAcceptQueueSize() {
+            return acceptQueueSize;
+        }
+
+        public void setAcceptQueueSize(int acceptQueueSize) {
+            this.acceptQueueSize = acceptQueueSize;
+        }
+
+        public int getAcceptWorkers() {
+            return acceptWorkers;
+        }
+
+        public void setAcceptWorkers(int acceptWorkers) {
+            this.acceptWorkers = acceptWorkers;
+        }
     }
 
     /**
@@ -120,6 +202,9 @@ public class ControllersConfig {
         @NotEmpty
         private List<String> clientTypes = List.of("0.83");
 
+        @Valid
+        private Impairment impairment = new Impairment();
+
         public int getPortRangeStart() {
             return portRangeStart;
         }
@@ -151,5 +236,55 @@ public class ControllersConfig {
         public void setClientTypes(List<String> clientTypes) {
             this.clientTypes = clientTypes;
         }
+
+        public Impairment getImpairment() {
+            return impairment;
+        }
+
+        public void setImpairment(Impairment impairment) {
+            this.impairment = impairment;
+        }
+    }
+
+    /**
+     * Network impairment of client sessions, for testing only.
+     *
+     * <p>
+     * Inbound and outbound are {@link su.kidoz.net.NetworkImpairment}
+     * specifications such as {@code loss=0.02,latency=40,jitter=10}, applied to
+     * the packets each session receives and sends. Both are empty by default.
+     */
+    public static class Impairment {
+
+        private String inbound = "";
+
+        private String outbound = "";
+
+        // Session n uses seed + n
+        private long seed = 1;
+
+        public String getInbound() {
+            return inbound;
+        }
+
+        public void setInbound(String inbound) {
+            this.inbound = inbound;
+        }
+
+        public String getOutbound() {
+            return outbound;
+        }
+
+        public void setOutbound(String outbound) {
+            this.outbound = outbound;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
     }
 }
@@ -2,6 +2,7 @@ package su.kidoz.config;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import su.kidoz.kaillera.access.FileBasedAccessManager;
 import su.kidoz.kaillera.controller.KailleraServerController;
 import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
@@ -11,9 +12,13 @@ import su.kidoz.kaillera.controller.v086.action.V086Action;
 import su.kidoz.kaillera.controller.v086.action.V086GameEventHandler;
 import su.kidoz.kaillera.controller.v086.action.V086ServerEventHandler;
 import su.kidoz.kaillera.controller.v086.action.V086UserEventHandler;
-import su.kidoz.kaillera.master.MasterListStatsCollector;
+import su.kidoz.kaillera.master.StatsCollector;
+import su.kidoz.kaillera.master.WindowedStatsCollector;
 import su.kidoz.kaillera.master.client.MasterListUpdaterImpl;
+import su.kidoz.kaillera.metrics.ConnectMetricsCollector;
+import su.kidoz.kaillera.metrics.EventMetricsCollector;
 import su.kidoz.kaillera.metrics.GameMetricsCollector;
+import su.kidoz.kaillera.metrics.NetworkMetricsCollector;
 import su.kidoz.kaillera.metrics.ServerMetrics;
 import su.kidoz.kaillera.model.impl.AutoFireDetectorFactoryImpl;
 import su.kidoz.kaillera.model.impl.KailleraServerImpl;
@@ -36,6 +41,7 @@ import su.kidoz.kaillera.service.impl.GameServiceImpl;
 import su.kidoz.kaillera.service.impl.ServerAdminServiceImpl;
 import su.kidoz.kaillera.service.impl.UserServiceImpl;
 import su.kidoz.util.EmuLinkerExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
 import org.springframework.boot.http.client.HttpClientSettings;
@@ -75,17 +81,20 @@ public class EmuLinkerConfig {
     @Bean
     public ConnectController connectController(EmuLinkerExecutor executor,
             V086Controller v086Controller, FileBasedAccessManager accessManager,
-            ControllersConfig controllersConfig) throws Exception {
+            ControllersConfig controllersConfig, ConnectMetricsCollector connectMetricsCollector)
+            throws Exception {
         KailleraServerController[] controllers = new KailleraServerController[]{v086Controller};
-        return new ConnectController(executor, controllers, accessManager, controllersConfig);
+        return new ConnectController(executor, controllers, accessManager, controllersConfig,
+                connectMetricsCollector);
     }
 
     @Bean
     public V086Controller v086Controller(KailleraServerImpl kailleraServer,
             EmuLinkerExecutor executor, ControllersConfig controllersConfig,
-            ServerConfig serverConfig, ActionRouter actionRouter) throws Exception {
+            ServerConfig serverConfig, ActionRouter actionRouter,
+            NetworkMetricsCollector networkMetricsCollector) throws Exception {
         return new V086Controller(kailleraServer, executor, controllersConfig, serverConfig,
-                actionRouter);
+                actionRouter, networkMetricsCollector);
     }
 
     @Bean
@@ -129,9 +138,10 @@ public class EmuLinkerConfig {
     }
 
     @Bean
-    public ServerMetrics serverMetrics(MasterListStatsCollector statsCollector,
-            GameMetricsCollector gameMetricsCollector) {
-        return new ServerMetrics(statsCollector, gameMetricsCollector);
+    public ServerMetrics serverMetrics(StatsCollector statsCollector,
+            GameMetricsCollector gameMetricsCollector,
+            EventMetricsCollector eventMetricsCollector) {
+        return new ServerMetrics(statsCollector, gameMetricsCollector, eventMetricsCollector);
     }
 
     @Bean
@@ -150,19 +160,41 @@ public class EmuLinkerConfig {
     }
 
     @Bean
-    public AutoFireDetectorFactoryImpl autoFireDetectorFactoryImpl() {
-        return new AutoFireDetectorFactoryImpl();
+    public TunableSettings tunableSettings(ServerConfig serverConfig, GameConfig gameConfig,
+            EmuLinkerExecutor executor, MeterRegistry meterRegistry,
+            KailleraServerImpl kailleraServer, V086Controller v086Controller) {
+        TunableSettings settings = new TunableSettings(serverConfig, gameConfig, executor,
+                meterRegistry);
+        settings.addValidator(values -> {
+            Integer maxUsers = values.get("server.max-users");
+            if (maxUsers != null)
+                v086Controller.checkMaxUsers(maxUsers);
+        });
+        settings.addListener(names -> kailleraServer.settingsChanged());
+        settings.addListener(names -> {
+            if (names.contains("server.max-users"))
+                v086Controller.maxUsersChanged(serverConfig.getMaxUsers());
+        });
+        return settings;
+    }
+
+    @Bean
+    public AutoFireDetectorFactoryImpl autoFireDetectorFactoryImpl(GameConfig gameConfig,
+            GameMetricsCollector gameMetricsCollector) {
+        return new AutoFireDetectorFactoryImpl(gameMetricsCollector,
+                TimeUnit.MICROSECONDS.toNanos(gameConfig.getAutoFireBudgetMicros()));
     }
 
     @Bean
-    public MasterListStatsCollector masterListStatsCollector() {
-        return new MasterListStatsCollector();
+    public WindowedStatsCollector windowedStatsCollector(ServerConfig serverConfig) {
+        return new WindowedStatsCollector(
+                TimeUnit.MINUTES.toMillis(serverConfig.getStatsWindowMinutes()));
     }
 
     @Bean
     public MasterListUpdaterImpl masterListUpdaterImpl(MasterListConfig masterListConfig,
             EmuLinkerExecutor executor, ConnectController connectController,
-            KailleraServerImpl kailleraServer, MasterListStatsCollector statsCollector,
+            KailleraServerImpl kailleraServer, StatsCollector statsCollector,
             KailleraServerReleaseInfo releaseInfo, RestClient restClient) throws Exception {
         return new MasterListUpdaterImpl(masterListConfig, executor, connectController,
                 kailleraServer, statsCollector, releaseInfo, restClient);
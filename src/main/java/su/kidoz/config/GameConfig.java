@@ -9,24 +9,33 @@ import org.springframework.validation.annotation.Validated;
  * Game configuration properties.
  *
  * <p>
- * Maps to properties with prefix "game." in application.properties.
+ * Maps to properties with prefix "game." in application.properties. The
+ * volatile settings can be changed at runtime through {@link TunableSettings};
+ * games already created keep the values they were created with.
  */
 @ConfigurationProperties(prefix = "game")
 @Validated
 public class GameConfig {
 
     @Min(1)
-    private int bufferSize = 1024;
+    private volatile int bufferSize = 1024;
 
     @Min(1)
-    private int timeoutMillis = 1250;
+    private volatile int timeoutMillis = 1250;
 
     @Min(0)
-    private int desynchTimeouts = 4;
+    private volatile int desynchTimeouts = 4;
 
     @Min(0)
     @Max(5)
-    private int defaultAutoFireSensitivity = 0;
+    private volatile int defaultAutoFireSensitivity = 0;
+
+    /**
+     * CPU time each game may spend scanning for autofire per second, in
+     * microseconds. 0 means no limit.
+     */
+    @Min(0)
+    private int autoFireBudgetMicros = 2000;
 
     // Getters and setters
 
@@ -61,4 +70,12 @@ public class GameConfig {
     public void setDefaultAutoFireSensitivity(int defaultAutoFireSensitivity) {
         this.defaultAutoFireSensitivity = defaultAutoFireSensitivity;
     }
+
+    public int getAutoFireBudgetMicros() {
+        return autoFireBudgetMicros;
+    }
+
+    public void setAutoFireBudgetMicros(int autoFireBudgetMicros) {
+        this.autoFireBudgetMicros = autoFireBudgetMicros;
+    }
 }
@@ -1,5 +1,7 @@
 package su.kidoz.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -27,6 +29,25 @@ public class MasterListConfig {
 
     private String emulinkerMasterUrl = "http://master.emulinker.org/touch.php";
 
+    // Time between touches of each master, varied by up to 10% per touch
+    @Min(1)
+    private int touchIntervalSeconds = 60;
+
+    // Longest time an unchanged report is not sent again
+    @Min(1)
+    private int refreshIntervalSeconds = 120;
+
+    // Longest time a touch may take, connecting included
+    @Min(1)
+    private int touchTimeoutSeconds = 10;
+
+    // Longest time between retries of a failing master
+    @Min(1)
+    private int maxBackoffSeconds = 900;
+
+    @Valid
+    private Server server = new Server();
+
     // Getters and setters
 
     public String getServerName() {
@@ -84,4 +105,84 @@ public class MasterListConfig {
     public void setEmulinkerMasterUrl(String emulinkerMasterUrl) {
         this.emulinkerMasterUrl = emulinkerMasterUrl;
     }
+
+    public int getTouchIntervalSeconds() {
+        return touchIntervalSeconds;
+    }
+
+    public void setTouchIntervalSeconds(int touchIntervalSeconds) {
+        this.touchIntervalSeconds = touchIntervalSeconds;
+    }
+
+    public int getRefreshIntervalSeconds() {
+        return refreshIntervalSeconds;
+    }
+
+    public void setRefreshIntervalSeconds(int refreshIntervalSeconds) {
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    public int getTouchTimeoutSeconds() {
+        return touchTimeoutSeconds;
+    }
+
+    public void setTouchTimeoutSeconds(int touchTimeoutSeconds) {
+        this.touchTimeoutSeconds = touchTimeoutSeconds;
+    }
+
+    public int getMaxBackoffSeconds() {
+        return maxBackoffSeconds;
+    }
+
+    public void setMaxBackoffSeconds(int maxBackoffSeconds) {
+        this.maxBackoffSeconds = maxBackoffSeconds;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public void setServer(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * The built-in master list that other servers can touch instead of the
+     * EmuLinker master.
+     */
+    public static class Server {
+
+        private boolean enabled = false;
+
+        // Time after its last touch that a server is dropped from the list
+        @Min(1)
+        private int expirySeconds = 300;
+
+        @Min(1)
+        private int maxServers = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getExpirySeconds() {
+            return expirySeconds;
+        }
+
+        public void setExpirySeconds(int expirySeconds) {
+            this.expirySeconds = expirySeconds;
+        }
+
+        public int getMaxServers() {
+            return maxServers;
+        }
+
+        public void setMaxServers(int maxServers) {
+            this.maxServers = maxServers;
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package su.kidoz.config;
 
 import java.util.List;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
@@ -11,7 +14,8 @@ import org.springframework.validation.annotation.Validated;
  * Server configuration properties.
  *
  * <p>
- * Maps to properties with prefix "server." in application.properties.
+ * Maps to properties with prefix "server." in application.properties. The
+ * volatile limits can be changed at runtime through {@link TunableSettings}.
  */
 @ConfigurationProperties(prefix = "server")
 @Validated
@@ -19,32 +23,32 @@ public class ServerConfig {
 
     @Min(1)
     @Max(999)
-    private int maxPing = 250;
+    private volatile int maxPing = 250;
 
     @NotEmpty
     private List<Integer> allowedConnectionTypes = List.of(1, 2, 3, 4, 5, 6);
 
     @Min(0)
-    private int maxUsers = 25;
+    private volatile int maxUsers = 25;
 
     @Min(0)
-    private int maxGames = 0;
+    private volatile int maxGames = 0;
 
     private boolean allowSinglePlayer = true;
 
     private boolean allowMultipleConnections = true;
 
     @Min(1)
-    private int keepAliveTimeout = 190;
+    private volatile int keepAliveTimeout = 190;
 
     @Min(1)
-    private int idleTimeout = 900;
+    private volatile int idleTimeout = 900;
 
     @Min(0)
-    private int chatFloodTime = 2;
+    private volatile int chatFloodTime = 2;
 
     @Min(0)
-    private int createGameFloodTime = 2;
+    private volatile int createGameFloodTime = 2;
 
     @Min(1)
     private int maxUserNameLength = 45;
@@ -53,7 +57,7 @@ public class ServerConfig {
     private int maxClientNameLength = 100;
 
     @Min(1)
-    private int maxChatLength = 150;
+    private volatile int maxChatLength = 150;
 
     @Min(1)
     private int maxGameNameLength = 100;
@@ -61,6 +65,20 @@ public class ServerConfig {
     @Min(1)
     private int maxQuitMessageLength = 75;
 
+    // 99th percentile of event queue wait above which a user is a slow consumer
+    @Min(1)
+    private int slowConsumerMillis = 250;
+
+    // Length of the windows of usage statistics
+    @Min(1)
+    private int statsWindowMinutes = 60;
+
+    // Properties file of limits applied at runtime when it changes; empty for none
+    private String tuningFile = "";
+
+    @Valid
+    private Capacity capacity = new Capacity();
+
     // Getters and setters
 
     public int getMaxPing() {
@@ -183,6 +201,38 @@ public class ServerConfig {
         this.maxQuitMessageLength = maxQuitMessageLength;
     }
 
+    public int getSlowConsumerMillis() {
+        return slowConsumerMillis;
+    }
+
+    public void setSlowConsumerMillis(int slowConsumerMillis) {
+        this.slowConsumerMillis = slowConsumerMillis;
+    }
+
+    public int getStatsWindowMinutes() {
+        return statsWindowMinutes;
+    }
+
+    public void setStatsWindowMinutes(int statsWindowMinutes) {
+        this.statsWindowMinutes = statsWindowMinutes;
+    }
+
+    public String getTuningFile() {
+        return tuningFile;
+    }
+
+    public void setTuningFile(String tuningFile) {
+        this.tuningFile = tuningFile;
+    }
+
+    public Capacity getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Capacity capacity) {
+        this.capacity = capacity;
+    }
+
     /**
      * Check if a connection type is allowed.
      *
@@ -193,4 +243,48 @@ public class ServerConfig {
     public boolean isConnectionTypeAllowed(int connectionType) {
         return allowedConnectionTypes.contains(connectionType);
     }
+
+    /**
+     * Thresholds of the capacity readiness check.
+     */
+    public static class Capacity {
+
+        // Headroom below which the server stops being ready for new players
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double notReadyHeadroom = 0.1;
+
+        // Headroom at which a server that was not ready becomes ready again
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double readyHeadroom = 0.2;
+
+        // 99th percentile of frame assembly time that leaves no headroom
+        @Min(1)
+        private int maxFrameAssemblyMillis = 20;
+
+        public double getNotReadyHeadroom() {
+            return notReadyHeadroom;
+        }
+
+        public void setNotReadyHeadroom(double notReadyHeadroom) {
+            this.notReadyHeadroom = notReadyHeadroom;
+        }
+
+        public double getReadyHeadroom() {
+            return readyHeadroom;
+        }
+
+        public void setReadyHeadroom(double readyHeadroom) {
+            this.readyHeadroom = readyHeadroom;
+        }
+
+        public int getMaxFrameAssemblyMillis() {
+            return maxFrameAssemblyMillis;
+        }
+
+        public void setMaxFrameAssemblyMillis(int maxFrameAssemblyMillis) {
+            this.maxFrameAssemblyMillis = maxFrameAssemblyMillis;
+        }
+    }
 }
@@ -0,0 +1,381 @@
+package su.kidoz.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import su.kidoz.util.EmuLinkerExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * The server and game limits that can be changed while the server runs,
+ * through the admin API or a watched properties file.
+ *
+ * <p>
+ * Settings are named after their properties, such as {@code server.max-users},
+ * and are written to the shared {@link ServerConfig} and {@link GameConfig},
+ * whose readers see new values at once. Components that keep a copy of a value
+ * are told through {@link Listener}s, and can veto values they cannot take
+ * through {@link Validator}s. Game settings only apply to games created
+ * afterwards, so running matches are never disturbed.
+ *
+ * <p>
+ * A set of changes is validated as a whole and applied all or nothing. Every
+ * change is logged, kept in a bounded audit trail and exported as metrics:
+ * <ul>
+ * <li>{@code kaillera.config.value} - Gauge of each setting, tagged by
+ * {@code setting}</li>
+ * <li>{@code kaillera.config.changes} - Counter of changed settings, tagged by
+ * {@code setting} and {@code source}</li>
+ * <li>{@code kaillera.config.rejected} - Counter of rejected sets of changes,
+ * tagged by {@code source}</li>
+ * </ul>
+ *
+ * <p>
+ * If {@code server.tuning-file} is set, the file is checked every few seconds
+ * and applied whenever it is modified. Changes made through the admin API stay
+ * in effect until the file is next modified.
+ */
+public final class TunableSettings implements Runnable, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TunableSettings.class);
+
+    public static final String SOURCE_ADMIN = "admin";
+    public static final String SOURCE_FILE = "file";
+
+    static final int MAX_AUDIT_ENTRIES = 100;
+    private static final int FILE_CHECK_INTERVAL_MS = 5_000;
+    private static final String METRIC_PREFIX = "kaillera.config";
+
+    // User IDs are 16 bits
+    private static final int MAX_USERS = 0xFFFF;
+    private static final int MAX_GAME_BUFFER_SIZE = 65536;
+
+    /**
+     * Listener told after settings have changed.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called after settings have changed. Implementations should return
+         * quickly; the notification is delivered on an admin or file watch
+         * thread.
+         *
+         * @param names
+         *            the names of the settings that changed
+         */
+        void settingsChanged(Set<String> names);
+    }
+
+    /**
+     * Check run before settings change, for limits that depend on more than
+     * the setting's own range.
+     */
+    @FunctionalInterface
+    public interface Validator {
+        /**
+         * Checks the new values, which are already within their ranges.
+         *
+         * @param values
+         *            the new values by setting name
+         * @throws IllegalArgumentException
+         *             to reject all the changes
+         */
+        void validate(Map<String, Integer> values);
+    }
+
+    /**
+     * The current value of a setting and its allowed range.
+     *
+     * @param newGamesOnly
+     *            whether the setting only applies to games created after it
+     *            changes
+     */
+    public record Value(String name, int value, int min, int max, boolean newGamesOnly) {
+    }
+
+    /**
+     * An entry of the audit trail.
+     *
+     * @param source
+     *            {@link #SOURCE_ADMIN} or {@link #SOURCE_FILE}
+     * @param actor
+     *            the admin user or the file that made the change
+     */
+    public record Change(long timeMillis, String source, String actor, String name, int oldValue,
+            int newValue) {
+    }
+
+    private record Setting(String name, int min, int max, boolean newGamesOnly, IntSupplier getter,
+            IntConsumer setter) {
+    }
+
+    private final Map<String, Setting> settings = new LinkedHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Validator> validators = new CopyOnWriteArrayList<>();
+    private final EmuLinkerExecutor threadPool;
+    private final MeterRegistry meterRegistry;
+    private final File tuningFile;
+
+    // Guarded by this
+    private final Deque<Change> audit = new ArrayDeque<>();
+    private long lastLoadModifiedTime = -1;
+
+    private volatile boolean isRunning = false;
+    private volatile boolean stopFlag = false;
+
+    public TunableSettings(ServerConfig serverConfig, GameConfig gameConfig,
+            EmuLinkerExecutor threadPool, MeterRegistry meterRegistry) {
+        this.threadPool = threadPool;
+        this.meterRegistry = meterRegistry;
+        String path = serverConfig.getTuningFile();
+        this.tuningFile = path == null || path.isBlank() ? null : new File(path);
+
+        add("server.max-users", 0, MAX_USERS, false, serverConfig::getMaxUsers,
+                serverConfig::setMaxUsers);
+        add("server.max-games", 0, Integer.MAX_VALUE, false, serverConfig::getMaxGames,
+                serverConfig::setMaxGames);
+        add("server.max-ping", 1, 999, false, serverConfig::getMaxPing,
+                serverConfig::setMaxPing);
+        add("server.keep-alive-timeout", 1, Integer.MAX_VALUE, false,
+                serverConfig::getKeepAliveTimeout, serverConfig::setKeepAliveTimeout);
+        add("server.idle-timeout", 1, Integer.MAX_VALUE, false, serverConfig::getIdleTimeout,
+                serverConfig::setIdleTimeout);
+        add("server.chat-flood-time", 0, Integer.MAX_VALUE, false,
+                serverConfig::getChatFloodTime, serverConfig::setChatFloodTime);
+        add("server.create-game-flood-time", 0, Integer.MAX_VALUE, false,
+                serverConfig::getCreateGameFloodTime, serverConfig::setCreateGameFloodTime);
+        add("server.max-chat-length", 1, Integer.MAX_VALUE, false,
+                serverConfig::getMaxChatLength, serverConfig::setMaxChatLength);
+        add("game.buffer-size", 1, MAX_GAME_BUFFER_SIZE, true, gameConfig::getBufferSize,
+                gameConfig::setBufferSize);
+        add("game.timeout-millis", 1, Integer.MAX_VALUE, true, gameConfig::getTimeoutMillis,
+                gameConfig::setTimeoutMillis);
+        add("game.desynch-timeouts", 0, Integer.MAX_VALUE, true,
+                gameConfig::getDesynchTimeouts, gameConfig::setDesynchTimeouts);
+        add("game.default-auto-fire-sensitivity", 0, 5, true,
+                gameConfig::getDefaultAutoFireSensitivity,
+                gameConfig::setDefaultAutoFireSensitivity);
+    }
+
+    private void add(String name, int min, int max, boolean newGamesOnly, IntSupplier getter,
+            IntConsumer setter) {
+        settings.put(name, new Setting(name, min, max, newGamesOnly, getter, setter));
+        Gauge.builder(METRIC_PREFIX + ".value", getter, IntSupplier::getAsInt)
+                .description("Current value of a runtime-tunable setting").tag("setting", name)
+                .register(meterRegistry);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void addValidator(Validator validator) {
+        validators.add(validator);
+    }
+
+    /**
+     * Returns the tunable settings and their current values.
+     */
+    public List<Value> getValues() {
+        List<Value> values = new ArrayList<>(settings.size());
+        for (Setting setting : settings.values()) {
+            values.add(new Value(setting.name(), setting.getter().getAsInt(), setting.min(),
+                    setting.max(), setting.newGamesOnly()));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the latest changes, oldest first.
+     */
+    public synchronized List<Change> getAudit() {
+        return List.copyOf(audit);
+    }
+
+    /**
+     * Changes settings, all or none of them.
+     *
+     * @param values
+     *            the new values by setting name
+     * @param source
+     *            {@link #SOURCE_ADMIN} or {@link #SOURCE_FILE}
+     * @param actor
+     *            the admin user or the file making the change
+     * @return the settings changed; values equal to the current ones are not
+     * @throws IllegalArgumentException
+     *             if a setting is unknown, a value out of range, or a
+     *             {@link Validator} rejects the values
+     */
+    public synchronized List<Change> apply(Map<String, Integer> values, String source,
+            String actor) {
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+            Setting setting = settings.get(entry.getKey());
+            if (setting == null)
+                throw rejected(source, "Unknown setting: " + entry.getKey());
+            Integer value = entry.getValue();
+            if (value == null || value < setting.min() || value > setting.max()) {
+                throw rejected(source, setting.name() + " must be from " + setting.min() + " to "
+                        + setting.max() + ", got " + value);
+            }
+        }
+        for (Validator validator : validators) {
+            try {
+                validator.validate(values);
+            } catch (IllegalArgumentException e) {
+                throw rejected(source, e.getMessage());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        List<Change> changes = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+            Setting setting = settings.get(entry.getKey());
+            int oldValue = setting.getter().getAsInt();
+            int newValue = entry.getValue();
+            if (oldValue == newValue)
+                continue;
+
+            setting.setter().accept(newValue);
+            Change change = new Change(now, source, actor, setting.name(), oldValue, newValue);
+            changes.add(change);
+            names.add(setting.name());
+            audit.addLast(change);
+            if (audit.size() > MAX_AUDIT_ENTRIES)
+                audit.removeFirst();
+
+            log.warn("{} changed from {} to {} by {} {}", setting.name(), oldValue, newValue,
+                    source, actor);
+            Counter.builder(METRIC_PREFIX + ".changes")
+                    .description("Total number of changes of runtime-tunable settings")
+                    .tag("setting", setting.name()).tag("source", source)
+                    .register(meterRegistry).increment();
+        }
+
+        if (!names.isEmpty())
+            fireSettingsChanged(names);
+        return changes;
+    }
+
+    private IllegalArgumentException rejected(String source, String message) {
+        Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Total number of rejected changes of runtime-tunable settings")
+                .tag("source", source).register(meterRegistry).increment();
+        return new IllegalArgumentException(message);
+    }
+
+    private void fireSettingsChanged(Set<String> names) {
+        for (Listener listener : listeners) {
+            try {
+                listener.settingsChanged(names);
+            } catch (Exception e) {
+                log.error("Settings listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Applies the tuning file if it was modified since it was last read.
+     */
+    synchronized void checkFile() {
+        if (tuningFile == null || !tuningFile.exists()
+                || tuningFile.lastModified() == lastLoadModifiedTime) {
+            return;
+        }
+
+        lastLoadModifiedTime = tuningFile.lastModified();
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(tuningFile.toPath())) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.error("Failed to read tuning file {}: {}", tuningFile, e.getMessage());
+            return;
+        }
+
+        try {
+            Map<String, Integer> values = new LinkedHashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                String value = properties.getProperty(name).trim();
+                try {
+                    values.put(name, Integer.valueOf(value));
+                } catch (NumberFormatException e) {
+                    throw rejected(SOURCE_FILE, name + " is not a number: " + value);
+                }
+            }
+            List<Change> changes = apply(values, SOURCE_FILE, tuningFile.getPath());
+            log.info("Applied tuning file {} ({} changes)", tuningFile, changes.size());
+        } catch (IllegalArgumentException e) {
+            log.error("Ignoring tuning file {}: {}", tuningFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning || tuningFile == null)
+            return;
+
+        log.info("Watching tuning file {}", tuningFile.getAbsolutePath());
+        // Apply the file before the server starts accepting users
+        checkFile();
+        stopFlag = false;
+        isRunning = true;
+        threadPool.execute(this);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    @Override
+    public synchronized void stop() {
+        stopFlag = true;
+        isRunning = false;
+    }
+
+    @Override
+    public int getPhase() {
+        // Phase 0: the tuned limits must be in place before the server starts
+        return 0;
+    }
+
+    @Override
+    public void run() {
+        log.debug("TunableSettings thread running...");
+
+        try {
+            while (!stopFlag) {
+                try {
+                    Thread.sleep(FILE_CHECK_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    log.debug("Sleep interrupted", e);
+                }
+
+                if (!stopFlag)
+                    checkFile();
+            }
+        } catch (Throwable e) {
+            if (!stopFlag)
+                log.error("TunableSettings thread caught unexpected exception: " + e, e);
+        } finally {
+            log.debug("TunableSettings thread exiting...");
+        }
+    }
+}
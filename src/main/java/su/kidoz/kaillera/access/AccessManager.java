@@ -116,4 +116,13 @@ public interface AccessManager {
     void addSilenced(String pattern, int minutes);
 
     boolean clearTemp(InetAddress address);
+
+    /**
+     * Registers a listener that is notified whenever access rules change (rule
+     * reload, temporary rules added, cleared or expired).
+     *
+     * @param listener
+     *            the listener to register
+     */
+    void addAccessRulesListener(AccessRulesListener listener);
 }
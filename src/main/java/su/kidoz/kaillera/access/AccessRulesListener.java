@@ -0,0 +1,17 @@
+package su.kidoz.kaillera.access;
+
+/**
+ * Listener notified by an {@link AccessManager} whenever its rules change, for
+ * example after a configuration reload or when a temporary ban or admin grant
+ * is added, cleared or expires. Listeners use this to re-evaluate users that
+ * are already connected instead of polling the access manager.
+ */
+@FunctionalInterface
+public interface AccessRulesListener {
+    /**
+     * Called after the access rules have changed. Implementations should return
+     * quickly; the notification may be delivered on an admin or maintenance
+     * thread.
+     */
+    void accessRulesChanged();
+}
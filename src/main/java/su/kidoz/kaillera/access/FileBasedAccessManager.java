@@ -6,7 +6,9 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import su.kidoz.util.EmuLinkerExecutor;
 import org.slf4j.Logger;
@@ -29,6 +31,11 @@ import su.kidoz.kaillera.access.store.TemporaryRuleStore;
  * <li>Refreshes DNS resolutions
  * <li>Checks for config file changes (hot-reload)
  * </ul>
+ *
+ * <p>
+ * Registered {@link AccessRulesListener}s are notified after every reload,
+ * whenever temporary rules are added, cleared or purged, and whenever a DNS
+ * refresh changes the address a rule resolves to.
  */
 public class FileBasedAccessManager implements AccessManager, Runnable, SmartLifecycle {
 
@@ -40,6 +47,7 @@ public class FileBasedAccessManager implements AccessManager, Runnable, SmartLif
     private final AccessConfigParser parser;
     private final AccessRuleStore ruleStore;
     private final TemporaryRuleStore tempStore;
+    private final List<AccessRulesListener> listeners = new CopyOnWriteArrayList<>();
 
     private volatile boolean isRunning = false;
     private volatile boolean stopFlag = false;
@@ -157,11 +165,17 @@ public class FileBasedAccessManager implements AccessManager, Runnable, SmartLif
                     break;
                 }
 
+                boolean changed;
                 synchronized (this) {
-                    tempStore.purgeExpired();
-                    ruleStore.refreshDns();
+                    changed = tempStore.purgeExpired();
+                    if (ruleStore.refreshDns()) {
+                        changed = true;
+                    }
                     checkReload();
                 }
+                if (changed) {
+                    fireAccessRulesChanged();
+                }
             }
         } catch (Throwable e) {
             if (!stopFlag) {
@@ -191,19 +205,37 @@ public class FileBasedAccessManager implements AccessManager, Runnable, SmartLif
             ParseResult result = parser.parse(accessFile);
             ruleStore.update(result);
             log.info("Loaded {} rules ({} errors)", result.totalRules(), result.errorCount());
+            fireAccessRulesChanged();
         } catch (IOException e) {
             log.error("Failed to load access file: {}", e.getMessage(), e);
         }
     }
 
+    @Override
+    public void addAccessRulesListener(AccessRulesListener listener) {
+        listeners.add(listener);
+    }
+
+    private void fireAccessRulesChanged() {
+        for (AccessRulesListener listener : listeners) {
+            try {
+                listener.accessRulesChanged();
+            } catch (Exception e) {
+                log.error("Access rules listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
     @Override
     public void addTempBan(String addressPattern, int minutes) {
         tempStore.addBan(addressPattern, minutes);
+        fireAccessRulesChanged();
     }
 
     @Override
     public void addTempAdmin(String addressPattern, int minutes) {
         tempStore.addAdmin(addressPattern, minutes);
+        fireAccessRulesChanged();
     }
 
     @Override
@@ -230,8 +262,15 @@ public class FileBasedAccessManager implements AccessManager, Runnable, SmartLif
     }
 
     @Override
-    public synchronized boolean clearTemp(InetAddress address) {
-        return tempStore.clearForAddress(address.getHostAddress());
+    public boolean clearTemp(InetAddress address) {
+        boolean cleared;
+        synchronized (this) {
+            cleared = tempStore.clearForAddress(address.getHostAddress());
+        }
+        if (cleared) {
+            fireAccessRulesChanged();
+        }
+        return cleared;
     }
 
     @Override
@@ -77,8 +77,10 @@ public class DnsResolvingPattern implements PatternMatcher {
     /**
      * Refreshes all DNS hostname resolutions. Should be called periodically to
      * handle dynamic DNS changes.
+     *
+     * @return true if any resolved address changed
      */
-    public void refreshDns() {
+    public boolean refreshDns() {
         List<String> newAddresses = new ArrayList<>();
         for (String hostName : hostNames) {
             try {
@@ -88,8 +90,10 @@ public class DnsResolvingPattern implements PatternMatcher {
                 log.debug("Failed to resolve DNS entry to an address: {}", hostName, e);
             }
         }
+        boolean changed = !newAddresses.equals(resolvedAddresses);
         // Atomic replacement for thread safety
         this.resolvedAddresses = newAddresses;
+        return changed;
     }
 
     @Override
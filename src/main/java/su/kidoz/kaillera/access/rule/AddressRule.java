@@ -110,9 +110,11 @@ public final class AddressRule {
 
     /**
      * Refreshes DNS resolutions for this rule. Should be called periodically.
+     *
+     * @return true if any resolved address changed
      */
-    public void refreshDns() {
-        pattern.refreshDns();
+    public boolean refreshDns() {
+        return pattern.refreshDns();
     }
 
     /**
@@ -52,18 +52,22 @@ public class AccessRuleStore {
 
     /**
      * Refreshes DNS resolutions for all rules that have DNS entries.
+     *
+     * @return true if any resolved address changed
      */
-    public void refreshDns() {
+    public boolean refreshDns() {
+        boolean changed = false;
         for (AddressRule rule : userRules) {
-            if (rule.hasDnsEntries()) {
-                rule.refreshDns();
+            if (rule.hasDnsEntries() && rule.refreshDns()) {
+                changed = true;
             }
         }
         for (AddressRule rule : addressRules) {
-            if (rule.hasDnsEntries()) {
-                rule.refreshDns();
+            if (rule.hasDnsEntries() && rule.refreshDns()) {
+                changed = true;
             }
         }
+        return changed;
     }
 
     /**
@@ -54,11 +54,14 @@ public class TemporaryRuleStore {
 
     /**
      * Removes all expired temporary rules.
+     *
+     * @return true if any rules were removed
      */
-    public void purgeExpired() {
-        bans.removeIf(TemporaryBan::isExpired);
-        admins.removeIf(TemporaryAdmin::isExpired);
-        silences.removeIf(TemporarySilence::isExpired);
+    public boolean purgeExpired() {
+        boolean removedBans = bans.removeIf(TemporaryBan::isExpired);
+        boolean removedAdmins = admins.removeIf(TemporaryAdmin::isExpired);
+        boolean removedSilences = silences.removeIf(TemporarySilence::isExpired);
+        return removedBans || removedAdmins || removedSilences;
     }
 
     /**
@@ -0,0 +1,265 @@
+package su.kidoz.kaillera.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import su.kidoz.kaillera.admin.dto.PacketCaptureDTO;
+import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
+import su.kidoz.kaillera.controller.v086.V086ClientHandler;
+import su.kidoz.kaillera.model.KailleraGame;
+import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.service.GameService;
+import su.kidoz.kaillera.service.UserService;
+import su.kidoz.net.PacketCapture;
+import su.kidoz.net.PcapWriter;
+
+/**
+ * Arms packet captures on user sessions and exports them as pcap files.
+ *
+ * <p>
+ * A capture keeps the last packets of a session in a fixed off-heap ring, so
+ * it can stay armed on a suspect player until a desynch happens. Arming a game
+ * arms its current players. A capture ends with its session. Each capture may
+ * take up to {@link PacketCapture#MAX_RING_BYTES} of direct memory, and all
+ * armed captures up to {@link PacketCapture#MAX_TOTAL_BYTES}.
+ */
+@RestController
+@RequestMapping({"/api/admin", "/api/v1/admin"})
+@SecurityRequirement(name = "basicAuth")
+@Tag(name = "Admin", description = "Server administration operations")
+public class AdminCaptureController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminCaptureController.class);
+
+    static final int MIN_PACKETS = 16;
+    static final int MAX_PACKETS = 65536;
+    static final int MIN_SNAP_LENGTH = 64;
+    // Largest UDP payload over IPv4
+    static final int MAX_SNAP_LENGTH = 65507;
+
+    private static final MediaType PCAP = MediaType.parseMediaType("application/vnd.tcpdump.pcap");
+
+    private final UserService userService;
+    private final GameService gameService;
+    private final ConnectController connectController;
+
+    public AdminCaptureController(UserService userService, GameService gameService,
+            ConnectController connectController) {
+        this.userService = userService;
+        this.gameService = gameService;
+        this.connectController = connectController;
+    }
+
+    @Operation(summary = "List packet captures", description = "Returns the user sessions with an armed packet capture.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Captures retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = PacketCaptureDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
+    @GetMapping("/captures")
+    public List<PacketCaptureDTO> getCaptures() {
+        List<PacketCaptureDTO> captures = new ArrayList<>();
+        for (KailleraUser user : userService.getAllUsers()) {
+            ClientHandlers.find(connectController, user.getID())
+                    .filter(handler -> handler.getCapture() != null)
+                    .ifPresent(handler -> captures.add(toDTO(user, handler.getCapture())));
+        }
+        return captures;
+    }
+
+    @Operation(summary = "Arm a packet capture on a user", description = "Starts keeping the user's last packets, "
+            + "replacing any capture already armed on the session.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Capture armed", content = @Content(schema = @Schema(implementation = PacketCaptureDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid packets or snapLength, or a capture over 64 MiB", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User or session not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Armed captures already take all the memory allowed", content = @Content)})
+    @PostMapping("/captures/users/{userId}")
+    public ResponseEntity<PacketCaptureDTO> armUser(
+            @Parameter(description = "User ID", example = "1") @PathVariable int userId,
+            @Parameter(description = "Number of packets kept, from 16 to 65536", example = "4096") @RequestParam(defaultValue = "4096") int packets,
+            @Parameter(description = "Most bytes kept of each packet, from 64 to 65507", example = "1024") @RequestParam(defaultValue = "1024") int snapLength) {
+        if (!isValid(packets, snapLength))
+            return ResponseEntity.badRequest().build();
+
+        Optional<KailleraUser> user = userService.findUser(userId);
+        Optional<V086ClientHandler> handler = ClientHandlers.find(connectController, userId);
+        if (user.isEmpty() || handler.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        try {
+            return ResponseEntity.ok(arm(user.get(), handler.get(), packets, snapLength));
+        } catch (IllegalStateException e) {
+            log.warn("Admin packet capture of user {} refused: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "Arm packet captures on a game", description = "Starts keeping the last packets of each "
+            + "current player of the game. Players joining later are not captured.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Captures armed", content = @Content(array = @ArraySchema(schema = @Schema(implementation = PacketCaptureDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid packets or snapLength, or a capture over 64 MiB", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Game not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Armed captures would take more memory than allowed; none armed", content = @Content)})
+    @PostMapping("/captures/games/{gameId}")
+    public ResponseEntity<List<PacketCaptureDTO>> armGame(
+            @Parameter(description = "Game ID", example = "1") @PathVariable int gameId,
+            @Parameter(description = "Number of packets kept per player, from 16 to 65536", example = "4096") @RequestParam(defaultValue = "4096") int packets,
+            @Parameter(description = "Most bytes kept of each packet, from 64 to 65507", example = "1024") @RequestParam(defaultValue = "1024") int snapLength) {
+        if (!isValid(packets, snapLength))
+            return ResponseEntity.badRequest().build();
+
+        Optional<KailleraGame> game = gameService.findGame(gameId);
+        if (game.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        List<PacketCaptureDTO> captures = new ArrayList<>();
+        List<V086ClientHandler> armed = new ArrayList<>();
+        try {
+            for (KailleraUser player : game.get().getPlayers()) {
+                Optional<V086ClientHandler> handler = ClientHandlers.find(connectController,
+                        player.getID());
+                if (handler.isPresent()) {
+                    captures.add(arm(player, handler.get(), packets, snapLength));
+                    armed.add(handler.get());
+                }
+            }
+        } catch (IllegalStateException e) {
+            // All or none, so the budget is not left held by part of the game
+            for (V086ClientHandler handler : armed)
+                handler.setCapture(null);
+            log.warn("Admin packet capture of game {} refused: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(captures);
+    }
+
+    @Operation(summary = "Disarm a user's packet capture", description = "Stops capturing and discards the user's captured packets.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Capture disarmed", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No capture armed on the user", content = @Content)})
+    @DeleteMapping("/captures/users/{userId}")
+    public ResponseEntity<Void> disarmUser(
+            @Parameter(description = "User ID", example = "1") @PathVariable int userId) {
+        Optional<V086ClientHandler> handler = ClientHandlers.find(connectController, userId)
+                .filter(session -> session.getCapture() != null);
+        if (handler.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        handler.get().setCapture(null);
+        log.info("Admin disarmed packet capture of user {}", userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Download a user's packet capture", description = "Returns the user's captured packets as a pcap file.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Capture exported", content = @Content(mediaType = "application/vnd.tcpdump.pcap")),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No capture armed on the user", content = @Content)})
+    @GetMapping("/captures/users/{userId}/pcap")
+    public ResponseEntity<byte[]> exportUser(
+            @Parameter(description = "User ID", example = "1") @PathVariable int userId) {
+        List<PcapWriter.Source> sources = new ArrayList<>();
+        ClientHandlers.find(connectController, userId).map(AdminCaptureController::toSource)
+                .ifPresent(sources::add);
+        return export(sources, "user-" + userId + ".pcap");
+    }
+
+    @Operation(summary = "Download a game's packet captures", description = "Returns the captured packets of the "
+            + "game's current players as one pcap file, in time order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Captures exported", content = @Content(mediaType = "application/vnd.tcpdump.pcap")),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Game not found or no capture armed on its players", content = @Content)})
+    @GetMapping("/captures/games/{gameId}/pcap")
+    public ResponseEntity<byte[]> exportGame(
+            @Parameter(description = "Game ID", example = "1") @PathVariable int gameId) {
+        Optional<KailleraGame> game = gameService.findGame(gameId);
+        if (game.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        List<PcapWriter.Source> sources = new ArrayList<>();
+        for (KailleraUser player : game.get().getPlayers()) {
+            ClientHandlers.find(connectController, player.getID())
+                    .map(AdminCaptureController::toSource).ifPresent(sources::add);
+        }
+        return export(sources, "game-" + gameId + ".pcap");
+    }
+
+    private static boolean isValid(int packets, int snapLength) {
+        return packets >= MIN_PACKETS && packets <= MAX_PACKETS && snapLength >= MIN_SNAP_LENGTH
+                && snapLength <= MAX_SNAP_LENGTH
+                && PacketCapture.ringBytes(packets, snapLength) <= PacketCapture.MAX_RING_BYTES;
+    }
+
+    private static PacketCaptureDTO arm(KailleraUser user, V086ClientHandler handler, int packets,
+            int snapLength) {
+        PacketCapture capture = new PacketCapture(packets, snapLength);
+        handler.setCapture(capture);
+        log.info("Admin armed packet capture of user {} (ID: {}): {}", user.getName(),
+                user.getID(), capture);
+        return toDTO(user, capture);
+    }
+
+    private static PacketCaptureDTO toDTO(KailleraUser user, PacketCapture capture) {
+        return new PacketCaptureDTO(user.getID(), user.getName(), capture.getCapacity(),
+                capture.getSnapLength(), capture.getPacketCount());
+    }
+
+    // Null if the session has no capture armed
+    private static PcapWriter.Source toSource(V086ClientHandler handler) {
+        PacketCapture capture = handler.getCapture();
+        if (capture == null)
+            return null;
+        return new PcapWriter.Source(capture,
+                new InetSocketAddress(handler.getBindAddress(), handler.getBindPort()),
+                handler.getRemoteSocketAddress());
+    }
+
+    private static ResponseEntity<byte[]> export(List<PcapWriter.Source> sources,
+            String fileName) {
+        if (sources.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        ByteArrayOutputStream pcap = new ByteArrayOutputStream();
+        try {
+            PcapWriter.write(pcap, sources);
+        } catch (IOException e) {
+            // Not thrown by a ByteArrayOutputStream
+            throw new UncheckedIOException(e);
+        }
+        return ResponseEntity.ok().contentType(PCAP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(pcap.toByteArray());
+    }
+}
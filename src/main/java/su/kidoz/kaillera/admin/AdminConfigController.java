@@ -0,0 +1,86 @@
+package su.kidoz.kaillera.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import su.kidoz.config.TunableSettings;
+import su.kidoz.kaillera.admin.dto.ActionResultDTO;
+import su.kidoz.kaillera.admin.dto.ConfigChangeDTO;
+import su.kidoz.kaillera.admin.dto.ConfigSettingDTO;
+
+/**
+ * Changes server and game limits while the server runs, without dropping
+ * matches in progress. Game limits apply to games created afterwards.
+ */
+@RestController
+@RequestMapping({"/api/admin", "/api/v1/admin"})
+@SecurityRequirement(name = "basicAuth")
+@Tag(name = "Admin", description = "Server administration operations")
+public class AdminConfigController {
+
+    private final TunableSettings tunableSettings;
+
+    public AdminConfigController(TunableSettings tunableSettings) {
+        this.tunableSettings = tunableSettings;
+    }
+
+    @Operation(summary = "List tunable settings", description = "Returns the settings that can be changed while the "
+            + "server runs, with their current values and allowed ranges.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settings retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ConfigSettingDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
+    @GetMapping("/config")
+    public List<ConfigSettingDTO> getSettings() {
+        return tunableSettings.getValues().stream().map(ConfigSettingDTO::of).toList();
+    }
+
+    @Operation(summary = "Change tunable settings", description = "Changes settings by name, all or none of them. "
+            + "Settings not given are left as they are.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settings changed", content = @Content(schema = @Schema(implementation = ActionResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown setting or value out of range", content = @Content(schema = @Schema(implementation = ActionResultDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
+    @PatchMapping("/config")
+    public ResponseEntity<ActionResultDTO> changeSettings(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "New values by setting name", content = @Content(schema = @Schema(example = "{\"server.max-users\": 40}"))) @RequestBody Map<String, Integer> values,
+            Principal principal) {
+        String actor = principal != null ? principal.getName() : "unknown";
+        try {
+            List<TunableSettings.Change> changes = tunableSettings.apply(values,
+                    TunableSettings.SOURCE_ADMIN, actor);
+            if (changes.isEmpty())
+                return ResponseEntity.ok(ActionResultDTO.ok("No settings changed"));
+            return ResponseEntity.ok(ActionResultDTO.ok("Changed " + changes.stream()
+                    .map(change -> change.name() + " from " + change.oldValue() + " to "
+                            + change.newValue())
+                    .collect(Collectors.joining(", "))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ActionResultDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Get the settings audit trail", description = "Returns the latest changes of tunable "
+            + "settings, from the admin API or the tuning file, oldest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Audit trail retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ConfigChangeDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
+    @GetMapping("/config/audit")
+    public List<ConfigChangeDTO> getAudit() {
+        return tunableSettings.getAudit().stream().map(ConfigChangeDTO::of).toList();
+    }
+}
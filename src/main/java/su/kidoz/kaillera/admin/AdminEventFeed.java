@@ -0,0 +1,170 @@
+package su.kidoz.kaillera.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import su.kidoz.kaillera.admin.dto.AdminEventDTO;
+import su.kidoz.kaillera.model.KailleraGame;
+import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.event.GameClosedEvent;
+import su.kidoz.kaillera.model.event.GameCreatedEvent;
+import su.kidoz.kaillera.model.event.GameDesynchEvent;
+import su.kidoz.kaillera.model.event.GameStartedEvent;
+import su.kidoz.kaillera.model.event.GameTimeoutEvent;
+import su.kidoz.kaillera.model.event.KailleraEvent;
+import su.kidoz.kaillera.model.event.PlayerDesynchEvent;
+import su.kidoz.kaillera.model.event.UserBannedEvent;
+import su.kidoz.kaillera.model.event.UserJoinedEvent;
+import su.kidoz.kaillera.model.event.UserQuitEvent;
+import su.kidoz.kaillera.model.impl.KailleraServerImpl;
+
+/**
+ * Turns server and game events into deltas for admin dashboards, so they do
+ * not have to poll the full user and game lists.
+ *
+ * <p>
+ * The feed taps the server's events on the threads that raise them, so it
+ * never blocks: each subscriber has a bounded queue, and deltas that do not
+ * fit are dropped and counted. The subscriber then receives a
+ * {@code feed.dropped} delta instead of the deltas still queued, which are
+ * discarded as well, and should reload the lists to resynchronize.
+ */
+@Component
+public class AdminEventFeed {
+
+    private final int queueSize;
+    private final int maxSubscribers;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public AdminEventFeed(KailleraServerImpl server,
+            @Value("${admin.events.queue-size:1024}") int queueSize,
+            @Value("${admin.events.max-subscribers:8}") int maxSubscribers) {
+        this.queueSize = queueSize;
+        this.maxSubscribers = maxSubscribers;
+        server.setEventTap(this::publish);
+    }
+
+    /**
+     * Subscribes to the feed.
+     *
+     * @return the subscription, or empty if there are already
+     *         {@code admin.events.max-subscribers} subscribers
+     */
+    public synchronized Optional<Subscription> subscribe() {
+        if (subscriptions.size() >= maxSubscribers)
+            return Optional.empty();
+
+        Subscription subscription = new Subscription(queueSize);
+        subscriptions.add(subscription);
+        return Optional.of(subscription);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Queues the delta for an event to every subscriber. Events without a
+     * delta, such as chat, are ignored.
+     */
+    public void publish(KailleraEvent event) {
+        if (subscriptions.isEmpty())
+            return;
+
+        AdminEventDTO delta = toDelta(event);
+        if (delta == null)
+            return;
+
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(delta);
+        }
+    }
+
+    private AdminEventDTO toDelta(KailleraEvent event) {
+        return switch (event) {
+            case UserJoinedEvent e -> userDelta("user.joined", e.getUser(), null);
+            case UserQuitEvent e -> userDelta("user.quit", e.getUser(), e.getMessage());
+            case UserBannedEvent e -> userDelta("user.banned", e.getUser(),
+                    Integer.toString(e.getMinutes()));
+            case GameCreatedEvent e -> gameDelta("game.created", e.getGame(), null, null);
+            case GameStartedEvent e -> gameDelta("game.started", e.getGame(), null, null);
+            case GameClosedEvent e -> gameDelta("game.closed", e.getGame(), null, null);
+            case GameDesynchEvent e -> gameDelta("game.desynch", e.getGame(), null,
+                    e.getMessage());
+            case PlayerDesynchEvent e -> gameDelta("game.desynch", e.getGame(), e.getUser(),
+                    e.getMessage());
+            case GameTimeoutEvent e -> gameDelta("game.timeout", e.getGame(), e.getUser(),
+                    Integer.toString(e.getTimeoutNumber()));
+            default -> null;
+        };
+    }
+
+    private AdminEventDTO userDelta(String type, KailleraUser user, String detail) {
+        return new AdminEventDTO(sequence.incrementAndGet(), type, System.currentTimeMillis(),
+                user.getID(), user.getName(), null, null, detail);
+    }
+
+    private AdminEventDTO gameDelta(String type, KailleraGame game, KailleraUser user,
+            String detail) {
+        return new AdminEventDTO(sequence.incrementAndGet(), type, System.currentTimeMillis(),
+                user != null ? user.getID() : null, user != null ? user.getName() : null,
+                game.getID(), game.getRomName(), detail);
+    }
+
+    /**
+     * One subscriber's queue of deltas. Closing it unsubscribes.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final BlockingQueue<AdminEventDTO> queue;
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean closed;
+
+        private Subscription(int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        private void offer(AdminEventDTO delta) {
+            if (!queue.offer(delta))
+                dropped.incrementAndGet();
+        }
+
+        /**
+         * Waits for the next delta. If deltas were dropped since the last one,
+         * discards the queued deltas too, as they predate the reload the
+         * subscriber must make, and returns a {@code feed.dropped} delta with
+         * the number of deltas lost.
+         *
+         * @return the next delta, or null if none arrived in time
+         */
+        public AdminEventDTO poll(long timeout, TimeUnit unit) throws InterruptedException {
+            long count = dropped.getAndSet(0);
+            if (count > 0) {
+                List<AdminEventDTO> discarded = new ArrayList<>(queue.size());
+                queue.drainTo(discarded);
+                count += discarded.size();
+                return new AdminEventDTO(sequence.get(), "feed.dropped",
+                        System.currentTimeMillis(), null, null, null, null,
+                        Long.toString(count));
+            }
+            return queue.poll(timeout, unit);
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package su.kidoz.kaillera.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import su.kidoz.kaillera.admin.dto.AdminEventDTO;
+import su.kidoz.util.EmuLinkerExecutor;
+
+/**
+ * Streams the {@link AdminEventFeed} to admin dashboards as Server-Sent
+ * Events.
+ *
+ * <p>
+ * Each event is named after the delta's type, with the delta as JSON data and
+ * its sequence as the event ID. A comment is sent when the feed is quiet, so
+ * dead connections are noticed.
+ */
+@RestController
+@RequestMapping({"/api/admin", "/api/v1/admin"})
+@SecurityRequirement(name = "basicAuth")
+@Tag(name = "Admin", description = "Server administration operations")
+public class AdminEventStreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminEventStreamController.class);
+
+    private static final long KEEP_ALIVE_SECONDS = 15;
+
+    private final AdminEventFeed eventFeed;
+    private final EmuLinkerExecutor executor;
+
+    public AdminEventStreamController(AdminEventFeed eventFeed, EmuLinkerExecutor executor) {
+        this.eventFeed = eventFeed;
+        this.executor = executor;
+    }
+
+    @Operation(summary = "Stream server events", description = "Streams users joining, quitting and being banned, "
+            + "and games being created, started and closed, desynching and timing out, as Server-Sent Events. "
+            + "A feed.dropped event means the client fell behind and should reload the user and game lists.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Too many event streams open", content = @Content)})
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        Optional<AdminEventFeed.Subscription> subscription = eventFeed.subscribe();
+        if (subscription.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        AdminEventFeed.Subscription events = subscription.get();
+        // No timeout: the stream lasts until the client disconnects
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(events::close);
+        emitter.onTimeout(events::close);
+        emitter.onError(e -> events.close());
+        executor.execute(() -> stream(events, emitter));
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void stream(AdminEventFeed.Subscription events, SseEmitter emitter) {
+        try (events) {
+            while (!events.isClosed()) {
+                AdminEventDTO delta = events.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                if (delta == null) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event().id(Long.toString(delta.sequence()))
+                            .name(delta.type()).data(delta, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Admin event stream closed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package su.kidoz.kaillera.admin;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Filters, sorts and pages a snapshot list for the admin list endpoints.
+ *
+ * <p>
+ * Items are ordered by a sort value, then by ID. A page's cursor names its last
+ * item by those two values, so the next page starts after it even if items
+ * were added or removed in between. Pages carry the number of matching items
+ * in {@code X-Total-Count}, the cursor of the next page, if any, in
+ * {@code X-Next-Cursor}, and an ETag, so an unchanged page is answered with
+ * 304 Not Modified. The ETag names the snapshot version and the page's place
+ * in the matching items: for the same request, it only stays the same while
+ * the snapshot does.
+ */
+final class AdminPaging {
+
+    static final int MAX_LIMIT = 500;
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Orders items by a value, highest first if descending, then by ID.
+     */
+    record Sort<T>(ToLongFunction<T> value, boolean descending, ToIntFunction<T> id) {
+
+        static <T> Sort<T> byId(ToIntFunction<T> id) {
+            return new Sort<>(id::applyAsInt, false, id);
+        }
+
+        Comparator<T> comparator() {
+            Comparator<T> byValue = Comparator.comparingLong(value);
+            return (descending ? byValue.reversed() : byValue).thenComparingInt(id);
+        }
+
+        // Compares an item with the last item of the previous page
+        int compareToCursor(T item, Cursor cursor) {
+            int result = Long.compare(value.applyAsLong(item), cursor.value());
+            if (descending)
+                result = -result;
+            return result != 0 ? result : Integer.compare(id.applyAsInt(item), cursor.id());
+        }
+    }
+
+    // The sort value and ID of the last item of a page
+    private record Cursor(long value, int id) {
+    }
+
+    private AdminPaging() {
+    }
+
+    /**
+     * Returns the page of matching items after the cursor.
+     *
+     * @param snapshot
+     *            the items and their version
+     * @param cursor
+     *            the {@code X-Next-Cursor} of the previous page, or null for the
+     *            first page
+     * @param limit
+     *            the maximum number of items, up to {@value #MAX_LIMIT}, or null
+     *            for all of them
+     * @return the page, or 400 Bad Request if the cursor or limit is invalid
+     */
+    static <T> ResponseEntity<List<T>> page(SnapshotCache.Snapshot<T> snapshot,
+            Predicate<T> filter, Sort<T> sort, String cursor, Integer limit) {
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT))
+            return ResponseEntity.badRequest().build();
+
+        Cursor after = null;
+        if (cursor != null) {
+            after = decodeCursor(cursor);
+            if (after == null)
+                return ResponseEntity.badRequest().build();
+        }
+
+        List<T> matching = new ArrayList<>();
+        for (T item : snapshot.items()) {
+            if (filter.test(item))
+                matching.add(item);
+        }
+        matching.sort(sort.comparator());
+
+        int start = 0;
+        if (after != null) {
+            while (start < matching.size()
+                    && sort.compareToCursor(matching.get(start), after) <= 0)
+                start++;
+        }
+        int end = limit == null ? matching.size() : Math.min(matching.size(), start + limit);
+        List<T> page = matching.subList(start, end);
+        String next = end < matching.size() ? encodeCursor(sort, matching.get(end - 1)) : null;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, Integer.toString(matching.size()))
+                .eTag(Long.toHexString(snapshot.version()) + "-" + start + "-" + end);
+        if (next != null)
+            response.header(NEXT_CURSOR_HEADER, next);
+        return response.body(page);
+    }
+
+    /**
+     * Returns true if the value starts with the prefix, ignoring case.
+     */
+    static boolean startsWith(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static <T> String encodeCursor(Sort<T> sort, T item) {
+        String cursor = sort.value().applyAsLong(item) + ":" + sort.id().applyAsInt(item);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.US_ASCII);
+            int separator = decoded.indexOf(':');
+            if (separator < 0)
+                return null;
+            return new Cursor(Long.parseLong(decoded.substring(0, separator)),
+                    Integer.parseInt(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import su.kidoz.config.RelayConfig;
 import su.kidoz.kaillera.admin.dto.ActionResultDTO;
@@ -29,10 +31,13 @@ import su.kidoz.kaillera.admin.dto.ControllerDTO;
 import su.kidoz.kaillera.admin.dto.EventMetricsDTO;
 import su.kidoz.kaillera.admin.dto.GameDTO;
 import su.kidoz.kaillera.admin.dto.KickUserRequest;
+import su.kidoz.kaillera.admin.dto.NetworkStatsDTO;
 import su.kidoz.kaillera.admin.dto.RelayStatusDTO;
 import su.kidoz.kaillera.admin.dto.ServerInfoDTO;
 import su.kidoz.kaillera.admin.dto.UserDTO;
+import su.kidoz.kaillera.admin.dto.UserDetailDTO;
 import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
+import su.kidoz.kaillera.metrics.CapacityMonitor;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.relay.KailleraRelayController;
@@ -57,6 +62,8 @@ public class AdminRestController {
 
     private static final Logger log = LoggerFactory.getLogger(AdminRestController.class);
 
+    private static final Duration SNAPSHOT_TTL = Duration.ofSeconds(1);
+
     private final UserService userService;
     private final GameService gameService;
     private final KailleraServerReleaseInfo releaseInfo;
@@ -64,12 +71,18 @@ public class AdminRestController {
     private final EmuLinkerExecutor executor;
     private final Optional<KailleraRelayController> relayController;
     private final Optional<RelayConfig> relayConfig;
+    private final Optional<CapacityMonitor> capacityMonitor;
+
+    // Lists shared by the admin requests of the last second
+    private final SnapshotCache<UserDTO> userSnapshot;
+    private final SnapshotCache<GameDTO> gameSnapshot;
+    private final SnapshotCache<EventMetricsDTO> eventMetricsSnapshot;
 
     @Autowired
     public AdminRestController(UserService userService, GameService gameService,
             KailleraServerReleaseInfo releaseInfo, ConnectController connectController,
             EmuLinkerExecutor executor, Optional<KailleraRelayController> relayController,
-            Optional<RelayConfig> relayConfig) {
+            Optional<RelayConfig> relayConfig, Optional<CapacityMonitor> capacityMonitor) {
         this.userService = userService;
         this.gameService = gameService;
         this.releaseInfo = releaseInfo;
@@ -77,10 +90,14 @@ public class AdminRestController {
         this.executor = executor;
         this.relayController = relayController;
         this.relayConfig = relayConfig;
+        this.capacityMonitor = capacityMonitor;
+        this.userSnapshot = new SnapshotCache<>(this::buildUsers, SNAPSHOT_TTL);
+        this.gameSnapshot = new SnapshotCache<>(this::buildGames, SNAPSHOT_TTL);
+        this.eventMetricsSnapshot = new SnapshotCache<>(this::buildEventMetrics, SNAPSHOT_TTL);
     }
 
     @Operation(summary = "Get server information", description = "Returns comprehensive server status including version, uptime, "
-            + "user/game counts, connection statistics, and thread pool metrics.")
+            + "user/game counts, connection statistics, thread pool metrics and capacity headroom.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Server information retrieved", content = @Content(schema = @Schema(implementation = ServerInfoDTO.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
@@ -96,45 +113,137 @@ public class AdminRestController {
                 executor.getActiveCount(), executor.getPoolSize(), executor.getMaximumPoolSize(),
                 executor.getTaskCount());
 
+        ServerInfoDTO.CapacityDTO capacity = capacityMonitor.map(CapacityMonitor::check)
+                .map(snapshot -> new ServerInfoDTO.CapacityDTO(snapshot.headroom(),
+                        snapshot.ready(), snapshot.resources()))
+                .orElse(null);
+
         return new ServerInfoDTO(releaseInfo.getProductName(), releaseInfo.getVersionString(),
                 releaseInfo.getBuildNumber(), true, connectController.getBindPort(),
                 (System.currentTimeMillis() - connectController.getStartTime()) / 60000,
                 userService.getUserCount(), userService.getMaxUsers(), gameService.getGameCount(),
-                gameService.getMaxGames(), stats, threadPool);
+                gameService.getMaxGames(), stats, threadPool, capacity);
     }
 
-    @Operation(summary = "List all connected users", description = "Returns a list of all users currently connected to the server, "
-            + "including their status, connection type, ping, and address.")
+    @Operation(summary = "List connected users", description = "Returns the users currently connected to the server, "
+            + "including their status, connection type, ping, and address. "
+            + "With a limit, returns one page and the next page's cursor in X-Next-Cursor. "
+            + "sort=ping lists the highest pings first.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User list retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since its ETag", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or limit", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
     @GetMapping("/users")
-    public List<UserDTO> getUsers() {
-        return userService.getAllUsers().stream().map(user -> {
-            // Null-safe socket address handling for users that haven't fully connected
-            String address = "unknown";
-            var socketAddr = user.getSocketAddress();
-            if (socketAddr != null && socketAddr.getAddress() != null) {
-                address = socketAddr.getAddress().getHostAddress() + ":" + socketAddr.getPort();
-            }
-            return new UserDTO(user.getID(), user.getName(),
-                    KailleraUser.STATUS_NAMES[user.getStatus()],
-                    KailleraUser.getConnectionTypeName(user.getConnectionType()), user.getPing(),
-                    address, user.getConnectTime());
-        }).collect(Collectors.toList());
+    public ResponseEntity<List<UserDTO>> getUsers(
+            @Parameter(description = "Only users with this status", example = "Playing") @RequestParam(required = false) String status,
+            @Parameter(description = "Only users with this connection type", example = "LAN") @RequestParam(required = false) String connectionType,
+            @Parameter(description = "Only users with at least this ping", example = "100") @RequestParam(required = false) Integer minPing,
+            @Parameter(description = "Only users with at most this ping", example = "250") @RequestParam(required = false) Integer maxPing,
+            @Parameter(description = "Only users whose name starts with this, ignoring case", example = "Play") @RequestParam(required = false) String name,
+            @Parameter(description = "Sort order: id or ping", example = "ping") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "X-Next-Cursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of users, up to 500", example = "50") @RequestParam(required = false) Integer limit) {
+        AdminPaging.Sort<UserDTO> order = switch (sort) {
+            case "id" -> AdminPaging.Sort.byId(UserDTO::id);
+            case "ping" -> new AdminPaging.Sort<>(UserDTO::ping, true, UserDTO::id);
+            default -> null;
+        };
+        if (order == null)
+            return ResponseEntity.badRequest().build();
+
+        return AdminPaging.page(userSnapshot.get(),
+                user -> (status == null || status.equalsIgnoreCase(user.status()))
+                        && (connectionType == null
+                                || connectionType.equalsIgnoreCase(user.connectionType()))
+                        && (minPing == null || user.ping() >= minPing)
+                        && (maxPing == null || user.ping() <= maxPing)
+                        && (name == null || AdminPaging.startsWith(user.name(), name)),
+                order, cursor, limit);
+    }
+
+    private List<UserDTO> buildUsers() {
+        return userService.getAllUsers().stream().map(AdminRestController::toUserDTO).toList();
     }
 
-    @Operation(summary = "List all active games", description = "Returns a list of all games currently active on the server, "
-            + "including ROM name, owner, status, and player count.")
+    private static UserDTO toUserDTO(KailleraUser user) {
+        // Null-safe socket address handling for users that haven't fully connected
+        String address = "unknown";
+        var socketAddr = user.getSocketAddress();
+        if (socketAddr != null && socketAddr.getAddress() != null) {
+            address = socketAddr.getAddress().getHostAddress() + ":" + socketAddr.getPort();
+        }
+        return new UserDTO(user.getID(), user.getName(),
+                KailleraUser.STATUS_NAMES[user.getStatus()],
+                KailleraUser.getConnectionTypeName(user.getConnectionType()), user.getPing(),
+                address, user.getConnectTime());
+    }
+
+    /**
+     * Returns a user with their session's network quality.
+     *
+     * @param userId
+     *            the user ID
+     * @return the user, or 404 if not found
+     */
+    @Operation(summary = "Get a connected user", description = "Returns a single user by ID with the network quality "
+            + "of their session: packets and bytes each way, redundant messages, gaps in the message numbers, "
+            + "resends, bundle fill and round trip time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User retrieved", content = @Content(schema = @Schema(implementation = UserDetailDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content)})
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<UserDetailDTO> getUser(
+            @Parameter(description = "User ID", example = "1") @PathVariable int userId) {
+        var userOpt = userService.findUser(userId);
+
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        NetworkStatsDTO network = ClientHandlers.find(connectController, userId)
+                .map(handler -> NetworkStatsDTO.of(handler.getSessionStats().snapshot()))
+                .orElse(null);
+
+        return ResponseEntity.ok(new UserDetailDTO(toUserDTO(userOpt.get()), network));
+    }
+
+    @Operation(summary = "List active games", description = "Returns the games currently active on the server, "
+            + "including ROM name, owner, status, and player count. "
+            + "With a limit, returns one page and the next page's cursor in X-Next-Cursor. "
+            + "sort=players lists the fullest games first.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Game list retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = GameDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since its ETag", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or limit", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
     @GetMapping("/games")
-    public List<GameDTO> getGames() {
+    public ResponseEntity<List<GameDTO>> getGames(
+            @Parameter(description = "Only games with this status", example = "Playing") @RequestParam(required = false) String status,
+            @Parameter(description = "Only games whose ROM name starts with this, ignoring case", example = "Street") @RequestParam(required = false) String rom,
+            @Parameter(description = "Sort order: id or players", example = "players") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "X-Next-Cursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of games, up to 500", example = "50") @RequestParam(required = false) Integer limit) {
+        AdminPaging.Sort<GameDTO> order = switch (sort) {
+            case "id" -> AdminPaging.Sort.byId(GameDTO::id);
+            case "players" -> new AdminPaging.Sort<>(GameDTO::players, true, GameDTO::id);
+            default -> null;
+        };
+        if (order == null)
+            return ResponseEntity.badRequest().build();
+
+        return AdminPaging.page(gameSnapshot.get(),
+                game -> (status == null || status.equalsIgnoreCase(game.status()))
+                        && (rom == null || AdminPaging.startsWith(game.rom(), rom)),
+                order, cursor, limit);
+    }
+
+    private List<GameDTO> buildGames() {
         return gameService.getAllGames().stream()
                 .map(game -> new GameDTO(game.getID(), game.getRomName(), game.getOwner().getName(),
                         KailleraGame.STATUS_NAMES[game.getStatus()], game.getNumPlayers()))
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Operation(summary = "List protocol controllers", description = "Returns information about active protocol controllers, "
@@ -157,16 +266,47 @@ public class AdminRestController {
      * @return list of event metrics for each user
      */
     @Operation(summary = "Get event metrics for all users", description = "Returns event queue metrics for all connected users, "
-            + "including queue size, dropped events, and utilization percentage.")
+            + "including queue size, dropped events, utilization percentage and queue wait. "
+            + "With a limit, returns one page and the next page's cursor in X-Next-Cursor. "
+            + "sort=queue lists the fullest queues first, sort=wait the slowest consumers "
+            + "first.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Event metrics retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = EventMetricsDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since its ETag", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or limit", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
     @GetMapping("/event-metrics")
-    public List<EventMetricsDTO> getAllEventMetrics() {
+    public ResponseEntity<List<EventMetricsDTO>> getAllEventMetrics(
+            @Parameter(description = "Only users whose name starts with this, ignoring case", example = "Play") @RequestParam(required = false) String name,
+            @Parameter(description = "Sort order: id, queue or wait", example = "queue") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "X-Next-Cursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of users, up to 500", example = "50") @RequestParam(required = false) Integer limit) {
+        AdminPaging.Sort<EventMetricsDTO> order = switch (sort) {
+            case "id" -> AdminPaging.Sort.byId(EventMetricsDTO::userId);
+            case "queue" -> new AdminPaging.Sort<>(EventMetricsDTO::queueSize, true,
+                    EventMetricsDTO::userId);
+            case "wait" -> new AdminPaging.Sort<>(
+                    metrics -> Math.round(metrics.queueWaitP99Millis() * 1000), true,
+                    EventMetricsDTO::userId);
+            default -> null;
+        };
+        if (order == null)
+            return ResponseEntity.badRequest().build();
+
+        return AdminPaging.page(eventMetricsSnapshot.get(),
+                metrics -> name == null || AdminPaging.startsWith(metrics.userName(), name), order,
+                cursor, limit);
+    }
+
+    private List<EventMetricsDTO> buildEventMetrics() {
         return userService.getAllUsers().stream()
-                .map(user -> EventMetricsDTO.of(user.getID(), user.getName(),
-                        user.getEventQueueSize(), user.getDroppedEventsCount()))
-                .collect(Collectors.toList());
+                .map(AdminRestController::toEventMetricsDTO).toList();
+    }
+
+    private static EventMetricsDTO toEventMetricsDTO(KailleraUser user) {
+        return EventMetricsDTO.of(user.getID(), user.getName(), user.getEventQueueSize(),
+                user.getDroppedEventsCount(), user.getEventQueueWaitP99Nanos(),
+                user.isSlowConsumer());
     }
 
     /**
@@ -191,8 +331,7 @@ public class AdminRestController {
         }
 
         KailleraUser user = userOpt.get();
-        return ResponseEntity.ok(EventMetricsDTO.of(user.getID(), user.getName(),
-                user.getEventQueueSize(), user.getDroppedEventsCount()));
+        return ResponseEntity.ok(toEventMetricsDTO(user));
     }
 
     /**
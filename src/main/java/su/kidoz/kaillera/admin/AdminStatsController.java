@@ -0,0 +1,43 @@
+package su.kidoz.kaillera.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import su.kidoz.kaillera.admin.dto.UsageStatsDTO;
+import su.kidoz.kaillera.master.StatsCollector;
+
+/**
+ * Reports the server's usage statistics: the most started ROMs and emulators
+ * and the peak numbers of users and games, over windows of
+ * {@code server.stats-window-minutes}.
+ */
+@RestController
+@RequestMapping({"/api/admin", "/api/v1/admin"})
+@SecurityRequirement(name = "basicAuth")
+@Tag(name = "Admin", description = "Server administration operations")
+public class AdminStatsController {
+
+    private final StatsCollector statsCollector;
+
+    public AdminStatsController(StatsCollector statsCollector) {
+        this.statsCollector = statsCollector;
+    }
+
+    @Operation(summary = "Get usage statistics", description = "Returns the games started, the most started ROMs and "
+            + "emulators, and the peak numbers of users and games of the window in progress and the last "
+            + "complete window. ROM and emulator counts are approximate.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved", content = @Content(schema = @Schema(implementation = UsageStatsDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials", content = @Content)})
+    @GetMapping("/stats")
+    public UsageStatsDTO getStats() {
+        return UsageStatsDTO.of(statsCollector.getStats());
+    }
+}
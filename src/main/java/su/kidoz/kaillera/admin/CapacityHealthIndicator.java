@@ -0,0 +1,33 @@
+package su.kidoz.kaillera.admin;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+import su.kidoz.kaillera.metrics.CapacityMonitor;
+
+/**
+ * Health indicator that is out of service while the server has too little
+ * headroom for new players.
+ *
+ * <p>
+ * Included in the readiness group, so {@code /healthz/readiness} returns 503
+ * and orchestrators send new players to other nodes. Players already
+ * connected are not affected.
+ */
+@Component
+public class CapacityHealthIndicator implements HealthIndicator {
+
+    private final CapacityMonitor capacityMonitor;
+
+    public CapacityHealthIndicator(CapacityMonitor capacityMonitor) {
+        this.capacityMonitor = capacityMonitor;
+    }
+
+    @Override
+    public Health health() {
+        CapacityMonitor.Snapshot capacity = capacityMonitor.check();
+        Health.Builder builder = capacity.ready() ? Health.up() : Health.outOfService();
+        return builder.withDetail("headroom", capacity.headroom())
+                .withDetail("resources", capacity.resources()).build();
+    }
+}
@@ -0,0 +1,30 @@
+package su.kidoz.kaillera.admin;
+
+import java.util.Optional;
+import su.kidoz.kaillera.controller.KailleraServerController;
+import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
+import su.kidoz.kaillera.controller.v086.V086ClientHandler;
+import su.kidoz.kaillera.controller.v086.V086Controller;
+
+/**
+ * Finds the client session of a user for the admin endpoints.
+ */
+final class ClientHandlers {
+
+    private ClientHandlers() {
+    }
+
+    /**
+     * Returns the V086 client handler of a user, if the user has one.
+     */
+    static Optional<V086ClientHandler> find(ConnectController connectController, int userId) {
+        for (KailleraServerController controller : connectController.getControllers()) {
+            if (controller instanceof V086Controller v086Controller) {
+                V086ClientHandler handler = v086Controller.getClientHandlers().get(userId);
+                if (handler != null)
+                    return Optional.of(handler);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,70 @@
+package su.kidoz.kaillera.admin;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * An immutable list built at most once per time to live and shared by every
+ * request in between, so that admin requests do not each copy the whole user
+ * or game population.
+ *
+ * <p>
+ * Each snapshot carries a version that changes whenever a rebuild yields a
+ * different list and stays the same when it yields an equal one, so responses
+ * derived from a snapshot can be tagged with it. Versions start at a random
+ * value, so they do not repeat across restarts.
+ */
+final class SnapshotCache<T> {
+
+    /**
+     * An immutable list and its version.
+     */
+    record Snapshot<T>(List<T> items, long version) {
+    }
+
+    private record Entry<T>(Snapshot<T> snapshot, long createdNanos) {
+    }
+
+    private final Supplier<List<T>> builder;
+    private final long ttlNanos;
+    private volatile Entry<T> entry;
+    // Guarded by this
+    private long nextVersion = ThreadLocalRandom.current().nextLong();
+
+    SnapshotCache(Supplier<List<T>> builder, Duration ttl) {
+        this.builder = builder;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the current snapshot, building a new one if it has expired.
+     * Concurrent callers of an expired snapshot wait for one build.
+     */
+    Snapshot<T> get() {
+        Entry<T> current = entry;
+        if (current == null || isExpired(current)) {
+            synchronized (this) {
+                current = entry;
+                if (current == null || isExpired(current)) {
+                    current = new Entry<>(rebuild(current), System.nanoTime());
+                    entry = current;
+                }
+            }
+        }
+        return current.snapshot();
+    }
+
+    // Keeps the previous snapshot, and its version, if nothing changed
+    private Snapshot<T> rebuild(Entry<T> previous) {
+        List<T> items = List.copyOf(builder.get());
+        if (previous != null && previous.snapshot().items().equals(items))
+            return previous.snapshot();
+        return new Snapshot<>(items, nextVersion++);
+    }
+
+    private boolean isExpired(Entry<T> current) {
+        return System.nanoTime() - current.createdNanos() >= ttlNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for one change streamed by the admin event feed.
+ */
+@Schema(description = "A change on the server, streamed by the admin event feed")
+public record AdminEventDTO(
+        @Schema(description = "Position in the feed. A gap means events were dropped", example = "42") long sequence,
+        @Schema(description = "Event type: user.joined, user.quit, user.banned, game.created, game.started, "
+                + "game.closed, game.desynch, game.timeout, or feed.dropped", example = "user.joined") String type,
+        @Schema(description = "Time of the event in milliseconds since epoch", example = "1700000000000") long time,
+        @Schema(description = "User ID, for user events and player events in games", example = "1") Integer userId,
+        @Schema(description = "User name", example = "Player1") String userName,
+        @Schema(description = "Game ID, for game events", example = "1") Integer gameId,
+        @Schema(description = "Game ROM name", example = "Street Fighter II") String romName,
+        @Schema(description = "Quit or desynch message, timeout number, ban minutes, or number of dropped events", example = "Goodbye") String detail) {
+}
@@ -0,0 +1,24 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import su.kidoz.config.TunableSettings;
+
+/**
+ * DTO for an audited change of a setting.
+ */
+@Schema(description = "A change of a setting made while the server ran")
+public record ConfigChangeDTO(@Schema(description = "Change time in milliseconds since epoch", example = "1704067200000") long time,
+        @Schema(description = "Where the change came from", allowableValues = {"admin", "file"}, example = "admin") String source,
+        @Schema(description = "The admin user or the tuning file that made the change", example = "admin") String actor,
+        @Schema(description = "Setting name", example = "server.max-users") String name,
+        @Schema(description = "Value before the change", example = "25") int oldValue,
+        @Schema(description = "Value after the change", example = "40") int newValue) {
+
+    /**
+     * Creates a change DTO from an audit entry.
+     */
+    public static ConfigChangeDTO of(TunableSettings.Change change) {
+        return new ConfigChangeDTO(change.timeMillis(), change.source(), change.actor(),
+                change.name(), change.oldValue(), change.newValue());
+    }
+}
@@ -0,0 +1,23 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import su.kidoz.config.TunableSettings;
+
+/**
+ * DTO for a setting that can be changed while the server runs.
+ */
+@Schema(description = "A setting that can be changed while the server runs")
+public record ConfigSettingDTO(@Schema(description = "Setting name, as in application.properties", example = "server.max-users") String name,
+        @Schema(description = "Current value", example = "25") int value,
+        @Schema(description = "Lowest allowed value", example = "0") int min,
+        @Schema(description = "Highest allowed value", example = "65535") int max,
+        @Schema(description = "Whether the setting only applies to games created after it changes", example = "false") boolean newGamesOnly) {
+
+    /**
+     * Creates a setting DTO from its current value.
+     */
+    public static ConfigSettingDTO of(TunableSettings.Value value) {
+        return new ConfigSettingDTO(value.name(), value.value(), value.min(), value.max(),
+                value.newGamesOnly());
+    }
+}
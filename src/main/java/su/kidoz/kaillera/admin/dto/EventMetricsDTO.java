@@ -1,6 +1,7 @@
 package su.kidoz.kaillera.admin.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import su.kidoz.kaillera.model.impl.KailleraUserImpl;
 
 /**
  * DTO for user event queue metrics.
@@ -11,9 +12,9 @@ public record EventMetricsDTO(@Schema(description = "User ID", example = "1") in
         @Schema(description = "Current events in queue", example = "50") int queueSize,
         @Schema(description = "Number of dropped events due to queue overflow", example = "0") int droppedEvents,
         @Schema(description = "Maximum queue capacity", example = "2000") int queueCapacity,
-        @Schema(description = "Queue utilization percentage", example = "2.5") double queueUtilization) {
-
-    private static final int DEFAULT_QUEUE_CAPACITY = 2000;
+        @Schema(description = "Queue utilization percentage", example = "2.5") double queueUtilization,
+        @Schema(description = "99th percentile of recent event queue wait in milliseconds", example = "1.2") double queueWaitP99Millis,
+        @Schema(description = "Whether the user takes events from its queue too slowly", example = "false") boolean slowConsumer) {
 
     /**
      * Creates event metrics from user data.
@@ -26,12 +27,17 @@ public record EventMetricsDTO(@Schema(description = "User ID", example = "1") in
      *            current queue size
      * @param droppedEvents
      *            count of dropped events
+     * @param queueWaitP99Nanos
+     *            99th percentile of recent queue wait in nanoseconds
+     * @param slowConsumer
+     *            whether the user is flagged as a slow consumer
      * @return the event metrics DTO
      */
     public static EventMetricsDTO of(int userId, String userName, int queueSize,
-            int droppedEvents) {
-        double utilization = (double) queueSize / DEFAULT_QUEUE_CAPACITY * 100.0;
-        return new EventMetricsDTO(userId, userName, queueSize, droppedEvents,
-                DEFAULT_QUEUE_CAPACITY, utilization);
+            int droppedEvents, long queueWaitP99Nanos, boolean slowConsumer) {
+        int capacity = KailleraUserImpl.MAX_EVENT_QUEUE_SIZE;
+        double utilization = (double) queueSize / capacity * 100.0;
+        return new EventMetricsDTO(userId, userName, queueSize, droppedEvents, capacity,
+                utilization, queueWaitP99Nanos / 1_000_000.0, slowConsumer);
     }
 }
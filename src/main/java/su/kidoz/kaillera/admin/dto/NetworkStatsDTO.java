@@ -0,0 +1,41 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import su.kidoz.kaillera.controller.v086.SessionStats;
+
+/**
+ * DTO for the network quality of a user's session.
+ */
+@Schema(description = "Network quality of a user's session")
+public record NetworkStatsDTO(
+        @Schema(description = "Packets received from the client", example = "5400") long packetsIn,
+        @Schema(description = "Bytes received from the client", example = "162000") long bytesIn,
+        @Schema(description = "Packets sent to the client", example = "5400") long packetsOut,
+        @Schema(description = "Bytes sent to the client", example = "194400") long bytesOut,
+        @Schema(description = "Share of received messages the server already had", example = "0.66") double redundantRatio,
+        @Schema(description = "Times received message numbers skipped ahead, i.e. bundles lost on the way in", example = "2") long gaps,
+        @Schema(description = "Received messages skipped over by those gaps", example = "2") long missingMessages,
+        @Schema(description = "Longest time between two received packets in milliseconds", example = "120") long maxSilenceMillis,
+        @Schema(description = "Resends of the last messages triggered", example = "1") long resends,
+        @Schema(description = "Average share of the bundle size used by sent bundles", example = "0.6") double bundleFill,
+        @Schema(description = "Smoothed round trip time from the login ACK exchange in milliseconds", example = "42.5") double rttMillis,
+        @Schema(description = "Round trip time deviation in milliseconds", example = "3.2") double rttVarianceMillis,
+        @Schema(description = "Round trip time samples", example = "4") long rttSamples) {
+
+    /**
+     * Creates network stats from a session's statistics.
+     *
+     * @param stats
+     *            the session's statistics
+     * @return the network stats DTO
+     */
+    public static NetworkStatsDTO of(SessionStats.Snapshot stats) {
+        double redundantRatio = stats.messagesIn() > 0
+                ? (double) stats.redundantMessagesIn() / stats.messagesIn()
+                : 0;
+        return new NetworkStatsDTO(stats.packetsIn(), stats.bytesIn(), stats.packetsOut(),
+                stats.bytesOut(), redundantRatio, stats.gaps(), stats.missingMessages(),
+                stats.maxSilenceMillis(), stats.resends(), stats.averageBundleFill(),
+                stats.rttMillis(), stats.rttVarianceMillis(), stats.rttSamples());
+    }
+}
@@ -0,0 +1,14 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for an armed packet capture.
+ */
+@Schema(description = "Packet capture of a user's session")
+public record PacketCaptureDTO(@Schema(description = "User ID", example = "1") int userId,
+        @Schema(description = "User name", example = "Player1") String userName,
+        @Schema(description = "Number of packets kept", example = "4096") int capacity,
+        @Schema(description = "Most bytes kept of each packet", example = "1024") int snapLength,
+        @Schema(description = "Packets captured so far, including overwritten ones", example = "1532") long packets) {
+}
@@ -1,6 +1,7 @@
 package su.kidoz.kaillera.admin.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
 
 /**
  * DTO for server information response.
@@ -18,7 +19,8 @@ public record ServerInfoDTO(
         @Schema(description = "Current number of active games", example = "2") int gameCount,
         @Schema(description = "Maximum allowed games (0 = unlimited)", example = "0") int maxGames,
         @Schema(description = "Connection statistics") StatsDTO stats,
-        @Schema(description = "Thread pool metrics") ThreadPoolDTO threadPool) {
+        @Schema(description = "Thread pool metrics") ThreadPoolDTO threadPool,
+        @Schema(description = "Headroom for new players") CapacityDTO capacity) {
 
     /**
      * Nested DTO for connection statistics.
@@ -42,4 +44,14 @@ public record ServerInfoDTO(
             @Schema(description = "Maximum pool size", example = "100") int maxPoolSize,
             @Schema(description = "Total tasks executed", example = "5000") long taskCount) {
     }
+
+    /**
+     * Nested DTO for capacity headroom.
+     */
+    @Schema(description = "Fraction of each resource still free, from 0 to 1")
+    public record CapacityDTO(
+            @Schema(description = "Lowest headroom of the resources", example = "0.72") double headroom,
+            @Schema(description = "Whether the readiness probe accepts new players", example = "true") boolean ready,
+            @Schema(description = "Headroom of ports, users, eventQueues, frameAssembly and carrierThreads") Map<String, Double> resources) {
+    }
 }
@@ -0,0 +1,64 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import su.kidoz.kaillera.master.StatsCollector;
+import su.kidoz.util.TopKCounter;
+
+/**
+ * DTO for the server's usage statistics.
+ */
+@Schema(description = "Usage statistics over windows of time")
+public record UsageStatsDTO(@Schema(description = "The window in progress, up to now") WindowDTO current,
+        @Schema(description = "The last complete window, or null if none ended yet", nullable = true) WindowDTO last,
+        @Schema(description = "Games started since the server started", example = "1200") long totalGamesStarted) {
+
+    /**
+     * Nested DTO for one window of statistics.
+     */
+    @Schema(description = "Statistics over a window of time")
+    public record WindowDTO(
+            @Schema(description = "Window start in milliseconds since epoch", example = "1704067200000") long startTime,
+            @Schema(description = "Window end in milliseconds since epoch", example = "1704070800000") long endTime,
+            @Schema(description = "Games started", example = "42") long gamesStarted,
+            @Schema(description = "ROMs started most often, most frequent first") List<CountDTO> topRoms,
+            @Schema(description = "Emulators of the games started most often, most frequent first") List<CountDTO> topEmulators,
+            @Schema(description = "Most users connected at once", example = "20") int peakUsers,
+            @Schema(description = "Most games open at once", example = "8") int peakGames,
+            @Schema(description = "Most games playing at once, sampled when games start", example = "6") int peakGamesPlaying) {
+    }
+
+    /**
+     * Nested DTO for the count of a ROM or emulator.
+     */
+    @Schema(description = "Approximate count of a ROM or emulator")
+    public record CountDTO(@Schema(description = "ROM or emulator name", example = "Street Fighter II") String name,
+            @Schema(description = "Count, which may exceed the true count by at most error", example = "12") long count,
+            @Schema(description = "The most the count may exceed the true count", example = "0") long error) {
+    }
+
+    /**
+     * Creates usage statistics from a snapshot of the collector.
+     *
+     * @param stats
+     *            the snapshot
+     * @return the usage statistics DTO
+     */
+    public static UsageStatsDTO of(StatsCollector.Snapshot stats) {
+        return new UsageStatsDTO(window(stats.current()), window(stats.last()),
+                stats.totalGamesStarted());
+    }
+
+    private static WindowDTO window(StatsCollector.Window window) {
+        if (window == null)
+            return null;
+        return new WindowDTO(window.startMillis(), window.endMillis(), window.gamesStarted(),
+                counts(window.topRoms()), counts(window.topEmulators()), window.peakUsers(),
+                window.peakGames(), window.peakGamesPlaying());
+    }
+
+    private static List<CountDTO> counts(List<TopKCounter.Count> counts) {
+        return counts.stream()
+                .map(count -> new CountDTO(count.key(), count.count(), count.error())).toList();
+    }
+}
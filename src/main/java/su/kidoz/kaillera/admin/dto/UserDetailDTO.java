@@ -0,0 +1,11 @@
+package su.kidoz.kaillera.admin.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for a single user with their session's network quality.
+ */
+@Schema(description = "Connected user information with network quality")
+public record UserDetailDTO(@Schema(description = "User information") UserDTO user,
+        @Schema(description = "Network quality of the session, or null if the user has no client session") NetworkStatsDTO network) {
+}
@@ -0,0 +1,102 @@
+package su.kidoz.kaillera.controller.connectcontroller;
+
+import java.net.InetAddress;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import su.kidoz.config.ControllersConfig;
+import su.kidoz.util.TokenBucket;
+
+/**
+ * Rate limits connection requests (HELLO messages) on the connect port with a
+ * token bucket per source address and one global token bucket. Checked on the
+ * receive thread before any real work is done, so a HELLO flood is shed at the
+ * cost of a map lookup and a CAS or two.
+ *
+ * <p>
+ * Per-address buckets are created on demand and dropped again once they have
+ * refilled, so the map only holds addresses that sent a HELLO recently. If it
+ * grows past the configured limit anyway (e.g. a spoofed-source flood), new
+ * addresses are shed until the next sweep.
+ */
+public final class ConnectAdmissionControl {
+
+    /**
+     * Outcome of an admission check.
+     */
+    public enum Decision {
+        ADMITTED, SHED_ADDRESS_RATE, SHED_GLOBAL_RATE, SHED_TOO_MANY_ADDRESSES
+    }
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double ratePerAddress;
+    private final int burstPerAddress;
+    private final int maxTrackedAddresses;
+    private final TokenBucket globalBucket;
+
+    private final Map<InetAddress, TokenBucket> addressBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    public ConnectAdmissionControl(ControllersConfig.Connect config, long nowNanos) {
+        this.ratePerAddress = config.getHelloRatePerAddress();
+        this.burstPerAddress = config.getHelloBurstPerAddress();
+        this.maxTrackedAddresses = config.getMaxTrackedAddresses();
+        this.globalBucket = config.getHelloRateGlobal() > 0
+                ? new TokenBucket(config.getHelloRateGlobal(), config.getHelloBurstGlobal(),
+                        nowNanos)
+                : null;
+        this.nextSweep = new AtomicLong(nowNanos + SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Checks if a connection request from the given address may proceed, taking
+     * a token from the address bucket and then the global bucket.
+     */
+    public Decision tryAdmit(InetAddress address, long nowNanos) {
+        maybeSweep(nowNanos);
+
+        if (ratePerAddress > 0) {
+            TokenBucket bucket = addressBuckets.get(address);
+            if (bucket == null) {
+                if (addressBuckets.size() >= maxTrackedAddresses) {
+                    return Decision.SHED_TOO_MANY_ADDRESSES;
+                }
+                bucket = addressBuckets.computeIfAbsent(address,
+                        a -> new TokenBucket(ratePerAddress, burstPerAddress, nowNanos));
+            }
+            if (!bucket.tryAcquire(nowNanos)) {
+                return Decision.SHED_ADDRESS_RATE;
+            }
+        }
+
+        if (globalBucket != null && !globalBucket.tryAcquire(nowNanos)) {
+            return Decision.SHED_GLOBAL_RATE;
+        }
+        return Decision.ADMITTED;
+    }
+
+    /**
+     * Returns the number of addresses with a tracked bucket.
+     */
+    public int getTrackedAddressCount() {
+        return addressBuckets.size();
+    }
+
+    private void maybeSweep(long nowNanos) {
+        long due = nextSweep.get();
+        if (nowNanos - due < 0 || !nextSweep.compareAndSet(due, nowNanos + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+
+        Iterator<TokenBucket> it = addressBuckets.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isIdle(nowNanos)) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -7,6 +7,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -21,6 +24,7 @@ import su.kidoz.kaillera.controller.connectcontroller.protocol.ConnectMessage_PO
 import su.kidoz.kaillera.controller.connectcontroller.protocol.ConnectMessage_TOO;
 import su.kidoz.kaillera.controller.messaging.ByteBufferMessage;
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.metrics.ConnectMetricsCollector;
 import su.kidoz.kaillera.model.exception.NewConnectionException;
 import su.kidoz.kaillera.model.exception.ServerFullException;
 import su.kidoz.net.BindException;
@@ -31,14 +35,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.SmartLifecycle;
 
+/**
+ * Listens on the connect port for PING and HELLO messages.
+ *
+ * <p>
+ * PINGs are answered directly on the receive thread. HELLOs go through
+ * {@link ConnectAdmissionControl} and are then handed to a bounded accept
+ * queue serviced by a few worker threads, which do the expensive part (access
+ * check, private port bind, server-side connection). When the rate limits or
+ * the queue are exhausted, the request is shed with a TOO (server full) reply
+ * without any further work, so a HELLO flood can't stall the receive thread.
+ */
 public class ConnectController extends MultiAddressUDPServer implements SmartLifecycle {
     private static final Logger log = LoggerFactory.getLogger(ConnectController.class);
 
+    private static final long WORKER_POLL_MILLIS = 500;
+
     private final EmuLinkerExecutor threadPool;
     private final AccessManager accessManager;
     private final Map<String, KailleraServerController> controllersMap;
+    private final ConnectMetricsCollector metrics;
 
     private final int bufferSize;
+    private final int acceptWorkers;
+    private final ConnectAdmissionControl admissionControl;
+    private final BlockingQueue<PendingConnection> acceptQueue;
 
     private final AtomicLong startTime = new AtomicLong(0);
     private final AtomicInteger requestCount = new AtomicInteger(0);
@@ -49,18 +70,25 @@ public class ConnectController extends MultiAddressUDPServer implements SmartLif
     private final AtomicInteger failedToStartCount = new AtomicInteger(0);
     private final AtomicInteger connectedCount = new AtomicInteger(0);
     private final AtomicInteger pingCount = new AtomicInteger(0);
+    private final AtomicInteger shedCount = new AtomicInteger(0);
 
     public ConnectController(EmuLinkerExecutor threadPool,
             KailleraServerController[] controllersArray, AccessManager accessManager,
-            ControllersConfig config) throws BindException {
+            ControllersConfig config, ConnectMetricsCollector metrics) throws BindException {
         super(true);
 
         this.threadPool = threadPool;
         this.accessManager = accessManager;
+        this.metrics = metrics;
         setExecutor(threadPool);
 
         int port = config.getConnect().getPort();
         this.bufferSize = config.getConnect().getBufferSize();
+        this.acceptWorkers = config.getConnect().getAcceptWorkers();
+        this.admissionControl = new ConnectAdmissionControl(config.getConnect(),
+                System.nanoTime());
+        this.acceptQueue = new ArrayBlockingQueue<>(config.getConnect().getAcceptQueueSize());
+        metrics.bindAcceptQueue(acceptQueue);
         List<InetAddress> bindAddresses = config.getParsedBindAddresses();
 
         controllersMap = new HashMap<String, KailleraServerController>();
@@ -126,6 +154,14 @@ public class ConnectController extends MultiAddressUDPServer implements SmartLif
         return pingCount.get();
     }
 
+    public int getShedCount() {
+        return shedCount.get();
+    }
+
+    public int getAcceptQueueSize() {
+        return acceptQueue.size();
+    }
+
     protected ByteBuffer getBuffer() {
         return ByteBufferMessage.getBuffer(bufferSize);
     }
@@ -154,12 +190,16 @@ public class ConnectController extends MultiAddressUDPServer implements SmartLif
                 + threadPool.getPoolSize() + ")");
         // run() starts all channel handlers using the executor
         this.run();
+        for (int i = 0; i < acceptWorkers; i++) {
+            threadPool.execute(this::acceptLoop);
+        }
         log.info("ConnectController started on port " + getBindPort());
     }
 
     @Override
     public synchronized void stop() {
         super.stop();
+        acceptQueue.clear();
         for (KailleraServerController controller : controllersMap.values())
             controller.stop();
         log.info("ConnectController stopped");
@@ -171,8 +211,7 @@ public class ConnectController extends MultiAddressUDPServer implements SmartLif
         return 30;
     }
 
-    protected synchronized void handleReceived(ByteBuffer buffer,
-            InetSocketAddress fromSocketAddress) {
+    protected void handleReceived(ByteBuffer buffer, InetSocketAddress fromSocketAddress) {
         requestCount.incrementAndGet();
 
         ConnectMessage inMessage;
@@ -217,38 +256,95 @@ public class ConnectController extends MultiAddressUDPServer implements SmartLif
             return;
         }
 
+        // Shed cheaply before doing any real work
+        long now = System.nanoTime();
+        ConnectAdmissionControl.Decision decision = admissionControl
+                .tryAdmit(fromSocketAddress.getAddress(), now);
+        if (decision != ConnectAdmissionControl.Decision.ADMITTED) {
+            switch (decision) {
+                case SHED_ADDRESS_RATE -> metrics.recordShedAddressRate();
+                case SHED_GLOBAL_RATE -> metrics.recordShedGlobalRate();
+                default -> metrics.recordShedTooManyAddresses();
+            }
+            shed(fromSocketAddress, decision.toString());
+            return;
+        }
+
+        if (!acceptQueue.offer(new PendingConnection(fromSocketAddress,
+                connectMessage.getProtocol(), protocolController, now))) {
+            metrics.recordShedQueueFull();
+            shed(fromSocketAddress, "accept queue full");
+            return;
+        }
+        metrics.recordAdmitted();
+    }
+
+    private void shed(InetSocketAddress fromSocketAddress, String reason) {
+        shedCount.incrementAndGet();
+        log.debug("Shedding connection request from "
+                + EmuUtil.formatSocketAddress(fromSocketAddress) + ": " + reason);
+        send(new ConnectMessage_TOO(), fromSocketAddress);
+    }
+
+    private void acceptLoop() {
+        while (!getStopFlag()) {
+            PendingConnection pending;
+            try {
+                pending = acceptQueue.poll(WORKER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pending == null) {
+                continue;
+            }
+
+            metrics.recordQueueDelay(System.nanoTime() - pending.enqueuedNanos());
+            try {
+                accept(pending);
+            } catch (RuntimeException e) {
+                failedToStartCount.incrementAndGet();
+                log.error("Failed to accept connection from "
+                        + EmuUtil.formatSocketAddress(pending.clientSocketAddress()), e);
+            }
+        }
+    }
+
+    private void accept(PendingConnection pending) {
+        InetSocketAddress fromSocketAddress = pending.clientSocketAddress();
+        KailleraServerController protocolController = pending.controller();
+
         if (!accessManager.isAddressAllowed(fromSocketAddress.getAddress())) {
             deniedOtherCount.incrementAndGet();
             log.warn("AccessManager denied connection from "
                     + EmuUtil.formatSocketAddress(fromSocketAddress));
-        } else {
-            int privatePort;
+            return;
+        }
 
-            try {
-                privatePort = protocolController.newConnection(fromSocketAddress,
-                        connectMessage.getProtocol());
-
-                if (privatePort <= 0) {
-                    failedToStartCount.incrementAndGet();
-                    log.error(protocolController + " failed to start for "
-                            + EmuUtil.formatSocketAddress(fromSocketAddress));
-                    return;
-                }
-
-                connectedCount.incrementAndGet();
-                log.debug(protocolController + " allocated port " + privatePort + " to client from "
-                        + fromSocketAddress.getAddress().getHostAddress());
-                send(new ConnectMessage_HELLOD00D(privatePort), fromSocketAddress);
-            } catch (ServerFullException e) {
-                deniedServerFullCount.incrementAndGet();
-                log.debug("Sending server full response to "
+        try {
+            int privatePort = protocolController.newConnection(fromSocketAddress,
+                    pending.protocol());
+
+            if (privatePort <= 0) {
+                failedToStartCount.incrementAndGet();
+                log.error(protocolController + " failed to start for "
                         + EmuUtil.formatSocketAddress(fromSocketAddress));
-                send(new ConnectMessage_TOO(), fromSocketAddress);
-            } catch (NewConnectionException e) {
-                deniedOtherCount.incrementAndGet();
-                log.warn(protocolController + " denied connection from "
-                        + EmuUtil.formatSocketAddress(fromSocketAddress) + ": " + e.getMessage());
+                return;
             }
+
+            connectedCount.incrementAndGet();
+            log.debug(protocolController + " allocated port " + privatePort + " to client from "
+                    + fromSocketAddress.getAddress().getHostAddress());
+            send(new ConnectMessage_HELLOD00D(privatePort), fromSocketAddress);
+        } catch (ServerFullException e) {
+            deniedServerFullCount.incrementAndGet();
+            log.debug("Sending server full response to "
+                    + EmuUtil.formatSocketAddress(fromSocketAddress));
+            send(new ConnectMessage_TOO(), fromSocketAddress);
+        } catch (NewConnectionException e) {
+            deniedOtherCount.incrementAndGet();
+            log.warn(protocolController + " denied connection from "
+                    + EmuUtil.formatSocketAddress(fromSocketAddress) + ": " + e.getMessage());
         }
     }
 
@@ -256,4 +352,8 @@ public class ConnectController extends MultiAddressUDPServer implements SmartLif
         send(outMessage.toBuffer(), toSocketAddress);
         outMessage.releaseBuffer();
     }
+
+    private record PendingConnection(InetSocketAddress clientSocketAddress, String protocol,
+            KailleraServerController controller, long enqueuedNanos) {
+    }
 }
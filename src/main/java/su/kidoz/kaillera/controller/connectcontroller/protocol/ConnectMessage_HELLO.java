@@ -4,7 +4,7 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 
 public class ConnectMessage_HELLO extends ConnectMessage {
     public static final String ID = "HELLO";
@@ -47,7 +47,7 @@ public class ConnectMessage_HELLO extends ConnectMessage {
 
     public void writeTo(ByteBuffer buffer) {
         buffer.put(charset.encode(ID));
-        EmuUtil.writeString(buffer, protocol, 0x00, charset);
+        ProtocolStringCodec.write(buffer, protocol, 0x00, charset);
     }
 
     public static ConnectMessage parse(String msg) throws MessageFormatException {
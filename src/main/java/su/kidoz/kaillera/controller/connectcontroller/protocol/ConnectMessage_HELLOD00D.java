@@ -3,7 +3,7 @@ package su.kidoz.kaillera.controller.connectcontroller.protocol;
 import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 
 public class ConnectMessage_HELLOD00D extends ConnectMessage {
     public static final String ID = "HELLOD00D";
@@ -37,7 +37,7 @@ public class ConnectMessage_HELLOD00D extends ConnectMessage {
 
     public void writeTo(ByteBuffer buffer) {
         buffer.put(charset.encode(ID));
-        EmuUtil.writeString(buffer, Integer.toString(port), 0x00, charset);
+        ProtocolStringCodec.write(buffer, Integer.toString(port), 0x00, charset);
     }
 
     public static ConnectMessage parse(String msg) throws MessageFormatException {
@@ -0,0 +1,204 @@
+package su.kidoz.kaillera.controller.messaging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import su.kidoz.util.EncodedString;
+
+/**
+ * Reads and writes terminated string fields of the Kaillera protocols without
+ * intermediate buffers.
+ *
+ * <p>
+ * Reading scans for the terminator in place and builds the string straight
+ * from the message buffer; ASCII and Latin-1 text (nearly all protocol
+ * traffic) takes the compact-string fast path of the {@link String}
+ * constructor. Writing encodes ASCII, Latin-1 and UTF-8 directly into the
+ * destination buffer, and {@link #encodedLength} returns the exact number of
+ * bytes {@link #write} will produce so message body lengths stay correct for
+ * multi-byte text.
+ *
+ * <p>
+ * Unmappable characters are replaced with {@code '?'}, matching
+ * {@link Charset#encode(String)}. Charsets other than US-ASCII, ISO-8859-1 and
+ * UTF-8 fall back to the regular {@link Charset} methods.
+ */
+public final class ProtocolStringCodec {
+
+    private static final byte REPLACEMENT = '?';
+
+    private ProtocolStringCodec() {
+    }
+
+    /**
+     * Reads a string up to (and consuming) the stop byte, or up to the end of
+     * the buffer if there is none.
+     */
+    public static String read(ByteBuffer buffer, int stopByte, Charset charset) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        byte stop = (byte) stopByte;
+
+        int end = start;
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            while (end < limit && array[offset + end] != stop) {
+                end++;
+            }
+            buffer.position(end < limit ? end + 1 : limit);
+            return new String(array, offset + start, end - start, decodeCharset(charset));
+        }
+
+        while (end < limit && buffer.get(end) != stop) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        buffer.position(end < limit ? end + 1 : limit);
+        return new String(bytes, decodeCharset(charset));
+    }
+
+    /**
+     * Writes a string followed by the stop byte.
+     */
+    public static void write(ByteBuffer buffer, String s, int stopByte, Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            writeUtf8(buffer, s);
+        } else if (charset.equals(StandardCharsets.ISO_8859_1)) {
+            writeSingleByte(buffer, s, 0xFF);
+        } else if (charset.equals(StandardCharsets.US_ASCII)) {
+            writeSingleByte(buffer, s, 0x7F);
+        } else {
+            buffer.put(charset.encode(s));
+        }
+        buffer.put((byte) stopByte);
+    }
+
+    /**
+     * Writes a pre-encoded string followed by the stop byte, copying its cached
+     * bytes.
+     */
+    public static void write(ByteBuffer buffer, EncodedString s, int stopByte,
+            Charset charset) {
+        buffer.put(s.getBytes(charset));
+        buffer.put((byte) stopByte);
+    }
+
+    /**
+     * Returns the number of bytes {@link #write} produces for the pre-encoded
+     * string, excluding the stop byte.
+     */
+    public static int encodedLength(EncodedString s, Charset charset) {
+        return s.getBytes(charset).length;
+    }
+
+    /**
+     * Returns the number of bytes {@link #write} produces for the string,
+     * excluding the stop byte.
+     */
+    public static int encodedLength(String s, Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            return utf8Length(s);
+        }
+        if (charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII)) {
+            return singleByteLength(s);
+        }
+        return charset.encode(s).remaining();
+    }
+
+    private static Charset decodeCharset(Charset charset) {
+        // Decoding US-ASCII as Latin-1 gives the same result for valid input
+        // and goes through the same fast path
+        return charset.equals(StandardCharsets.US_ASCII) ? StandardCharsets.ISO_8859_1 : charset;
+    }
+
+    private static void writeSingleByte(ByteBuffer buffer, String s, int maxChar) {
+        int length = s.length();
+        int i = 0;
+        while (i < length) {
+            char c = s.charAt(i++);
+            if (c <= maxChar) {
+                buffer.put((byte) c);
+                continue;
+            }
+            buffer.put(REPLACEMENT);
+            // A surrogate pair is one character and gets one replacement
+            if (Character.isHighSurrogate(c) && i < length
+                    && Character.isLowSurrogate(s.charAt(i))) {
+                i++;
+            }
+        }
+    }
+
+    private static void writeUtf8(ByteBuffer buffer, String s) {
+        int length = s.length();
+        int i = 0;
+        while (i < length) {
+            char c = s.charAt(i++);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i < length
+                        && Character.isLowSurrogate(s.charAt(i))) {
+                    int cp = Character.toCodePoint(c, s.charAt(i++));
+                    buffer.put((byte) (0xF0 | (cp >> 18)));
+                    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    // Unpaired surrogate
+                    buffer.put(REPLACEMENT);
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static int singleByteLength(String s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 1; i < length; i++) {
+            // Each surrogate pair is replaced with a single byte
+            if (Character.isLowSurrogate(s.charAt(i))
+                    && Character.isHighSurrogate(s.charAt(i - 1))) {
+                bytes--;
+            }
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(String s) {
+        int length = s.length();
+        int bytes = length;
+        int i = 0;
+        while (i < length) {
+            char c = s.charAt(i++);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i < length
+                        && Character.isLowSurrogate(s.charAt(i))) {
+                    // Two chars, four bytes
+                    bytes += 2;
+                    i++;
+                }
+                // An unpaired surrogate is replaced with a single byte
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+}
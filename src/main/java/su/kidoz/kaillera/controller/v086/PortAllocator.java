@@ -12,6 +12,11 @@ import java.util.OptionalInt;
  */
 public interface PortAllocator {
 
+    /**
+     * The last port number.
+     */
+    int MAX_PORT = 65535;
+
     /**
      * Allocates an available port from the pool.
      *
@@ -33,4 +38,15 @@ public interface PortAllocator {
      * @return count of available ports
      */
     int availableCount();
+
+    /**
+     * Extends the range so it holds {@code count} ports. Ports already in the
+     * range, allocated or not, are kept; a range is never shrunk.
+     *
+     * @param count
+     *            the number of ports the range should hold
+     * @throws IllegalArgumentException
+     *             if the range would go past the last port number
+     */
+    void grow(int count);
 }
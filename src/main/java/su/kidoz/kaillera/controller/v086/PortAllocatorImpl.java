@@ -8,11 +8,15 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * Thread-safe implementation of {@link PortAllocator} using a concurrent queue.
  *
  * <p>
- * Ports are initialized from a contiguous range and managed in FIFO order.
+ * Ports are initialized from a contiguous range and managed in FIFO order. The
+ * range can grow at its end while ports are in use.
  */
 public final class PortAllocatorImpl implements PortAllocator {
 
     private final Queue<Integer> portQueue;
+    private final int startPort;
+    // Guarded by this
+    private int count;
 
     /**
      * Creates a port allocator for the specified range.
@@ -24,9 +28,8 @@ public final class PortAllocatorImpl implements PortAllocator {
      */
     public PortAllocatorImpl(int startPort, int count) {
         this.portQueue = new ConcurrentLinkedQueue<>();
-        for (int i = 0; i < count; i++) {
-            portQueue.add(startPort + i);
-        }
+        this.startPort = startPort;
+        grow(count);
     }
 
     @Override
@@ -44,4 +47,15 @@ public final class PortAllocatorImpl implements PortAllocator {
     public int availableCount() {
         return portQueue.size();
     }
+
+    @Override
+    public synchronized void grow(int count) {
+        if (startPort + count - 1 > MAX_PORT) {
+            throw new IllegalArgumentException(
+                    "Port range " + startPort + " + " + count + " goes past " + MAX_PORT);
+        }
+        for (; this.count < count; this.count++) {
+            portQueue.add(startPort + this.count);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package su.kidoz.kaillera.controller.v086;
+
+import su.kidoz.kaillera.metrics.NetworkMetricsCollector;
+
+/**
+ * Network quality statistics of one client session.
+ *
+ * <p>
+ * Kaillera clients repeat their last few messages in every bundle, so a bundle
+ * normally carries messages the server already has. A gap in the message
+ * numbers means a whole bundle was lost on the way in, while a long silence
+ * with no gap means the client stopped sending. Together with the round trip
+ * time measured by the login ACK exchange, this tells loss on the player's side
+ * apart from stalls on the server's.
+ *
+ * <p>
+ * Samples are also passed on to the {@link NetworkMetricsCollector}, if any,
+ * which aggregates them over all sessions.
+ */
+public final class SessionStats {
+
+    // Gains of the smoothed round trip time and its deviation, as in TCP
+    private static final double RTT_GAIN = 0.125;
+    private static final double RTT_VARIANCE_GAIN = 0.25;
+
+    private final NetworkMetricsCollector metrics;
+    private final int maxBundleSize;
+
+    private long packetsIn;
+    private long bytesIn;
+    private long messagesIn;
+    private long newMessagesIn;
+    private long gaps;
+    private long missingMessages;
+    private long lastReceivedNanos;
+    private long maxSilenceNanos;
+
+    private long packetsOut;
+    private long bytesOut;
+    private long messagesOut;
+    private long resends;
+
+    private long rttSamples;
+    private double smoothedRttMillis;
+    private double rttVarianceMillis;
+
+    /**
+     * A point-in-time copy of a session's statistics.
+     *
+     * @param redundantMessagesIn
+     *            inbound messages the server already had
+     * @param gaps
+     *            times inbound message numbers skipped ahead
+     * @param missingMessages
+     *            inbound messages skipped over by those gaps
+     * @param maxSilenceMillis
+     *            longest time between two inbound packets
+     * @param averageBundleFill
+     *            average share of the bundle size used by outbound bundles
+     * @param rttMillis
+     *            smoothed round trip time, or 0 if not measured
+     */
+    public record Snapshot(long packetsIn, long bytesIn, long messagesIn,
+            long redundantMessagesIn, long gaps, long missingMessages, long maxSilenceMillis,
+            long packetsOut, long bytesOut, long messagesOut, long resends,
+            double averageBundleFill, long rttSamples, double rttMillis,
+            double rttVarianceMillis) {
+    }
+
+    /**
+     * @param metrics
+     *            the collector to pass samples on to, or null
+     * @param maxBundleSize
+     *            the most messages an outbound bundle holds
+     */
+    public SessionStats(NetworkMetricsCollector metrics, int maxBundleSize) {
+        this.metrics = metrics;
+        this.maxBundleSize = maxBundleSize;
+    }
+
+    /**
+     * Records an inbound bundle.
+     *
+     * @param bundleMessages
+     *            the messages in the bundle
+     * @param newMessages
+     *            the messages in it the server did not have yet
+     */
+    public void recordReceived(int bytes, int bundleMessages, int newMessages) {
+        long now = System.nanoTime();
+        long silenceNanos = 0;
+        synchronized (this) {
+            if (packetsIn > 0) {
+                silenceNanos = now - lastReceivedNanos;
+                if (silenceNanos > maxSilenceNanos)
+                    maxSilenceNanos = silenceNanos;
+            }
+            lastReceivedNanos = now;
+            packetsIn++;
+            bytesIn += bytes;
+            messagesIn += bundleMessages;
+            newMessagesIn += newMessages;
+        }
+
+        if (metrics != null)
+            metrics.recordReceived(bytes, bundleMessages - newMessages, silenceNanos);
+    }
+
+    /**
+     * Records inbound message numbers skipping ahead.
+     *
+     * @param missing
+     *            the message numbers skipped over
+     */
+    public void recordGap(int missing) {
+        synchronized (this) {
+            gaps++;
+            missingMessages += missing;
+        }
+
+        if (metrics != null)
+            metrics.recordGap(missing);
+    }
+
+    /**
+     * Records an outbound bundle.
+     */
+    public void recordSent(int bytes, int bundleMessages) {
+        synchronized (this) {
+            packetsOut++;
+            bytesOut += bytes;
+            messagesOut += bundleMessages;
+        }
+
+        if (metrics != null)
+            metrics.recordSent(bytes, bundleMessages);
+    }
+
+    /**
+     * Records the server resending its last messages.
+     */
+    public void recordResend() {
+        synchronized (this) {
+            resends++;
+        }
+
+        if (metrics != null)
+            metrics.recordResend();
+    }
+
+    /**
+     * Records a round trip time sample.
+     */
+    public void recordRtt(long rttMillis) {
+        synchronized (this) {
+            if (rttSamples == 0) {
+                smoothedRttMillis = rttMillis;
+                rttVarianceMillis = rttMillis / 2.0;
+            } else {
+                rttVarianceMillis += RTT_VARIANCE_GAIN
+                        * (Math.abs(smoothedRttMillis - rttMillis) - rttVarianceMillis);
+                smoothedRttMillis += RTT_GAIN * (rttMillis - smoothedRttMillis);
+            }
+            rttSamples++;
+        }
+
+        if (metrics != null)
+            metrics.recordRtt(rttMillis);
+    }
+
+    /**
+     * Returns a copy of the statistics so far.
+     */
+    public synchronized Snapshot snapshot() {
+        double bundleFill = packetsOut > 0
+                ? (double) messagesOut / (packetsOut * (long) maxBundleSize)
+                : 0;
+        return new Snapshot(packetsIn, bytesIn, messagesIn, messagesIn - newMessagesIn, gaps,
+                missingMessages, maxSilenceNanos / 1_000_000, packetsOut, bytesOut, messagesOut,
+                resends, bundleFill, rttSamples, smoothedRttMillis, rttVarianceMillis);
+    }
+}
@@ -11,11 +11,17 @@ import su.kidoz.kaillera.controller.v086.action.ActionRouter;
 import su.kidoz.kaillera.controller.v086.action.FatalActionException;
 import su.kidoz.kaillera.controller.v086.action.V086Action;
 import su.kidoz.kaillera.controller.v086.action.V086GameEventHandler;
+import su.kidoz.kaillera.controller.v086.action.V086RawAction;
 import su.kidoz.kaillera.controller.v086.action.V086ServerEventHandler;
 import su.kidoz.kaillera.controller.v086.action.V086UserEventHandler;
 import su.kidoz.kaillera.controller.v086.protocol.V086Bundle;
 import su.kidoz.kaillera.controller.v086.protocol.V086BundleFormatException;
+import su.kidoz.kaillera.controller.v086.protocol.V086BundleReader;
 import su.kidoz.kaillera.controller.v086.protocol.V086Message;
+import su.kidoz.kaillera.metrics.jfr.ActionExecutedEvent;
+import su.kidoz.kaillera.metrics.jfr.BundleSentEvent;
+import su.kidoz.kaillera.metrics.jfr.PacketReceivedEvent;
+import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraServer;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.model.event.DefaultEventDispatcher;
@@ -26,6 +32,7 @@ import su.kidoz.kaillera.model.event.KailleraEventListener;
 import su.kidoz.kaillera.model.event.ServerEvent;
 import su.kidoz.kaillera.model.event.UserEvent;
 import su.kidoz.net.BindException;
+import su.kidoz.net.ImpairedLink;
 import su.kidoz.net.PrivateUDPServer;
 import su.kidoz.util.ClientGameDataCache;
 import su.kidoz.util.EmuLinkerExecutor;
@@ -50,6 +57,7 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
     private final KailleraServer server;
     private final ActionRouter actionRouter;
     private final EventDispatcher eventDispatcher;
+    private final SessionStats sessionStats;
 
     private volatile KailleraUser user;
     private int messageNumberCounter = 0;
@@ -62,6 +70,7 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
     private V086Message[] outMessages = new V086Message[MAX_BUNDLE_SIZE];
 
     private ByteBuffer inBuffer;
+    private final V086BundleReader bundleReader = new V086BundleReader();
     private ByteBuffer outBuffer;
 
     private final Object inSynch = new Object();
@@ -115,6 +124,7 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
         // Create event dispatcher and register this handler as the listener
         this.eventDispatcher = new DefaultEventDispatcher();
         this.eventDispatcher.setListener(this);
+        this.sessionStats = new SessionStats(controller.getNetworkMetrics(), MAX_BUNDLE_SIZE);
 
         this.inBuffer = ByteBuffer.allocateDirect(bufferSize);
         this.outBuffer = ByteBuffer.allocateDirect(bufferSize);
@@ -144,6 +154,10 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
         return user;
     }
 
+    public SessionStats getSessionStats() {
+        return sessionStats;
+    }
+
     public synchronized int getNextMessageNumber() {
         if (messageNumberCounter > 0xFFFF)
             messageNumberCounter = 0;
@@ -183,6 +197,7 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
         int et = (int) (System.currentTimeMillis() - lastMeasurement);
         if (et < bestTime)
             bestTime = et;
+        sessionStats.recordRtt(et);
         measurementCount++;
         lastMeasurement = System.currentTimeMillis();
     }
@@ -228,6 +243,13 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
             log.debug(this.toString() + " Stopping!");
             super.stop();
 
+            ImpairedLink inbound = getInboundLink();
+            ImpairedLink outbound = getOutboundLink();
+            if (inbound != null || outbound != null) {
+                log.info(toString() + " network impairment: inbound " + inbound + ", outbound "
+                        + outbound);
+            }
+
             if (port > 0) {
                 log.debug(toString() + " returning port " + port + " to available port queue: "
                         + (portAllocator.availableCount() + 1) + " available");
@@ -258,10 +280,12 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
             return;
         }
 
-        V086Bundle inBundle = null;
-
+        PacketReceivedEvent received = new PacketReceivedEvent();
+        received.begin();
+        int bytes = buffer.remaining();
+        int numMessages;
         try {
-            inBundle = V086Bundle.parse(buffer, lastMessageNumber);
+            numMessages = bundleReader.read(buffer, lastMessageNumber);
         } catch (ParseException e) {
             buffer.rewind();
             log.warn(toString() + " failed to parse: " + EmuUtil.dumpBuffer(buffer), e);
@@ -271,15 +295,13 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
             log.warn(toString() + " received invalid message bundle: " + EmuUtil.dumpBuffer(buffer),
                     e);
             return;
-        } catch (MessageFormatException e) {
-            buffer.rewind();
-            log.warn(toString() + " received invalid message: " + EmuUtil.dumpBuffer(buffer), e);
-            return;
         }
+        received.finish(localUser.getID(), gameId(localUser), bytes, numMessages);
+        sessionStats.recordReceived(bytes, bundleReader.getBundleMessageCount(), numMessages);
 
-        if (inBundle.getNumMessages() == 0) {
-            log.debug(toString() + " received bundle of " + inBundle.getNumMessages()
-                    + " messages from " + localUser);
+        if (numMessages == 0) {
+            log.debug(toString() + " received bundle of " + numMessages + " messages from "
+                    + localUser);
             clientRetryCount++;
             resend(clientRetryCount);
             return;
@@ -290,11 +312,11 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
         try {
             synchronized (inSynch) {
                 // read the bundle from back to front to process the oldest messages first
-                V086Message[] messages = inBundle.getMessages();
-                for (int i = (inBundle.getNumMessages() - 1); i >= 0; i--) {
-                    if (isNewerMessage(messages[i].getNumber(), lastMessageNumber)) {
+                for (int i = (numMessages - 1); i >= 0; i--) {
+                    int messageNumber = bundleReader.getMessageNumber(i);
+                    if (V086BundleReader.isNewerMessage(messageNumber, lastMessageNumber)) {
                         prevMessageNumber = lastMessageNumber;
-                        lastMessageNumber = messages[i].getNumber();
+                        lastMessageNumber = messageNumber;
 
                         if (prevMessageNumber >= 0) {
                             int expected = (prevMessageNumber + 1) & 0xFFFF;
@@ -302,16 +324,11 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
                                 log.warn(localUser + " dropped a packet! (" + prevMessageNumber
                                         + " to " + lastMessageNumber + ")");
                                 localUser.droppedPacket();
+                                sessionStats.recordGap((lastMessageNumber - expected) & 0xFFFF);
                             }
                         }
 
-                        V086Action action = actionRouter.getAction(messages[i].getID());
-                        if (action == null) {
-                            log.error("No action defined to handle client message: " + messages[i]);
-                            continue;
-                        }
-
-                        action.performAction(messages[i], this);
+                        performAction(localUser, i, messageNumber);
                     }
                 }
             }
@@ -321,6 +338,44 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
         }
     }
 
+    private void performAction(KailleraUser localUser, int index, int messageNumber)
+            throws FatalActionException {
+        byte messageID = bundleReader.getMessageID(index);
+        V086Action action = actionRouter.getAction(messageID);
+        ActionExecutedEvent executed = new ActionExecutedEvent();
+        executed.begin();
+        try {
+            if (action instanceof V086RawAction rawAction) {
+                // game data is handled straight from the receive buffer
+                rawAction.performRawAction(messageNumber, bundleReader.getBody(index), this);
+                executed.finish(localUser.getID(), gameId(localUser), messageID, messageNumber,
+                        action);
+                return;
+            }
+
+            V086Message message = bundleReader.materialize(index);
+            if (action == null) {
+                log.error("No action defined to handle client message: " + message);
+                return;
+            }
+
+            action.performAction(message, this);
+            executed.finish(localUser.getID(), gameId(localUser), messageID, messageNumber,
+                    action);
+        } catch (ParseException e) {
+            log.warn(toString() + " failed to parse message " + messageNumber + " (ID "
+                    + EmuUtil.byteToHex(messageID) + "): " + e.getMessage());
+        } catch (MessageFormatException e) {
+            log.warn(toString() + " received invalid message " + messageNumber + " (ID "
+                    + EmuUtil.byteToHex(messageID) + "): " + e.getMessage());
+        }
+    }
+
+    private static int gameId(KailleraUser user) {
+        KailleraGame game = user.getGame();
+        return game != null ? game.getID() : 0;
+    }
+
     public void actionPerformed(KailleraEvent event) {
         if (event instanceof GameEvent gameEvent) {
             V086GameEventHandler eventHandler = findGameEventHandler(event.getClass());
@@ -397,6 +452,7 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
                     numToSend = MAX_BUNDLE_SIZE;
                 log.debug(this + ": resending last " + numToSend + " messages");
                 send(null, numToSend);
+                sessionStats.recordResend();
                 lastResend = System.currentTimeMillis();
             } else {
                 log.debug("Skipping resend...");
@@ -410,6 +466,8 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
 
     public void send(V086Message outMessage, int numToSend) {
         synchronized (outSynch) {
+            BundleSentEvent sent = new BundleSentEvent();
+            sent.begin();
             if (outMessage != null)
                 lastMessageBuffer.add(outMessage);
 
@@ -417,17 +475,17 @@ public final class V086ClientHandler extends PrivateUDPServer implements Kailler
             V086Bundle outBundle = new V086Bundle(outMessages, numToSend);
             outBundle.writeTo(outBuffer);
             outBuffer.flip();
+            int bytes = outBuffer.remaining();
             super.send(outBuffer);
             outBuffer.clear();
-        }
-    }
+            sessionStats.recordSent(bytes, numToSend);
 
-    private boolean isNewerMessage(int candidate, int last) {
-        if (last < 0) {
-            return true;
+            KailleraUser localUser = user;
+            if (localUser != null && sent.isEnabled()) {
+                sent.finish(localUser.getID(), gameId(localUser),
+                        outMessage != null ? outMessage.getID() : 0,
+                        outMessage != null ? outMessage.getNumber() : -1, numToSend, bytes);
+            }
         }
-
-        int diff = (candidate - last) & 0xFFFF;
-        return diff > 0 && diff < 0x8000;
     }
 }
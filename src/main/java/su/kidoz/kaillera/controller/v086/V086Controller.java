@@ -7,6 +7,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 import su.kidoz.config.ControllersConfig;
 import su.kidoz.config.ServerConfig;
@@ -16,11 +19,13 @@ import su.kidoz.kaillera.controller.v086.action.V086Action;
 import su.kidoz.kaillera.controller.v086.action.V086GameEventHandler;
 import su.kidoz.kaillera.controller.v086.action.V086ServerEventHandler;
 import su.kidoz.kaillera.controller.v086.action.V086UserEventHandler;
+import su.kidoz.kaillera.metrics.NetworkMetricsCollector;
 import su.kidoz.kaillera.model.KailleraServer;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.model.exception.NewConnectionException;
 import su.kidoz.kaillera.model.exception.ServerFullException;
 import su.kidoz.net.BindException;
+import su.kidoz.net.NetworkImpairment;
 import su.kidoz.util.EmuLinkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,17 +44,27 @@ public final class V086Controller implements KailleraServerController, SmartLife
 
     private final int portRangeStart;
     private final int extraPorts;
+    private volatile int portCount;
     private final PortAllocator portAllocator;
     private final List<InetAddress> bindAddresses;
 
     private final ActionRouter actionRouter;
+    private final NetworkMetricsCollector networkMetrics;
+
+    // Network impairment of sessions, for testing
+    private final NetworkImpairment inboundImpairment;
+    private final NetworkImpairment outboundImpairment;
+    private final long impairmentSeed;
+    private final AtomicLong impairedSessions = new AtomicLong();
+    private volatile ScheduledExecutorService impairmentScheduler;
 
     public V086Controller(KailleraServer server, EmuLinkerExecutor threadPool,
             ControllersConfig controllersConfig, ServerConfig serverConfig,
-            ActionRouter actionRouter) {
+            ActionRouter actionRouter, NetworkMetricsCollector networkMetrics) {
         this.threadPool = threadPool;
         this.server = server;
         this.actionRouter = actionRouter;
+        this.networkMetrics = networkMetrics;
 
         ControllersConfig.V086 v086Config = controllersConfig.getV086();
         this.bufferSize = v086Config.getBufferSize();
@@ -58,7 +73,7 @@ public final class V086Controller implements KailleraServerController, SmartLife
 
         this.portRangeStart = v086Config.getPortRangeStart();
         this.extraPorts = v086Config.getExtraPorts();
-        int portCount = serverConfig.getMaxUsers() + extraPorts + 1;
+        this.portCount = serverConfig.getMaxUsers() + extraPorts + 1;
         this.portAllocator = new PortAllocatorImpl(portRangeStart, portCount);
         int maxPort = portRangeStart + portCount - 1;
 
@@ -67,6 +82,15 @@ public final class V086Controller implements KailleraServerController, SmartLife
                         + "Make sure these ports are open in your firewall!",
                 portRangeStart, maxPort,
                 bindAddresses.stream().map(InetAddress::getHostAddress).toList());
+
+        ControllersConfig.Impairment impairment = v086Config.getImpairment();
+        this.inboundImpairment = NetworkImpairment.parse(impairment.getInbound());
+        this.outboundImpairment = NetworkImpairment.parse(impairment.getOutbound());
+        this.impairmentSeed = impairment.getSeed();
+        if (!inboundImpairment.isNone() || !outboundImpairment.isNone()) {
+            log.warn("Impairing client sessions for testing: inbound {}, outbound {}",
+                    inboundImpairment, outboundImpairment);
+        }
     }
 
     public String getVersion() {
@@ -89,6 +113,64 @@ public final class V086Controller implements KailleraServerController, SmartLife
         return bufferSize;
     }
 
+    /**
+     * Returns the collector of the sessions' network quality, or null if not
+     * collected.
+     */
+    public NetworkMetricsCollector getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    /**
+     * Returns the number of client ports, allocated or not.
+     */
+    public int getPortCount() {
+        return portCount;
+    }
+
+    /**
+     * Checks that the client port range can grow to serve a user limit.
+     *
+     * @throws IllegalArgumentException
+     *             if the range would go past the last port number
+     */
+    public void checkMaxUsers(int maxUsers) {
+        long lastPort = (long) portRangeStart + maxUsers + extraPorts;
+        if (lastPort > PortAllocator.MAX_PORT) {
+            throw new IllegalArgumentException("server.max-users must be at most "
+                    + (PortAllocator.MAX_PORT - portRangeStart - extraPorts)
+                    + " for client ports starting at " + portRangeStart);
+        }
+    }
+
+    /**
+     * Adds client ports for a raised user limit, which must have passed
+     * {@link #checkMaxUsers}. Ports are never removed, as sessions may be using
+     * them.
+     */
+    public synchronized void maxUsersChanged(int maxUsers) {
+        int count = maxUsers + extraPorts + 1;
+        if (count <= portCount)
+            return;
+
+        try {
+            portAllocator.grow(count);
+        } catch (IllegalArgumentException e) {
+            log.error("Cannot add client ports for {} users: {}", maxUsers, e.getMessage());
+            return;
+        }
+        portCount = count;
+        log.warn("Listening on UDP ports: {} to {}. Make sure these ports are open in your "
+                + "firewall!", portRangeStart, portRangeStart + count - 1);
+    }
+
+    /**
+     * Returns the number of client ports not allocated to a session.
+     */
+    public int getAvailablePortCount() {
+        return portAllocator.availableCount();
+    }
+
     public Map<Class<?>, V086ServerEventHandler> getServerEventHandlers() {
         return actionRouter.getServerEventHandlers();
     }
@@ -156,6 +238,11 @@ public final class V086Controller implements KailleraServerController, SmartLife
         int bindAttempts = 0;
         V086ClientHandler clientHandler = new V086ClientHandler(clientSocketAddress, this,
                 bufferSize, threadPool, portAllocator, server, actionRouter);
+        ScheduledExecutorService scheduler = impairmentScheduler;
+        if (scheduler != null) {
+            clientHandler.setImpairment(inboundImpairment, outboundImpairment,
+                    impairmentSeed + impairedSessions.getAndIncrement(), scheduler, threadPool);
+        }
         while (bindAttempts++ < 5) {
             OptionalInt portOpt = portAllocator.allocate();
             if (portOpt.isEmpty()) {
@@ -228,6 +315,15 @@ public final class V086Controller implements KailleraServerController, SmartLife
             return;
         }
 
+        if (!inboundImpairment.isNone() || !outboundImpairment.isNone()) {
+            // Only times the delays, packets are handled on the thread pool
+            impairmentScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "v086-impairment");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
         isRunning = true;
         log.info("V086Controller started");
     }
@@ -245,6 +341,10 @@ public final class V086Controller implements KailleraServerController, SmartLife
             clientHandler.stop();
 
         clientHandlers.clear();
+        if (impairmentScheduler != null) {
+            impairmentScheduler.shutdownNow();
+            impairmentScheduler = null;
+        }
         log.info("V086Controller stopped");
     }
 
@@ -0,0 +1,32 @@
+package su.kidoz.kaillera.controller.v086.action;
+
+import java.nio.ByteBuffer;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
+import su.kidoz.kaillera.controller.v086.V086ClientHandler;
+
+/**
+ * A {@link V086Action} that can also handle a message straight from its body
+ * bytes, without a {@link su.kidoz.kaillera.controller.v086.protocol.V086Message}
+ * being built first. Implemented by the actions for the per-frame game data
+ * messages so the hot path does not allocate message objects.
+ *
+ * @see su.kidoz.kaillera.controller.v086.protocol.V086BundleReader
+ */
+public interface V086RawAction extends V086Action {
+
+    /**
+     * Handles a message from its body.
+     *
+     * @param messageNumber
+     *            the message number
+     * @param body
+     *            the message body (after the message ID byte), only valid for
+     *            the duration of the call
+     * @param clientHandler
+     *            the client handler that received the message
+     */
+    void performRawAction(int messageNumber, ByteBuffer body, V086ClientHandler clientHandler)
+            throws FatalActionException, ParseException, MessageFormatException;
+}
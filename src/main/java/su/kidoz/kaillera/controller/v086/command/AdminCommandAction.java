@@ -19,6 +19,7 @@ import su.kidoz.kaillera.controller.v086.protocol.V086Message;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraServer;
 import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.event.UserBannedEvent;
 import su.kidoz.kaillera.model.exception.ActionException;
 import su.kidoz.release.ReleaseInfo;
 import su.kidoz.util.EmuLang;
@@ -151,24 +152,18 @@ public final class AdminCommandAction implements V086Action {
             throw new ActionException(EmuLang.getString("AdminCommandAction.FindUserError"));
 
         int foundCount = 0;
-        WildcardStringPattern pattern = new WildcardStringPattern(message.substring(space + 1));
-        for (KailleraUser user : server.getUsers()) {
-            if (!user.isLoggedIn())
-                continue;
-
-            if (pattern.match(user.getName())) {
-                StringBuilder sb = new StringBuilder();
-                sb.append(user.getID());
-                sb.append(": ");
-                sb.append(user.getPing());
-                sb.append("ms ");
-                sb.append(user.getConnectSocketAddress().getAddress().getHostAddress());
-                sb.append(" ");
-                sb.append(user.getName());
-                clientHandler.send(new InformationMessage(clientHandler.getNextMessageNumber(),
-                        "server", sb.toString()));
-                foundCount++;
-            }
+        for (KailleraUser user : server.findUsers(message.substring(space + 1))) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(user.getID());
+            sb.append(": ");
+            sb.append(user.getPing());
+            sb.append("ms ");
+            sb.append(user.getConnectSocketAddress().getAddress().getHostAddress());
+            sb.append(" ");
+            sb.append(user.getName());
+            clientHandler.send(new InformationMessage(clientHandler.getNextMessageNumber(),
+                    "server", sb.toString()));
+            foundCount++;
         }
 
         if (foundCount == 0)
@@ -320,6 +315,7 @@ public final class AdminCommandAction implements V086Action {
 
             server.getAccessManager().addTempBan(
                     user.getConnectSocketAddress().getAddress().getHostAddress(), minutes);
+            server.tapEvent(new UserBannedEvent(user, minutes));
             server.announce(EmuLang.getString("AdminCommandAction.Banned", minutes, user.getName()),
                     false);
         } catch (NoSuchElementException e) {
@@ -1,15 +1,17 @@
 package su.kidoz.kaillera.controller.v086.command;
 
 import su.kidoz.kaillera.controller.v086.action.FatalActionException;
-import su.kidoz.kaillera.controller.v086.action.V086Action;
+import su.kidoz.kaillera.controller.v086.action.V086RawAction;
 import su.kidoz.kaillera.controller.v086.annotation.V086Command;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
 import su.kidoz.kaillera.controller.v086.V086ClientHandler;
 import su.kidoz.kaillera.controller.v086.protocol.CachedGameData;
 import su.kidoz.kaillera.controller.v086.protocol.GameChat_Notification;
@@ -19,7 +21,7 @@ import su.kidoz.kaillera.model.exception.GameDataException;
 
 @Component
 @V086Command(messageId = CachedGameData.ID)
-public final class CachedGameDataAction implements V086Action {
+public final class CachedGameDataAction implements V086RawAction {
     private static final Logger log = LoggerFactory.getLogger(CachedGameDataAction.class);
     private static final String DESC = "CachedGameDataAction";
 
@@ -39,8 +41,17 @@ public final class CachedGameDataAction implements V086Action {
     @Override
     public void performAction(V086Message message, V086ClientHandler clientHandler)
             throws FatalActionException {
+        addCachedGameData(((CachedGameData) message).getKey(), clientHandler);
+    }
+
+    @Override
+    public void performRawAction(int messageNumber, ByteBuffer body,
+            V086ClientHandler clientHandler) throws FatalActionException, ParseException {
+        addCachedGameData(CachedGameData.parseKey(body), clientHandler);
+    }
+
+    private void addCachedGameData(int key, V086ClientHandler clientHandler) {
         try {
-            int key = ((CachedGameData) message).getKey();
             byte[] data = clientHandler.getClientGameDataCache().get(key);
             if (data == null) {
                 log.error("Cached game data key {} not found in cache", key);
@@ -66,8 +77,8 @@ public final class CachedGameDataAction implements V086Action {
                 }
             }
         } catch (IndexOutOfBoundsException e) {
-            log.error("Game data error!  The client cached key "
-                    + ((CachedGameData) message).getKey() + " was not found in the cache!", e);
+            log.error("Game data error!  The client cached key " + key
+                    + " was not found in the cache!", e);
 
             // This may not always be the best thing to do...
             try {
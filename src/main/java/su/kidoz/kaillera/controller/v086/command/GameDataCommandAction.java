@@ -1,15 +1,17 @@
 package su.kidoz.kaillera.controller.v086.command;
 
 import su.kidoz.kaillera.controller.v086.action.FatalActionException;
-import su.kidoz.kaillera.controller.v086.action.V086Action;
+import su.kidoz.kaillera.controller.v086.action.V086RawAction;
 import su.kidoz.kaillera.controller.v086.annotation.V086Command;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
 import su.kidoz.kaillera.controller.v086.V086ClientHandler;
 import su.kidoz.kaillera.controller.v086.protocol.GameData;
 import su.kidoz.kaillera.controller.v086.protocol.V086Message;
@@ -22,10 +24,16 @@ import su.kidoz.kaillera.model.exception.GameDataException;
  * Processes GameData messages containing player input and delegates to the
  * domain model. Outbound event rendering is handled by
  * {@link GameDataEventRenderer}.
+ *
+ * <p>
+ * Game data arrives every frame, so the client handler normally passes the raw
+ * message body to {@link #performRawAction} instead of building a
+ * {@link GameData} message. The input bytes are still copied once, because the
+ * client cache keeps them for later {@code CachedGameData} messages.
  */
 @Component
 @V086Command(messageId = GameData.ID)
-public final class GameDataCommandAction implements V086Action {
+public final class GameDataCommandAction implements V086RawAction {
     private static final Logger log = LoggerFactory.getLogger(GameDataCommandAction.class);
     private static final String DESC = "GameDataCommandAction";
 
@@ -42,8 +50,18 @@ public final class GameDataCommandAction implements V086Action {
     @Override
     public void performAction(final V086Message message, final V086ClientHandler clientHandler)
             throws FatalActionException {
+        addGameData(((GameData) message).getGameData(), clientHandler);
+    }
+
+    @Override
+    public void performRawAction(final int messageNumber, final ByteBuffer body,
+            final V086ClientHandler clientHandler)
+            throws FatalActionException, ParseException, MessageFormatException {
+        addGameData(GameData.parseGameData(body), clientHandler);
+    }
+
+    private void addGameData(final byte[] data, final V086ClientHandler clientHandler) {
         try {
-            byte[] data = ((GameData) message).getGameData();
             clientHandler.getClientGameDataCache().add(data);
             clientHandler.getUser().addGameData(data);
         } catch (GameDataException e) {
@@ -59,7 +59,7 @@ public final class ACKEventRenderer implements V086UserEventHandler {
         try {
             for (KailleraUser user : server.getUsers()) {
                 if (user.getStatus() != KailleraUser.STATUS_CONNECTING && !user.equals(thisUser))
-                    users.add(new ServerStatus.User(user.getName(), user.getPing(),
+                    users.add(new ServerStatus.User(user.getEncodedName(), user.getPing(),
                             (byte) user.getStatus(), user.getID(), user.getConnectionType()));
             }
         } catch (MessageFormatException e) {
@@ -69,8 +69,8 @@ public final class ACKEventRenderer implements V086UserEventHandler {
 
         try {
             for (KailleraGame game : server.getGames())
-                games.add(new ServerStatus.Game(game.getRomName(), (short) game.getID(),
-                        game.getClientType(), game.getOwner().getName(),
+                games.add(new ServerStatus.Game(game.getEncodedRomName(), (short) game.getID(),
+                        game.getEncodedClientType(), game.getOwner().getEncodedName(),
                         (game.getNumPlayers() + "/" + 2), (byte) game.getStatus()));
         } catch (MessageFormatException e) {
             log.error("Failed to construct new ServerStatus.Game", e);
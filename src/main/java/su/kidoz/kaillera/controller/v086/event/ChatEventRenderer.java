@@ -46,7 +46,7 @@ public final class ChatEventRenderer implements V086ServerEventHandler {
         try {
             ChatEvent chatEvent = (ChatEvent) event;
             clientHandler.send(new Chat_Notification(clientHandler.getNextMessageNumber(),
-                    chatEvent.getUser().getName(), chatEvent.getMessage()));
+                    chatEvent.getUser().getEncodedName(), chatEvent.getMessage()));
         } catch (MessageFormatException e) {
             log.error("Failed to construct Chat_Notification message: " + e.getMessage(), e);
         }
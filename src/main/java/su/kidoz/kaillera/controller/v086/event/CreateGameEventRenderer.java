@@ -51,8 +51,8 @@ public final class CreateGameEventRenderer implements V086ServerEventHandler {
             KailleraGame game = gameCreatedEvent.getGame();
             KailleraUser owner = game.getOwner();
             clientHandler.send(new CreateGame_Notification(clientHandler.getNextMessageNumber(),
-                    owner.getName(), game.getRomName(), owner.getClientType(), game.getID(),
-                    (short) 0));
+                    owner.getEncodedName(), game.getEncodedRomName(), owner.getEncodedClientType(),
+                    game.getID(), (short) 0));
         } catch (MessageFormatException e) {
             log.error("Failed to construct CreateGame_Notification message: " + e.getMessage(), e);
         }
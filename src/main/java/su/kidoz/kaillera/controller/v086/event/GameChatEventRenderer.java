@@ -46,7 +46,7 @@ public final class GameChatEventRenderer implements V086GameEventHandler {
 
         try {
             clientHandler.send(new GameChat_Notification(clientHandler.getNextMessageNumber(),
-                    gameChatEvent.getUser().getName(), gameChatEvent.getMessage()));
+                    gameChatEvent.getUser().getEncodedName(), gameChatEvent.getMessage()));
         } catch (MessageFormatException e) {
             log.error("Failed to construct GameChat_Notification message: " + e.getMessage(), e);
         }
@@ -59,8 +59,8 @@ public final class JoinGameEventRenderer implements V086GameEventHandler {
 
                 for (KailleraUser player : game.getPlayers()) {
                     if (!player.equals(thisUser)) {
-                        players.add(new PlayerInformation.Player(player.getName(), player.getPing(),
-                                player.getID(), player.getConnectionType()));
+                        players.add(new PlayerInformation.Player(player.getEncodedName(),
+                                player.getPing(), player.getID(), player.getConnectionType()));
                     }
                 }
 
@@ -69,7 +69,7 @@ public final class JoinGameEventRenderer implements V086GameEventHandler {
             }
 
             clientHandler.send(new JoinGame_Notification(clientHandler.getNextMessageNumber(),
-                    game.getID(), 0, user.getName(), user.getPing(), user.getID(),
+                    game.getID(), 0, user.getEncodedName(), user.getPing(), user.getID(),
                     user.getConnectionType()));
         } catch (MessageFormatException e) {
             log.error("Failed to construct JoinGame_Notification message: " + e.getMessage(), e);
@@ -50,8 +50,9 @@ public final class LoginEventRenderer implements V086ServerEventHandler {
 
         try {
             KailleraUser user = userJoinedEvent.getUser();
-            clientHandler.send(new UserJoined(clientHandler.getNextMessageNumber(), user.getName(),
-                    user.getID(), user.getPing(), (byte) user.getConnectionType()));
+            clientHandler.send(new UserJoined(clientHandler.getNextMessageNumber(),
+                    user.getEncodedName(), user.getID(), user.getPing(),
+                    (byte) user.getConnectionType()));
 
             KailleraUser thisUser = clientHandler.getUser();
             if (thisUser.isEmuLinkerClient()
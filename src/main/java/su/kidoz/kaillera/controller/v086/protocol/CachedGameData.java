@@ -44,6 +44,14 @@ public class CachedGameData extends V086Message {
 
     public static CachedGameData parse(int messageNumber, ByteBuffer buffer)
             throws ParseException, MessageFormatException {
+        return new CachedGameData(messageNumber, parseKey(buffer));
+    }
+
+    /**
+     * Reads only the cache key from a message body, for callers that do not need
+     * a message object.
+     */
+    public static int parseKey(ByteBuffer buffer) throws ParseException {
         if (buffer.remaining() < 2)
             throw new ParseException("Failed byte count validation!");
 
@@ -52,6 +60,6 @@ public class CachedGameData extends V086Message {
         // throw new MessageFormatException("Invalid " + DESC + " format: byte 0 = " +
         // EmuUtil.byteToHex(b));
 
-        return new CachedGameData(messageNumber, UnsignedUtil.getUnsignedByte(buffer));
+        return UnsignedUtil.getUnsignedByte(buffer);
     }
 }
@@ -1,6 +1,7 @@
 package su.kidoz.kaillera.controller.v086.protocol;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.util.EncodedString;
 
 public class Chat_Notification extends Chat {
     public static final String DESC = "Chat Notification";
@@ -10,6 +11,11 @@ public class Chat_Notification extends Chat {
         super(messageNumber, userName, message);
     }
 
+    public Chat_Notification(int messageNumber, EncodedString userName, String message)
+            throws MessageFormatException {
+        super(messageNumber, userName, message);
+    }
+
     public String getDescription() {
         return DESC;
     }
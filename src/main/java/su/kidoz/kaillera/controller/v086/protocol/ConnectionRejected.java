@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.util.UnsignedUtil;
 
 public class ConnectionRejected extends V086Message {
@@ -62,15 +62,14 @@ public class ConnectionRejected extends V086Message {
     }
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() +
-        // charset.encode(message).remaining() + 4);
-        return (userName.length() + message.length() + 4);
+        return (ProtocolStringCodec.encodedLength(userName, charset)
+                + ProtocolStringCodec.encodedLength(message, charset) + 4);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
         UnsignedUtil.putUnsignedShort(buffer, userID);
-        EmuUtil.writeString(buffer, message, 0x00, charset);
+        ProtocolStringCodec.write(buffer, message, 0x00, charset);
     }
 
     public static ConnectionRejected parse(int messageNumber, ByteBuffer buffer)
@@ -78,7 +77,7 @@ public class ConnectionRejected extends V086Message {
         if (buffer.remaining() < 6)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 4)
             throw new ParseException("Failed byte count validation!");
@@ -88,7 +87,7 @@ public class ConnectionRejected extends V086Message {
         if (buffer.remaining() < 2)
             throw new ParseException("Failed byte count validation!");
 
-        String message = EmuUtil.readString(buffer, 0x00, charset);
+        String message = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         return new ConnectionRejected(messageNumber, userName, userID, message);
     }
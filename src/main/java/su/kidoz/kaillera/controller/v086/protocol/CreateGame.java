@@ -4,7 +4,8 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
+import su.kidoz.util.EncodedString;
 import su.kidoz.util.UnsignedUtil;
 
 /**
@@ -56,14 +57,20 @@ import su.kidoz.util.UnsignedUtil;
 public abstract class CreateGame extends V086Message {
     public static final byte ID = 0x0A;
 
-    private String userName;
-    private String romName;
-    private String clientType;
+    private EncodedString userName;
+    private EncodedString romName;
+    private EncodedString clientType;
     private int gameID;
     private int val1;
 
     public CreateGame(int messageNumber, String userName, String romName, String clientType,
             int gameID, int val1) throws MessageFormatException {
+        this(messageNumber, EncodedString.of(userName), EncodedString.of(romName),
+                EncodedString.of(clientType), gameID, val1);
+    }
+
+    public CreateGame(int messageNumber, EncodedString userName, EncodedString romName,
+            EncodedString clientType, int gameID, int val1) throws MessageFormatException {
         super(messageNumber);
 
         if (romName.isEmpty())
@@ -92,15 +99,15 @@ public abstract class CreateGame extends V086Message {
     public abstract String getDescription();
 
     public String getUserName() {
-        return userName;
+        return userName.toString();
     }
 
     public String getRomName() {
-        return romName;
+        return romName.toString();
     }
 
     public String getClientType() {
-        return clientType;
+        return clientType.toString();
     }
 
     public int getGameID() {
@@ -114,16 +121,15 @@ public abstract class CreateGame extends V086Message {
     public abstract String toString();
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() +
-        // charset.encode(romName).remaining() + charset.encode(clientType).remaining()
-        // + 7);
-        return (userName.length() + romName.length() + clientType.length() + 7);
+        return (ProtocolStringCodec.encodedLength(userName, charset)
+                + ProtocolStringCodec.encodedLength(romName, charset)
+                + ProtocolStringCodec.encodedLength(clientType, charset) + 7);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
-        EmuUtil.writeString(buffer, romName, 0x00, charset);
-        EmuUtil.writeString(buffer, clientType, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, romName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, clientType, 0x00, charset);
         UnsignedUtil.putUnsignedShort(buffer, gameID);
         UnsignedUtil.putUnsignedShort(buffer, val1);
     }
@@ -133,17 +139,17 @@ public abstract class CreateGame extends V086Message {
         if (buffer.remaining() < 7)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 6)
             throw new ParseException("Failed byte count validation!");
 
-        String romName = EmuUtil.readString(buffer, 0x00, charset);
+        String romName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 5)
             throw new ParseException("Failed byte count validation!");
 
-        String clientType = EmuUtil.readString(buffer, 0x00, charset);
+        String clientType = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 4)
             throw new ParseException("Failed byte count validation!");
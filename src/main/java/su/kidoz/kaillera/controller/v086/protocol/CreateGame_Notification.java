@@ -1,6 +1,7 @@
 package su.kidoz.kaillera.controller.v086.protocol;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.util.EncodedString;
 
 public class CreateGame_Notification extends CreateGame {
     public static final String DESC = "Create Game Notification";
@@ -10,6 +11,12 @@ public class CreateGame_Notification extends CreateGame {
         super(messageNumber, userName, romName, clientType, gameID, val1);
     }
 
+    public CreateGame_Notification(int messageNumber, EncodedString userName,
+            EncodedString romName, EncodedString clientType, int gameID, int val1)
+            throws MessageFormatException {
+        super(messageNumber, userName, romName, clientType, gameID, val1);
+    }
+
     public byte getID() {
         return ID;
     }
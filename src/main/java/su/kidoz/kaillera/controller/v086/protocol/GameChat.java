@@ -4,16 +4,22 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
+import su.kidoz.util.EncodedString;
 
 public abstract class GameChat extends V086Message {
     public static final byte ID = 0x08;
 
-    private String userName;
+    private EncodedString userName;
     private String message;
 
     public GameChat(int messageNumber, String userName, String message)
             throws MessageFormatException {
+        this(messageNumber, EncodedString.of(userName), message);
+    }
+
+    public GameChat(int messageNumber, EncodedString userName, String message)
+            throws MessageFormatException {
         super(messageNumber);
 
         this.userName = userName;
@@ -27,7 +33,7 @@ public abstract class GameChat extends V086Message {
     public abstract String getDescription();
 
     public String getUserName() {
-        return userName;
+        return userName.toString();
     }
 
     public String getMessage() {
@@ -37,14 +43,13 @@ public abstract class GameChat extends V086Message {
     public abstract String toString();
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() +
-        // charset.encode(message).remaining() + 2);
-        return (userName.length() + message.length() + 2);
+        return (ProtocolStringCodec.encodedLength(userName, charset)
+                + ProtocolStringCodec.encodedLength(message, charset) + 2);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
-        EmuUtil.writeString(buffer, message, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, message, 0x00, charset);
     }
 
     public static GameChat parse(int messageNumber, ByteBuffer buffer)
@@ -52,12 +57,12 @@ public abstract class GameChat extends V086Message {
         if (buffer.remaining() < 3)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 2)
             throw new ParseException("Failed byte count validation!");
 
-        String message = EmuUtil.readString(buffer, 0x00, charset);
+        String message = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (userName.isEmpty())
             return new GameChat_Request(messageNumber, message);
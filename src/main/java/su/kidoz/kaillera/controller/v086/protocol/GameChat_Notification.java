@@ -1,6 +1,7 @@
 package su.kidoz.kaillera.controller.v086.protocol;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.util.EncodedString;
 
 public class GameChat_Notification extends GameChat {
     public static final String DESC = "In-Game Chat Notification";
@@ -10,6 +11,11 @@ public class GameChat_Notification extends GameChat {
         super(messageNumber, userName, message);
     }
 
+    public GameChat_Notification(int messageNumber, EncodedString userName, String message)
+            throws MessageFormatException {
+        super(messageNumber, userName, message);
+    }
+
     public String getDescription() {
         return DESC;
     }
@@ -101,6 +101,15 @@ public class GameData extends V086Message {
 
     public static GameData parse(int messageNumber, ByteBuffer buffer)
             throws ParseException, MessageFormatException {
+        return new GameData(messageNumber, parseGameData(buffer));
+    }
+
+    /**
+     * Reads only the game data from a message body, for callers that do not
+     * need a message object.
+     */
+    public static byte[] parseGameData(ByteBuffer buffer)
+            throws ParseException, MessageFormatException {
         if (buffer.remaining() < 4)
             throw new ParseException("Failed byte count validation!");
 
@@ -116,6 +125,6 @@ public class GameData extends V086Message {
         byte[] gameData = new byte[dataSize];
         buffer.get(gameData);
 
-        return new GameData(messageNumber, gameData);
+        return gameData;
     }
 }
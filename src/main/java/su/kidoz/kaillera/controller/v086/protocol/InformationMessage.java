@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 
 public class InformationMessage extends V086Message {
     public static final byte ID = 0x17;
@@ -50,14 +50,13 @@ public class InformationMessage extends V086Message {
     }
 
     public int getBodyLength() {
-        // return (charset.encode(source).remaining() +
-        // charset.encode(message).remaining() + 2);
-        return (source.length() + message.length() + 2);
+        return (ProtocolStringCodec.encodedLength(source, charset)
+                + ProtocolStringCodec.encodedLength(message, charset) + 2);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, source, 0x00, charset);
-        EmuUtil.writeString(buffer, message, 0x00, charset);
+        ProtocolStringCodec.write(buffer, source, 0x00, charset);
+        ProtocolStringCodec.write(buffer, message, 0x00, charset);
     }
 
     public static InformationMessage parse(int messageNumber, ByteBuffer buffer)
@@ -65,12 +64,12 @@ public class InformationMessage extends V086Message {
         if (buffer.remaining() < 4)
             throw new ParseException("Failed byte count validation!");
 
-        String source = EmuUtil.readString(buffer, 0x00, charset);
+        String source = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 2)
             throw new ParseException("Failed byte count validation!");
 
-        String message = EmuUtil.readString(buffer, 0x00, charset);
+        String message = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         return new InformationMessage(messageNumber, source, message);
     }
@@ -4,7 +4,9 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.util.EmuUtil;
+import su.kidoz.util.EncodedString;
 import su.kidoz.util.UnsignedUtil;
 
 public abstract class JoinGame extends V086Message {
@@ -12,13 +14,19 @@ public abstract class JoinGame extends V086Message {
     private int gameID;
 
     private int val1;
-    private String userName;
+    private EncodedString userName;
     private long ping;
     private int userID;
     private byte connectionType;
 
     public JoinGame(int messageNumber, int gameID, int val1, String userName, long ping, int userID,
             byte connectionType) throws MessageFormatException {
+        this(messageNumber, gameID, val1, EncodedString.of(userName), ping, userID,
+                connectionType);
+    }
+
+    public JoinGame(int messageNumber, int gameID, int val1, EncodedString userName, long ping,
+            int userID, byte connectionType) throws MessageFormatException {
         super(messageNumber);
 
         if (gameID < 0 || gameID > 0xFFFF)
@@ -60,7 +68,7 @@ public abstract class JoinGame extends V086Message {
     }
 
     public String getUserName() {
-        return userName;
+        return userName.toString();
     }
 
     public long getPing() {
@@ -78,15 +86,14 @@ public abstract class JoinGame extends V086Message {
     public abstract String toString();
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() + 13);
-        return (userName.length() + 13);
+        return (ProtocolStringCodec.encodedLength(userName, charset) + 13);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
         buffer.put((byte) 0x00);
         UnsignedUtil.putUnsignedShort(buffer, gameID);
         UnsignedUtil.putUnsignedShort(buffer, val1);
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
         UnsignedUtil.putUnsignedInt(buffer, ping);
         UnsignedUtil.putUnsignedShort(buffer, userID);
         buffer.put(connectionType);
@@ -103,7 +110,7 @@ public abstract class JoinGame extends V086Message {
 
         int gameID = UnsignedUtil.getUnsignedShort(buffer);
         int val1 = UnsignedUtil.getUnsignedShort(buffer);
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 7)
             throw new ParseException("Failed byte count validation!");
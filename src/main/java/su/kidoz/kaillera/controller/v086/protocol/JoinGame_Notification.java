@@ -1,12 +1,20 @@
 package su.kidoz.kaillera.controller.v086.protocol;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.util.EncodedString;
 
 public class JoinGame_Notification extends JoinGame {
     public static final String DESC = "Join Game Notification";
 
     public JoinGame_Notification(int messageNumber, int gameID, int val1, String userName,
             long ping, int userID, byte connectionType) throws MessageFormatException {
+        this(messageNumber, gameID, val1, EncodedString.of(userName), ping, userID,
+                connectionType);
+    }
+
+    public JoinGame_Notification(int messageNumber, int gameID, int val1,
+            EncodedString userName, long ping, int userID, byte connectionType)
+            throws MessageFormatException {
         super(messageNumber, gameID, val1, userName, ping, userID, connectionType);
 
         if (userName.isEmpty())
@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 
 public abstract class PlayerDrop extends V086Message {
     public static final byte ID = 0x14;
@@ -43,12 +43,11 @@ public abstract class PlayerDrop extends V086Message {
     }
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() + 2);
-        return (userName.length() + 2);
+        return (ProtocolStringCodec.encodedLength(userName, charset) + 2);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
         buffer.put(playerNumber);
     }
 
@@ -57,7 +56,7 @@ public abstract class PlayerDrop extends V086Message {
         if (buffer.remaining() < 2)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
         byte playerNumber = buffer.get();
 
         if (userName.isEmpty() && playerNumber == 0)
@@ -6,7 +6,9 @@ import java.util.List;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.util.EmuUtil;
+import su.kidoz.util.EncodedString;
 import su.kidoz.util.UnsignedUtil;
 
 public class PlayerInformation extends V086Message {
@@ -92,7 +94,7 @@ public class PlayerInformation extends V086Message {
             if (buffer.remaining() < 9)
                 throw new ParseException("Failed byte count validation!");
 
-            String userName = EmuUtil.readString(buffer, 0x00, charset);
+            String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
             if (buffer.remaining() < 7)
                 throw new ParseException("Failed byte count validation!");
 
@@ -107,13 +109,18 @@ public class PlayerInformation extends V086Message {
     }
 
     public static class Player {
-        private String userName;
+        private EncodedString userName;
         private long ping;
         private int userID;
         private byte connectionType;
 
         public Player(String userName, long ping, int userID, byte connectionType)
                 throws MessageFormatException {
+            this(EncodedString.of(userName), ping, userID, connectionType);
+        }
+
+        public Player(EncodedString userName, long ping, int userID, byte connectionType)
+                throws MessageFormatException {
             if (userName.isEmpty())
                 throw new MessageFormatException("Invalid " + DESC
                         + " format: userName.length == 0, (userID = " + userID + ")");
@@ -137,7 +144,7 @@ public class PlayerInformation extends V086Message {
         }
 
         public String getUserName() {
-            return userName;
+            return userName.toString();
         }
 
         public long getPing() {
@@ -160,12 +167,11 @@ public class PlayerInformation extends V086Message {
         }
 
         public int getLength() {
-            // return (charset.encode(userName).remaining() + 2);
-            return (userName.length() + 8);
+            return (ProtocolStringCodec.encodedLength(userName, charset) + 8);
         }
 
         public void writeTo(ByteBuffer buffer) {
-            EmuUtil.writeString(buffer, userName, 0x00, charset);
+            ProtocolStringCodec.write(buffer, userName, 0x00, charset);
             UnsignedUtil.putUnsignedInt(buffer, ping);
             UnsignedUtil.putUnsignedShort(buffer, userID);
             buffer.put(connectionType);
@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.util.UnsignedUtil;
 
 public abstract class Quit extends V086Message {
@@ -52,15 +52,14 @@ public abstract class Quit extends V086Message {
     public abstract String toString();
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() +
-        // charset.encode(message).remaining() + 4);
-        return (userName.length() + message.length() + 4);
+        return (ProtocolStringCodec.encodedLength(userName, charset)
+                + ProtocolStringCodec.encodedLength(message, charset) + 4);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
         UnsignedUtil.putUnsignedShort(buffer, userID);
-        EmuUtil.writeString(buffer, message, 0x00, charset);
+        ProtocolStringCodec.write(buffer, message, 0x00, charset);
     }
 
     public static Quit parse(int messageNumber, ByteBuffer buffer)
@@ -68,14 +67,14 @@ public abstract class Quit extends V086Message {
         if (buffer.remaining() < 4)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 3)
             throw new ParseException("Failed byte count validation!");
 
         int userID = UnsignedUtil.getUnsignedShort(buffer);
 
-        String message = EmuUtil.readString(buffer, 0x00, charset);
+        String message = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (userName.isEmpty() && userID == 0xFFFF)
             return new Quit_Request(messageNumber, message);
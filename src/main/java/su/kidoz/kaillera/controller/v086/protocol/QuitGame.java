@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.util.UnsignedUtil;
 
 public abstract class QuitGame extends V086Message {
@@ -39,12 +39,11 @@ public abstract class QuitGame extends V086Message {
     }
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() + 3);
-        return (userName.length() + 3);
+        return (ProtocolStringCodec.encodedLength(userName, charset) + 3);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
         UnsignedUtil.putUnsignedShort(buffer, userID);
     }
 
@@ -53,7 +52,7 @@ public abstract class QuitGame extends V086Message {
         if (buffer.remaining() < 3)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 2)
             throw new ParseException("Failed byte count validation!");
@@ -6,7 +6,9 @@ import java.util.List;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.util.EmuUtil;
+import su.kidoz.util.EncodedString;
 import su.kidoz.util.UnsignedUtil;
 
 public class ServerStatus extends V086Message {
@@ -112,7 +114,7 @@ public class ServerStatus extends V086Message {
             if (buffer.remaining() < 10)
                 throw new ParseException("Failed byte count validation!");
 
-            String userName = EmuUtil.readString(buffer, 0x00, charset);
+            String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
             if (buffer.remaining() < 8)
                 throw new ParseException("Failed byte count validation!");
 
@@ -129,24 +131,24 @@ public class ServerStatus extends V086Message {
             if (buffer.remaining() < 13)
                 throw new ParseException("Failed byte count validation!");
 
-            String romName = EmuUtil.readString(buffer, 0x00, charset);
+            String romName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
             if (buffer.remaining() < 10)
                 throw new ParseException("Failed byte count validation!");
 
             int gameID = buffer.getInt();
 
-            String clientType = EmuUtil.readString(buffer, 0x00, charset);
+            String clientType = ProtocolStringCodec.read(buffer, 0x00, charset);
 
             if (buffer.remaining() < 5)
                 throw new ParseException("Failed byte count validation!");
 
-            String userName = EmuUtil.readString(buffer, 0x00, charset);
+            String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
             if (buffer.remaining() < 3)
                 throw new ParseException("Failed byte count validation!");
 
-            String players = EmuUtil.readString(buffer, 0x00, charset);
+            String players = ProtocolStringCodec.read(buffer, 0x00, charset);
 
             if (buffer.remaining() < 1)
                 throw new ParseException("Failed byte count validation!");
@@ -160,7 +162,7 @@ public class ServerStatus extends V086Message {
     }
 
     public static class User {
-        private String userName;
+        private EncodedString userName;
         private long ping;
         private byte status;
         private int userID;
@@ -168,6 +170,11 @@ public class ServerStatus extends V086Message {
 
         public User(String userName, long ping, byte status, int userID, byte connectionType)
                 throws MessageFormatException {
+            this(EncodedString.of(userName), ping, status, userID, connectionType);
+        }
+
+        public User(EncodedString userName, long ping, byte status, int userID,
+                byte connectionType) throws MessageFormatException {
             if (userName.isEmpty())
                 throw new MessageFormatException("Invalid " + DESC
                         + " format: userName.length == 0, (userID = " + userID + ")");
@@ -196,7 +203,7 @@ public class ServerStatus extends V086Message {
         }
 
         public String getUserName() {
-            return userName;
+            return userName.toString();
         }
 
         public long getPing() {
@@ -224,12 +231,11 @@ public class ServerStatus extends V086Message {
         }
 
         public int getLength() {
-            // return (charset.encode(userName).remaining() + 9);
-            return (userName.length() + 9);
+            return (ProtocolStringCodec.encodedLength(userName, charset) + 9);
         }
 
         public void writeTo(ByteBuffer buffer) {
-            EmuUtil.writeString(buffer, userName, 0x00, charset);
+            ProtocolStringCodec.write(buffer, userName, 0x00, charset);
             UnsignedUtil.putUnsignedInt(buffer, ping);
             buffer.put(status);
             UnsignedUtil.putUnsignedShort(buffer, userID);
@@ -238,15 +244,22 @@ public class ServerStatus extends V086Message {
     }
 
     public static class Game {
-        private String romName;
+        private EncodedString romName;
         private int gameID;
-        private String clientType;
-        private String userName;
+        private EncodedString clientType;
+        private EncodedString userName;
         private String players;
         private byte status;
 
         public Game(String romName, int gameID, String clientType, String userName, String players,
                 byte status) throws MessageFormatException {
+            this(EncodedString.of(romName), gameID, EncodedString.of(clientType),
+                    EncodedString.of(userName), players, status);
+        }
+
+        public Game(EncodedString romName, int gameID, EncodedString clientType,
+                EncodedString userName, String players, byte status)
+                throws MessageFormatException {
             if (romName.isEmpty())
                 throw new MessageFormatException(
                         "Invalid " + DESC + " format: romName.length == 0");
@@ -276,7 +289,7 @@ public class ServerStatus extends V086Message {
         }
 
         public String getRomName() {
-            return romName;
+            return romName.toString();
         }
 
         public int getGameID() {
@@ -284,11 +297,11 @@ public class ServerStatus extends V086Message {
         }
 
         public String getClientType() {
-            return clientType;
+            return clientType.toString();
         }
 
         public String getUserName() {
-            return userName;
+            return userName.toString();
         }
 
         public String getPlayers() {
@@ -306,20 +319,18 @@ public class ServerStatus extends V086Message {
         }
 
         public int getLength() {
-            // return (charset.encode(romName).remaining() + 1 + 4 +
-            // charset.encode(clientType).remaining() + 1 +
-            // charset.encode(userName).remaining() + 1 +
-            // charset.encode(players).remaining() + 1 + 1);
-            return (romName.length() + 1 + 4 + clientType.length() + 1 + userName.length() + 1
-                    + players.length() + 1 + 1);
+            return (ProtocolStringCodec.encodedLength(romName, charset) + 1 + 4
+                    + ProtocolStringCodec.encodedLength(clientType, charset) + 1
+                    + ProtocolStringCodec.encodedLength(userName, charset) + 1
+                    + ProtocolStringCodec.encodedLength(players, charset) + 1 + 1);
         }
 
         public void writeTo(ByteBuffer buffer) {
-            EmuUtil.writeString(buffer, romName, 0x00, charset);
+            ProtocolStringCodec.write(buffer, romName, 0x00, charset);
             buffer.putInt(gameID);
-            EmuUtil.writeString(buffer, clientType, 0x00, charset);
-            EmuUtil.writeString(buffer, userName, 0x00, charset);
-            EmuUtil.writeString(buffer, players, 0x00, charset);
+            ProtocolStringCodec.write(buffer, clientType, 0x00, charset);
+            ProtocolStringCodec.write(buffer, userName, 0x00, charset);
+            ProtocolStringCodec.write(buffer, players, 0x00, charset);
             buffer.put(status);
         }
     }
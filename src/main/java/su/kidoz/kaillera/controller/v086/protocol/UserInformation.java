@@ -4,8 +4,8 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
 import su.kidoz.kaillera.model.KailleraUser;
-import su.kidoz.util.EmuUtil;
 
 public class UserInformation extends V086Message {
     public static final byte ID = 0x03;
@@ -37,9 +37,8 @@ public class UserInformation extends V086Message {
     }
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() +
-        // charset.encode(clientType).remaining() + 3);
-        return (userName.length() + clientType.length() + 3);
+        return (ProtocolStringCodec.encodedLength(userName, charset)
+                + ProtocolStringCodec.encodedLength(clientType, charset) + 3);
     }
 
     public String getUserName() {
@@ -60,8 +59,8 @@ public class UserInformation extends V086Message {
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
-        EmuUtil.writeString(buffer, clientType, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, clientType, 0x00, charset);
         buffer.put(connectionType);
     }
 
@@ -70,12 +69,12 @@ public class UserInformation extends V086Message {
         if (buffer.remaining() < 5)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 3)
             throw new ParseException("Failed byte count validation!");
 
-        String clientType = EmuUtil.readString(buffer, 0x00, charset);
+        String clientType = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 1)
             throw new ParseException("Failed byte count validation!");
@@ -4,20 +4,26 @@ import java.nio.ByteBuffer;
 
 import su.kidoz.kaillera.controller.messaging.MessageFormatException;
 import su.kidoz.kaillera.controller.messaging.ParseException;
-import su.kidoz.util.EmuUtil;
+import su.kidoz.kaillera.controller.messaging.ProtocolStringCodec;
+import su.kidoz.util.EncodedString;
 import su.kidoz.util.UnsignedUtil;
 
 public class UserJoined extends V086Message {
     public static final byte ID = 0x02;
     public static final String DESC = "User Joined";
 
-    private String userName;
+    private EncodedString userName;
     private int userID;
     private long ping;
     private byte connectionType;
 
     public UserJoined(int messageNumber, String userName, int userID, long ping,
             byte connectionType) throws MessageFormatException {
+        this(messageNumber, EncodedString.of(userName), userID, ping, connectionType);
+    }
+
+    public UserJoined(int messageNumber, EncodedString userName, int userID, long ping,
+            byte connectionType) throws MessageFormatException {
         super(messageNumber);
 
         if (userName.isEmpty())
@@ -51,7 +57,7 @@ public class UserJoined extends V086Message {
     }
 
     public String getUserName() {
-        return userName;
+        return userName.toString();
     }
 
     public int getUserID() {
@@ -73,12 +79,11 @@ public class UserJoined extends V086Message {
     }
 
     public int getBodyLength() {
-        // return (charset.encode(userName).remaining() + 8);
-        return (userName.length() + 8);
+        return (ProtocolStringCodec.encodedLength(userName, charset) + 8);
     }
 
     public void writeBodyTo(ByteBuffer buffer) {
-        EmuUtil.writeString(buffer, userName, 0x00, charset);
+        ProtocolStringCodec.write(buffer, userName, 0x00, charset);
         UnsignedUtil.putUnsignedShort(buffer, userID);
         UnsignedUtil.putUnsignedInt(buffer, ping);
         buffer.put(connectionType);
@@ -89,7 +94,7 @@ public class UserJoined extends V086Message {
         if (buffer.remaining() < 9)
             throw new ParseException("Failed byte count validation!");
 
-        String userName = EmuUtil.readString(buffer, 0x00, charset);
+        String userName = ProtocolStringCodec.read(buffer, 0x00, charset);
 
         if (buffer.remaining() < 7)
             throw new ParseException("Failed byte count validation!");
@@ -45,8 +45,12 @@ import su.kidoz.util.UnsignedUtil;
  * <h2>Message Filtering</h2>
  * <p>
  * When parsing, a {@code lastMessageID} can be specified to filter out
- * already-processed messages. Messages with numbers less than or equal to this
- * value are skipped for efficiency.
+ * already-processed messages. Messages that are not newer than this value
+ * (compared with 16-bit wrap-around) are skipped for efficiency.
+ *
+ * <p>
+ * The client handler reads inbound bundles with the allocation-free
+ * {@link V086BundleReader} instead.
  *
  * @see V086Message
  */
@@ -162,7 +166,7 @@ public class V086Bundle extends ByteBufferMessage {
             // Note: messageNumber range check removed - getUnsignedShort always returns
             // 0-65535
 
-            if (messageNumber <= lastMessageID) {
+            if (!V086BundleReader.isNewerMessage(messageNumber, lastMessageID)) {
                 // buffer.position((buffer.position() + messageLength));
 
                 // will break here instead of looking for more messages, should improve speed
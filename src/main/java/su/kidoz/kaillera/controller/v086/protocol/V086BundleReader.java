@@ -0,0 +1,183 @@
+package su.kidoz.kaillera.controller.v086.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
+
+/**
+ * Reusable flyweight reader for inbound {@link V086Bundle}s.
+ *
+ * <p>
+ * Unlike {@link V086Bundle#parse(ByteBuffer, int)}, the reader does not create
+ * message objects up front. {@link #read} only scans the message headers in
+ * place and records the number, ID and body position of each new message in
+ * arrays that are reused for every packet. Callers then either take the body
+ * as a view over the receive buffer with {@link #getBody} (no allocation) or
+ * build a full {@link V086Message} with {@link #materialize} for the message
+ * types that need one.
+ *
+ * <p>
+ * Clients repeat their most recent messages in every bundle, newest first, so
+ * scanning stops at the first message that is not newer than the last one
+ * processed. Message numbers are compared with 16-bit wrap-around (see
+ * {@link #isNewerMessage}).
+ *
+ * <p>
+ * A reader is bound to the buffer passed to the last {@link #read} call and is
+ * not thread-safe; each client handler owns one.
+ */
+public final class V086BundleReader {
+
+    /** Minimum buffer length required to parse a bundle header */
+    private static final int MIN_BUFFER_LENGTH = 5;
+
+    /** Maximum number of messages allowed per bundle */
+    private static final int MAX_MESSAGE_COUNT = 32;
+
+    /** Minimum bytes per message header (message number + length) */
+    private static final int MESSAGE_HEADER_SIZE = 6;
+
+    private final int[] messageNumbers = new int[MAX_MESSAGE_COUNT];
+    private final byte[] messageIDs = new byte[MAX_MESSAGE_COUNT];
+    private final int[] bodyOffsets = new int[MAX_MESSAGE_COUNT];
+    private final int[] bodyLengths = new int[MAX_MESSAGE_COUNT];
+
+    private ByteBuffer buffer;
+    private int bufferLimit;
+    private int numMessages;
+    private int bundleMessageCount;
+
+    /**
+     * Returns whether a message number is newer than the last one processed,
+     * treating the 16-bit numbers as a sequence that wraps at 0xFFFF.
+     *
+     * @param candidate
+     *            the received message number
+     * @param last
+     *            the last processed message number, or a negative value if
+     *            nothing has been processed yet
+     */
+    public static boolean isNewerMessage(int candidate, int last) {
+        if (last < 0) {
+            return true;
+        }
+
+        int diff = (candidate - last) & 0xFFFF;
+        return diff > 0 && diff < 0x8000;
+    }
+
+    /**
+     * Scans the bundle headers in the buffer, stopping at the first message
+     * that is not newer than {@code lastMessageNumber}.
+     *
+     * @return the number of new messages, in the order they appear in the
+     *         bundle (newest first)
+     */
+    public int read(ByteBuffer buffer, int lastMessageNumber)
+            throws ParseException, V086BundleFormatException {
+        this.buffer = buffer;
+        this.bufferLimit = buffer.limit();
+        this.numMessages = 0;
+        this.bundleMessageCount = 0;
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (bufferLimit < MIN_BUFFER_LENGTH)
+            throw new V086BundleFormatException("Invalid buffer length: " + bufferLimit);
+
+        int messageCount = buffer.get();
+
+        if (messageCount <= 0 || messageCount > MAX_MESSAGE_COUNT)
+            throw new V086BundleFormatException("Invalid message count: " + messageCount);
+
+        if (bufferLimit < (1 + (messageCount * MESSAGE_HEADER_SIZE)))
+            throw new V086BundleFormatException("Invalid bundle length: " + bufferLimit);
+
+        bundleMessageCount = messageCount;
+        int position = buffer.position();
+        int parsedCount = 0;
+        while (parsedCount < messageCount) {
+            if (bufferLimit - position < 4)
+                throw new V086BundleFormatException(
+                        "Bundle appears truncated, remaining = " + (bufferLimit - position));
+
+            int messageNumber = buffer.getShort(position) & 0xFFFF;
+            if (!isNewerMessage(messageNumber, lastMessageNumber)) {
+                // The remaining messages are older still
+                break;
+            }
+
+            // no real need for unsigned
+            short messageLength = buffer.getShort(position + 2);
+            position += 4;
+            if (messageLength < 2 || messageLength > bufferLimit - position)
+                throw new ParseException("Invalid message length: " + messageLength);
+
+            messageNumbers[parsedCount] = messageNumber;
+            messageIDs[parsedCount] = buffer.get(position);
+            bodyOffsets[parsedCount] = position + 1;
+            bodyLengths[parsedCount] = messageLength - 1;
+
+            position += messageLength;
+            parsedCount++;
+        }
+
+        buffer.position(position);
+        numMessages = parsedCount;
+        return parsedCount;
+    }
+
+    public int getNumMessages() {
+        return numMessages;
+    }
+
+    /**
+     * Returns the number of messages in the last bundle read, including the
+     * ones that were not newer.
+     */
+    public int getBundleMessageCount() {
+        return bundleMessageCount;
+    }
+
+    public int getMessageNumber(int index) {
+        checkIndex(index);
+        return messageNumbers[index];
+    }
+
+    public byte getMessageID(int index) {
+        checkIndex(index);
+        return messageIDs[index];
+    }
+
+    /**
+     * Returns the receive buffer positioned and limited to the body of a
+     * message. The view is only valid until the next call on this reader.
+     */
+    public ByteBuffer getBody(int index) {
+        checkIndex(index);
+        buffer.limit(bufferLimit);
+        buffer.position(bodyOffsets[index]);
+        buffer.limit(bodyOffsets[index] + bodyLengths[index]);
+        return buffer;
+    }
+
+    /**
+     * Builds the full message object for a message. As with
+     * {@link V086Bundle#parse(ByteBuffer, int)}, the body parser is not limited
+     * to the declared message length.
+     */
+    public V086Message materialize(int index) throws ParseException, MessageFormatException {
+        checkIndex(index);
+        buffer.limit(bufferLimit);
+        buffer.position(bodyOffsets[index] - 1);
+        return V086Message.parse(messageNumbers[index], bodyLengths[index] + 1, buffer);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= numMessages)
+            throw new IndexOutOfBoundsException(
+                    "Message index " + index + " out of range: " + numMessages);
+    }
+}
@@ -4,11 +4,60 @@ import java.util.List;
 
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraServer;
+import su.kidoz.util.TopKCounter;
 
+/**
+ * Collects usage statistics for master list reporting and the admin API.
+ */
 public interface StatsCollector {
+
+    /**
+     * Statistics over a window of time.
+     *
+     * @param gamesStarted
+     *            the number of games started
+     * @param topRoms
+     *            the ROMs started most often, most frequent first
+     * @param topEmulators
+     *            the emulators of the games started most often, most frequent
+     *            first
+     * @param peakUsers
+     *            the most users connected at once
+     * @param peakGames
+     *            the most games open at once
+     * @param peakGamesPlaying
+     *            the most games playing at once, sampled when games start
+     */
+    record Window(long startMillis, long endMillis, long gamesStarted,
+            List<TopKCounter.Count> topRoms, List<TopKCounter.Count> topEmulators, int peakUsers,
+            int peakGames, int peakGamesPlaying) {
+    }
+
+    /**
+     * A snapshot of the statistics.
+     *
+     * @param current
+     *            the window in progress, up to now
+     * @param last
+     *            the last complete window, or null if none ended yet
+     * @param totalGamesStarted
+     *            the number of games started since the server started
+     */
+    record Snapshot(Window current, Window last, long totalGamesStarted) {
+    }
+
     void gameStarted(KailleraServer server, KailleraGame game);
 
-    List<String> getStartedGamesList();
+    /**
+     * Records the number of users and games after it changed.
+     */
+    void concurrencyChanged(int users, int games);
+
+    /**
+     * Returns the ROMs of the games started since the last call, one per start
+     * up to a bound, and forgets them.
+     */
+    List<String> drainStartedGames();
 
-    void clearStartedGamesList();
+    Snapshot getStats();
 }
@@ -0,0 +1,134 @@
+package su.kidoz.kaillera.master;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import su.kidoz.kaillera.model.KailleraGame;
+import su.kidoz.kaillera.model.KailleraServer;
+import su.kidoz.util.TopKCounter;
+
+/**
+ * Collects statistics over fixed windows of time in constant memory.
+ *
+ * <p>
+ * Each window counts the games started, the most started ROMs and emulators,
+ * tracked with a {@link TopKCounter}, and the peak number of users and games.
+ * The last complete window is kept for reporting. Started ROMs waiting for the
+ * master list are kept in a bounded ring, dropping the oldest when full.
+ */
+public final class WindowedStatsCollector implements StatsCollector {
+
+    static final int TRACKED_ROMS = 64;
+    static final int TRACKED_EMULATORS = 32;
+    static final int TOP_COUNT = 10;
+    static final int MAX_PENDING_STARTS = 100;
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    // Guarded by this
+    private final TopKCounter roms = new TopKCounter(TRACKED_ROMS);
+    private final TopKCounter emulators = new TopKCounter(TRACKED_EMULATORS);
+    private final String[] pendingStarts = new String[MAX_PENDING_STARTS];
+    private int pendingCount;
+    private int pendingNext;
+    private long windowStart;
+    private int users;
+    private int games;
+    private int peakUsers;
+    private int peakGames;
+    private int peakGamesPlaying;
+    private Window last;
+    private long totalGamesStarted;
+
+    /**
+     * @param windowMillis
+     *            the length of each window
+     */
+    public WindowedStatsCollector(long windowMillis) {
+        this(windowMillis, System::currentTimeMillis);
+    }
+
+    WindowedStatsCollector(long windowMillis, LongSupplier clock) {
+        if (windowMillis <= 0)
+            throw new IllegalArgumentException("windowMillis must be positive");
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    public synchronized void gameStarted(KailleraServer server, KailleraGame game) {
+        roll(clock.getAsLong());
+
+        roms.add(game.getRomName());
+        String emulator = game.getClientType();
+        emulators.add(emulator != null ? emulator : "Unknown");
+        totalGamesStarted++;
+
+        pendingStarts[pendingNext] = game.getRomName();
+        pendingNext = (pendingNext + 1) % MAX_PENDING_STARTS;
+        pendingCount = Math.min(pendingCount + 1, MAX_PENDING_STARTS);
+
+        int playing = 0;
+        for (KailleraGame other : server.getGames()) {
+            if (other.getStatus() != KailleraGame.STATUS_WAITING)
+                playing++;
+        }
+        peakGamesPlaying = Math.max(peakGamesPlaying, playing);
+    }
+
+    public synchronized void concurrencyChanged(int users, int games) {
+        roll(clock.getAsLong());
+
+        this.users = users;
+        this.games = games;
+        peakUsers = Math.max(peakUsers, users);
+        peakGames = Math.max(peakGames, games);
+    }
+
+    public synchronized List<String> drainStartedGames() {
+        List<String> started = new ArrayList<>(pendingCount);
+        for (int i = pendingCount; i > 0; i--) {
+            int index = (pendingNext - i + MAX_PENDING_STARTS) % MAX_PENDING_STARTS;
+            started.add(pendingStarts[index]);
+            pendingStarts[index] = null;
+        }
+        pendingCount = 0;
+        return started;
+    }
+
+    public synchronized Snapshot getStats() {
+        long now = clock.getAsLong();
+        roll(now);
+        return new Snapshot(window(now), last, totalGamesStarted);
+    }
+
+    // Ends the current window if its time is up. Windows in which nothing was
+    // recorded are skipped, so the last window may be empty.
+    private void roll(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < windowMillis)
+            return;
+
+        long end = now - elapsed % windowMillis;
+        if (end - windowStart == windowMillis) {
+            last = window(end);
+        } else {
+            last = new Window(end - windowMillis, end, 0, List.of(), List.of(), users, games,
+                    0);
+        }
+
+        roms.clear();
+        emulators.clear();
+        windowStart = end;
+        peakUsers = users;
+        peakGames = games;
+        peakGamesPlaying = 0;
+    }
+
+    private Window window(long end) {
+        return new Window(windowStart, end, roms.getTotal(), roms.top(TOP_COUNT),
+                emulators.top(TOP_COUNT), peakUsers, peakGames, peakGamesPlaying);
+    }
+}
@@ -1,6 +1,8 @@
 package su.kidoz.kaillera.master.client;
 
+import java.io.IOException;
 import java.io.StringReader;
+import java.util.Map;
 import java.util.Properties;
 
 import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
@@ -34,7 +36,11 @@ public class EmuLinkerMasterUpdateTask implements MasterListUpdateTask {
         this.emulinkerMasterUrl = emulinkerMasterUrl;
     }
 
-    public void touchMaster() {
+    public String getName() {
+        return "Kaillux master list";
+    }
+
+    public MasterListReport buildReport() {
         String uri = UriComponentsBuilder.fromUriString(emulinkerMasterUrl)
                 .queryParam("serverName", publicInfo.getServerName())
                 .queryParam("connectAddress", publicInfo.getConnectAddress())
@@ -49,19 +55,14 @@ public class EmuLinkerMasterUpdateTask implements MasterListUpdateTask {
                 .queryParam("version", releaseInfo.getVersionString())
                 .queryParam("build", releaseInfo.getBuildNumber())
                 .queryParam("isWindows", EmuUtil.systemIsWindows()).build().toUriString();
+        return new MasterListReport(uri, Map.of(), false);
+    }
 
+    public void send(MasterListReport report) throws IOException {
         Properties props = new Properties();
-
-        try {
-            String response = restClient.get().uri(uri).retrieve().body(String.class);
-
-            if (response != null) {
-                props.load(new StringReader(response));
-            }
-
-            log.info("Touching Kaillux master list done");
-        } catch (Exception e) {
-            log.error("Failed to touch Kaillux master list: " + e.getMessage());
+        String response = restClient.get().uri(report.uri()).retrieve().body(String.class);
+        if (response != null) {
+            props.load(new StringReader(response));
         }
 
         String updateAvailable = props.getProperty("updateAvailable");
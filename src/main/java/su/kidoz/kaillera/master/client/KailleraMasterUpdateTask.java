@@ -1,19 +1,16 @@
 package su.kidoz.kaillera.master.client;
 
-import java.util.List;
+import java.util.Map;
 
 import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
 import su.kidoz.kaillera.master.PublicServerInformation;
 import su.kidoz.kaillera.master.StatsCollector;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraServer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
 public class KailleraMasterUpdateTask implements MasterListUpdateTask {
-    private static final Logger log = LoggerFactory.getLogger(KailleraMasterUpdateTask.class);
     private static final String KAILLERA_MASTER_URL = "http://www.kaillera.com/touch_server.php";
 
     private final PublicServerInformation publicInfo;
@@ -32,17 +29,15 @@ public class KailleraMasterUpdateTask implements MasterListUpdateTask {
         this.restClient = restClient;
     }
 
-    public void touchMaster() {
-        List<String> createdGamesList = statsCollector.getStartedGamesList();
+    public String getName() {
+        return "Kaillera Master";
+    }
 
+    public MasterListReport buildReport() {
         StringBuilder createdGames = new StringBuilder();
-        synchronized (createdGamesList) {
-            for (String game : createdGamesList) {
-                createdGames.append(game);
-                createdGames.append("|");
-            }
-
-            createdGamesList.clear();
+        for (String game : statsCollector.drainStartedGames()) {
+            createdGames.append(game);
+            createdGames.append("|");
         }
 
         StringBuilder waitingGames = new StringBuilder();
@@ -72,14 +67,13 @@ public class KailleraMasterUpdateTask implements MasterListUpdateTask {
                 .queryParam("ip", publicInfo.getConnectAddress())
                 .queryParam("url", publicInfo.getWebsite()).build().toUriString();
 
-        try {
-            restClient.get().uri(uri).header("Kaillera-games", createdGames.toString())
-                    .header("Kaillera-wgames", waitingGames.toString()).retrieve()
-                    .toBodilessEntity();
+        return new MasterListReport(uri, Map.of("Kaillera-games", createdGames.toString(),
+                "Kaillera-wgames", waitingGames.toString()), !createdGames.isEmpty());
+    }
 
-            log.info("Touching Kaillera Master done");
-        } catch (Exception e) {
-            log.error("Failed to touch Kaillera Master: " + e.getMessage());
-        }
+    public void send(MasterListReport report) {
+        restClient.get().uri(report.uri())
+                .headers(headers -> report.headers().forEach(headers::set)).retrieve()
+                .toBodilessEntity();
     }
 }
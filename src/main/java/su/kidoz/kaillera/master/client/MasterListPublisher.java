@@ -0,0 +1,116 @@
+package su.kidoz.kaillera.master.client;
+
+import java.util.random.RandomGenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides when to touch one master list and whether a touch is worth sending.
+ *
+ * <p>
+ * Touches are spaced by the touch interval, varied by up to 10% each time,
+ * and the first one falls at a random point of the first interval, so servers
+ * restarted together do not touch the masters in lockstep. A report equal to
+ * the last one sent is skipped until the refresh interval has passed. After a
+ * failure the master is retried with exponential backoff, capped and
+ * jittered, but never sooner than the touch interval.
+ *
+ * <p>
+ * Only one {@link #publish} runs at a time.
+ */
+final class MasterListPublisher {
+    private static final Logger log = LoggerFactory.getLogger(MasterListPublisher.class);
+
+    static final double JITTER = 0.1;
+    // Backoff stops doubling well before it could overflow
+    private static final int MAX_BACKOFF_DOUBLINGS = 20;
+
+    /**
+     * Sends a report, within the updater's time budget.
+     */
+    @FunctionalInterface
+    interface Sender {
+        void send(MasterListUpdateTask task, MasterListReport report) throws Exception;
+    }
+
+    private final MasterListUpdateTask task;
+    private final long intervalMillis;
+    private final long refreshMillis;
+    private final long maxBackoffMillis;
+    private final RandomGenerator random;
+
+    private MasterListReport lastReport;
+    private long lastSentMillis;
+    private int failures;
+
+    MasterListPublisher(MasterListUpdateTask task, long intervalMillis, long refreshMillis,
+            long maxBackoffMillis, RandomGenerator random) {
+        this.task = task;
+        this.intervalMillis = intervalMillis;
+        this.refreshMillis = refreshMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.random = random;
+    }
+
+    MasterListUpdateTask getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the delay before the first touch.
+     */
+    long initialDelayMillis() {
+        return (long) (random.nextDouble() * intervalMillis);
+    }
+
+    /**
+     * Touches the master if the report changed or is due for a refresh.
+     *
+     * @param now
+     *            the current time in milliseconds
+     * @return the delay before the next touch
+     */
+    long publish(long now, Sender sender) {
+        try {
+            MasterListReport report = task.buildReport();
+            if (!report.hasEvents() && report.equals(lastReport)
+                    && now - lastSentMillis < refreshMillis) {
+                log.debug("{} report unchanged, skipping touch", task.getName());
+                return jittered(intervalMillis);
+            }
+
+            sender.send(task, report);
+            lastReport = report;
+            lastSentMillis = now;
+        } catch (Exception e) {
+            failures++;
+            // The first failure doubles the interval
+            long backoff = Math.min(
+                    intervalMillis << Math.min(failures, MAX_BACKOFF_DOUBLINGS),
+                    maxBackoffMillis);
+            // Keep at least half the backoff, and never retry a failing master
+            // sooner than a healthy one is touched
+            long delay = Math.max(intervalMillis,
+                    backoff / 2 + (long) (random.nextDouble() * (backoff / 2)));
+            log.error("Failed to touch {} ({} in a row), retrying in {} s: {}", task.getName(),
+                    failures, delay / 1000, e.toString());
+            return delay;
+        }
+
+        if (failures > 0)
+            log.info("Touching {} done after {} failures", task.getName(), failures);
+        else
+            log.info("Touching {} done", task.getName());
+        failures = 0;
+        return jittered(intervalMillis);
+    }
+
+    int getFailures() {
+        return failures;
+    }
+
+    private long jittered(long millis) {
+        return millis + (long) ((random.nextDouble() * 2 - 1) * JITTER * millis);
+    }
+}
@@ -0,0 +1,17 @@
+package su.kidoz.kaillera.master.client;
+
+import java.util.Map;
+
+/**
+ * A touch of a master list.
+ *
+ * @param uri
+ *            the touch URI, with the server's state as query parameters
+ * @param headers
+ *            extra request headers
+ * @param hasEvents
+ *            whether the report carries events since the last touch, so it
+ *            must be sent even if it equals the last one
+ */
+public record MasterListReport(String uri, Map<String, String> headers, boolean hasEvents) {
+}
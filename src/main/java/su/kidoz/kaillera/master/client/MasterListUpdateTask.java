@@ -1,5 +1,25 @@
 package su.kidoz.kaillera.master.client;
 
+/**
+ * Reports the server to one master list.
+ */
 public interface MasterListUpdateTask {
-    void touchMaster();
+
+    /**
+     * Returns the master's name for logging.
+     */
+    String getName();
+
+    /**
+     * Builds a report of the server's current state.
+     */
+    MasterListReport buildReport();
+
+    /**
+     * Sends a report to the master.
+     *
+     * @throws Exception
+     *             if the master could not be reached
+     */
+    void send(MasterListReport report) throws Exception;
 }
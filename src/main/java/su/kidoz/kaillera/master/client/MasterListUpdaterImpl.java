@@ -1,5 +1,16 @@
 package su.kidoz.kaillera.master.client;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.random.RandomGenerator;
+
 import su.kidoz.config.MasterListConfig;
 import su.kidoz.kaillera.controller.connectcontroller.ConnectController;
 import su.kidoz.kaillera.master.PublicServerInformation;
@@ -12,56 +23,60 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.SmartLifecycle;
 import org.springframework.web.client.RestClient;
 
-public class MasterListUpdaterImpl implements MasterListUpdater, Runnable, SmartLifecycle {
+/**
+ * Touches the configured master lists in the background.
+ *
+ * <p>
+ * Each master is published on its own schedule by a
+ * {@link MasterListPublisher}, so a slow or failing master does not delay the
+ * others. Touches run on the executor's virtual threads and are abandoned
+ * after {@code master-list.touch-timeout-seconds}.
+ */
+public class MasterListUpdaterImpl implements MasterListUpdater, SmartLifecycle {
     private static final Logger log = LoggerFactory.getLogger(MasterListUpdaterImpl.class);
 
     private final EmuLinkerExecutor threadPool;
-    private final ConnectController connectController;
-    private final KailleraServer kailleraServer;
-    private final StatsCollector statsCollector;
-    private final ReleaseInfo releaseInfo;
-
-    private final PublicServerInformation publicInfo;
+    private final long touchTimeoutMillis;
 
     private final boolean touchKaillera;
     private final boolean touchEmulinker;
 
-    private EmuLinkerMasterUpdateTask emulinkerMasterTask;
-    private KailleraMasterUpdateTask kailleraMasterTask;
+    private final List<MasterListPublisher> publishers = new ArrayList<>();
 
-    private volatile boolean stopFlag = false;
-    private volatile boolean isRunning = false;
+    // Guarded by this
+    private ScheduledExecutorService scheduler;
 
     public MasterListUpdaterImpl(MasterListConfig config, EmuLinkerExecutor threadPool,
             ConnectController connectController, KailleraServer kailleraServer,
             StatsCollector statsCollector, ReleaseInfo releaseInfo, RestClient restClient) {
         this.threadPool = threadPool;
-        this.connectController = connectController;
-        this.kailleraServer = kailleraServer;
-        this.statsCollector = statsCollector;
-        this.releaseInfo = releaseInfo;
+        this.touchTimeoutMillis = TimeUnit.SECONDS.toMillis(config.getTouchTimeoutSeconds());
 
         this.touchKaillera = config.isTouchKaillera();
         this.touchEmulinker = config.isTouchEmulinker();
 
-        if (touchKaillera || touchEmulinker) {
-            publicInfo = new PublicServerInformation(config);
-        } else {
-            publicInfo = null;
-        }
-
+        PublicServerInformation publicInfo = new PublicServerInformation(config);
+        List<MasterListUpdateTask> tasks = new ArrayList<>();
         if (touchKaillera)
-            kailleraMasterTask = new KailleraMasterUpdateTask(publicInfo, connectController,
-                    kailleraServer, statsCollector, restClient);
+            tasks.add(new KailleraMasterUpdateTask(publicInfo, connectController, kailleraServer,
+                    statsCollector, restClient));
 
         if (touchEmulinker)
-            emulinkerMasterTask = new EmuLinkerMasterUpdateTask(publicInfo, connectController,
-                    kailleraServer, releaseInfo, restClient, config.getEmulinkerMasterUrl());
+            tasks.add(new EmuLinkerMasterUpdateTask(publicInfo, connectController,
+                    kailleraServer, releaseInfo, restClient, config.getEmulinkerMasterUrl()));
+
+        RandomGenerator random = RandomGenerator.getDefault();
+        for (MasterListUpdateTask task : tasks) {
+            publishers.add(new MasterListPublisher(task,
+                    TimeUnit.SECONDS.toMillis(config.getTouchIntervalSeconds()),
+                    TimeUnit.SECONDS.toMillis(config.getRefreshIntervalSeconds()),
+                    TimeUnit.SECONDS.toMillis(config.getMaxBackoffSeconds()), random));
+        }
     }
 
     @Override
     public synchronized boolean isRunning() {
-        return isRunning;
+        return scheduler != null;
     }
 
     public synchronized String toString() {
@@ -71,32 +86,37 @@ public class MasterListUpdaterImpl implements MasterListUpdater, Runnable, Smart
 
     @Override
     public synchronized void start() {
-        if (isRunning) {
+        if (scheduler != null) {
             log.debug("MasterListUpdater start request ignored: already running!");
             return;
         }
 
-        if (publicInfo != null) {
-            log.debug("MasterListUpdater thread starting (ThreadPool:" + threadPool.getActiveCount()
-                    + "/" + threadPool.getPoolSize() + ")");
-            stopFlag = false;
-            threadPool.execute(this);
-            log.info("MasterListUpdater started");
-        } else {
+        if (publishers.isEmpty()) {
             log.info("MasterListUpdater not started (no master servers configured)");
+            return;
         }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "master-list-updater");
+            t.setDaemon(true);
+            return t;
+        });
+        for (MasterListPublisher publisher : publishers)
+            schedule(scheduler, publisher, publisher.initialDelayMillis());
+        log.info("MasterListUpdater started");
     }
 
     @Override
     public synchronized void stop() {
-        log.debug("MasterListUpdater thread received stop request!");
+        log.debug("MasterListUpdater received stop request!");
 
-        if (!isRunning()) {
-            log.debug("MasterListUpdater thread stop request ignored: not running!");
+        if (scheduler == null) {
+            log.debug("MasterListUpdater stop request ignored: not running!");
             return;
         }
 
-        stopFlag = true;
+        scheduler.shutdownNow();
+        scheduler = null;
         log.info("MasterListUpdater stopped");
     }
 
@@ -106,38 +126,35 @@ public class MasterListUpdaterImpl implements MasterListUpdater, Runnable, Smart
         return 40;
     }
 
-    @Override
-    public void run() {
-        isRunning = true;
-        log.debug("MasterListUpdater thread running...");
+    // The scheduler only hands due touches to the executor, so its one thread
+    // is never blocked by a master
+    private void schedule(ScheduledExecutorService scheduler, MasterListPublisher publisher,
+            long delayMillis) {
+        try {
+            scheduler.schedule(() -> threadPool.execute(() -> {
+                long next = publisher.publish(System.currentTimeMillis(), this::send);
+                schedule(scheduler, publisher, next);
+            }), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("MasterListUpdater stopped, not scheduling {}",
+                    publisher.getTask().getName());
+        }
+    }
 
+    private void send(MasterListUpdateTask task, MasterListReport report) throws Exception {
+        Future<?> touch = threadPool.submit(() -> {
+            task.send(report);
+            return null;
+        });
         try {
-            while (!stopFlag) {
-                try {
-                    Thread.sleep(60000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-
-                if (stopFlag)
-                    break;
-
-                log.info("MasterListUpdater touching masters...");
-                statsCollector.getStartedGamesList(); // Fetch list (currently unused, for future
-                                                      // use)
-
-                if (emulinkerMasterTask != null)
-                    emulinkerMasterTask.touchMaster();
-
-                if (kailleraMasterTask != null)
-                    kailleraMasterTask.touchMaster();
-
-                statsCollector.clearStartedGamesList();
-            }
-        } finally {
-            isRunning = false;
-            log.debug("MasterListUpdater thread exiting...");
+            touch.get(touchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            touch.cancel(true);
+            throw new TimeoutException("no response within " + touchTimeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause)
+                throw cause;
+            throw e;
         }
     }
 }
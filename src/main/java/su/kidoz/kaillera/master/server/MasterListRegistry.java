@@ -0,0 +1,85 @@
+package su.kidoz.kaillera.master.server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The servers listed on the built-in master list.
+ *
+ * <p>
+ * Servers are keyed by connect address and port, so a server touching again
+ * replaces its listing. A server that has not touched for the expiry time is
+ * dropped. At most {@code maxServers} are listed; touches from new servers
+ * are refused while the list is full.
+ */
+public final class MasterListRegistry {
+
+    /**
+     * A server as reported by its touch.
+     */
+    public record Server(String serverName, String connectAddress, int port, String location,
+            String website, int numUsers, int maxUsers, int numGames, int maxGames,
+            String version, int build) {
+    }
+
+    /**
+     * A listed server.
+     *
+     * @param lastTouchMillis
+     *            the time of the server's last touch
+     */
+    public record Listing(Server server, long lastTouchMillis) {
+    }
+
+    private final long expiryMillis;
+    private final int maxServers;
+    private final LongSupplier clock;
+
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+
+    public MasterListRegistry(long expiryMillis, int maxServers) {
+        this(expiryMillis, maxServers, System::currentTimeMillis);
+    }
+
+    MasterListRegistry(long expiryMillis, int maxServers, LongSupplier clock) {
+        this.expiryMillis = expiryMillis;
+        this.maxServers = maxServers;
+        this.clock = clock;
+    }
+
+    /**
+     * Lists a server, or refreshes its listing.
+     *
+     * @return false if the server is new and the list is full
+     */
+    public boolean touch(Server server) {
+        long now = clock.getAsLong();
+        String key = server.connectAddress() + ":" + server.port();
+        if (!listings.containsKey(key) && listings.size() >= maxServers) {
+            removeExpired(now);
+            if (listings.size() >= maxServers)
+                return false;
+        }
+        listings.put(key, new Listing(server, now));
+        return true;
+    }
+
+    /**
+     * Returns the listed servers, most users first.
+     */
+    public List<Listing> getListings() {
+        removeExpired(clock.getAsLong());
+        List<Listing> result = new ArrayList<>(listings.values());
+        result.sort(Comparator.comparingInt((Listing listing) -> listing.server().numUsers())
+                .reversed().thenComparing(listing -> listing.server().serverName()));
+        return result;
+    }
+
+    private void removeExpired(long now) {
+        listings.values().removeIf(listing -> now - listing.lastTouchMillis() >= expiryMillis);
+    }
+}
@@ -0,0 +1,99 @@
+package su.kidoz.kaillera.master.server;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import su.kidoz.config.MasterListConfig;
+
+/**
+ * A lightweight master list that other servers can touch, so a cluster of
+ * servers can be listed without the public masters.
+ *
+ * <p>
+ * Touches use the EmuLinker master protocol, so a server lists itself here by
+ * pointing its {@code master-list.emulinker-master-url} at {@code /master/touch}.
+ * Enabled by {@code master-list.server.enabled=true}.
+ */
+@RestController
+@RequestMapping("/master")
+@ConditionalOnProperty(name = "master-list.server.enabled", havingValue = "true")
+@Tag(name = "Master list", description = "Built-in master list of servers")
+public class MasterListServerController {
+
+    private static final Logger log = LoggerFactory.getLogger(MasterListServerController.class);
+
+    private static final int MAX_TEXT_LENGTH = 128;
+
+    private final MasterListRegistry registry;
+
+    public MasterListServerController(MasterListConfig config) {
+        this.registry = new MasterListRegistry(
+                TimeUnit.SECONDS.toMillis(config.getServer().getExpirySeconds()),
+                config.getServer().getMaxServers());
+    }
+
+    @Operation(summary = "Touch the master list", description = "Lists the calling server or refreshes its listing. "
+            + "A blank connectAddress is replaced by the caller's address. Replies with the "
+            + "properties the EmuLinker master protocol expects.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Server listed"),
+            @ApiResponse(responseCode = "400", description = "Invalid port"),
+            @ApiResponse(responseCode = "503", description = "The list is full")})
+    @GetMapping(value = "/touch", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> touch(HttpServletRequest request,
+            @Parameter(description = "Server name") @RequestParam(defaultValue = "") String serverName,
+            @Parameter(description = "Address clients connect to") @RequestParam(defaultValue = "") String connectAddress,
+            @Parameter(description = "Server location") @RequestParam(defaultValue = "") String location,
+            @Parameter(description = "Server website") @RequestParam(defaultValue = "") String website,
+            @Parameter(description = "Connect port", example = "27888") @RequestParam int port,
+            @Parameter(description = "Connected users") @RequestParam(defaultValue = "0") int numUsers,
+            @Parameter(description = "Maximum users") @RequestParam(defaultValue = "0") int maxUsers,
+            @Parameter(description = "Open games") @RequestParam(defaultValue = "0") int numGames,
+            @Parameter(description = "Maximum games") @RequestParam(defaultValue = "0") int maxGames,
+            @Parameter(description = "Server version") @RequestParam(defaultValue = "") String version,
+            @Parameter(description = "Server build") @RequestParam(defaultValue = "0") int build) {
+        if (port <= 0 || port > 65535)
+            return ResponseEntity.badRequest().build();
+
+        String address = connectAddress.isBlank() ? request.getRemoteAddr() : connectAddress;
+        MasterListRegistry.Server server = new MasterListRegistry.Server(text(serverName),
+                text(address), port, text(location), text(website), numUsers, maxUsers, numGames,
+                maxGames, text(version), build);
+        if (!registry.touch(server)) {
+            log.warn("Master list full, refused touch from {}:{}", server.connectAddress(), port);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok("updateAvailable=false\n");
+    }
+
+    @Operation(summary = "List servers", description = "Returns the servers that touched the master list recently, "
+            + "most users first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Servers retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = MasterListRegistry.Listing.class))))})
+    @GetMapping("/servers")
+    public List<MasterListRegistry.Listing> getServers() {
+        return registry.getListings();
+    }
+
+    // Touches are unauthenticated, so bound what they can store
+    private static String text(String value) {
+        return value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH) : value;
+    }
+}
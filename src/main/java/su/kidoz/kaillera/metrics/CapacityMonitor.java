@@ -0,0 +1,167 @@
+package su.kidoz.kaillera.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jdk.management.VirtualThreadSchedulerMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import su.kidoz.config.ServerConfig;
+import su.kidoz.kaillera.controller.v086.V086Controller;
+import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.impl.KailleraUserImpl;
+import su.kidoz.kaillera.service.UserService;
+
+/**
+ * Estimates how much more load the server can take, so that new players are
+ * steered away from a busy node.
+ *
+ * <p>
+ * The headroom of each resource is the fraction of it still free, from 0 to 1:
+ * <ul>
+ * <li>{@code ports} - client ports not allocated to a session</li>
+ * <li>{@code users} - users below {@code server.max-users}</li>
+ * <li>{@code eventQueues} - space left in the users' event queues together</li>
+ * <li>{@code frameAssembly} - 99th percentile of frame assembly time below
+ * {@code server.capacity.max-frame-assembly-millis}</li>
+ * <li>{@code carrierThreads} - carrier threads of the virtual thread scheduler
+ * not running or waiting to run a virtual thread</li>
+ * </ul>
+ *
+ * <p>
+ * The server's headroom is the lowest of these. The server stops being ready
+ * when its headroom drops below {@code server.capacity.not-ready-headroom},
+ * and is ready again only once it reaches
+ * {@code server.capacity.ready-headroom}, so a node near the threshold does
+ * not flap in and out of rotation.
+ */
+@Component
+public class CapacityMonitor {
+    private static final Logger log = LoggerFactory.getLogger(CapacityMonitor.class);
+
+    /**
+     * The headroom of the server and of each resource.
+     *
+     * @param headroom
+     *            the lowest headroom of the resources
+     * @param ready
+     *            whether the server is ready for new players
+     * @param resources
+     *            the headroom of each resource, by name
+     */
+    public record Snapshot(double headroom, boolean ready, Map<String, Double> resources) {
+    }
+
+    private final V086Controller v086Controller;
+    private final UserService userService;
+    private final GameMetricsCollector gameMetricsCollector;
+    private final ServerConfig serverConfig;
+    // Null if the JVM does not expose the virtual thread scheduler
+    private final VirtualThreadSchedulerMXBean scheduler;
+
+    // Guarded by this
+    private boolean ready = true;
+
+    @Autowired
+    public CapacityMonitor(V086Controller v086Controller, UserService userService,
+            GameMetricsCollector gameMetricsCollector, ServerConfig serverConfig) {
+        this(v086Controller, userService, gameMetricsCollector, serverConfig,
+                findScheduler());
+    }
+
+    CapacityMonitor(V086Controller v086Controller, UserService userService,
+            GameMetricsCollector gameMetricsCollector, ServerConfig serverConfig,
+            VirtualThreadSchedulerMXBean scheduler) {
+        this.v086Controller = v086Controller;
+        this.userService = userService;
+        this.gameMetricsCollector = gameMetricsCollector;
+        this.serverConfig = serverConfig;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Measures the headroom of each resource and updates whether the server is
+     * ready.
+     */
+    public synchronized Snapshot check() {
+        Map<String, Double> resources = new LinkedHashMap<>();
+        resources.put("ports",
+                free(v086Controller.getAvailablePortCount(), v086Controller.getPortCount()));
+        resources.put("users", userHeadroom());
+        resources.put("eventQueues", eventQueueHeadroom());
+        resources.put("frameAssembly", frameAssemblyHeadroom());
+        resources.put("carrierThreads", carrierThreadHeadroom());
+
+        double headroom = 1;
+        for (double value : resources.values()) {
+            headroom = Math.min(headroom, value);
+        }
+
+        ServerConfig.Capacity config = serverConfig.getCapacity();
+        if (ready && headroom < config.getNotReadyHeadroom()) {
+            ready = false;
+            log.warn("Not ready for new players: headroom {} is below {}: {}",
+                    round(headroom), config.getNotReadyHeadroom(), resources);
+        } else if (!ready && headroom >= Math.max(config.getReadyHeadroom(),
+                config.getNotReadyHeadroom())) {
+            ready = true;
+            log.info("Ready for new players again: headroom {}", round(headroom));
+        }
+
+        resources.replaceAll((name, value) -> round(value));
+        return new Snapshot(round(headroom), ready, resources);
+    }
+
+    private double userHeadroom() {
+        int maxUsers = userService.getMaxUsers();
+        if (maxUsers <= 0)
+            return 1;
+        return free(maxUsers - userService.getUserCount(), maxUsers);
+    }
+
+    private double eventQueueHeadroom() {
+        long queued = 0;
+        long capacity = 0;
+        for (KailleraUser user : userService.getAllUsers()) {
+            queued += user.getEventQueueSize();
+            capacity += KailleraUserImpl.MAX_EVENT_QUEUE_SIZE;
+        }
+        return capacity == 0 ? 1 : free(capacity - queued, capacity);
+    }
+
+    private double frameAssemblyHeadroom() {
+        double p99 = gameMetricsCollector.getFrameAssemblyP99(TimeUnit.MILLISECONDS);
+        return 1 - Math.min(1, p99 / serverConfig.getCapacity().getMaxFrameAssemblyMillis());
+    }
+
+    private double carrierThreadHeadroom() {
+        if (scheduler == null)
+            return 1;
+        int parallelism = scheduler.getParallelism();
+        long busy = scheduler.getMountedVirtualThreadCount()
+                + scheduler.getQueuedVirtualThreadCount();
+        return free(parallelism - busy, parallelism);
+    }
+
+    private static double free(long available, long total) {
+        if (total <= 0)
+            return 0;
+        return Math.max(0, Math.min(1, (double) available / total));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static VirtualThreadSchedulerMXBean findScheduler() {
+        try {
+            return ManagementFactory.getPlatformMXBean(VirtualThreadSchedulerMXBean.class);
+        } catch (IllegalArgumentException e) {
+            log.info("Virtual thread scheduler is not available, ignoring carrier threads");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package su.kidoz.kaillera.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects connect-port admission metrics for Prometheus/Micrometer
+ * integration.
+ *
+ * <p>
+ * Tracks the following metrics:
+ * <ul>
+ * <li>{@code kaillera.connect.admitted} - Counter of HELLOs handed to the
+ * accept queue</li>
+ * <li>{@code kaillera.connect.shed} - Counter of HELLOs answered with TOO
+ * without being processed, tagged by {@code reason}</li>
+ * <li>{@code kaillera.connect.queue.delay} - Timer for time spent in the accept
+ * queue</li>
+ * <li>{@code kaillera.connect.queue.size} - Gauge of HELLOs waiting in the
+ * accept queue</li>
+ * </ul>
+ */
+@Component
+public class ConnectMetricsCollector {
+
+    private static final String METRIC_PREFIX = "kaillera.connect";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter admittedCounter;
+    private final Counter shedAddressRateCounter;
+    private final Counter shedGlobalRateCounter;
+    private final Counter shedTooManyAddressesCounter;
+    private final Counter shedQueueFullCounter;
+    private final Timer queueDelayTimer;
+
+    public ConnectMetricsCollector(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.admittedCounter = Counter.builder(METRIC_PREFIX + ".admitted")
+                .description("Total number of connection requests admitted to the accept queue")
+                .register(meterRegistry);
+
+        this.shedAddressRateCounter = shedCounter("address_rate");
+        this.shedGlobalRateCounter = shedCounter("global_rate");
+        this.shedTooManyAddressesCounter = shedCounter("too_many_addresses");
+        this.shedQueueFullCounter = shedCounter("queue_full");
+
+        this.queueDelayTimer = Timer.builder(METRIC_PREFIX + ".queue.delay")
+                .description("Time connection requests spend waiting in the accept queue")
+                .register(meterRegistry);
+    }
+
+    private Counter shedCounter(String reason) {
+        return Counter.builder(METRIC_PREFIX + ".shed")
+                .description("Total number of connection requests shed under load")
+                .tag("reason", reason).register(meterRegistry);
+    }
+
+    /**
+     * Registers the accept queue whose size is reported as a gauge.
+     */
+    public void bindAcceptQueue(Collection<?> acceptQueue) {
+        Gauge.builder(METRIC_PREFIX + ".queue.size", acceptQueue, Collection::size)
+                .description("Number of connection requests waiting in the accept queue")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record that a connection request was admitted to the accept queue.
+     */
+    public void recordAdmitted() {
+        admittedCounter.increment();
+    }
+
+    /**
+     * Record a connection request shed by the per-address rate limit.
+     */
+    public void recordShedAddressRate() {
+        shedAddressRateCounter.increment();
+    }
+
+    /**
+     * Record a connection request shed by the global rate limit.
+     */
+    public void recordShedGlobalRate() {
+        shedGlobalRateCounter.increment();
+    }
+
+    /**
+     * Record a connection request shed because too many addresses are tracked.
+     */
+    public void recordShedTooManyAddresses() {
+        shedTooManyAddressesCounter.increment();
+    }
+
+    /**
+     * Record a connection request shed because the accept queue was full.
+     */
+    public void recordShedQueueFull() {
+        shedQueueFullCounter.increment();
+    }
+
+    /**
+     * Record how long a connection request waited in the accept queue.
+     *
+     * @param delayNanos
+     *            queue delay in nanoseconds
+     */
+    public void recordQueueDelay(long delayNanos) {
+        queueDelayTimer.record(delayNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,151 @@
+package su.kidoz.kaillera.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import su.kidoz.config.ServerConfig;
+
+/**
+ * Collects the latency of the users' event queues for Prometheus/Micrometer
+ * integration.
+ *
+ * <p>
+ * Events are timed by type, tagged with the simple name of the event class, so
+ * the number of series stays bounded:
+ * <ul>
+ * <li>{@code kaillera.events.queue.wait} - Timer from an event being queued for
+ * a user to the user's thread taking it</li>
+ * <li>{@code kaillera.events.dispatch} - Timer for rendering and sending an
+ * event to the user's client</li>
+ * <li>{@code kaillera.events.dropped} - Counter of events dropped because a
+ * user's queue was full</li>
+ * </ul>
+ * Both timers publish percentile histograms, so they can also be aggregated
+ * over all types.
+ *
+ * <p>
+ * A user whose 99th percentile of queue wait exceeds
+ * {@code server.slow-consumer-millis} is a slow consumer:
+ * <ul>
+ * <li>{@code kaillera.events.slow.consumers} - Gauge of users currently
+ * flagged as slow consumers</li>
+ * <li>{@code kaillera.events.slow.detected} - Counter of users becoming slow
+ * consumers</li>
+ * </ul>
+ */
+@Component
+public class EventMetricsCollector {
+
+    private static final String METRIC_PREFIX = "kaillera.events";
+
+    private static final Duration MIN_EVENT_TIME = Duration.ofNanos(10_000);
+    private static final Duration MAX_EVENT_TIME = Duration.ofSeconds(5);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowConsumerNanos;
+
+    private final AtomicInteger slowConsumers = new AtomicInteger();
+    private final Counter slowDetectedCounter;
+
+    private final Map<Class<?>, EventMeters> eventMeters = new ConcurrentHashMap<>();
+
+    public EventMetricsCollector(MeterRegistry meterRegistry, ServerConfig serverConfig) {
+        this.meterRegistry = meterRegistry;
+        this.slowConsumerNanos = TimeUnit.MILLISECONDS
+                .toNanos(serverConfig.getSlowConsumerMillis());
+
+        Gauge.builder(METRIC_PREFIX + ".slow.consumers", slowConsumers, AtomicInteger::get)
+                .description("Number of users currently flagged as slow consumers")
+                .register(meterRegistry);
+        this.slowDetectedCounter = Counter.builder(METRIC_PREFIX + ".slow.detected")
+                .description("Total number of users flagged as slow consumers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the 99th percentile of queue wait above which a user is a slow
+     * consumer.
+     */
+    public long getSlowConsumerNanos() {
+        return slowConsumerNanos;
+    }
+
+    /**
+     * Returns the meters for events of a type.
+     */
+    public EventMeters getEventMeters(Class<?> eventType) {
+        return eventMeters.computeIfAbsent(eventType,
+                type -> new EventMeters(meterRegistry, type.getSimpleName()));
+    }
+
+    /**
+     * Record that a user became, or stopped being, a slow consumer.
+     */
+    public void recordSlowConsumer(boolean slow) {
+        if (slow) {
+            slowConsumers.incrementAndGet();
+            slowDetectedCounter.increment();
+        } else {
+            slowConsumers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of users currently flagged as slow consumers.
+     */
+    public int getSlowConsumers() {
+        return slowConsumers.get();
+    }
+
+    /**
+     * Meters of one event type.
+     */
+    public static final class EventMeters {
+        private final Timer queueWaitTimer;
+        private final Timer dispatchTimer;
+        private final Counter droppedCounter;
+
+        private EventMeters(MeterRegistry meterRegistry, String type) {
+            this.queueWaitTimer = Timer.builder(METRIC_PREFIX + ".queue.wait")
+                    .description("Time from an event being queued for a user to being taken")
+                    .tag("type", type).publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EVENT_TIME).maximumExpectedValue(MAX_EVENT_TIME)
+                    .register(meterRegistry);
+            this.dispatchTimer = Timer.builder(METRIC_PREFIX + ".dispatch")
+                    .description("Time rendering and sending an event to a user's client")
+                    .tag("type", type).publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EVENT_TIME).maximumExpectedValue(MAX_EVENT_TIME)
+                    .register(meterRegistry);
+            this.droppedCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                    .description("Total number of events dropped because a user's queue was full")
+                    .tag("type", type).register(meterRegistry);
+        }
+
+        /**
+         * Record one event taken from a user's queue and dispatched.
+         *
+         * @param waitNanos
+         *            time the event spent in the queue
+         * @param dispatchNanos
+         *            time spent rendering and sending it
+         */
+        public void recordDispatch(long waitNanos, long dispatchNanos) {
+            queueWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+            dispatchTimer.record(dispatchNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Record an event dropped because a user's queue was full.
+         */
+        public void recordDropped() {
+            droppedCounter.increment();
+        }
+    }
+}
@@ -4,11 +4,14 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Component;
+import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.model.impl.GameManager;
 
 /**
@@ -30,13 +33,53 @@ import su.kidoz.kaillera.model.impl.GameManager;
  * timeouts</li>
  * <li>{@code kaillera.games.players.dropped} - Counter of player drop
  * events</li>
+ * <li>{@code kaillera.games.autofire.detected} - Counter of autofire
+ * detections</li>
+ * <li>{@code kaillera.games.autofire.scan} - Timer for autofire scanning of
+ * each block of player input</li>
+ * <li>{@code kaillera.games.autofire.skipped} - Counter of input blocks not
+ * scanned because the game's scanning budget was spent</li>
  * </ul>
+ *
+ * <p>
+ * Frame timing is published as percentile histograms, tagged with the game's
+ * {@code connection.type} and number of {@code players} rather than the game
+ * ID, so the number of series stays bounded:
+ * <ul>
+ * <li>{@code kaillera.games.frame.latency} - Timer from a player's input
+ * arriving to the frame's response being queued for that player</li>
+ * <li>{@code kaillera.games.frame.wait} - Timer of the part of the frame
+ * latency spent waiting for the slowest player's input</li>
+ * <li>{@code kaillera.games.frame.assembly} - Timer of the rest of the frame
+ * latency, spent in the server. Also publishes its 99th percentile, which
+ * the {@link CapacityMonitor} uses.</li>
+ * <li>{@code kaillera.games.frame.send} - Timer from a frame's response being
+ * queued to it being sent to the player</li>
+ * <li>{@code kaillera.games.input.jitter} - Timer of the change between
+ * consecutive intervals of a player's input</li>
+ * <li>{@code kaillera.games.players.timeouts} - Counter of timeouts waiting for
+ * a player's input</li>
+ * </ul>
+ *
+ * <p>
+ * A frame latency well above its wait is time spent in the server. A wait that
+ * grows with input jitter and timeouts points at the players' links.
  */
 @Component
 public class GameMetricsCollector {
 
     private static final String METRIC_PREFIX = "kaillera.games";
 
+    // Games with more players share the last players tag
+    private static final int MAX_TAGGED_PLAYERS = 8;
+    private static final Duration MIN_FRAME_TIME = Duration.ofMillis(1);
+    private static final Duration MAX_FRAME_TIME = Duration.ofSeconds(5);
+    private static final Duration MIN_ASSEMBLY_TIME = Duration.ofNanos(10_000);
+    private static final Duration MAX_ASSEMBLY_TIME = Duration.ofMillis(500);
+    private static final double ASSEMBLY_PERCENTILE = 0.99;
+
+    private final MeterRegistry meterRegistry;
+
     private final Counter gamesCreatedCounter;
     private final Counter gamesStartedCounter;
     private final Counter gamesCompletedCounter;
@@ -44,11 +87,19 @@ public class GameMetricsCollector {
     private final Counter playersDesyncedCounter;
     private final Counter playersDroppedCounter;
     private final Timer gameDurationTimer;
+    private final Counter autoFireDetectedCounter;
+    private final Counter autoFireSkippedCounter;
+    private final Timer autoFireScanTimer;
 
     // Track game start times for duration calculation
     private final Map<Integer, Instant> gameStartTimes = new ConcurrentHashMap<>();
 
+    // Frame meters by connection type and tagged player count
+    private final Map<Integer, FrameMeters> frameMeters = new ConcurrentHashMap<>();
+
     public GameMetricsCollector(MeterRegistry meterRegistry, GameManager gameManager) {
+        this.meterRegistry = meterRegistry;
+
         // Counters for game lifecycle
         this.gamesCreatedCounter = Counter.builder(METRIC_PREFIX + ".created")
                 .description("Total number of games created").register(meterRegistry);
@@ -75,6 +126,18 @@ public class GameMetricsCollector {
         this.gameDurationTimer = Timer.builder(METRIC_PREFIX + ".duration")
                 .description("Duration of games from start to completion").register(meterRegistry);
 
+        // Autofire detection
+        this.autoFireDetectedCounter = Counter.builder(METRIC_PREFIX + ".autofire.detected")
+                .description("Total number of autofire detections").register(meterRegistry);
+
+        this.autoFireSkippedCounter = Counter.builder(METRIC_PREFIX + ".autofire.skipped")
+                .description("Input blocks not scanned for autofire because the budget was spent")
+                .register(meterRegistry);
+
+        this.autoFireScanTimer = Timer.builder(METRIC_PREFIX + ".autofire.scan")
+                .description("Time spent scanning each block of player input for autofire")
+                .register(meterRegistry);
+
         // Gauge for active games (uses GameManager as source of truth)
         Gauge.builder(METRIC_PREFIX + ".active", gameManager, GameManager::getNumGames)
                 .description("Number of currently active games").register(meterRegistry);
@@ -139,4 +202,147 @@ public class GameMetricsCollector {
     public void recordPlayerDropped() {
         playersDroppedCounter.increment();
     }
+
+    /**
+     * Record that autofire was detected for a player.
+     */
+    public void recordAutoFireDetected() {
+        autoFireDetectedCounter.increment();
+    }
+
+    /**
+     * Record the time spent scanning one block of player input for autofire.
+     *
+     * @param nanos
+     *            the scanning time in nanoseconds
+     */
+    public void recordAutoFireScan(long nanos) {
+        autoFireScanTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record that a block of player input was not scanned for autofire because
+     * the game's scanning budget was spent.
+     */
+    public void recordAutoFireScanSkipped() {
+        autoFireSkippedCounter.increment();
+    }
+
+    /**
+     * Returns the frame timing meters for games of a connection type and
+     * number of players. Games look them up once when they start.
+     *
+     * @param connectionType
+     *            the game's connection type, which sets its actions per message
+     * @param numPlayers
+     *            the number of players the game started with
+     */
+    public FrameMeters getFrameMeters(int connectionType, int numPlayers) {
+        int players = Math.max(1, Math.min(numPlayers, MAX_TAGGED_PLAYERS));
+        return frameMeters.computeIfAbsent(connectionType * (MAX_TAGGED_PLAYERS + 1) + players,
+                key -> new FrameMeters(meterRegistry, connectionType, players));
+    }
+
+    /**
+     * Returns the highest 99th percentile of frame assembly time across games,
+     * over the last few minutes, or 0 if no frames were assembled.
+     */
+    public double getFrameAssemblyP99(TimeUnit unit) {
+        double p99 = 0;
+        for (FrameMeters meters : frameMeters.values()) {
+            for (ValueAtPercentile value : meters.assemblyTimer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == ASSEMBLY_PERCENTILE)
+                    p99 = Math.max(p99, value.value(unit));
+            }
+        }
+        return p99;
+    }
+
+    /**
+     * Frame timing meters shared by the games of one connection type and
+     * player count.
+     */
+    public static final class FrameMeters {
+        private final Timer latencyTimer;
+        private final Timer waitTimer;
+        private final Timer assemblyTimer;
+        private final Timer sendTimer;
+        private final Timer jitterTimer;
+        private final Counter timeoutCounter;
+
+        private FrameMeters(MeterRegistry meterRegistry, int connectionType, int players) {
+            String connectionTag = KailleraUser.getConnectionTypeName(connectionType);
+            String playersTag = players < MAX_TAGGED_PLAYERS
+                    ? Integer.toString(players)
+                    : MAX_TAGGED_PLAYERS + "+";
+
+            this.latencyTimer = frameTimer(METRIC_PREFIX + ".frame.latency",
+                    "Time from a player's input arriving to the frame's response being queued",
+                    connectionTag, playersTag, meterRegistry);
+            this.waitTimer = frameTimer(METRIC_PREFIX + ".frame.wait",
+                    "Time a frame waits for the slowest player's input", connectionTag,
+                    playersTag, meterRegistry);
+            this.assemblyTimer = Timer.builder(METRIC_PREFIX + ".frame.assembly")
+                    .description("Time the server spends assembling a frame's response")
+                    .tag("connection.type", connectionTag).tag("players", playersTag)
+                    .publishPercentiles(ASSEMBLY_PERCENTILE).publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_ASSEMBLY_TIME)
+                    .maximumExpectedValue(MAX_ASSEMBLY_TIME).register(meterRegistry);
+            this.sendTimer = frameTimer(METRIC_PREFIX + ".frame.send",
+                    "Time from a frame's response being queued to it being sent", connectionTag,
+                    playersTag, meterRegistry);
+            this.jitterTimer = frameTimer(METRIC_PREFIX + ".input.jitter",
+                    "Change between consecutive intervals of a player's input", connectionTag,
+                    playersTag, meterRegistry);
+            this.timeoutCounter = Counter.builder(METRIC_PREFIX + ".players.timeouts")
+                    .description("Total number of timeouts waiting for a player's input")
+                    .tag("connection.type", connectionTag).tag("players", playersTag)
+                    .register(meterRegistry);
+        }
+
+        private static Timer frameTimer(String name, String description, String connectionTag,
+                String playersTag, MeterRegistry meterRegistry) {
+            return Timer.builder(name).description(description)
+                    .tag("connection.type", connectionTag).tag("players", playersTag)
+                    .publishPercentileHistogram().minimumExpectedValue(MIN_FRAME_TIME)
+                    .maximumExpectedValue(MAX_FRAME_TIME).register(meterRegistry);
+        }
+
+        /**
+         * Record one player's frame.
+         *
+         * @param latencyNanos
+         *            time from the player's input arriving to the response being
+         *            queued
+         * @param waitNanos
+         *            the part of it spent waiting for other players' input
+         */
+        public void recordFrame(long latencyNanos, long waitNanos) {
+            latencyTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+            waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+            assemblyTimer.record(latencyNanos - waitNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Record the time from a frame's response being queued to it being
+         * sent.
+         */
+        public void recordSend(long nanos) {
+            sendTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Record the change between a player's last two input intervals.
+         */
+        public void recordInputJitter(long nanos) {
+            jitterTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Record a timeout waiting for a player's input.
+         */
+        public void recordTimeout() {
+            timeoutCounter.increment();
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package su.kidoz.kaillera.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the network quality of client sessions for Prometheus/Micrometer
+ * integration, aggregated over all sessions.
+ *
+ * <p>
+ * Tracks the following metrics:
+ * <ul>
+ * <li>{@code kaillera.network.packets} - Counter of client packets, tagged by
+ * {@code direction}</li>
+ * <li>{@code kaillera.network.bytes} - Counter of client packet bytes, tagged
+ * by {@code direction}</li>
+ * <li>{@code kaillera.network.bundle.redundant} - Distribution of messages per
+ * inbound bundle the server already had</li>
+ * <li>{@code kaillera.network.bundle.fill} - Distribution of messages per
+ * outbound bundle</li>
+ * <li>{@code kaillera.network.inbound.interval} - Timer for the time between
+ * two inbound packets of a session</li>
+ * <li>{@code kaillera.network.gaps} - Distribution of inbound messages lost
+ * per gap in the message numbers</li>
+ * <li>{@code kaillera.network.resends} - Counter of resends of the last
+ * outbound messages</li>
+ * <li>{@code kaillera.network.rtt} - Timer for round trip times measured by
+ * the login ACK exchange</li>
+ * </ul>
+ */
+@Component
+public class NetworkMetricsCollector {
+
+    private static final String METRIC_PREFIX = "kaillera.network";
+
+    private final Counter packetsInCounter;
+    private final Counter packetsOutCounter;
+    private final Counter bytesInCounter;
+    private final Counter bytesOutCounter;
+    private final DistributionSummary redundantSummary;
+    private final DistributionSummary bundleFillSummary;
+    private final Timer inboundIntervalTimer;
+    private final DistributionSummary gapSummary;
+    private final Counter resendCounter;
+    private final Timer rttTimer;
+
+    public NetworkMetricsCollector(MeterRegistry meterRegistry) {
+        this.packetsInCounter = Counter.builder(METRIC_PREFIX + ".packets")
+                .description("Total number of client packets").tag("direction", "in")
+                .register(meterRegistry);
+        this.packetsOutCounter = Counter.builder(METRIC_PREFIX + ".packets")
+                .description("Total number of client packets").tag("direction", "out")
+                .register(meterRegistry);
+        this.bytesInCounter = Counter.builder(METRIC_PREFIX + ".bytes")
+                .description("Total bytes of client packets").baseUnit("bytes")
+                .tag("direction", "in").register(meterRegistry);
+        this.bytesOutCounter = Counter.builder(METRIC_PREFIX + ".bytes")
+                .description("Total bytes of client packets").baseUnit("bytes")
+                .tag("direction", "out").register(meterRegistry);
+
+        this.redundantSummary = DistributionSummary.builder(METRIC_PREFIX + ".bundle.redundant")
+                .description("Messages per inbound bundle the server already had")
+                .baseUnit("messages").register(meterRegistry);
+        this.bundleFillSummary = DistributionSummary.builder(METRIC_PREFIX + ".bundle.fill")
+                .description("Messages per outbound bundle").baseUnit("messages")
+                .register(meterRegistry);
+
+        this.inboundIntervalTimer = Timer.builder(METRIC_PREFIX + ".inbound.interval")
+                .description("Time between two inbound packets of a session")
+                .register(meterRegistry);
+        this.gapSummary = DistributionSummary.builder(METRIC_PREFIX + ".gaps")
+                .description("Inbound messages lost per gap in the message numbers")
+                .baseUnit("messages").register(meterRegistry);
+        this.resendCounter = Counter.builder(METRIC_PREFIX + ".resends")
+                .description("Total number of resends of the last outbound messages")
+                .register(meterRegistry);
+        this.rttTimer = Timer.builder(METRIC_PREFIX + ".rtt")
+                .description("Round trip times measured by the login ACK exchange")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record an inbound bundle.
+     *
+     * @param redundantMessages
+     *            messages in the bundle the server already had
+     * @param intervalNanos
+     *            time since the session's previous inbound packet, or 0 for its
+     *            first
+     */
+    public void recordReceived(int bytes, int redundantMessages, long intervalNanos) {
+        packetsInCounter.increment();
+        bytesInCounter.increment(bytes);
+        redundantSummary.record(redundantMessages);
+        if (intervalNanos > 0)
+            inboundIntervalTimer.record(intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a gap in the inbound message numbers.
+     *
+     * @param missingMessages
+     *            the message numbers skipped over
+     */
+    public void recordGap(int missingMessages) {
+        gapSummary.record(missingMessages);
+    }
+
+    /**
+     * Record an outbound bundle.
+     */
+    public void recordSent(int bytes, int bundleMessages) {
+        packetsOutCounter.increment();
+        bytesOutCounter.increment(bytes);
+        bundleFillSummary.record(bundleMessages);
+    }
+
+    /**
+     * Record a resend of the last outbound messages.
+     */
+    public void recordResend() {
+        resendCounter.increment();
+    }
+
+    /**
+     * Record a round trip time sample.
+     */
+    public void recordRtt(long rttMillis) {
+        rttTimer.record(rttMillis, TimeUnit.MILLISECONDS);
+    }
+}
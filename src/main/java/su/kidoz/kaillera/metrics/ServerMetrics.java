@@ -10,10 +10,12 @@ import su.kidoz.kaillera.master.StatsCollector;
  * and metrics for monitoring and observability purposes.
  *
  * @param statsCollector
- *            collects statistics for master server list reporting
+ *            collects usage statistics for master list reporting and the admin API
  * @param gameMetricsCollector
  *            collects game-level metrics for Prometheus/Micrometer
+ * @param eventMetricsCollector
+ *            collects the latency of the users' event queues
  */
 public record ServerMetrics(StatsCollector statsCollector,
-        GameMetricsCollector gameMetricsCollector) {
+        GameMetricsCollector gameMetricsCollector, EventMetricsCollector eventMetricsCollector) {
 }
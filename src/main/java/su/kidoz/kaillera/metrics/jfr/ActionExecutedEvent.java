@@ -0,0 +1,49 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A V086 action handling one message from a client.
+ */
+@Name("kaillux.ActionExecuted")
+@Label("Action Executed")
+@Category({"Kaillux", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public final class ActionExecutedEvent extends Event {
+
+    @Label("User ID")
+    private int userId;
+
+    @Label("Game ID")
+    private int gameId;
+
+    @Label("Message ID")
+    private byte messageId;
+
+    @Label("Message Number")
+    private int messageNumber;
+
+    @Label("Action")
+    private String action;
+
+    /**
+     * Commits the event, if it is enabled and over its threshold.
+     */
+    public void finish(int userId, int gameId, byte messageId, int messageNumber, Object action) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.messageId = messageId;
+        this.messageNumber = messageNumber;
+        this.action = String.valueOf(action);
+        commit();
+    }
+}
@@ -0,0 +1,59 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A message bundle being written and sent to a client.
+ */
+@Name("kaillux.BundleSent")
+@Label("Bundle Sent")
+@Category({"Kaillux", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public final class BundleSentEvent extends Event {
+
+    @Label("User ID")
+    private int userId;
+
+    @Label("Game ID")
+    private int gameId;
+
+    @Label("Message ID")
+    @Description("The ID of the new message, or 0 for a resend")
+    private byte messageId;
+
+    @Label("Message Number")
+    @Description("The number of the new message, or -1 for a resend")
+    private int messageNumber;
+
+    @Label("Messages")
+    private int messageCount;
+
+    @Label("Size")
+    @DataAmount
+    private int bytes;
+
+    /**
+     * Commits the event, if it is enabled and over its threshold.
+     */
+    public void finish(int userId, int gameId, byte messageId, int messageNumber,
+            int messageCount, int bytes) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.messageId = messageId;
+        this.messageNumber = messageNumber;
+        this.messageCount = messageCount;
+        this.bytes = bytes;
+        commit();
+    }
+}
@@ -0,0 +1,48 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An event taken from a user's event queue and dispatched to the client.
+ */
+@Name("kaillux.EventDequeued")
+@Label("Event Dequeued")
+@Description("An event dispatched from a user's event queue")
+@Category({"Kaillux", "Events"})
+@Enabled(false)
+@StackTrace(false)
+public final class EventDequeuedEvent extends Event {
+
+    @Label("User ID")
+    private int userId;
+
+    @Label("Game ID")
+    private int gameId;
+
+    @Label("Event Type")
+    private String eventType;
+
+    @Label("Queue Size")
+    @Description("Events left in the queue")
+    private int queueSize;
+
+    /**
+     * Commits the event, if it is enabled and over its threshold.
+     */
+    public void finish(int userId, int gameId, Object event, int queueSize) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.eventType = event.getClass().getSimpleName();
+        this.queueSize = queueSize;
+        commit();
+    }
+}
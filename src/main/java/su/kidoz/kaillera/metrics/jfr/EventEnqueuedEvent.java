@@ -0,0 +1,52 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A server or game event being added to a user's event queue. Critical events
+ * may block while the queue is full.
+ */
+@Name("kaillux.EventEnqueued")
+@Label("Event Enqueued")
+@Category({"Kaillux", "Events"})
+@Enabled(false)
+@StackTrace(false)
+public final class EventEnqueuedEvent extends Event {
+
+    @Label("User ID")
+    private int userId;
+
+    @Label("Game ID")
+    private int gameId;
+
+    @Label("Event Type")
+    private String eventType;
+
+    @Label("Queue Size")
+    @Description("Events in the queue after adding this one")
+    private int queueSize;
+
+    @Label("Dropped")
+    private boolean dropped;
+
+    /**
+     * Commits the event, if it is enabled and over its threshold.
+     */
+    public void finish(int userId, int gameId, Object event, int queueSize, boolean dropped) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.eventType = event.getClass().getSimpleName();
+        this.queueSize = queueSize;
+        this.dropped = dropped;
+        commit();
+    }
+}
@@ -0,0 +1,54 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A player waiting for another player's input while a frame is assembled.
+ * Only recorded when the input had not arrived yet.
+ */
+@Name("kaillux.FrameWait")
+@Label("Frame Assembly Wait")
+@Category({"Kaillux", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public final class FrameWaitEvent extends Event {
+
+    @Label("User ID")
+    @Description("The player whose input was waited for")
+    private int userId;
+
+    @Label("Game ID")
+    private int gameId;
+
+    @Label("Player Number")
+    @Description("The player number whose input was waited for")
+    private int playerNumber;
+
+    @Label("Waiting Player Number")
+    private int waitingPlayerNumber;
+
+    @Label("Timed Out")
+    private boolean timedOut;
+
+    /**
+     * Commits the event, if it is enabled and over its threshold.
+     */
+    public void finish(int userId, int gameId, int playerNumber, int waitingPlayerNumber,
+            boolean timedOut) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.playerNumber = playerNumber;
+        this.waitingPlayerNumber = waitingPlayerNumber;
+        this.timedOut = timedOut;
+        commit();
+    }
+}
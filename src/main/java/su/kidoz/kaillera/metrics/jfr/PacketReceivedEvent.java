@@ -0,0 +1,51 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A client's UDP packet being received and parsed into a message bundle.
+ */
+@Name("kaillux.PacketReceived")
+@Label("Packet Received")
+@Description("A client bundle received and parsed")
+@Category({"Kaillux", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public final class PacketReceivedEvent extends Event {
+
+    @Label("User ID")
+    private int userId;
+
+    @Label("Game ID")
+    @Description("The user's game, or 0 if the user is not in one")
+    private int gameId;
+
+    @Label("Size")
+    @DataAmount
+    private int bytes;
+
+    @Label("Messages")
+    @Description("Messages in the bundle, including ones already received")
+    private int messageCount;
+
+    /**
+     * Commits the event, if it is enabled and over its threshold.
+     */
+    public void finish(int userId, int gameId, int bytes, int messageCount) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.bytes = bytes;
+        this.messageCount = messageCount;
+        commit();
+    }
+}
@@ -0,0 +1,55 @@
+package su.kidoz.kaillera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A player's input not arriving within the game timeout.
+ */
+@Name("kaillux.PlayerTimeout")
+@Label("Player Timeout")
+@Category({"Kaillux", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public final class PlayerTimeoutEvent extends Event {
+
+    @Label("User ID")
+    @Description("The player who timed out")
+    private int userId;
+
+    @Label("Game ID")
+    private int gameId;
+
+    @Label("Player Number")
+    private int playerNumber;
+
+    @Label("Timeout Number")
+    @Description("Consecutive timeouts while assembling this frame")
+    private int timeoutNumber;
+
+    @Label("Game Timeout")
+    @Timespan(Timespan.MILLISECONDS)
+    private long timeoutMillis;
+
+    /**
+     * Commits the event, if it is enabled.
+     */
+    public static void record(int userId, int gameId, int playerNumber, int timeoutNumber,
+            long timeoutMillis) {
+        PlayerTimeoutEvent event = new PlayerTimeoutEvent();
+        if (!event.shouldCommit())
+            return;
+        event.userId = userId;
+        event.gameId = gameId;
+        event.playerNumber = playerNumber;
+        event.timeoutNumber = timeoutNumber;
+        event.timeoutMillis = timeoutMillis;
+        event.commit();
+    }
+}
@@ -13,6 +13,7 @@ import su.kidoz.kaillera.model.exception.JoinGameException;
 import su.kidoz.kaillera.model.exception.QuitGameException;
 import su.kidoz.kaillera.model.exception.StartGameException;
 import su.kidoz.kaillera.model.exception.UserReadyException;
+import su.kidoz.util.EncodedString;
 
 /**
  * Represents a game session in the Kaillera server. Manages players, game
@@ -49,8 +50,14 @@ public interface KailleraGame {
 
     String getRomName();
 
+    /** The ROM name with its wire encoding cached, for protocol messages. */
+    EncodedString getEncodedRomName();
+
     String getClientType();
 
+    /** The client type with its wire encoding cached, for protocol messages. */
+    EncodedString getEncodedClientType();
+
     KailleraUser getOwner();
 
     int getPlayerNumber(KailleraUser user);
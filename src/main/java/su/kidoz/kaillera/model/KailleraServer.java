@@ -5,6 +5,7 @@ import java.util.Collection;
 
 import su.kidoz.kaillera.access.AccessManager;
 import su.kidoz.kaillera.model.event.EventDispatcher;
+import su.kidoz.kaillera.model.event.KailleraEvent;
 import su.kidoz.kaillera.model.event.ServerEvent;
 import su.kidoz.kaillera.model.exception.ChatException;
 import su.kidoz.kaillera.model.exception.ClientAddressException;
@@ -105,6 +106,27 @@ public interface KailleraServer {
      */
     Collection<? extends KailleraUser> getUsers();
 
+    /**
+     * Finds logged-in users whose name matches a wildcard pattern (see
+     * {@link su.kidoz.util.WildcardStringPattern}). Exact names and
+     * {@code prefix*} patterns are answered from a name index.
+     *
+     * @param namePattern
+     *            case-sensitive wildcard pattern
+     * @return matching logged-in users
+     */
+    Collection<? extends KailleraUser> findUsers(String namePattern);
+
+    /**
+     * Finds logged-in users whose name starts with the given prefix, ignoring
+     * case.
+     *
+     * @param prefix
+     *            name prefix; empty matches all logged-in users
+     * @return matching logged-in users
+     */
+    Collection<? extends KailleraUser> findUsersByNamePrefix(String prefix);
+
     /**
      * Returns all currently active games.
      *
@@ -241,6 +263,15 @@ public interface KailleraServer {
      */
     void addEvent(ServerEvent event);
 
+    /**
+     * Passes an event to the server's event tap without sending it to users,
+     * for events only observers such as the admin event feed need.
+     *
+     * @param event
+     *            the event to pass on
+     */
+    void tapEvent(KailleraEvent event);
+
     /**
      * Broadcasts an announcement message to all connected users.
      *
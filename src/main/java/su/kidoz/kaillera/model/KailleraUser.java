@@ -22,6 +22,7 @@ import su.kidoz.kaillera.model.exception.QuitGameException;
 import su.kidoz.kaillera.model.exception.StartGameException;
 import su.kidoz.kaillera.model.exception.UserNameException;
 import su.kidoz.kaillera.model.exception.UserReadyException;
+import su.kidoz.util.EncodedString;
 
 /**
  * Represents a connected user in the Kaillera server. Manages user state,
@@ -92,10 +93,16 @@ public interface KailleraUser {
 
     String getName();
 
+    /** The user name with its wire encoding cached, for protocol messages. */
+    EncodedString getEncodedName();
+
     void setName(String name);
 
     String getClientType();
 
+    /** The client type with its wire encoding cached, for protocol messages. */
+    EncodedString getEncodedClientType();
+
     boolean isEmuLinkerClient();
 
     void setClientType(String clientType);
@@ -202,6 +209,21 @@ public interface KailleraUser {
      */
     int getDroppedEventsCount();
 
+    /**
+     * Returns the 99th percentile of the time recent events waited in the event
+     * queue.
+     *
+     * @return the queue wait in nanoseconds, or 0 if not measured yet
+     */
+    long getEventQueueWaitP99Nanos();
+
+    /**
+     * Returns whether the user takes events from its queue too slowly.
+     *
+     * @return true if the user's queue wait exceeds the slow consumer threshold
+     */
+    boolean isSlowConsumer();
+
     /**
      * Returns the timestamp of the user's last chat message.
      *
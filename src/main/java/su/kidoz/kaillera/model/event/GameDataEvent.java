@@ -5,10 +5,12 @@ import su.kidoz.kaillera.model.KailleraGame;
 public final class GameDataEvent implements GameEvent {
     private KailleraGame game;
     private byte[] data;
+    private final long createdNanos;
 
     public GameDataEvent(KailleraGame game, byte[] data) {
         this.game = game;
         this.data = data;
+        this.createdNanos = System.nanoTime();
     }
 
     public String toString() {
@@ -22,4 +24,11 @@ public final class GameDataEvent implements GameEvent {
     public byte[] getData() {
         return data;
     }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which the event was created.
+     */
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
 }
@@ -0,0 +1,29 @@
+package su.kidoz.kaillera.model.event;
+
+import su.kidoz.kaillera.model.KailleraUser;
+
+/**
+ * A user banned by an admin. Not sent to users, only to the server's event
+ * tap.
+ */
+public final class UserBannedEvent implements KailleraEvent {
+    private KailleraUser user;
+    private int minutes;
+
+    public UserBannedEvent(KailleraUser user, int minutes) {
+        this.user = user;
+        this.minutes = minutes;
+    }
+
+    public String toString() {
+        return "UserBannedEvent";
+    }
+
+    public KailleraUser getUser() {
+        return user;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+}
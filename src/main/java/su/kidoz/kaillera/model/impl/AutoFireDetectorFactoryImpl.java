@@ -1,9 +1,28 @@
 package su.kidoz.kaillera.model.impl;
 
+import su.kidoz.kaillera.metrics.GameMetricsCollector;
 import su.kidoz.kaillera.model.KailleraGame;
 
 public class AutoFireDetectorFactoryImpl implements AutoFireDetectorFactory {
+    private final GameMetricsCollector metrics;
+    private final long budgetNanos;
+
+    public AutoFireDetectorFactoryImpl() {
+        this(null, 0);
+    }
+
+    /**
+     * @param metrics
+     *            collector for detections and scan cost, or null
+     * @param budgetNanos
+     *            scanning time allowed per game per second, or 0 for no limit
+     */
+    public AutoFireDetectorFactoryImpl(GameMetricsCollector metrics, long budgetNanos) {
+        this.metrics = metrics;
+        this.budgetNanos = budgetNanos;
+    }
+
     public AutoFireDetector getInstance(KailleraGame game, int defaultSensitivity) {
-        return new AutoFireScanner(game, defaultSensitivity);
+        return new AutoFireScanner(game, defaultSensitivity, metrics, budgetNanos);
     }
 }
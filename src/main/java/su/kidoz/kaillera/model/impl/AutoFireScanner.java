@@ -1,16 +1,38 @@
 package su.kidoz.kaillera.model.impl;
 
-import java.util.Arrays;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+import su.kidoz.kaillera.metrics.GameMetricsCollector;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.util.EmuLang;
 import su.kidoz.util.EmuUtil;
+import su.kidoz.util.InputComparison;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Detects autofire by watching each player's input for two actions that
+ * alternate in runs of equal, short length.
+ *
+ * <p>
+ * Input is scanned inline as it arrives from {@link KailleraGameImpl#addData}.
+ * Each player has a small state machine that keeps the two candidate actions
+ * and the previous action in one preallocated array, so scanning is O(1) per
+ * action, allocates nothing and carries over from one frame to the next.
+ *
+ * <p>
+ * Scanning time is charged against a per-game budget of CPU time per second.
+ * Once the budget is spent, input is passed over until the next second and
+ * the state of players whose input was skipped starts over.
+ *
+ * <p>
+ * A player who keeps using autofire is announced once per sustained burst:
+ * after an announcement, further detections are only counted until the
+ * pattern breaks or {@link #HOLD_OFF_MILLIS} have passed.
+ */
 public class AutoFireScanner implements AutoFireDetector {
     protected static final Logger log = LoggerFactory.getLogger(AutoFireScanner.class);
 
@@ -20,17 +42,45 @@ public class AutoFireScanner implements AutoFireDetector {
             {3, 11}, {4, 9}, {5, 7}, {6, 5} // 5 is most sensitive
     };
 
-    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final long BUDGET_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Time after an announcement during which a continuing burst is not announced again. */
+    static final long HOLD_OFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
 
     protected KailleraGame game;
-    protected int sensitivity;
-    protected int maxDelay;
-    protected int minReps;
+    protected volatile int sensitivity;
+    protected volatile int maxDelay;
+    protected volatile int minReps;
+
+    protected PlayerScanner[] scanners;
 
-    protected ScanningJob[] scanningJobs;
+    private final GameMetricsCollector metrics;
+    private final long budgetNanos;
+    private final LongSupplier clock;
+    private final AtomicLong budgetWindowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong budgetSpent = new AtomicLong();
 
     public AutoFireScanner(KailleraGame game, int sensitivity) {
+        this(game, sensitivity, null, 0);
+    }
+
+    /**
+     * @param metrics
+     *            collector for detections and scan cost, or null
+     * @param budgetNanos
+     *            scanning time allowed per game per second, or 0 for no limit
+     */
+    public AutoFireScanner(KailleraGame game, int sensitivity, GameMetricsCollector metrics,
+            long budgetNanos) {
+        this(game, sensitivity, metrics, budgetNanos, System::currentTimeMillis);
+    }
+
+    AutoFireScanner(KailleraGame game, int sensitivity, GameMetricsCollector metrics,
+            long budgetNanos, LongSupplier clock) {
         this.game = game;
+        this.metrics = metrics;
+        this.budgetNanos = budgetNanos;
+        this.clock = clock;
         setSensitivity(sensitivity);
     }
 
@@ -42,9 +92,9 @@ public class AutoFireScanner implements AutoFireDetector {
         if (sensitivity < 0 || sensitivity > 5)
             this.sensitivity = 0;
         else {
-            this.sensitivity = sensitivity;
             maxDelay = SENSITIVITY_TABLE[sensitivity][0];
             minReps = SENSITIVITY_TABLE[sensitivity][1];
+            this.sensitivity = sensitivity;
         }
     }
 
@@ -52,235 +102,250 @@ public class AutoFireScanner implements AutoFireDetector {
         if (sensitivity <= 0)
             return;
 
-        scanningJobs = new ScanningJob[numPlayers];
+        scanners = new PlayerScanner[numPlayers];
     }
 
     public void addPlayer(KailleraUser player, int playerNumber) {
-        if (sensitivity <= 0 || scanningJobs == null)
+        if (sensitivity <= 0 || scanners == null)
             return;
 
-        scanningJobs[(playerNumber - 1)] = new ScanningJob(player, playerNumber);
+        scanners[(playerNumber - 1)] = new PlayerScanner(player);
     }
 
     public void stop(int playerNumber) {
-        if (sensitivity <= 0 || scanningJobs == null)
+        if (sensitivity <= 0 || scanners == null)
             return;
 
         int index = playerNumber - 1;
-        if (index < 0 || index >= scanningJobs.length || scanningJobs[index] == null)
+        if (index < 0 || index >= scanners.length || scanners[index] == null)
             return;
 
-        scanningJobs[index].stop();
+        scanners[index].stop();
     }
 
     public void stop() {
-        if (sensitivity <= 0 || scanningJobs == null)
+        if (sensitivity <= 0 || scanners == null)
             return;
 
-        for (int i = 0; i < scanningJobs.length; i++) {
-            if (scanningJobs[i] != null)
-                scanningJobs[i].stop();
+        for (int i = 0; i < scanners.length; i++) {
+            if (scanners[i] != null)
+                scanners[i].stop();
         }
     }
 
     public void addData(int playerNumber, byte[] data, int bytesPerAction) {
-        if (sensitivity <= 0 || scanningJobs == null)
+        if (sensitivity <= 0 || scanners == null)
             return;
 
         int index = playerNumber - 1;
-        if (index < 0 || index >= scanningJobs.length || scanningJobs[index] == null)
+        if (index < 0 || index >= scanners.length || scanners[index] == null)
             return;
 
-        scanningJobs[index].addData(data, bytesPerAction);
+        PlayerScanner scanner = scanners[index];
+        long start = System.nanoTime();
+        if (!withinBudget(start)) {
+            scanner.reset();
+            if (metrics != null)
+                metrics.recordAutoFireScanSkipped();
+            return;
+        }
+
+        try {
+            scanner.addData(data, bytesPerAction);
+        } catch (Exception e) {
+            log.error("AutoFireScanner for " + scanner.user + " caught exception!", e);
+            scanner.reset();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        budgetSpent.addAndGet(elapsed);
+        if (metrics != null)
+            metrics.recordAutoFireScan(elapsed);
     }
 
-    protected class ScanningJob implements Runnable {
-        private KailleraUser user;
-        private int playerNumber;
+    private boolean withinBudget(long now) {
+        if (budgetNanos <= 0)
+            return true;
 
-        private int bytesPerAction = -1;
-        private int sizeLimit;
-        private int bufferSize = 5;
-        private int size = 0;
+        long windowStart = budgetWindowStart.get();
+        if (now - windowStart >= BUDGET_WINDOW_NANOS
+                && budgetWindowStart.compareAndSet(windowStart, now)) {
+            budgetSpent.set(0);
+        }
+        return budgetSpent.get() < budgetNanos;
+    }
 
-        private byte[][] buffer;
-        private int head = 0;
-        private int tail = 0;
-        private int pos = 0;
+    private void detected(KailleraUser user, int sequence, boolean announce) {
+        if (metrics != null)
+            metrics.recordAutoFireDetected();
+        if (!announce)
+            return;
 
-        private boolean running = false;
-        private boolean stopFlag = false;
+        KailleraGameImpl gameImpl = (KailleraGameImpl) game;
+        gameImpl.announce(EmuLang.getString("AutoFireScanner2.AutoFireDetected", user.getName()));
+        log.info("AUTOUSERDUMP\t" + EmuUtil.formatDate(gameImpl.getStartDate()) + "\t" + sequence
+                + "\t" + game.getID() + "\t" + game.getRomName() + "\t" + user.getName() + "\t"
+                + user.getSocketAddress().getAddress().getHostAddress());
+    }
 
-        protected ScanningJob(KailleraUser user, int playerNumber) {
+    /**
+     * Scanning state for one player. Only the player's own thread adds data, so
+     * the state is not shared.
+     */
+    protected class PlayerScanner {
+        private final KailleraUser user;
+
+        // Action A, action B and the previous action, each bytesPerAction long
+        private byte[] actions = new byte[0];
+        private int bytesPerAction;
+        private int offsetA;
+        private int offsetB;
+        private int offsetLast;
+
+        private int aCount;
+        private int aSequence;
+        private int lastASequence;
+        private int aSequenceCount;
+        private int bCount;
+        private int bSequence;
+        private int lastBSequence;
+        private int bSequenceCount;
+
+        // Set by an announcement, cleared when the pattern breaks
+        private boolean holding;
+        private long holdUntil;
+
+        private volatile boolean stopFlag = false;
+
+        protected PlayerScanner(KailleraUser user) {
             this.user = user;
-            this.playerNumber = playerNumber;
+        }
+
+        protected void stop() {
+            this.stopFlag = true;
+        }
 
-            sizeLimit = ((maxDelay + 1) * minReps * 5);
-            buffer = new byte[bufferSize][sizeLimit];
+        protected void reset() {
+            aCount = 0;
+            aSequence = 0;
+            lastASequence = 0;
+            aSequenceCount = 0;
+            bCount = 0;
+            bSequence = 0;
+            lastBSequence = 0;
+            bSequenceCount = 0;
         }
 
-        protected synchronized void addData(byte[] data, int bytesPerAction) {
-            if (sizeLimit <= 0) {
+        protected void addData(byte[] data, int bytesPerAction) {
+            if (stopFlag || bytesPerAction <= 0)
                 return;
+
+            if (bytesPerAction != this.bytesPerAction) {
+                // Only happens on the first frame of a game
+                this.bytesPerAction = bytesPerAction;
+                actions = new byte[bytesPerAction * 3];
+                offsetA = 0;
+                offsetB = bytesPerAction;
+                offsetLast = bytesPerAction * 2;
+                reset();
             }
 
+            int end = data.length - bytesPerAction;
             int offset = 0;
-            int remaining = data.length;
-
-            while (remaining > 0) {
-                int space = sizeLimit - pos;
-                int copySize = Math.min(remaining, space);
-                System.arraycopy(data, offset, buffer[tail], pos, copySize);
-                pos += copySize;
-                offset += copySize;
-                remaining -= copySize;
-
-                if (pos >= sizeLimit) {
-                    tail = ((tail + 1) % bufferSize);
-                    pos = 0;
-                    size++;
-
-                    if (this.bytesPerAction <= 0) {
-                        this.bytesPerAction = bytesPerAction;
-                    }
-
-                    if (!running) {
-                        EXECUTOR.submit(this);
-                    }
+            while (offset <= end && !stopFlag) {
+                if (scan(data, offset)) {
+                    // Start over so each detection covers fresh input
+                    reset();
                 }
+                offset += bytesPerAction;
             }
         }
 
-        protected void stop() {
-            this.stopFlag = true;
-        }
-
-        public void run() {
-            // long st = System.currentTimeMillis();
-            synchronized (this) {
-                running = true;
-            }
-
-            try {
-                while (size > 0 && !stopFlag) {
-                    byte[] data = null;
-                    synchronized (this) {
-                        data = buffer[head];
-                        // log.debug("Scanning " + data.length + " bytes from buffer position " +
-                        // head);
-                        head = ((head + 1) % bufferSize);
-                        size--;
-                    }
-
-                    // determine the number of actions in this array
-                    int actionCount = (data.length / bytesPerAction);
-                    byte[] thisAction = new byte[bytesPerAction];
-                    byte[] lastAction = new byte[bytesPerAction];
-                    byte[] actionA = new byte[bytesPerAction];
-                    int aCount = 0;
-                    int aSequence = 0;
-                    int lastASequence = 0;
-                    int aSequenceCount = 0;
-                    byte[] actionB = new byte[bytesPerAction];
-                    int bCount = 0;
-                    int bSequence = 0;
-                    int lastBSequence = 0;
-                    int bSequenceCount = 0;
-
-                    for (int i = 0; i < actionCount; i++) {
-                        System.arraycopy(data, (i * bytesPerAction), thisAction, 0, bytesPerAction);
-                        // log.debug("thisAction=" + EmuUtil.bytesToHex(thisAction) + " actionA=" +
-                        // EmuUtil.bytesToHex(actionA) + " aCount=" + aCount + " actionB=" +
-                        // EmuUtil.bytesToHex(actionB) + " bCount=" + bCount + " aSequence=" +
-                        // aSequence
-                        // + " aSequenceCount=" + aSequenceCount + " bSequence=" + bSequence + "
-                        // bSequenceCount=" + bSequenceCount);
-
-                        if (aCount == 0) {
-                            System.arraycopy(thisAction, 0, actionA, 0, bytesPerAction);
-                            aCount = 1;
-                            aSequence = 1;
-                        } else if (Arrays.equals(thisAction, actionA)) {
-                            aCount++;
-                            if (Arrays.equals(thisAction, lastAction))
-                                aSequence++;
-                            else {
-                                if (lastASequence == aSequence && aSequence <= maxDelay)
-                                    aSequenceCount++;
-                                else
-                                    aSequenceCount = 0;
-                                lastASequence = aSequence;
-                                aSequence = 1;
-                            }
-                        } else if (bCount == 0) {
-                            System.arraycopy(thisAction, 0, actionB, 0, bytesPerAction);
-                            bCount = 1;
-                            bSequence = 1;
-                        } else if (Arrays.equals(thisAction, actionB)) {
-                            bCount++;
-                            if (Arrays.equals(thisAction, lastAction))
-                                bSequence++;
-                            else {
-                                if (lastBSequence == bSequence && bSequence <= maxDelay)
-                                    bSequenceCount++;
-                                else
-                                    bSequenceCount = 0;
-                                lastBSequence = bSequence;
-                                bSequence = 1;
-                            }
-                        } else {
-                            actionA = lastAction;
-                            aCount = 1;
-                            aSequence = 1;
-                            aSequenceCount = 0;
-                            actionB = thisAction;
-                            bCount = 1;
-                            bSequence = 0;
-                            bSequenceCount = 0;
-                        }
-
-                        System.arraycopy(thisAction, 0, lastAction, 0, bytesPerAction);
-
-                        // if(aSequenceCount >= 3 && bSequenceCount >= 3 && !stopFlag)
-                        // {
-                        // log.debug("thisAction=" + EmuUtil.bytesToHex(thisAction) + " actionA=" +
-                        // EmuUtil.bytesToHex(actionA) + " aCount=" + aCount + " actionB=" +
-                        // EmuUtil.bytesToHex(actionB) + " bCount=" + bCount + " aSequence=" +
-                        // aSequence
-                        // + " aSequenceCount=" + aSequenceCount + " bSequence=" + bSequence + "
-                        // bSequenceCount=" + bSequenceCount);
-                        // }
-
-                        if (aSequenceCount >= minReps && bSequenceCount >= minReps && !stopFlag) {
-                            KailleraGameImpl gameImpl = (KailleraGameImpl) game;
-                            gameImpl.announce(EmuLang.getString("AutoFireScanner2.AutoFireDetected",
-                                    user.getName()));
-                            log.info("AUTOUSERDUMP\t" + EmuUtil.formatDate(gameImpl.getStartDate())
-                                    + "\t" + (aSequence < bSequence ? aSequence : bSequence) + "\t"
-                                    + game.getID() + "\t" + game.getRomName() + "\t"
-                                    + user.getName() + "\t"
-                                    + user.getSocketAddress().getAddress().getHostAddress());
-                            // log.debug("thisAction=" + EmuUtil.bytesToHex(thisAction) + "
-                            // actionA=" +
-                            // EmuUtil.bytesToHex(actionA) + " aCount=" + aCount + " actionB=" +
-                            // EmuUtil.bytesToHex(actionB) + " bCount=" + bCount + " aSequence=" +
-                            // aSequence
-                            // + " aSequenceCount=" + aSequenceCount + " bSequence=" + bSequence + "
-                            // bSequenceCount=" + bSequenceCount);
-                            break;
-                        }
-                    }
+        /**
+         * Advances the state machine by one action and returns whether autofire
+         * was detected.
+         */
+        private boolean scan(byte[] data, int thisAction) {
+            int maxDelay = AutoFireScanner.this.maxDelay;
+            int minReps = AutoFireScanner.this.minReps;
+
+            if (aCount == 0) {
+                store(data, thisAction, offsetA);
+                aCount = 1;
+                aSequence = 1;
+            } else if (matches(data, thisAction, offsetA)) {
+                aCount++;
+                if (matches(data, thisAction, offsetLast))
+                    aSequence++;
+                else {
+                    if (lastASequence == aSequence && aSequence <= maxDelay)
+                        aSequenceCount++;
+                    else
+                        aSequenceCount = 0;
+                    lastASequence = aSequence;
+                    aSequence = 1;
                 }
-            } catch (Exception e) {
-                log.error("AutoFireScanner thread for " + user + " caught exception!", e);
-            } finally {
-                synchronized (this) {
-                    running = false;
+            } else if (bCount == 0) {
+                store(data, thisAction, offsetB);
+                bCount = 1;
+                bSequence = 1;
+            } else if (matches(data, thisAction, offsetB)) {
+                bCount++;
+                if (matches(data, thisAction, offsetLast))
+                    bSequence++;
+                else {
+                    if (lastBSequence == bSequence && bSequence <= maxDelay)
+                        bSequenceCount++;
+                    else
+                        bSequenceCount = 0;
+                    lastBSequence = bSequence;
+                    bSequence = 1;
                 }
+            } else {
+                // The previous action becomes A and this one B
+                System.arraycopy(actions, offsetLast, actions, offsetA, bytesPerAction);
+                aCount = 1;
+                aSequence = 1;
+                aSequenceCount = 0;
+                store(data, thisAction, offsetB);
+                bCount = 1;
+                bSequence = 0;
+                bSequenceCount = 0;
             }
 
-            // long et = (System.currentTimeMillis()-st);
-            // log.debug("Scanning completed in " + et + " ms");
+            store(data, thisAction, offsetLast);
+
+            // The pattern breaks once an action is held longer than autofire
+            // would hold it; other buttons changing alongside do not break it
+            if (aSequence > maxDelay || bSequence > maxDelay)
+                holding = false;
+
+            if (aSequenceCount >= minReps && bSequenceCount >= minReps && !stopFlag) {
+                detected(user, Math.min(aSequence, bSequence), shouldAnnounce());
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns whether a detection should be announced, starting a hold-off
+         * if it should.
+         */
+        private boolean shouldAnnounce() {
+            long now = clock.getAsLong();
+            if (holding && now - holdUntil < 0)
+                return false;
+            holding = true;
+            holdUntil = now + HOLD_OFF_MILLIS;
+            return true;
+        }
+
+        private boolean matches(byte[] data, int offset, int actionOffset) {
+            return InputComparison.equals(data, offset, actions, actionOffset, bytesPerAction);
+        }
+
+        private void store(byte[] data, int offset, int actionOffset) {
+            System.arraycopy(data, offset, actions, actionOffset, bytesPerAction);
         }
     }
 }
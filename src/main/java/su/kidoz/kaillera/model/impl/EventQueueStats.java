@@ -0,0 +1,72 @@
+package su.kidoz.kaillera.model.impl;
+
+import java.util.Arrays;
+
+/**
+ * The recent queue wait of a user's events, used to flag slow consumers.
+ *
+ * <p>
+ * Waits are collected in windows of up to {@value #WINDOW_SIZE} events or
+ * {@value #WINDOW_NANOS} nanoseconds, whichever ends first. The 99th
+ * percentile of each window replaces that of the last one, so a user stops
+ * being flagged once it catches up. Only the user's thread records waits.
+ */
+final class EventQueueStats {
+
+    static final int WINDOW_SIZE = 128;
+    static final long WINDOW_NANOS = 5_000_000_000L;
+
+    private final long slowNanos;
+    private final long[] waits = new long[WINDOW_SIZE];
+    private int count;
+    private long windowStart;
+
+    private volatile long p99Nanos;
+    private volatile boolean slow;
+
+    /**
+     * @param slowNanos
+     *            the 99th percentile of queue wait above which the user is a
+     *            slow consumer
+     */
+    EventQueueStats(long slowNanos) {
+        this.slowNanos = slowNanos;
+    }
+
+    /**
+     * Records the queue wait of an event.
+     *
+     * @param now
+     *            the current {@link System#nanoTime}
+     * @return true if this ended a window and changed whether the user is a
+     *         slow consumer
+     */
+    boolean record(long waitNanos, long now) {
+        if (count == 0)
+            windowStart = now;
+        waits[count++] = waitNanos;
+        if (count < WINDOW_SIZE && now - windowStart < WINDOW_NANOS)
+            return false;
+
+        Arrays.sort(waits, 0, count);
+        long p99 = waits[(int) Math.ceil(count * 0.99) - 1];
+        count = 0;
+
+        boolean wasSlow = slow;
+        p99Nanos = p99;
+        slow = p99 > slowNanos;
+        return slow != wasSlow;
+    }
+
+    /**
+     * Returns the 99th percentile of queue wait of the last window, or 0 if
+     * none ended yet.
+     */
+    long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    boolean isSlow() {
+        return slow;
+    }
+}
@@ -4,9 +4,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import su.kidoz.kaillera.model.KailleraGame;
+import su.kidoz.util.IdAllocator;
 
 /**
  * Manages game storage, ID generation, and game lifecycle tracking. Extracted
@@ -15,25 +15,37 @@ import su.kidoz.kaillera.model.KailleraGame;
 public class GameManager {
     private static final int MAX_GAME_ID = 0xFFFF;
 
+    // Closed game IDs sit out a while so lobby clients don't mistake a new game
+    // for the one that just closed
+    private static final long ID_REUSE_DELAY_MS = 60_000;
+
     private final Map<Integer, KailleraGameImpl> games;
-    private final AtomicInteger gameCounter;
+    private final IdAllocator idAllocator;
 
     public GameManager(int initialCapacity) {
         this.games = new ConcurrentHashMap<>(initialCapacity);
-        this.gameCounter = new AtomicInteger(1);
+        this.idAllocator = new IdAllocator(1, MAX_GAME_ID, ID_REUSE_DELAY_MS);
     }
 
     /**
-     * Generates the next unique game ID, wrapping around at MAX_GAME_ID.
+     * Allocates the next unique game ID from a rotating cursor, wrapping around
+     * at MAX_GAME_ID. The ID stays reserved until the game is removed.
+     *
+     * @throws IllegalStateException
+     *             if no game IDs are available
      */
     public int getNextGameID() {
-        for (int attempts = 0; attempts < MAX_GAME_ID; attempts++) {
-            int candidate = gameCounter.getAndUpdate(val -> val >= MAX_GAME_ID ? 1 : val + 1);
-            if (!games.containsKey(candidate)) {
-                return candidate;
-            }
+        return idAllocator.allocate();
+    }
+
+    /**
+     * Returns an ID obtained from {@link #getNextGameID()} that was never used
+     * for an added game.
+     */
+    public void releaseGameID(int gameID) {
+        if (!games.containsKey(gameID)) {
+            idAllocator.release(gameID);
         }
-        throw new IllegalStateException("No available game IDs");
     }
 
     /**
@@ -56,7 +68,11 @@ public class GameManager {
      * @return the removed game, or null if not found
      */
     public KailleraGameImpl removeGame(int gameID) {
-        return games.remove(gameID);
+        KailleraGameImpl removed = games.remove(gameID);
+        if (removed != null) {
+            idAllocator.release(gameID);
+        }
+        return removed;
     }
 
     /**
@@ -98,5 +114,6 @@ public class GameManager {
      */
     public void clear() {
         games.clear();
+        idAllocator.clear();
     }
 }
@@ -1,5 +1,6 @@
 package su.kidoz.kaillera.model.impl;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -12,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import su.kidoz.kaillera.access.AccessManager;
 import su.kidoz.kaillera.master.StatsCollector;
 import su.kidoz.kaillera.metrics.GameMetricsCollector;
+import su.kidoz.kaillera.metrics.jfr.PlayerTimeoutEvent;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.model.event.AllReadyEvent;
@@ -36,10 +38,15 @@ import su.kidoz.kaillera.model.exception.QuitGameException;
 import su.kidoz.kaillera.model.exception.StartGameException;
 import su.kidoz.kaillera.model.exception.UserReadyException;
 import su.kidoz.util.EmuLang;
+import su.kidoz.util.EncodedString;
 
 public final class KailleraGameImpl implements KailleraGame {
     private static final Logger log = LoggerFactory.getLogger(KailleraGameImpl.class);
 
+    // Input interval markers before a player's first and second input
+    private static final long NO_INPUT = -2;
+    private static final long FIRST_INPUT = -1;
+
     // ReadWriteLock for concurrent read access, exclusive write access
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final Lock readLock = rwLock.readLock();
@@ -47,6 +54,7 @@ public final class KailleraGameImpl implements KailleraGame {
 
     private final int id;
     private final String romName;
+    private final EncodedString encodedRomName;
     private final String toString;
     private final Date startDate;
 
@@ -66,12 +74,20 @@ public final class KailleraGameImpl implements KailleraGame {
     private volatile boolean synched = false;
     private volatile int actionsPerMessage;
     private volatile PlayerActionQueue[] playerActionQueues;
-    private AutoFireDetector autoFireDetector;
+    private final AutoFireDetector autoFireDetector;
+
+    // Frame timing, set when the game starts if metrics are enabled
+    private volatile GameMetricsCollector.FrameMeters frameMeters;
+    // Arrival time and interval of each player's last input, for input jitter.
+    // Each player's entries are only written by that player's addData.
+    private long[] lastInputNanos;
+    private long[] lastInputIntervals;
 
     public KailleraGameImpl(int gameID, String romName, KailleraUserImpl owner,
             KailleraServerImpl server, int bufferSize, int timeoutMillis, int desynchTimeouts) {
         this.id = gameID;
         this.romName = romName;
+        this.encodedRomName = new EncodedString(romName);
         this.owner = owner;
         this.server = server;
         this.actionsPerMessage = owner.getConnectionType();
@@ -96,6 +112,10 @@ public final class KailleraGameImpl implements KailleraGame {
         return romName;
     }
 
+    public EncodedString getEncodedRomName() {
+        return encodedRomName;
+    }
+
     public Date getStartDate() {
         return new Date(startDate.getTime());
     }
@@ -156,6 +176,10 @@ public final class KailleraGameImpl implements KailleraGame {
         return getOwner().getClientType();
     }
 
+    public EncodedString getEncodedClientType() {
+        return getOwner().getEncodedClientType();
+    }
+
     public String toString() {
         return toString;
     }
@@ -204,6 +228,7 @@ public final class KailleraGameImpl implements KailleraGame {
 
     @Override
     public void addEvent(GameEvent event) {
+        server.tapEvent(event);
         for (KailleraUserImpl player : players)
             player.addEvent(event);
     }
@@ -412,8 +437,14 @@ public final class KailleraGameImpl implements KailleraGame {
 
             if (statsCollector != null)
                 statsCollector.gameStarted(server, this);
-            if (gameMetricsCollector != null)
+            if (gameMetricsCollector != null) {
                 gameMetricsCollector.recordGameStarted(id);
+                lastInputNanos = new long[playerActionQueues.length];
+                lastInputIntervals = new long[playerActionQueues.length];
+                Arrays.fill(lastInputIntervals, NO_INPUT);
+                frameMeters = gameMetricsCollector.getFrameMeters(actionsPerMessage,
+                        playerActionQueues.length);
+            }
 
             addEvent(new GameStartedEvent(this));
         } finally {
@@ -602,83 +633,126 @@ public final class KailleraGameImpl implements KailleraGame {
     }
 
     public void addData(KailleraUser user, int playerNumber, byte[] data) throws GameDataException {
-        writeLock.lock();
-        try {
-            PlayerActionQueue[] queues = playerActionQueues;
-            int actions = actionsPerMessage; // local copy for thread-safety
-
-            if (queues == null)
-                return;
-
-            if (actions <= 0) {
-                log.error(this + ": addData failed: actionsPerMessage is " + actions);
-                return;
-            }
+        long arrivalNanos = System.nanoTime();
+        GameMetricsCollector.FrameMeters meters = frameMeters;
+        // Not under the game lock: waiting for the other players' input while
+        // holding it would block their addData, and any drop, quit or close,
+        // until the wait timed out. Without it:
+        // - the queues synchronize themselves, and setSynched(false) from drop,
+        //   close, droppedPacket or handleTimeout wakes a waiting getAction
+        // - playerActionQueues, actionsPerMessage, synched and frameMeters are
+        //   volatile; the first two are read once, synched on every wait
+        // - handleTimeout takes the write lock, never while holding a queue;
+        //   players timing out on the same lagging player raise equal
+        //   exceptions, so the queue's lastTimeout counts each timeout once
+        // - each player's lastInputNanos entries are only written here, by
+        //   that player's own thread
+        PlayerActionQueue[] queues = playerActionQueues;
+        int actions = actionsPerMessage; // local copy for thread-safety
+
+        if (queues == null)
+            return;
+
+        if (actions <= 0) {
+            log.error(this + ": addData failed: actionsPerMessage is " + actions);
+            return;
+        }
 
-            int numPlayers = queues.length;
+        int numPlayers = queues.length;
 
-            // Validate playerNumber bounds
-            if (playerNumber < 1 || playerNumber > numPlayers) {
-                log.error(this + ": addData failed: invalid playerNumber " + playerNumber
-                        + " (max: " + numPlayers + ")");
-                throw new GameDataException("Invalid player number: " + playerNumber, data, actions,
-                        playerNumber, numPlayers);
-            }
+        // Validate playerNumber bounds
+        if (playerNumber < 1 || playerNumber > numPlayers) {
+            log.error(this + ": addData failed: invalid playerNumber " + playerNumber
+                    + " (max: " + numPlayers + ")");
+            throw new GameDataException("Invalid player number: " + playerNumber, data, actions,
+                    playerNumber, numPlayers);
+        }
 
-            int bytesPerAction = (data.length / actions);
-            int timeoutCounter = 0;
-            int actionCounter;
-            int playerCounter;
+        int bytesPerAction = (data.length / actions);
+        int timeoutCounter = 0;
+        int actionCounter;
+        int playerCounter;
+
+        // Check for integer overflow before array allocation
+        if (bytesPerAction <= 0 || numPlayers > Integer.MAX_VALUE / actions
+                || (numPlayers * actions) > Integer.MAX_VALUE / bytesPerAction) {
+            log.error(this + ": addData failed: array size overflow");
+            throw new GameDataException("Invalid data size", data, actions, playerNumber,
+                    numPlayers);
+        }
+        int arraySize = (numPlayers * actions * bytesPerAction);
 
-            // Check for integer overflow before array allocation
-            if (bytesPerAction <= 0 || numPlayers > Integer.MAX_VALUE / actions
-                    || (numPlayers * actions) > Integer.MAX_VALUE / bytesPerAction) {
-                log.error(this + ": addData failed: array size overflow");
-                throw new GameDataException("Invalid data size", data, actions, playerNumber,
-                        numPlayers);
-            }
-            int arraySize = (numPlayers * actions * bytesPerAction);
+        if (!synched) {
+            throw new GameDataException(EmuLang.getString("KailleraGameImpl.DesynchedWarning"),
+                    data, actions, playerNumber, numPlayers);
+        }
 
-            if (!synched) {
-                throw new GameDataException(EmuLang.getString("KailleraGameImpl.DesynchedWarning"),
-                        data, actions, playerNumber, numPlayers);
-            }
+        queues[(playerNumber - 1)].addActions(data);
+        if (meters != null)
+            recordInputJitter(meters, playerNumber - 1, arrivalNanos);
 
-            queues[(playerNumber - 1)].addActions(data);
+        if (autoFireDetector != null)
+            autoFireDetector.addData(playerNumber, data, bytesPerAction);
 
-            if (autoFireDetector != null)
-                autoFireDetector.addData(playerNumber, data, bytesPerAction);
-
-            byte[] response = new byte[arraySize];
-            for (actionCounter = 0; actionCounter < actions; actionCounter++) {
-                for (playerCounter = 0; playerCounter < numPlayers; playerCounter++) {
-                    while (synched) {
-                        try {
-                            queues[playerCounter]
-                                    .getAction(playerNumber, response,
-                                            ((actionCounter * (numPlayers * bytesPerAction))
-                                                    + (playerCounter * bytesPerAction)),
-                                            bytesPerAction);
-                            break;
-                        } catch (PlayerTimeoutException e) {
-                            e.setTimeoutNumber(++timeoutCounter);
-                            handleTimeout(e);
-                        }
+        byte[] response = new byte[arraySize];
+        long waitStartNanos = System.nanoTime();
+        for (actionCounter = 0; actionCounter < actions; actionCounter++) {
+            for (playerCounter = 0; playerCounter < numPlayers; playerCounter++) {
+                int offset = (actionCounter * (numPlayers * bytesPerAction))
+                        + (playerCounter * bytesPerAction);
+                while (synched) {
+                    try {
+                        queues[playerCounter].getAction(playerNumber, response, offset,
+                                bytesPerAction);
+                        break;
+                    } catch (PlayerTimeoutException e) {
+                        e.setTimeoutNumber(++timeoutCounter);
+                        PlayerTimeoutEvent.record(
+                                e.getPlayer() != null ? e.getPlayer().getID() : 0, id,
+                                e.getPlayerNumber(), timeoutCounter, timeoutMillis);
+                        handleTimeout(e);
                     }
                 }
             }
+        }
 
-            if (!synched)
-                throw new GameDataException(EmuLang.getString("KailleraGameImpl.DesynchedWarning"),
-                        data, bytesPerAction, playerNumber, numPlayers);
+        long waitNanos = System.nanoTime() - waitStartNanos;
 
-            ((KailleraUserImpl) user).addEvent(new GameDataEvent(this, response));
-        } finally {
-            writeLock.unlock();
+        if (!synched)
+            throw new GameDataException(EmuLang.getString("KailleraGameImpl.DesynchedWarning"),
+                    data, bytesPerAction, playerNumber, numPlayers);
+
+        ((KailleraUserImpl) user).addEvent(new GameDataEvent(this, response));
+        if (meters != null)
+            meters.recordFrame(System.nanoTime() - arrivalNanos, waitNanos);
+    }
+
+    GameMetricsCollector.FrameMeters getFrameMeters() {
+        return frameMeters;
+    }
+
+    // Records the change between the player's last two input intervals
+    private void recordInputJitter(GameMetricsCollector.FrameMeters meters, int index,
+            long arrivalNanos) {
+        long[] arrivals = lastInputNanos;
+        long[] intervals = lastInputIntervals;
+        if (arrivals == null || index >= arrivals.length)
+            return;
+
+        long lastInterval = intervals[index];
+        long interval = arrivalNanos - arrivals[index];
+        arrivals[index] = arrivalNanos;
+        if (lastInterval == NO_INPUT) {
+            intervals[index] = FIRST_INPUT;
+            return;
         }
+
+        intervals[index] = interval;
+        if (lastInterval != FIRST_INPUT)
+            meters.recordInputJitter(Math.abs(interval - lastInterval));
     }
 
-    // Called from addData() which already holds writeLock - lock is reentrant
+    // Called from addData() for each timeout while waiting for a player's input
     private void handleTimeout(PlayerTimeoutException e) {
         writeLock.lock();
         try {
@@ -700,6 +774,9 @@ public final class KailleraGameImpl implements KailleraGame {
                 return;
 
             playerActionQueue.setLastTimeout(e);
+            GameMetricsCollector.FrameMeters meters = frameMeters;
+            if (meters != null)
+                meters.recordTimeout();
 
             KailleraUser player = e.getPlayer();
             if (timeoutNumber < desynchTimeouts) {
@@ -1,11 +1,13 @@
 package su.kidoz.kaillera.model.impl;
 
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import su.kidoz.config.GameConfig;
 import su.kidoz.config.ServerConfig;
@@ -20,6 +22,7 @@ import su.kidoz.kaillera.model.event.ConnectedEvent;
 import su.kidoz.kaillera.model.event.GameClosedEvent;
 import su.kidoz.kaillera.model.event.GameCreatedEvent;
 import su.kidoz.kaillera.model.event.EventDispatcher;
+import su.kidoz.kaillera.model.event.KailleraEvent;
 import su.kidoz.kaillera.model.event.ServerEvent;
 import su.kidoz.kaillera.model.event.UserQuitEvent;
 import su.kidoz.kaillera.model.exception.ChatException;
@@ -45,6 +48,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.SmartLifecycle;
 import su.kidoz.kaillera.model.event.LoginProgressEvent;
 
+import su.kidoz.kaillera.metrics.EventMetricsCollector;
 import su.kidoz.kaillera.metrics.GameMetricsCollector;
 import su.kidoz.kaillera.metrics.ServerMetrics;
 import su.kidoz.kaillera.model.LoginNotificationState;
@@ -62,9 +66,13 @@ import su.kidoz.config.ServerInfrastructure;
  * This class uses fine-grained locking for concurrent operations:
  * <ul>
  * <li>{@code serverLifecycleLock} - for start/stop operations</li>
- * <li>{@code connectionLock} - for user connection/login/quit operations</li>
+ * <li>{@code addressLocks} - striped by client address; serialize the final
+ * step of login (duplicate check and reconnect swap) and quit</li>
  * <li>{@code gameLock} - for game creation/closure operations</li>
  * </ul>
+ * New connections take no lock at all: the user slot is reserved with a CAS on
+ * the user ID allocator. Login validation runs unlocked, so logins from
+ * different addresses proceed in parallel.
  *
  * @see KailleraServer
  * @see KailleraUser
@@ -73,6 +81,9 @@ import su.kidoz.config.ServerInfrastructure;
 public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecycle {
     private static final Logger log = LoggerFactory.getLogger(KailleraServerImpl.class);
 
+    // Power of two so the stripe can be picked with a mask
+    private static final int ADDRESS_LOCK_STRIPES = 64;
+
     // Configuration objects - access values via getters instead of copying
     private final ServerConfig serverConfig;
     private final GameConfig gameConfig;
@@ -84,7 +95,7 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
 
     private final EmuLinkerExecutor threadPool;
     private final AccessManager accessManager;
-    private StatsCollector statsCollector;
+    private final StatsCollector statsCollector;
     private final ReleaseInfo releaseInfo;
     private final AutoFireDetectorFactory autoFireDetectorFactory;
     private final LoginValidator loginValidator;
@@ -93,11 +104,14 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
     private final UserManager userManager;
     private final GameManager gameManager;
     private final GameMetricsCollector gameMetricsCollector;
-    private ServerMaintenanceTask maintenanceTask;
+    private final EventMetricsCollector eventMetricsCollector;
+    private volatile ServerMaintenanceTask maintenanceTask;
+    // Receives a copy of server and game events, such as the admin event feed
+    private volatile Consumer<KailleraEvent> eventTap;
 
     // Fine-grained locks replacing coarse synchronized(this)
     private final Lock serverLifecycleLock = new ReentrantLock();
-    private final Lock connectionLock = new ReentrantLock();
+    private final Lock[] addressLocks = new Lock[ADDRESS_LOCK_STRIPES];
     private final Lock gameLock = new ReentrantLock();
 
     /**
@@ -138,13 +152,19 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
         this.announcementService = policyServices.announcementService();
 
         // Extract from metrics bundle
+        this.statsCollector = metrics.statsCollector();
         this.gameMetricsCollector = metrics.gameMetricsCollector();
+        this.eventMetricsCollector = metrics.eventMetricsCollector();
 
         // Direct parameters
         this.autoFireDetectorFactory = autoFireDetectorFactory;
         this.userManager = userManager;
         this.gameManager = gameManager;
 
+        for (int i = 0; i < addressLocks.length; i++) {
+            addressLocks[i] = new ReentrantLock();
+        }
+
         // Load login messages from language bundle
         for (int i = 1; i <= 999; i++) {
             if (EmuLang.hasString("KailleraServerImpl.LoginMessage." + i))
@@ -153,9 +173,8 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
                 break;
         }
 
-        // Master list config
-        if (configs.masterList().isTouchKaillera())
-            this.statsCollector = metrics.statsCollector();
+        // Ban and emulator re-checks are driven by rule changes instead of polling
+        accessManager.addAccessRulesListener(this::accessRulesChanged);
     }
 
     @Override
@@ -175,6 +194,16 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
         return userManager.getUsers();
     }
 
+    @Override
+    public Collection<KailleraUserImpl> findUsers(String namePattern) {
+        return userManager.findUsers(namePattern);
+    }
+
+    @Override
+    public Collection<KailleraUserImpl> findUsersByNamePrefix(String prefix) {
+        return userManager.findUsersByNamePrefix(prefix);
+    }
+
     public Collection<KailleraGameImpl> getGames() {
         return gameManager.getGames();
     }
@@ -277,6 +306,10 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
         return gameMetricsCollector;
     }
 
+    EventMetricsCollector getEventMetricsCollector() {
+        return eventMetricsCollector;
+    }
+
     AutoFireDetector getAutoFireDetector(KailleraGame game) {
         int sensitivity = gameConfig.getDefaultAutoFireSensitivity();
         if (sensitivity == 0)
@@ -298,43 +331,40 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
 
         int access = accessManager.getAccess(clientSocketAddress.getAddress());
 
-        connectionLock.lock();
-        try {
-            // admins will be allowed in even if the server is full
-            if (getMaxUsers() > 0 && userManager.getNumUsers() >= getMaxUsers()
-                    && !(access > AccessManager.ACCESS_NORMAL)) {
-                log.warn("Connection from " + EmuUtil.formatSocketAddress(clientSocketAddress)
-                        + " denied: Server is full!");
-                throw new ServerFullException(
-                        EmuLang.getString("KailleraServerImpl.LoginDeniedServerFull"));
-            }
+        // Reserving the ID reserves the user slot; admins will be allowed in even if
+        // the server is full
+        int userID = userManager
+                .reserveUserID(access > AccessManager.ACCESS_NORMAL ? 0 : getMaxUsers());
+        if (userID < 0) {
+            log.warn("Connection from " + EmuUtil.formatSocketAddress(clientSocketAddress)
+                    + " denied: Server is full!");
+            throw new ServerFullException(
+                    EmuLang.getString("KailleraServerImpl.LoginDeniedServerFull"));
+        }
 
-            int userID;
-            try {
-                userID = userManager.getNextUserID();
-            } catch (IllegalStateException e) {
-                log.warn("Connection denied: no available user IDs");
-                throw new ServerFullException(
-                        EmuLang.getString("KailleraServerImpl.LoginDeniedServerFull"));
-            }
-            KailleraUserImpl user = new KailleraUserImpl(userID, protocol, clientSocketAddress,
-                    eventDispatcher, this);
-            user.setStatus(KailleraUser.STATUS_CONNECTING);
+        KailleraUserImpl user = new KailleraUserImpl(userID, protocol, clientSocketAddress,
+                eventDispatcher, this);
+        user.setStatus(KailleraUser.STATUS_CONNECTING);
+        user.setAccess(access);
 
-            log.info(user + " attempting new connection using protocol " + protocol + " from "
-                    + EmuUtil.formatSocketAddress(clientSocketAddress));
+        log.info(user + " attempting new connection using protocol " + protocol + " from "
+                + EmuUtil.formatSocketAddress(clientSocketAddress));
 
-            log.debug(user + " Thread starting (ThreadPool:" + threadPool.getActiveCount() + "/"
-                    + threadPool.getPoolSize() + ")");
+        log.debug(user + " Thread starting (ThreadPool:" + threadPool.getActiveCount() + "/"
+                + threadPool.getPoolSize() + ")");
+        try {
             threadPool.execute(user);
-            log.debug(user + " Thread started (ThreadPool:" + threadPool.getActiveCount() + "/"
-                    + threadPool.getPoolSize() + ")");
-            userManager.addUser(user);
-
-            return user;
-        } finally {
-            connectionLock.unlock();
+        } catch (RuntimeException e) {
+            userManager.releaseUserID(userID);
+            throw e;
         }
+        log.debug(user + " Thread started (ThreadPool:" + threadPool.getActiveCount() + "/"
+                + threadPool.getPoolSize() + ")");
+        userManager.addUser(user);
+        concurrencyChanged();
+        trackTimeouts(user);
+
+        return user;
     }
 
     public void login(KailleraUser user) throws PingTimeException, ClientAddressException,
@@ -348,27 +378,34 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
                 + KailleraUser.getConnectionTypeName(user.getConnectionType()));
 
         int userID = user.getID();
+        KailleraUser userFromList = userManager.getUser(userID);
 
-        connectionLock.lock();
+        // Run all validations unlocked - exceptions are thrown on failure
         try {
-            KailleraUser userFromList = userManager.getUser(userID);
-
-            // Run all validations - exceptions are thrown on failure
+            loginValidator.validateNotAlreadyLoggedIn(user);
+            loginValidator.validateUserExists(user, userFromList);
+            int access = loginValidator.validateAccessLevel(user);
+            loginValidator.validatePing(user, access);
+            loginValidator.validateConnectionType(user, access);
+            loginValidator.validateUserName(user, access);
+            loginValidator.validateClientName(user, access);
+            loginValidator.validateUserStatus(user, userFromList);
+            loginValidator.validateAddressMatch(user, userFromList);
+            loginValidator.validateEmulator(user, access);
+
+            // Only users from the same address can conflict, so the duplicate check
+            // and reconnect swap only need that address's lock
+            InetAddress address = userFromList.getConnectSocketAddress().getAddress();
+            Lock addressLock = addressLock(address);
+            addressLock.lock();
             try {
+                // Re-check what may have changed while validating unlocked
                 loginValidator.validateNotAlreadyLoggedIn(user);
-                loginValidator.validateUserExists(user, userFromList);
-                int access = loginValidator.validateAccessLevel(user);
-                loginValidator.validatePing(user, access);
-                loginValidator.validateConnectionType(user, access);
-                loginValidator.validateUserName(user, access);
-                loginValidator.validateClientName(user, access);
-                loginValidator.validateUserStatus(user, userFromList);
-                loginValidator.validateAddressMatch(user, userFromList);
-                loginValidator.validateEmulator(user, access);
+                loginValidator.validateUserExists(user, userManager.getUser(userID));
 
                 // Check for duplicate login - may return a user to force quit
                 KailleraUserImpl reconnectUser = loginValidator.checkDuplicateLogin(user,
-                        userFromList, getUsers(), access);
+                        userFromList, userManager.getUsersByAddress(address), access);
                 if (reconnectUser != null) {
                     try {
                         quitInternal(reconnectUser,
@@ -383,17 +420,18 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
                 userImpl.setStatus(KailleraUser.STATUS_IDLE);
                 userImpl.setLoggedIn();
                 userManager.addUser(userImpl);
-                userImpl.addEvent(new ConnectedEvent(this, user));
-
-                // Release lock before sleeping to allow other logins to proceed
-                sendLoginNotificationsAsync(userImpl, access);
-            } catch (LoginException e) {
-                // Remove user from list on validation failure (LoginException is parent of all)
-                userManager.removeUser(userID);
-                throw e;
+                userManager.userLoggedIn(userImpl);
+            } finally {
+                addressLock.unlock();
             }
-        } finally {
-            connectionLock.unlock();
+
+            trackTimeouts(userImpl);
+            userImpl.addEvent(new ConnectedEvent(this, user));
+            sendLoginNotificationsAsync(userImpl, access);
+        } catch (LoginException e) {
+            // Remove user from list on validation failure (LoginException is parent of all)
+            removeUser(userID);
+            throw e;
         }
     }
 
@@ -423,27 +461,31 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
 
     public void quit(KailleraUser user, String message)
             throws QuitException, DropGameException, QuitGameException, CloseGameException {
-        connectionLock.lock();
+        InetSocketAddress connectAddress = user.getConnectSocketAddress();
+        Lock addressLock = addressLock(
+                connectAddress != null ? connectAddress.getAddress() : null);
+        addressLock.lock();
         try {
             quitInternal(user, message);
         } finally {
-            connectionLock.unlock();
+            addressLock.unlock();
         }
     }
 
     /**
-     * Internal quit implementation - assumes connectionLock is already held. Used
-     * to avoid deadlock when called from login() which already holds the lock.
+     * Internal quit implementation - assumes the address lock of the user is
+     * already held. Used to avoid deadlock when called from login() which already
+     * holds the lock.
      */
     private void quitInternal(KailleraUser user, String message)
             throws QuitException, DropGameException, QuitGameException, CloseGameException {
         if (!user.isLoggedIn()) {
-            userManager.removeUser(user.getID());
+            removeUser(user.getID());
             log.error(user + " quit failed: Not logged in");
             throw new QuitException(EmuLang.getString("KailleraServerImpl.NotLoggedIn"));
         }
 
-        if (userManager.removeUser(user.getID()) == null)
+        if (removeUser(user.getID()) == null)
             log.error(user + " quit failed: not in user list");
 
         if (user.getGame() != null)
@@ -462,6 +504,61 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
         ((KailleraUserImpl) user).addEvent(quitEvent);
     }
 
+    /**
+     * Removes a user from the user list and stops tracking its timeouts.
+     *
+     * @return the removed user, or null if not found
+     */
+    private KailleraUserImpl removeUser(int userID) {
+        KailleraUserImpl removed = userManager.removeUser(userID);
+        ServerMaintenanceTask task = maintenanceTask;
+        if (removed != null && task != null) {
+            task.untrack(removed);
+        }
+        if (removed != null)
+            concurrencyChanged();
+        return removed;
+    }
+
+    private void concurrencyChanged() {
+        if (statsCollector != null)
+            statsCollector.concurrencyChanged(getNumUsers(), getNumGames());
+    }
+
+    private Lock addressLock(InetAddress address) {
+        int hash = address != null ? address.hashCode() : 0;
+        return addressLocks[(hash ^ (hash >>> 16)) & (ADDRESS_LOCK_STRIPES - 1)];
+    }
+
+    private void trackTimeouts(KailleraUserImpl user) {
+        ServerMaintenanceTask task = maintenanceTask;
+        if (task != null) {
+            task.track(user);
+        }
+    }
+
+    private void accessRulesChanged() {
+        ServerMaintenanceTask task = maintenanceTask;
+        if (task != null) {
+            task.accessRulesChanged();
+        }
+    }
+
+    /**
+     * Passes changed limits on to the components that keep a copy of them.
+     * Other limits are read from the configuration as they are needed, and game
+     * limits when a game is created.
+     */
+    public void settingsChanged() {
+        chatModerationService.limitsChanged(serverConfig.getChatFloodTime(),
+                serverConfig.getMaxChatLength());
+        ServerMaintenanceTask task = maintenanceTask;
+        if (task != null) {
+            task.timeoutsChanged(serverConfig.getMaxPing(), serverConfig.getKeepAliveTimeout(),
+                    serverConfig.getIdleTimeout());
+        }
+    }
+
     public void chat(KailleraUser user, String message) throws ChatException, FloodException {
         // No lock needed - chatModerationService handles flood control thread-safely,
         // and addEvent iterates over a thread-safe collection
@@ -550,6 +647,7 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
                     gameConfig.getDesynchTimeouts());
             gameManager.addGame(game);
             gameMetricsCollector.recordGameCreated();
+            concurrencyChanged();
 
             addEvent(new GameCreatedEvent(this, game));
 
@@ -588,6 +686,7 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
             ((KailleraGameImpl) game).close(user);
             gameManager.removeGame(game.getID());
             gameMetricsCollector.recordGameCompleted(game.getID());
+            concurrencyChanged();
 
             log.info(user + " closed: " + game);
             addEvent(new GameClosedEvent(this, game));
@@ -613,6 +712,7 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
 
             gameManager.removeGame(gameId);
             gameMetricsCollector.recordGameCompleted(gameId);
+            concurrencyChanged();
             log.info("Admin closed empty game: {}", game.getRomName());
             addEvent(new GameClosedEvent(this, game));
             return true;
@@ -628,6 +728,7 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
 
     @Override
     public void addEvent(ServerEvent event) {
+        tapEvent(event);
         for (KailleraUserImpl user : userManager.getUsers()) {
             if (user.isLoggedIn())
                 user.addEvent(event);
@@ -637,16 +738,32 @@ public class KailleraServerImpl implements KailleraServer, Runnable, SmartLifecy
         }
     }
 
+    @Override
+    public void tapEvent(KailleraEvent event) {
+        Consumer<KailleraEvent> tap = eventTap;
+        if (tap != null)
+            tap.accept(event);
+    }
+
+    /**
+     * Sets the receiver of a copy of every server and game event. It is called
+     * on the thread that raised the event, so it must not block.
+     */
+    public void setEventTap(Consumer<KailleraEvent> eventTap) {
+        this.eventTap = eventTap;
+    }
+
     public void run() {
         isRunning = true;
         log.debug("KailleraServer thread running...");
 
         try {
             // Create and run maintenance task - it will handle timeouts, bans, etc.
-            maintenanceTask = new ServerMaintenanceTask(userManager, accessManager,
+            ServerMaintenanceTask task = new ServerMaintenanceTask(userManager, accessManager,
                     serverConfig.getMaxPing(), serverConfig.getKeepAliveTimeout(),
                     serverConfig.getIdleTimeout(), this::handleQuitRequest);
-            maintenanceTask.run();
+            maintenanceTask = task;
+            task.run();
         } catch (Throwable e) {
             if (!stopFlag)
                 log.error("KailleraServer thread caught unexpected exception: " + e, e);
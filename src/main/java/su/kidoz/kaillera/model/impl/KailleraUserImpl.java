@@ -6,6 +6,9 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.metrics.EventMetricsCollector;
+import su.kidoz.kaillera.metrics.jfr.EventDequeuedEvent;
+import su.kidoz.kaillera.metrics.jfr.EventEnqueuedEvent;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.model.event.AllReadyEvent;
@@ -36,6 +39,7 @@ import su.kidoz.kaillera.model.exception.UserNameException;
 import su.kidoz.kaillera.model.exception.UserReadyException;
 import su.kidoz.util.EmuLang;
 import su.kidoz.util.EmuUtil;
+import su.kidoz.util.EncodedString;
 import su.kidoz.util.Executable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,8 +53,10 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
 
     private final int id;
     private volatile String name;
+    private volatile EncodedString encodedName;
     private final String protocol;
     private volatile String clientType;
+    private volatile EncodedString encodedClientType;
     private volatile byte connectionType;
     private volatile int ping;
     private final InetSocketAddress connectSocketAddress;
@@ -75,15 +81,18 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
     private volatile boolean isRunning = false;
     private volatile boolean stopFlag = false;
 
-    private static final int MAX_EVENT_QUEUE_SIZE = 2000;
+    public static final int MAX_EVENT_QUEUE_SIZE = 2000;
     private static final int DROPPED_EVENTS_LOG_THRESHOLD = 10;
     private static final int QUEUE_WARNING_THRESHOLD = (int) (MAX_EVENT_QUEUE_SIZE * 0.8);
 
     private final EventDispatcher eventDispatcher;
-    private final BlockingQueue<KailleraEvent> eventQueue = new LinkedBlockingQueue<>(
+    private final BlockingQueue<QueuedEvent> eventQueue = new LinkedBlockingQueue<>(
             MAX_EVENT_QUEUE_SIZE);
     private volatile int droppedEventsCount = 0;
 
+    private final EventMetricsCollector eventMetricsCollector;
+    private final EventQueueStats queueStats;
+
     public KailleraUserImpl(int userID, String protocol, InetSocketAddress connectSocketAddress,
             EventDispatcher eventDispatcher, KailleraServerImpl server) {
         this.id = userID;
@@ -91,6 +100,10 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
         this.connectSocketAddress = connectSocketAddress;
         this.server = server;
         this.eventDispatcher = eventDispatcher;
+        this.eventMetricsCollector = server.getEventMetricsCollector();
+        this.queueStats = new EventQueueStats(eventMetricsCollector != null
+                ? eventMetricsCollector.getSlowConsumerNanos()
+                : Long.MAX_VALUE);
 
         toString = "User" + userID + "(" + connectSocketAddress.getAddress().getHostAddress() + ")";
 
@@ -138,8 +151,13 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
         return name;
     }
 
+    public EncodedString getEncodedName() {
+        return encodedName;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.encodedName = EncodedString.of(name);
         toString = "User" + id + "(" + (name.length() > 15 ? (name.substring(0, 15) + "...") : name)
                 + "/" + connectSocketAddress.getAddress().getHostAddress() + ")";
     }
@@ -148,8 +166,13 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
         return clientType;
     }
 
+    public EncodedString getEncodedClientType() {
+        return encodedClientType;
+    }
+
     public void setClientType(String clientType) {
         this.clientType = clientType;
+        this.encodedClientType = EncodedString.of(clientType);
         if (clientType != null && clientType.startsWith(EMULINKER_CLIENT_NAME))
             emulinkerClient = true;
     }
@@ -582,10 +605,13 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
         boolean isCritical = event instanceof GameStartedEvent || event instanceof AllReadyEvent
                 || event instanceof GameDataEvent;
 
+        EventEnqueuedEvent enqueued = new EventEnqueuedEvent();
+        enqueued.begin();
         boolean added = false;
+        QueuedEvent queued = new QueuedEvent(event, System.nanoTime());
         if (isCritical) {
             try {
-                added = eventQueue.offer(event, CRITICAL_EVENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                added = eventQueue.offer(queued, CRITICAL_EVENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 log.warn(this + ": interrupted while adding critical event: "
@@ -593,11 +619,15 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
                 return;
             }
         } else {
-            added = eventQueue.offer(event);
+            added = eventQueue.offer(queued);
         }
+        if (enqueued.isEnabled())
+            enqueued.finish(id, gameId(), event, eventQueue.size(), !added);
 
         if (!added) {
             droppedEventsCount++;
+            if (eventMetricsCollector != null)
+                eventMetricsCollector.getEventMeters(event.getClass()).recordDropped();
             if (isCritical) {
                 log.error(this + ": CRITICAL event queue full after " + CRITICAL_EVENT_TIMEOUT_MS
                         + "ms timeout, dropping: " + event.getClass().getSimpleName());
@@ -631,22 +661,43 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
         return droppedEventsCount;
     }
 
+    @Override
+    public long getEventQueueWaitP99Nanos() {
+        return queueStats.getP99Nanos();
+    }
+
+    @Override
+    public boolean isSlowConsumer() {
+        return queueStats.isSlow();
+    }
+
     public void run() {
         isRunning = true;
         log.debug(this + " thread running...");
 
         try {
             while (!stopFlag) {
-                KailleraEvent event = eventQueue.poll(200, TimeUnit.MILLISECONDS);
+                QueuedEvent queued = eventQueue.poll(200, TimeUnit.MILLISECONDS);
 
-                if (event == null)
+                if (queued == null)
                     continue;
-                else if (event instanceof StopFlagEvent)
+                KailleraEvent event = queued.event();
+                if (event instanceof StopFlagEvent)
                     break;
 
+                EventDequeuedEvent dequeued = new EventDequeuedEvent();
+                dequeued.begin();
+                long dispatchStart = System.nanoTime();
                 eventDispatcher.dispatch(event);
-
-                if (event instanceof GameStartedEvent) {
+                long dispatchEnd = System.nanoTime();
+                if (dequeued.isEnabled())
+                    dequeued.finish(id, gameId(), event, eventQueue.size());
+                recordDispatch(event, dispatchStart - queued.enqueuedNanos(),
+                        dispatchEnd - dispatchStart, dispatchEnd);
+
+                if (event instanceof GameDataEvent dataEvent) {
+                    recordFrameSent(dataEvent);
+                } else if (event instanceof GameStartedEvent) {
                     setStatus(KailleraUser.STATUS_PLAYING);
                 } else if (event instanceof UserQuitEvent quitEvent
                         && quitEvent.getUser().equals(this)) {
@@ -658,11 +709,50 @@ public final class KailleraUserImpl implements KailleraUser, Executable {
         } catch (Throwable e) {
             log.error(this + " thread caught unexpected exception!", e);
         } finally {
+            if (queueStats.isSlow() && eventMetricsCollector != null)
+                eventMetricsCollector.recordSlowConsumer(false);
             isRunning = false;
             log.debug(this + " thread exiting...");
         }
     }
 
+    private int gameId() {
+        KailleraGame currentGame = game;
+        return currentGame != null ? currentGame.getID() : 0;
+    }
+
+    private void recordDispatch(KailleraEvent event, long waitNanos, long dispatchNanos,
+            long now) {
+        if (eventMetricsCollector != null) {
+            eventMetricsCollector.getEventMeters(event.getClass()).recordDispatch(waitNanos,
+                    dispatchNanos);
+        }
+        if (queueStats.record(waitNanos, now)) {
+            boolean slow = queueStats.isSlow();
+            if (slow) {
+                log.warn("{}: slow consumer, 99th percentile event queue wait is {} ms", this,
+                        TimeUnit.NANOSECONDS.toMillis(queueStats.getP99Nanos()));
+            } else {
+                log.info("{}: no longer a slow consumer", this);
+            }
+            if (eventMetricsCollector != null)
+                eventMetricsCollector.recordSlowConsumer(slow);
+        }
+    }
+
+    // Time from the game queueing the frame to it being handed to the client
+    private static void recordFrameSent(GameDataEvent event) {
+        if (event.getGame() instanceof KailleraGameImpl game) {
+            var meters = game.getFrameMeters();
+            if (meters != null)
+                meters.recordSend(System.nanoTime() - event.getCreatedNanos());
+        }
+    }
+
+    // An event with the time it was queued
+    private record QueuedEvent(KailleraEvent event, long enqueuedNanos) {
+    }
+
     private static final class StopFlagEvent implements KailleraEvent {
         public String toString() {
             return "StopFlagEvent";
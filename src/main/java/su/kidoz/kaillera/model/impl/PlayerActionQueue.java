@@ -1,5 +1,8 @@
 package su.kidoz.kaillera.model.impl;
 
+import su.kidoz.kaillera.metrics.jfr.FrameWaitEvent;
+import su.kidoz.kaillera.model.KailleraGame;
+
 public class PlayerActionQueue {
     private final int gameBufferSize;
     private final int gameTimeoutMillis;
@@ -77,6 +80,12 @@ public class PlayerActionQueue {
                     + ", actionLength=" + actionLength + ", array.length=" + actions.length);
         }
 
+        FrameWaitEvent waited = null;
+        if (getSize(playerNumber) < actionLength && synched) {
+            waited = new FrameWaitEvent();
+            waited.begin();
+        }
+
         // Use while loop to handle spurious wakeups
         long deadline = System.currentTimeMillis() + gameTimeoutMillis;
         while (getSize(playerNumber) < actionLength && synched) {
@@ -98,15 +107,26 @@ public class PlayerActionQueue {
                 actions[(location + i)] = array[heads[headIndex]];
                 heads[headIndex] = ((heads[headIndex] + 1) % gameBufferSize);
             }
+            recordWait(waited, playerNumber, false);
             return;
         }
 
         if (!synched)
             return;
 
+        recordWait(waited, playerNumber, true);
         throw new PlayerTimeoutException(thisPlayerNumber, thisPlayer);
     }
 
+    private void recordWait(FrameWaitEvent waited, int playerNumber, boolean timedOut) {
+        if (waited == null || !waited.isEnabled())
+            return;
+
+        KailleraGame game = thisPlayer != null ? thisPlayer.getGame() : null;
+        waited.finish(thisPlayer != null ? thisPlayer.getID() : 0,
+                game != null ? game.getID() : 0, thisPlayerNumber, playerNumber, timedOut);
+    }
+
     private synchronized int getSize(int playerNumber) {
         return (tail + gameBufferSize - heads[playerNumber - 1]) % gameBufferSize;
     }
@@ -1,11 +1,10 @@
 package su.kidoz.kaillera.model.impl;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
 
 import su.kidoz.kaillera.access.AccessManager;
 import su.kidoz.util.EmuLang;
+import su.kidoz.util.HashedTimingWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +12,18 @@ import org.slf4j.LoggerFactory;
  * Handles periodic server maintenance tasks such as timeout checking, ban
  * enforcement, and user cleanup. Extracted from KailleraServerImpl.run() to
  * improve separation of concerns.
+ *
+ * <p>
+ * Timeouts are tracked per user in a {@link HashedTimingWheel}, so each tick
+ * only touches users whose connect, keepalive or idle deadline has come due.
+ * Activity and keepalives only update timestamps on the user; when a deadline
+ * fires the user is re-checked and, if still active, rescheduled at the deadline
+ * derived from the current timestamps. Ban and emulator re-checks are driven by
+ * {@link #accessRulesChanged()} rather than polling the access manager.
+ *
+ * <p>
+ * Timeouts changed by {@link #timeoutsChanged} reschedule every user on the
+ * next tick. The tick length stays the one derived from the initial maxPing.
  */
 public class ServerMaintenanceTask implements Runnable {
     private static final Logger log = LoggerFactory.getLogger(ServerMaintenanceTask.class);
@@ -21,14 +32,24 @@ public class ServerMaintenanceTask implements Runnable {
     // misconfigured
     private static final long MIN_SLEEP_INTERVAL_MS = 1000;
 
+    // One slot per tick of max(MIN_SLEEP_INTERVAL_MS, maxPing * 3) ms, so a
+    // rotation spans 512 s at the 1 s minimum tick and up to about 25 minutes
+    // at the largest maxPing (999 ms). Deadlines beyond one rotation, such as
+    // the default 900 s idle timeout on a 1 s tick, wait in their slot for a
+    // later rotation
+    private static final int WHEEL_SLOTS = 512;
+
     private final UserManager userManager;
     private final AccessManager accessManager;
-    private final int maxPing;
-    private final int keepAliveTimeout;
-    private final int idleTimeout;
+    private volatile int maxPing;
+    private volatile int keepAliveTimeout;
+    private volatile int idleTimeout;
     private final Consumer<UserQuitRequest> quitHandler;
+    private final HashedTimingWheel<KailleraUserImpl> timeouts;
 
     private volatile boolean stopFlag = false;
+    private volatile boolean accessRulesChanged = false;
+    private volatile boolean timeoutsChanged = false;
 
     /**
      * Request to quit a user with a specific message.
@@ -44,6 +65,8 @@ public class ServerMaintenanceTask implements Runnable {
         this.keepAliveTimeout = keepAliveTimeout;
         this.idleTimeout = idleTimeout;
         this.quitHandler = quitHandler;
+        this.timeouts = new HashedTimingWheel<>(
+                Math.max(MIN_SLEEP_INTERVAL_MS, (long) maxPing * 3), WHEEL_SLOTS);
     }
 
     public void stop() {
@@ -54,15 +77,60 @@ public class ServerMaintenanceTask implements Runnable {
         return stopFlag;
     }
 
+    /**
+     * Starts (or restarts) timeout tracking for a user based on its current
+     * state and timestamps.
+     */
+    public void track(KailleraUserImpl user) {
+        timeouts.schedule(user, nextDeadline(user));
+    }
+
+    /**
+     * Stops timeout tracking for a user that has left the server.
+     */
+    public void untrack(KailleraUserImpl user) {
+        timeouts.cancel(user);
+    }
+
+    /**
+     * Returns the number of users with a pending timeout deadline.
+     */
+    public int getTrackedUserCount() {
+        return timeouts.size();
+    }
+
+    /**
+     * Requests a ban and emulator re-check of all connected users on the next
+     * tick. Registered with the access manager as an {@code AccessRulesListener}.
+     */
+    public void accessRulesChanged() {
+        accessRulesChanged = true;
+    }
+
+    /**
+     * Changes the timeouts. Users are rescheduled with the new deadlines on the
+     * next tick.
+     */
+    public void timeoutsChanged(int maxPing, int keepAliveTimeout, int idleTimeout) {
+        this.maxPing = maxPing;
+        this.keepAliveTimeout = keepAliveTimeout;
+        this.idleTimeout = idleTimeout;
+        timeoutsChanged = true;
+    }
+
     @Override
     public void run() {
         log.debug("ServerMaintenanceTask thread running...");
 
         try {
+            // Pick up users that connected before this task was started
+            for (KailleraUserImpl user : userManager.getUsers()) {
+                track(user);
+            }
+
             while (!stopFlag) {
                 try {
-                    long sleepTime = Math.max(MIN_SLEEP_INTERVAL_MS, (long) maxPing * 3);
-                    Thread.sleep(sleepTime);
+                    Thread.sleep(timeouts.getTickMillis());
                 } catch (InterruptedException e) {
                     log.debug("Sleep interrupted", e);
                 }
@@ -71,10 +139,6 @@ public class ServerMaintenanceTask implements Runnable {
                     break;
                 }
 
-                if (userManager.isEmpty()) {
-                    continue;
-                }
-
                 performMaintenance();
             }
         } catch (Throwable e) {
@@ -82,57 +146,103 @@ public class ServerMaintenanceTask implements Runnable {
                 log.error("ServerMaintenanceTask thread caught unexpected exception: " + e, e);
             }
         } finally {
+            timeouts.clear();
             log.debug("ServerMaintenanceTask thread exiting...");
         }
     }
 
     private void performMaintenance() {
-        // Copy to avoid ConcurrentModificationException when removing during iteration
-        List<KailleraUserImpl> usersSnapshot = new ArrayList<>(userManager.getUsers());
-        List<Integer> usersToRemove = new ArrayList<>();
+        if (accessRulesChanged) {
+            accessRulesChanged = false;
+            recheckAccess();
+        }
+
+        if (timeoutsChanged) {
+            timeoutsChanged = false;
+            for (KailleraUserImpl user : userManager.getUsers()) {
+                track(user);
+            }
+        }
+
+        timeouts.advance(System.currentTimeMillis(), this::checkTimeouts);
+    }
+
+    private void checkTimeouts(KailleraUserImpl user) {
+        // Users that already left are dropped lazily
+        if (userManager.getUser(user.getID()) != user) {
+            return;
+        }
+
+        synchronized (user) {
+            handle(user, checkUser(user, user.getAccess()));
+        }
 
-        for (KailleraUserImpl user : usersSnapshot) {
+        if (userManager.getUser(user.getID()) == user) {
+            track(user);
+        }
+    }
+
+    private void recheckAccess() {
+        for (KailleraUserImpl user : userManager.getUsers()) {
             synchronized (user) {
                 int access = accessManager.getAccess(user.getConnectSocketAddress().getAddress());
                 user.setAccess(access);
+                handle(user, checkAccess(user, access));
+            }
 
-                MaintenanceAction action = checkUser(user, access);
-                switch (action) {
-                    case REMOVE_TIMEOUT :
-                        log.info(user + " connection timeout!");
-                        user.stop();
-                        usersToRemove.add(user.getID());
-                        break;
-                    case QUIT_KEEPALIVE :
-                        log.info(user + " keepalive timeout!");
-                        requestQuit(user,
-                                EmuLang.getString("KailleraServerImpl.ForcedQuitPingTimeout"));
-                        break;
-                    case QUIT_IDLE :
-                        log.info(user + " inactivity timeout!");
-                        requestQuit(user, EmuLang
-                                .getString("KailleraServerImpl.ForcedQuitInactivityTimeout"));
-                        break;
-                    case QUIT_BANNED :
-                        log.info(user + " banned!");
-                        requestQuit(user, EmuLang.getString("KailleraServerImpl.ForcedQuitBanned"));
-                        break;
-                    case QUIT_EMULATOR_RESTRICTED :
-                        log.info(user + ": emulator restricted!");
-                        requestQuit(user, EmuLang
-                                .getString("KailleraServerImpl.ForcedQuitEmulatorRestricted"));
-                        break;
-                    case NONE :
-                    default :
-                        break;
-                }
+            // Access level affects the idle deadline
+            if (userManager.getUser(user.getID()) == user) {
+                track(user);
             }
         }
+    }
+
+    private void handle(KailleraUserImpl user, MaintenanceAction action) {
+        switch (action) {
+            case REMOVE_TIMEOUT :
+                log.info(user + " connection timeout!");
+                user.stop();
+                userManager.removeUser(user.getID());
+                break;
+            case QUIT_KEEPALIVE :
+                log.info(user + " keepalive timeout!");
+                requestQuit(user, EmuLang.getString("KailleraServerImpl.ForcedQuitPingTimeout"));
+                break;
+            case QUIT_IDLE :
+                log.info(user + " inactivity timeout!");
+                requestQuit(user,
+                        EmuLang.getString("KailleraServerImpl.ForcedQuitInactivityTimeout"));
+                break;
+            case QUIT_BANNED :
+                log.info(user + " banned!");
+                requestQuit(user, EmuLang.getString("KailleraServerImpl.ForcedQuitBanned"));
+                break;
+            case QUIT_EMULATOR_RESTRICTED :
+                log.info(user + ": emulator restricted!");
+                requestQuit(user,
+                        EmuLang.getString("KailleraServerImpl.ForcedQuitEmulatorRestricted"));
+                break;
+            case NONE :
+            default :
+                break;
+        }
+    }
+
+    /**
+     * Computes the earliest time at which one of the user's timeouts can fire,
+     * given its current state and timestamps.
+     */
+    private long nextDeadline(KailleraUserImpl user) {
+        // Timeout checks use strict comparisons, hence the extra millisecond
+        if (!user.isLoggedIn()) {
+            return user.getConnectTime() + maxPing * 15L + 1;
+        }
 
-        // Remove users after iteration to avoid ConcurrentModificationException
-        for (Integer userId : usersToRemove) {
-            userManager.removeUser(userId);
+        long deadline = user.getLastKeepAlive() + keepAliveTimeout * 1000L + 1;
+        if (idleTimeout > 0 && user.getAccess() == AccessManager.ACCESS_NORMAL) {
+            deadline = Math.min(deadline, user.getLastActivity() + idleTimeout * 1000L + 1);
         }
+        return deadline;
     }
 
     private MaintenanceAction checkUser(KailleraUserImpl user, int access) {
@@ -154,13 +264,21 @@ public class ServerMaintenanceTask implements Runnable {
             return MaintenanceAction.QUIT_IDLE;
         }
 
+        return MaintenanceAction.NONE;
+    }
+
+    private MaintenanceAction checkAccess(KailleraUserImpl user, int access) {
+        if (!user.isLoggedIn()) {
+            return MaintenanceAction.NONE;
+        }
+
         // Banned
-        if (user.isLoggedIn() && access < AccessManager.ACCESS_NORMAL) {
+        if (access < AccessManager.ACCESS_NORMAL) {
             return MaintenanceAction.QUIT_BANNED;
         }
 
         // Emulator restricted
-        if (user.isLoggedIn() && access == AccessManager.ACCESS_NORMAL
+        if (access == AccessManager.ACCESS_NORMAL
                 && !accessManager.isEmulatorAllowed(user.getClientType())) {
             return MaintenanceAction.QUIT_EMULATOR_RESTRICTED;
         }
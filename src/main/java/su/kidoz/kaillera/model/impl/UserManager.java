@@ -1,37 +1,87 @@
 package su.kidoz.kaillera.model.impl;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import su.kidoz.util.IdAllocator;
+import su.kidoz.util.WildcardStringPattern;
 
 /**
  * Manages user storage, ID generation, and user lifecycle tracking. Extracted
  * from KailleraServerImpl to improve separation of concerns.
+ *
+ * <p>
+ * Besides the primary map by ID, two secondary indexes are maintained:
+ * <ul>
+ * <li>by connect address, for all users - used by duplicate-login checks</li>
+ * <li>by normalized (lower-case) name, for logged-in users only - used by admin
+ * exact and prefix lookups</li>
+ * </ul>
  */
 public class UserManager {
     private static final int MAX_USER_ID = 0xFFFF;
 
+    // Keep released IDs out of circulation long enough for clients to forget them
+    private static final long ID_REUSE_DELAY_MS = 60_000;
+
     private final Map<Integer, KailleraUserImpl> users;
-    private final AtomicInteger connectionCounter;
+    private final IdAllocator idAllocator;
+    private final Map<InetAddress, Set<KailleraUserImpl>> usersByAddress;
+    private final ConcurrentNavigableMap<String, Set<KailleraUserImpl>> usersByName;
+
+    // Skip list compute methods aren't atomic, so name index writes are serialized;
+    // reads stay lock-free
+    private final Object nameIndexLock = new Object();
 
     public UserManager(int initialCapacity) {
         this.users = new ConcurrentHashMap<>(initialCapacity);
-        this.connectionCounter = new AtomicInteger(1);
+        this.idAllocator = new IdAllocator(1, MAX_USER_ID, ID_REUSE_DELAY_MS);
+        this.usersByAddress = new ConcurrentHashMap<>(initialCapacity);
+        this.usersByName = new ConcurrentSkipListMap<>();
     }
 
     /**
-     * Generates the next unique user ID, wrapping around at MAX_USER_ID.
+     * Allocates the next unique user ID from a rotating cursor, wrapping around
+     * at MAX_USER_ID. The ID stays reserved until the user is removed.
+     *
+     * @throws IllegalStateException
+     *             if no user IDs are available
      */
     public int getNextUserID() {
-        for (int attempts = 0; attempts < MAX_USER_ID; attempts++) {
-            int candidate = connectionCounter.getAndUpdate(val -> val >= MAX_USER_ID ? 1 : val + 1);
-            if (!users.containsKey(candidate)) {
-                return candidate;
-            }
+        return idAllocator.allocate();
+    }
+
+    /**
+     * Reserves a user ID, and with it a user slot, unless the server is full.
+     * Every allocated ID belongs to a connected user or a connection being set
+     * up, so capping allocations caps the user count without a lock.
+     *
+     * @param maxUsers
+     *            maximum number of users; 0 or less for no limit
+     * @return the reserved user ID, or -1 if the server is full
+     */
+    public int reserveUserID(int maxUsers) {
+        return idAllocator.tryAllocate(maxUsers > 0 ? maxUsers : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an ID obtained from {@link #getNextUserID()} that was never used
+     * for an added user.
+     */
+    public void releaseUserID(int userID) {
+        if (!users.containsKey(userID)) {
+            idAllocator.release(userID);
         }
-        throw new IllegalStateException("No available user IDs");
     }
 
     /**
@@ -39,6 +89,35 @@ public class UserManager {
      */
     public void addUser(KailleraUserImpl user) {
         users.put(user.getID(), user);
+
+        InetAddress address = addressOf(user);
+        if (address != null) {
+            usersByAddress.compute(address, (key, set) -> {
+                Set<KailleraUserImpl> result = set != null ? set : ConcurrentHashMap.newKeySet();
+                result.add(user);
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Adds a user that has just logged in to the name index. The user must
+     * already have been added with {@link #addUser}.
+     */
+    public void userLoggedIn(KailleraUserImpl user) {
+        String key = normalizeName(user.getName());
+        if (key == null) {
+            return;
+        }
+
+        synchronized (nameIndexLock) {
+            usersByName.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(user);
+        }
+
+        // Lost a race with removal: don't leave a stale entry behind
+        if (users.get(user.getID()) != user) {
+            unindexName(user);
+        }
     }
 
     /**
@@ -54,7 +133,13 @@ public class UserManager {
      * @return the removed user, or null if not found
      */
     public KailleraUserImpl removeUser(int userID) {
-        return users.remove(userID);
+        KailleraUserImpl removed = users.remove(userID);
+        if (removed != null) {
+            unindexAddress(removed);
+            unindexName(removed);
+            idAllocator.release(userID);
+        }
+        return removed;
     }
 
     /**
@@ -71,6 +156,81 @@ public class UserManager {
         return Collections.unmodifiableCollection(users.values());
     }
 
+    /**
+     * Returns all users, logged in or not, connected from the given address.
+     */
+    public Collection<KailleraUserImpl> getUsersByAddress(InetAddress address) {
+        Set<KailleraUserImpl> set = usersByAddress.get(address);
+        return set != null ? Collections.unmodifiableSet(set) : Collections.emptySet();
+    }
+
+    /**
+     * Finds logged-in users by name, ignoring case.
+     */
+    public List<KailleraUserImpl> findUsersByName(String name) {
+        String key = normalizeName(name);
+        if (key == null) {
+            return List.of();
+        }
+        Set<KailleraUserImpl> set = usersByName.get(key);
+        return set != null ? new ArrayList<>(set) : List.of();
+    }
+
+    /**
+     * Finds logged-in users whose name starts with the given prefix, ignoring
+     * case.
+     */
+    public List<KailleraUserImpl> findUsersByNamePrefix(String prefix) {
+        String key = normalizeName(prefix);
+        if (key == null || key.isEmpty()) {
+            return getLoggedInUsers();
+        }
+
+        List<KailleraUserImpl> results = new ArrayList<>();
+        for (Set<KailleraUserImpl> set : usersByName
+                .subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            results.addAll(set);
+        }
+        return results;
+    }
+
+    /**
+     * Finds logged-in users whose name matches a {@link WildcardStringPattern}
+     * (case-sensitive). Exact patterns and patterns of the form {@code prefix*}
+     * are answered from the name index; other patterns scan all users.
+     */
+    public List<KailleraUserImpl> findUsers(String namePattern) {
+        WildcardStringPattern pattern = new WildcardStringPattern(namePattern);
+
+        List<KailleraUserImpl> candidates;
+        int star = namePattern.indexOf('*');
+        if (namePattern.isEmpty() || star == 0) {
+            candidates = getLoggedInUsers();
+        } else if (star < 0) {
+            candidates = findUsersByName(namePattern);
+        } else {
+            candidates = findUsersByNamePrefix(namePattern.substring(0, star));
+        }
+
+        List<KailleraUserImpl> results = new ArrayList<>();
+        for (KailleraUserImpl user : candidates) {
+            if (user.isLoggedIn() && pattern.match(user.getName())) {
+                results.add(user);
+            }
+        }
+        return results;
+    }
+
+    private List<KailleraUserImpl> getLoggedInUsers() {
+        List<KailleraUserImpl> results = new ArrayList<>();
+        for (KailleraUserImpl user : users.values()) {
+            if (user.isLoggedIn()) {
+                results.add(user);
+            }
+        }
+        return results;
+    }
+
     /**
      * Returns the number of users.
      */
@@ -92,7 +252,7 @@ public class UserManager {
         for (KailleraUserImpl user : users.values()) {
             user.stop();
         }
-        users.clear();
+        clear();
     }
 
     /**
@@ -100,5 +260,43 @@ public class UserManager {
      */
     public void clear() {
         users.clear();
+        usersByAddress.clear();
+        synchronized (nameIndexLock) {
+            usersByName.clear();
+        }
+        idAllocator.clear();
+    }
+
+    private void unindexAddress(KailleraUserImpl user) {
+        InetAddress address = addressOf(user);
+        if (address != null) {
+            usersByAddress.computeIfPresent(address, (key, set) -> {
+                set.remove(user);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private void unindexName(KailleraUserImpl user) {
+        String key = normalizeName(user.getName());
+        if (key == null) {
+            return;
+        }
+
+        synchronized (nameIndexLock) {
+            Set<KailleraUserImpl> set = usersByName.get(key);
+            if (set != null && set.remove(user) && set.isEmpty()) {
+                usersByName.remove(key);
+            }
+        }
+    }
+
+    private static InetAddress addressOf(KailleraUserImpl user) {
+        InetSocketAddress socketAddress = user.getConnectSocketAddress();
+        return socketAddress != null ? socketAddress.getAddress() : null;
+    }
+
+    private static String normalizeName(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
     }
 }
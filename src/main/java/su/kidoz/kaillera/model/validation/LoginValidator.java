@@ -21,7 +21,6 @@ public class LoginValidator {
 
     private final AccessManager accessManager;
     private final ServerConfig serverConfig;
-    private final int maxPing;
     private final int maxUserNameLength;
     private final int maxClientNameLength;
     private final boolean allowMultipleConnections;
@@ -29,7 +28,6 @@ public class LoginValidator {
     public LoginValidator(AccessManager accessManager, ServerConfig serverConfig) {
         this.accessManager = accessManager;
         this.serverConfig = serverConfig;
-        this.maxPing = serverConfig.getMaxPing();
         this.maxUserNameLength = serverConfig.getMaxUserNameLength();
         this.maxClientNameLength = serverConfig.getMaxClientNameLength();
         this.allowMultipleConnections = serverConfig.isAllowMultipleConnections();
@@ -77,6 +75,8 @@ public class LoginValidator {
      * Validates ping is within limits (for normal users).
      */
     public void validatePing(KailleraUser user, int access) throws PingTimeException {
+        // Read on each login, as it can be changed at runtime
+        int maxPing = serverConfig.getMaxPing();
         if (access == AccessManager.ACCESS_NORMAL && maxPing > 0 && user.getPing() > maxPing) {
             log.info("{} login denied: Ping {} > {}", user, user.getPing(), maxPing);
             throw new PingTimeException(
@@ -185,6 +185,8 @@ public class LoginValidator {
 
     /**
      * Checks if multiple connections from the same address should be denied.
+     * Only users connected from the same address are relevant, so callers may
+     * pass just those (see {@code UserManager.getUsersByAddress}).
      *
      * @return the existing user if this is a reconnect attempt (same name and
      *         address), null otherwise
@@ -16,8 +16,8 @@ public class ChatModerationService {
     private static final Logger log = LoggerFactory.getLogger(ChatModerationService.class);
 
     private final AccessManager accessManager;
-    private final int chatFloodTime;
-    private final int maxChatLength;
+    private volatile int chatFloodTime;
+    private volatile int maxChatLength;
 
     public ChatModerationService(final AccessManager accessManager, final int chatFloodTime,
             final int maxChatLength) {
@@ -26,6 +26,14 @@ public class ChatModerationService {
         this.maxChatLength = maxChatLength;
     }
 
+    /**
+     * Changes the flood control and message length limits.
+     */
+    public void limitsChanged(final int chatFloodTime, final int maxChatLength) {
+        this.chatFloodTime = chatFloodTime;
+        this.maxChatLength = maxChatLength;
+    }
+
     /**
      * Validates that the user is allowed to chat and the message is valid.
      *
@@ -56,6 +64,7 @@ public class ChatModerationService {
         }
 
         // Check flood control
+        final int chatFloodTime = this.chatFloodTime;
         if (access == AccessManager.ACCESS_NORMAL && chatFloodTime > 0) {
             final long lastChatTime = user.getLastChatTime();
             if ((System.currentTimeMillis() - lastChatTime) < (chatFloodTime * 1000L)) {
@@ -71,6 +80,7 @@ public class ChatModerationService {
         }
 
         // Validate message content for normal users
+        final int maxChatLength = this.maxChatLength;
         if (access == AccessManager.ACCESS_NORMAL) {
             if (containsIllegalCharacters(trimmedMessage)) {
                 log.warn(user + " chat denied: Illegal characters in message");
@@ -66,6 +66,11 @@ public interface ServerAdminService {
     /**
      * Finds users by partial name match.
      *
+     * <p>
+     * Only logged-in users are returned, and case is ignored. A {@code *} at the
+     * end of the pattern asks for names starting with the rest of it, so a bare
+     * {@code *} finds every user; anywhere else it is matched literally.
+     *
      * @param admin
      *            the admin performing the search
      * @param namePattern
@@ -9,6 +9,7 @@ import java.util.Optional;
 import su.kidoz.kaillera.access.AccessManager;
 import su.kidoz.kaillera.model.KailleraServer;
 import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.event.UserBannedEvent;
 import su.kidoz.kaillera.service.ServerAdminService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -103,6 +104,7 @@ public class ServerAdminServiceImpl implements ServerAdminService {
         // Ban the IP through AccessManager.
         String ipAddress = target.getConnectSocketAddress().getAddress().getHostAddress();
         accessManager.addTempBan(ipAddress, durationMinutes);
+        server.tapEvent(new UserBannedEvent(target, durationMinutes));
         log.info("Admin {} banned user {} (IP: {}) for {} minutes", admin.getName(),
                 target.getName(), ipAddress, durationMinutes);
 
@@ -141,11 +143,18 @@ public class ServerAdminServiceImpl implements ServerAdminService {
             return List.of();
         }
 
+        // A trailing * asks for a prefix match, which the name index of
+        // logged-in users answers without a scan
+        final int last = namePattern.length() - 1;
+        if (last >= 0 && namePattern.indexOf('*') == last) {
+            return new ArrayList<>(server.findUsersByNamePrefix(namePattern.substring(0, last)));
+        }
+
         final List<KailleraUser> results = new ArrayList<>();
         final String lowerPattern = namePattern.toLowerCase();
 
         for (KailleraUser user : server.getUsers()) {
-            if (user.getName().toLowerCase().contains(lowerPattern)) {
+            if (user.isLoggedIn() && user.getName().toLowerCase().contains(lowerPattern)) {
                 results.add(user);
             }
         }
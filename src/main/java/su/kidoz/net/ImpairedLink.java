@@ -0,0 +1,196 @@
+package su.kidoz.net;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One direction of a UDP session passing through a {@link NetworkImpairment}.
+ *
+ * <p>
+ * Each packet offered to the link is dropped, or copied and handed to the
+ * delivery after its delay, possibly twice. Decisions come from a
+ * {@link Random} with a fixed seed, so the same packets see the same losses
+ * on every run.
+ *
+ * <p>
+ * The scheduler only times the delays. Packets are delivered on the executor,
+ * one at a time and in order of their due time, so a delivery that blocks,
+ * such as game data waiting for the other players, holds up only its own
+ * link.
+ */
+public final class ImpairedLink {
+    private static final Logger log = LoggerFactory.getLogger(ImpairedLink.class);
+
+    /**
+     * Receives the packets that make it through the link.
+     */
+    @FunctionalInterface
+    public interface Delivery {
+        void deliver(ByteBuffer buffer, InetSocketAddress address);
+    }
+
+    private record Packet(long dueNanos, long sequence, ByteBuffer buffer,
+            InetSocketAddress address) {
+    }
+
+    private final NetworkImpairment impairment;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final Delivery delivery;
+    private final Random random;
+
+    // Guarded by this
+    private final PriorityQueue<Packet> pending = new PriorityQueue<>(
+            (a, b) -> a.dueNanos() != b.dueNanos()
+                    ? Long.compare(a.dueNanos(), b.dueNanos())
+                    : Long.compare(a.sequence(), b.sequence()));
+    private long sequence;
+    private long lastDueNanos;
+    private long packets;
+    private long dropped;
+    private long duplicated;
+    private long reordered;
+
+    // Due packets waiting for a delivery run. Only the run that raises it from
+    // zero delivers, so packets are delivered one at a time.
+    private final AtomicInteger deliveryRequests = new AtomicInteger();
+
+    public ImpairedLink(NetworkImpairment impairment, long seed,
+            ScheduledExecutorService scheduler, Executor executor, Delivery delivery) {
+        this.impairment = impairment;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.delivery = delivery;
+        this.random = new Random(seed);
+    }
+
+    public NetworkImpairment getImpairment() {
+        return impairment;
+    }
+
+    /**
+     * Sends a packet through the link. The buffer's remaining bytes are
+     * copied, so the caller may reuse it as soon as this returns.
+     */
+    public void offer(ByteBuffer buffer, InetSocketAddress address) {
+        long now = System.nanoTime();
+        long[] delays;
+        synchronized (this) {
+            packets++;
+            if (chance(impairment.loss())) {
+                dropped++;
+                return;
+            }
+
+            ByteBuffer copy = ByteBuffer.allocate(buffer.remaining()).order(buffer.order());
+            copy.put(buffer.duplicate()).flip();
+            long delay = queue(copy, address, now);
+            if (chance(impairment.duplicate())) {
+                duplicated++;
+                delays = new long[]{delay, queue(copy.duplicate(), address, now)};
+            } else {
+                delays = new long[]{delay};
+            }
+        }
+
+        try {
+            for (long delay : delays) {
+                scheduler.schedule(this::requestDelivery, delay, TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // The scheduler has shut down along with the session
+        }
+    }
+
+    public synchronized long getPackets() {
+        return packets;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public synchronized long getDuplicated() {
+        return duplicated;
+    }
+
+    public synchronized long getReordered() {
+        return reordered;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImpairedLink[packets=" + packets + " dropped=" + dropped + " duplicated="
+                + duplicated + " reordered=" + reordered + "]";
+    }
+
+    // Returns the delay of the queued packet. Called holding this.
+    private long queue(ByteBuffer buffer, InetSocketAddress address, long now) {
+        long delayMillis = impairment.latencyMillis();
+        long jitter = impairment.jitterMillis();
+        if (jitter > 0) {
+            delayMillis += random.nextLong(-jitter, jitter + 1);
+        }
+        long due = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+
+        if (chance(impairment.reorder())) {
+            reordered++;
+            due = Math.max(due, lastDueNanos)
+                    + TimeUnit.MILLISECONDS.toNanos(impairment.reorderDelayMillis());
+        } else {
+            // Jitter alone does not reorder packets
+            due = Math.max(due, lastDueNanos);
+            lastDueNanos = due;
+        }
+
+        pending.add(new Packet(due, sequence++, buffer, address));
+        return due - now;
+    }
+
+    private boolean chance(double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private void requestDelivery() {
+        if (deliveryRequests.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::deliverDue);
+            } catch (RejectedExecutionException e) {
+                deliveryRequests.set(0);
+            }
+        }
+    }
+
+    private void deliverDue() {
+        int requests = 1;
+        while (requests > 0) {
+            int handled = deliveryRequests.get();
+            while (true) {
+                Packet packet;
+                synchronized (this) {
+                    packet = pending.peek();
+                    if (packet == null || packet.dueNanos() > System.nanoTime()) {
+                        break;
+                    }
+                    pending.poll();
+                }
+                try {
+                    delivery.deliver(packet.buffer(), packet.address());
+                } catch (RuntimeException e) {
+                    log.error("Failed to deliver impaired packet: " + e.getMessage(), e);
+                }
+            }
+            requests = deliveryRequests.addAndGet(-handled);
+        }
+    }
+}
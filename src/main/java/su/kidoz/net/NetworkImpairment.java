@@ -0,0 +1,104 @@
+package su.kidoz.net;
+
+/**
+ * Loss, delay and reordering to apply to one direction of a UDP session, for
+ * testing how the protocol copes with a bad network.
+ *
+ * <p>
+ * A specification lists the non-zero settings as {@code name=value} pairs, for
+ * example {@code loss=0.02,latency=40,jitter=10}. Rates are fractions of
+ * packets from 0 to 1 and times are in milliseconds:
+ * <ul>
+ * <li>{@code loss}: packets dropped</li>
+ * <li>{@code duplicate}: packets delivered twice</li>
+ * <li>{@code reorder}: packets held back by {@code reorder-delay}, so later
+ * packets overtake them</li>
+ * <li>{@code latency}: delay of every packet</li>
+ * <li>{@code jitter}: random variation of the delay, up to this much either
+ * way. Packets that are not reordered still arrive in order.</li>
+ * <li>{@code reorder-delay}: extra delay of reordered packets, 10 by
+ * default</li>
+ * </ul>
+ */
+public record NetworkImpairment(double loss, double duplicate, double reorder, long latencyMillis,
+        long jitterMillis, long reorderDelayMillis) {
+
+    public static final NetworkImpairment NONE = new NetworkImpairment(0, 0, 0, 0, 0, 0);
+
+    private static final long DEFAULT_REORDER_DELAY_MILLIS = 10;
+
+    public NetworkImpairment {
+        checkRate("loss", loss);
+        checkRate("duplicate", duplicate);
+        checkRate("reorder", reorder);
+        checkMillis("latency", latencyMillis);
+        checkMillis("jitter", jitterMillis);
+        checkMillis("reorder-delay", reorderDelayMillis);
+    }
+
+    /**
+     * Parses a specification such as {@code loss=0.02,latency=40}. A null or
+     * blank specification is {@link #NONE}.
+     *
+     * @throws IllegalArgumentException
+     *             if a setting is unknown or out of range
+     */
+    public static NetworkImpairment parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return NONE;
+        }
+
+        double loss = 0;
+        double duplicate = 0;
+        double reorder = 0;
+        long latency = 0;
+        long jitter = 0;
+        long reorderDelay = DEFAULT_REORDER_DELAY_MILLIS;
+        for (String setting : spec.split(",")) {
+            String[] pair = setting.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException(
+                        "Expected name=value in network impairment: " + setting);
+            }
+            String value = pair[1].trim();
+            try {
+                switch (pair[0].trim()) {
+                    case "loss" -> loss = Double.parseDouble(value);
+                    case "duplicate" -> duplicate = Double.parseDouble(value);
+                    case "reorder" -> reorder = Double.parseDouble(value);
+                    case "latency" -> latency = Long.parseLong(value);
+                    case "jitter" -> jitter = Long.parseLong(value);
+                    case "reorder-delay" -> reorderDelay = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException(
+                            "Unknown network impairment setting: " + pair[0]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "Invalid value in network impairment: " + setting, e);
+            }
+        }
+        return new NetworkImpairment(loss, duplicate, reorder, latency, jitter, reorderDelay);
+    }
+
+    /**
+     * Returns true if packets pass through unchanged.
+     */
+    public boolean isNone() {
+        return loss == 0 && duplicate == 0 && reorder == 0 && latencyMillis == 0
+                && jitterMillis == 0;
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException(
+                    "Network impairment " + name + " must be from 0 to 1: " + rate);
+        }
+    }
+
+    private static void checkMillis(String name, long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                    "Network impairment " + name + " must not be negative: " + millis);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package su.kidoz.net;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ring of the last packets received and sent by a {@link UDPServer}, kept in
+ * preallocated off-heap memory so that capturing can stay armed on a live
+ * session.
+ *
+ * <p>
+ * Recording a packet claims the next slot with one atomic increment and copies
+ * the datagram into it, truncated to the snap length; nothing is allocated.
+ * Each slot carries the sequence number of its packet, published after the
+ * copy, so {@link #snapshot} skips slots that are being overwritten. The
+ * oldest packets are overwritten once the ring is full.
+ *
+ * <p>
+ * A ring holds at most {@link #MAX_RING_BYTES}, and all captures not yet
+ * {@link #release released} together at most {@link #MAX_TOTAL_BYTES}, so
+ * arming captures cannot exhaust direct memory.
+ */
+public final class PacketCapture {
+
+    /**
+     * A captured packet.
+     *
+     * @param length
+     *            the packet's length on the wire
+     * @param data
+     *            the packet's first bytes, up to the snap length
+     */
+    public record Packet(long sequence, long epochMicros, boolean inbound, int length,
+            byte[] data) {
+    }
+
+    /**
+     * The most bytes one capture's ring may take.
+     */
+    public static final long MAX_RING_BYTES = 64L << 20;
+
+    /**
+     * The most bytes the rings of all captures may take together.
+     */
+    public static final long MAX_TOTAL_BYTES = 256L << 20;
+
+    static final Budget BUDGET = new Budget(MAX_TOTAL_BYTES);
+
+    /**
+     * Direct memory reserved by captures that were not released.
+     */
+    static final class Budget {
+        private final long maxBytes;
+        private final AtomicLong reservedBytes = new AtomicLong();
+
+        Budget(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        boolean tryReserve(long bytes) {
+            long reserved;
+            do {
+                reserved = reservedBytes.get();
+                if (reserved + bytes > maxBytes)
+                    return false;
+            } while (!reservedBytes.compareAndSet(reserved, reserved + bytes));
+            return true;
+        }
+
+        void release(long bytes) {
+            reservedBytes.addAndGet(-bytes);
+        }
+
+        long getReservedBytes() {
+            return reservedBytes.get();
+        }
+    }
+
+    // Slot layout: sequence + 1 (0 while being written), nanoTime, length,
+    // direction, data
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int NANOS_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int DIRECTION_OFFSET = 20;
+    private static final int HEADER_SIZE = 24;
+
+    private static final VarHandle SEQUENCE = MethodHandles
+            .byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final int snapLength;
+    private final int slotSize;
+    private final long ringBytes;
+    private final Budget budget;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final AtomicLong next = new AtomicLong();
+
+    // Converts nanoTime to wall clock time for export
+    private final long baseNanos = System.nanoTime();
+    private final long baseEpochMicros = System.currentTimeMillis() * 1000;
+
+    /**
+     * @param capacity
+     *            the number of packets kept
+     * @param snapLength
+     *            the most bytes kept of each packet
+     * @throws IllegalArgumentException
+     *             if the ring would take more than {@link #MAX_RING_BYTES}
+     * @throws IllegalStateException
+     *             if the captures would take more than {@link #MAX_TOTAL_BYTES}
+     */
+    public PacketCapture(int capacity, int snapLength) {
+        this(capacity, snapLength, BUDGET);
+    }
+
+    PacketCapture(int capacity, int snapLength, Budget budget) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+        if (snapLength <= 0)
+            throw new IllegalArgumentException("snapLength must be positive");
+        long bytes = ringBytes(capacity, snapLength);
+        if (bytes > MAX_RING_BYTES) {
+            throw new IllegalArgumentException(
+                    "Capture of " + bytes + " bytes exceeds " + MAX_RING_BYTES);
+        }
+        if (!budget.tryReserve(bytes)) {
+            throw new IllegalStateException(
+                    "Packet captures would take more than " + MAX_TOTAL_BYTES + " bytes");
+        }
+
+        this.capacity = capacity;
+        this.snapLength = snapLength;
+        this.slotSize = slotSize(snapLength);
+        this.ringBytes = bytes;
+        this.budget = budget;
+        try {
+            this.ring = ByteBuffer.allocateDirect((int) bytes).alignedSlice(8)
+                    .order(ByteOrder.nativeOrder());
+        } catch (OutOfMemoryError e) {
+            budget.release(bytes);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the bytes of direct memory a capture of the given size takes.
+     */
+    public static long ringBytes(int capacity, int snapLength) {
+        // Room to align the ring on 8 bytes
+        return (long) capacity * slotSize(snapLength) + 7;
+    }
+
+    // Keep the sequence of every slot 8-byte aligned for atomic access
+    private static int slotSize(int snapLength) {
+        return (HEADER_SIZE + snapLength + 7) & ~7;
+    }
+
+    /**
+     * Returns the capture's memory to the budget of all captures, once it is
+     * disarmed. Its packets can still be read.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true))
+            budget.release(ringBytes);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSnapLength() {
+        return snapLength;
+    }
+
+    /**
+     * Returns the number of packets recorded, including overwritten ones.
+     */
+    public long getPacketCount() {
+        return next.get();
+    }
+
+    /**
+     * Records the remaining bytes of a packet, leaving its position unchanged.
+     */
+    public void record(boolean inbound, ByteBuffer packet) {
+        long sequence = next.getAndIncrement();
+        int base = (int) (sequence % capacity) * slotSize;
+        int length = packet.remaining();
+
+        SEQUENCE.setVolatile(ring, base + SEQUENCE_OFFSET, 0L);
+        ring.putLong(base + NANOS_OFFSET, System.nanoTime());
+        ring.putInt(base + LENGTH_OFFSET, length);
+        ring.putInt(base + DIRECTION_OFFSET, inbound ? 1 : 0);
+        ring.put(base + HEADER_SIZE, packet, packet.position(), Math.min(length, snapLength));
+        SEQUENCE.setRelease(ring, base + SEQUENCE_OFFSET, sequence + 1);
+    }
+
+    /**
+     * Returns a copy of the packets in the ring, oldest first.
+     */
+    public List<Packet> snapshot() {
+        List<Packet> packets = new ArrayList<>(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = slot * slotSize;
+            long published = (long) SEQUENCE.getAcquire(ring, base + SEQUENCE_OFFSET);
+            if (published == 0)
+                continue;
+
+            long nanos = ring.getLong(base + NANOS_OFFSET);
+            int length = ring.getInt(base + LENGTH_OFFSET);
+            boolean inbound = ring.getInt(base + DIRECTION_OFFSET) != 0;
+            byte[] data = new byte[Math.min(length, snapLength)];
+            ring.get(base + HEADER_SIZE, data);
+
+            // Discard the copy if the slot was overwritten meanwhile
+            VarHandle.acquireFence();
+            if ((long) SEQUENCE.getVolatile(ring, base + SEQUENCE_OFFSET) != published)
+                continue;
+
+            packets.add(new Packet(published - 1,
+                    baseEpochMicros + (nanos - baseNanos) / 1000, inbound, length, data));
+        }
+        packets.sort(Comparator.comparingLong(Packet::sequence));
+        return packets;
+    }
+
+    public String toString() {
+        return "PacketCapture[" + Math.min(getPacketCount(), capacity) + "/" + capacity
+                + " packets, snap " + snapLength + "]";
+    }
+}
@@ -0,0 +1,130 @@
+package su.kidoz.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes {@link PacketCapture}s as a pcap file that Wireshark and tcpdump can
+ * read.
+ *
+ * <p>
+ * Captures hold only UDP payloads, so each packet is given IPv4 or IPv6 and
+ * UDP headers built from its session's addresses. A wildcard local address is
+ * written as the unspecified address. Checksums are left zero, which these
+ * tools do not verify by default.
+ */
+public final class PcapWriter {
+
+    /**
+     * A capture with the addresses of its session.
+     *
+     * @param local
+     *            the server's address, or null if unknown
+     * @param remote
+     *            the client's address, or null if unknown
+     */
+    public record Source(PacketCapture capture, InetSocketAddress local,
+            InetSocketAddress remote) {
+    }
+
+    private static final int MAGIC = 0xa1b2c3d4;
+    private static final int MAX_SNAP_LENGTH = 65535;
+    // Raw IPv4 or IPv6, told apart by the version of each packet
+    private static final int LINKTYPE_RAW = 101;
+
+    private static final int IPV4_HEADER_SIZE = 20;
+    private static final int IPV6_HEADER_SIZE = 40;
+    private static final int UDP_HEADER_SIZE = 8;
+    private static final int UDP = 17;
+    private static final int TTL = 64;
+
+    private record Entry(PacketCapture.Packet packet, Source source) {
+    }
+
+    private PcapWriter() {
+    }
+
+    /**
+     * Writes the packets of the captures, merged in time order.
+     */
+    public static void write(OutputStream out, List<Source> sources) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Source source : sources) {
+            for (PacketCapture.Packet packet : source.capture().snapshot())
+                entries.add(new Entry(packet, source));
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.packet().epochMicros()));
+
+        ByteBuffer header = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort((short) 2).putShort((short) 4).putInt(0).putInt(0)
+                .putInt(MAX_SNAP_LENGTH).putInt(LINKTYPE_RAW);
+        out.write(header.array());
+
+        for (Entry entry : entries)
+            writePacket(out, entry.packet(), entry.source());
+    }
+
+    private static void writePacket(OutputStream out, PacketCapture.Packet packet,
+            Source source) throws IOException {
+        InetSocketAddress remote = source.remote() != null
+                ? source.remote()
+                : new InetSocketAddress(anyAddress(false), 0);
+        boolean ipv6 = remote.getAddress() instanceof Inet6Address;
+        InetSocketAddress local = source.local();
+        if (local == null || local.getAddress() == null || local.getAddress().isAnyLocalAddress()
+                || (local.getAddress() instanceof Inet6Address) != ipv6) {
+            local = new InetSocketAddress(anyAddress(ipv6),
+                    local != null ? local.getPort() : 0);
+        }
+        InetSocketAddress from = packet.inbound() ? remote : local;
+        InetSocketAddress to = packet.inbound() ? local : remote;
+
+        int ipHeaderSize = ipv6 ? IPV6_HEADER_SIZE : IPV4_HEADER_SIZE;
+        int udpLength = UDP_HEADER_SIZE + packet.length();
+        int headersSize = ipHeaderSize + UDP_HEADER_SIZE;
+        ByteBuffer record = ByteBuffer.allocate(16 + headersSize);
+
+        record.order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt((int) (packet.epochMicros() / 1_000_000))
+                .putInt((int) (packet.epochMicros() % 1_000_000))
+                .putInt(headersSize + packet.data().length)
+                .putInt(headersSize + packet.length());
+
+        record.order(ByteOrder.BIG_ENDIAN);
+        if (ipv6) {
+            record.putInt(0x60000000).putShort((short) udpLength).put((byte) UDP)
+                    .put((byte) TTL).put(from.getAddress().getAddress())
+                    .put(to.getAddress().getAddress());
+        } else {
+            record.put((byte) 0x45).put((byte) 0).putShort((short) (IPV4_HEADER_SIZE + udpLength))
+                    .putShort((short) 0).putShort((short) 0x4000).put((byte) TTL)
+                    .put((byte) UDP).putShort((short) 0).put(from.getAddress().getAddress())
+                    .put(to.getAddress().getAddress());
+        }
+        record.putShort((short) from.getPort()).putShort((short) to.getPort())
+                .putShort((short) udpLength).putShort((short) 0);
+
+        out.write(record.array());
+        out.write(packet.data());
+    }
+
+    private static InetAddress anyAddress(boolean ipv6) {
+        try {
+            return ipv6
+                    ? Inet6Address.getByAddress(new byte[16])
+                    : Inet4Address.getByAddress(new byte[4]);
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import java.net.StandardProtocolFamily;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.DatagramChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 import su.kidoz.util.EmuUtil;
 import su.kidoz.util.Executable;
@@ -26,6 +28,9 @@ public abstract class UDPServer implements Executable {
     private DatagramChannel channel;
     private volatile boolean isRunning = false;
     private volatile boolean stopFlag = false;
+    private volatile ImpairedLink inboundLink;
+    private volatile ImpairedLink outboundLink;
+    private volatile PacketCapture capture;
 
     public UDPServer() {
         this(true);
@@ -60,6 +65,68 @@ public abstract class UDPServer implements Executable {
         return channel != null && channel.isConnected();
     }
 
+    /**
+     * Passes received and sent packets through network impairments, for
+     * testing. Impaired packets are handled on the executor rather than this
+     * server's thread, still one at a time. Packets still delayed when the
+     * server stops are discarded.
+     *
+     * @param seed
+     *            seed for the random losses and delays of both directions
+     */
+    public void setImpairment(NetworkImpairment inbound, NetworkImpairment outbound, long seed,
+            ScheduledExecutorService scheduler, Executor executor) {
+        inboundLink = inbound.isNone()
+                ? null
+                : new ImpairedLink(inbound, seed, scheduler, executor, (buffer, address) -> {
+                    if (!stopFlag) {
+                        handleReceived(buffer, address);
+                    }
+                });
+        outboundLink = outbound.isNone()
+                ? null
+                : new ImpairedLink(outbound, ~seed, scheduler, executor, (buffer, address) -> {
+                    if (!stopFlag) {
+                        sendNow(buffer, address);
+                    }
+                });
+    }
+
+    /**
+     * Returns the impaired link of received packets, or null if they are not
+     * impaired.
+     */
+    public ImpairedLink getInboundLink() {
+        return inboundLink;
+    }
+
+    /**
+     * Returns the impaired link of sent packets, or null if they are not
+     * impaired.
+     */
+    public ImpairedLink getOutboundLink() {
+        return outboundLink;
+    }
+
+    /**
+     * Copies the packets received and sent from now on into the capture, as
+     * they leave and reach the socket, or stops capturing if null. A capture
+     * replaced or stopped is released.
+     */
+    public synchronized void setCapture(PacketCapture capture) {
+        PacketCapture previous = this.capture;
+        this.capture = capture;
+        if (previous != null && previous != capture)
+            previous.release();
+    }
+
+    /**
+     * Returns the capture of this server's packets, or null if not capturing.
+     */
+    public PacketCapture getCapture() {
+        return capture;
+    }
+
     public synchronized void start() {
         log.debug(toString() + " received start request!");
         if (isRunning) {
@@ -76,6 +143,7 @@ public abstract class UDPServer implements Executable {
 
     public synchronized void stop() {
         stopFlag = true;
+        setCapture(null);
 
         if (channel != null) {
             try {
@@ -146,12 +214,26 @@ public abstract class UDPServer implements Executable {
             InetSocketAddress remoteSocketAddress);
 
     protected void send(ByteBuffer buffer, InetSocketAddress toSocketAddress) {
+        ImpairedLink link = outboundLink;
+        if (link != null) {
+            link.offer(buffer, toSocketAddress);
+            return;
+        }
+
+        sendNow(buffer, toSocketAddress);
+    }
+
+    private void sendNow(ByteBuffer buffer, InetSocketAddress toSocketAddress) {
         if (!isBound()) {
             log.warn("Failed to send to " + EmuUtil.formatSocketAddress(toSocketAddress)
                     + ": UDPServer is not bound!");
             return;
         }
 
+        PacketCapture packets = capture;
+        if (packets != null)
+            record(packets, false, buffer);
+
         try {
             channel.send(buffer, toSocketAddress);
         } catch (Exception e) {
@@ -159,6 +241,20 @@ public abstract class UDPServer implements Executable {
         }
     }
 
+    // A failing capture must never break the session, so it is dropped instead
+    private void record(PacketCapture packets, boolean inbound, ByteBuffer buffer) {
+        try {
+            packets.record(inbound, buffer);
+        } catch (RuntimeException e) {
+            log.error("Packet capture failed on port " + getBindPort() + ", disarming it: " + e,
+                    e);
+            synchronized (this) {
+                if (capture == packets)
+                    setCapture(null);
+            }
+        }
+    }
+
     public void run() {
         isRunning = true;
         log.debug(toString() + ": thread running...");
@@ -179,7 +275,16 @@ public abstract class UDPServer implements Executable {
                                 "Failed to receive from DatagramChannel: fromSocketAddress == null");
 
                     buffer.flip();
-                    handleReceived(buffer, fromSocketAddress);
+                    PacketCapture packets = capture;
+                    if (packets != null)
+                        record(packets, true, buffer);
+
+                    ImpairedLink link = inboundLink;
+                    if (link != null) {
+                        link.offer(buffer, fromSocketAddress);
+                    } else {
+                        handleReceived(buffer, fromSocketAddress);
+                    }
                 } catch (ClosedChannelException e) {
                     // Channel was closed (expected during shutdown)
                     // Note: AsynchronousCloseException is a subclass of ClosedChannelException
@@ -10,7 +10,6 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 import java.util.Properties;
 
 import org.slf4j.Logger;
@@ -232,24 +231,6 @@ public class EmuUtil {
         return sb.toString();
     }
 
-    public static String readString(ByteBuffer buffer, int stopByte, Charset charset) {
-        ByteBuffer tempBuffer = ByteBuffer.allocate(buffer.remaining());
-        byte b;
-        while (buffer.hasRemaining()) {
-            b = buffer.get();
-            if (b == stopByte)
-                break;
-            tempBuffer.put(b);
-        }
-        tempBuffer.flip();
-        return charset.decode(tempBuffer).toString();
-    }
-
-    public static void writeString(ByteBuffer buffer, String s, int stopByte, Charset charset) {
-        buffer.put(charset.encode(s));
-        buffer.put((byte) stopByte);
-    }
-
     public static Object construct(String className, Object[] args) throws InstantiationException {
         try {
             Class<?> c = Class.forName(className);
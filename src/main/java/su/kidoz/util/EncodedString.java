@@ -0,0 +1,69 @@
+package su.kidoz.util;
+
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * An immutable string that keeps its encoded bytes once they have been
+ * computed.
+ *
+ * <p>
+ * User names, game names and client types are written into lobby messages for
+ * every recipient of every broadcast. Users and games hold them as
+ * {@code EncodedString}s, so each value is encoded once per charset rather than
+ * once per message. The bytes are computed lazily with
+ * {@link String#getBytes(Charset)}, which replaces unmappable characters the
+ * same way the protocol writers do.
+ */
+public final class EncodedString {
+
+    private record Encoding(Charset charset, byte[] bytes) {
+    }
+
+    private final String value;
+    private volatile Encoding encoding;
+
+    public EncodedString(String value) {
+        this.value = Objects.requireNonNull(value, "value");
+    }
+
+    /**
+     * Wraps a string, returning null for null.
+     */
+    public static EncodedString of(String value) {
+        return (value == null ? null : new EncodedString(value));
+    }
+
+    public boolean isEmpty() {
+        return value.isEmpty();
+    }
+
+    /**
+     * Returns the string encoded with the charset. The array is shared and
+     * must not be modified.
+     */
+    public byte[] getBytes(Charset charset) {
+        Encoding current = encoding;
+        if (current == null || !current.charset().equals(charset)) {
+            // Racing threads compute identical bytes, so either may win
+            current = new Encoding(charset, value.getBytes(charset));
+            encoding = current;
+        }
+        return current.bytes();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof EncodedString other && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,208 @@
+package su.kidoz.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for coarse-grained deadlines such as keepalive, idle and
+ * login timeouts. Deadlines are hashed into a fixed ring of slots by tick, so
+ * scheduling is O(1) and each tick only touches the items that fall into the
+ * current slot instead of every tracked item.
+ *
+ * <p>
+ * Each item has at most one pending deadline; scheduling an item again
+ * replaces (cancels) its previous deadline. Deadlines further away than one
+ * rotation stay in their slot until the rotation in which they are due.
+ *
+ * <p>
+ * {@link #schedule} and {@link #cancel} are thread-safe and may be called from
+ * any thread, including from inside the expiry handler. {@link #advance} must
+ * only be called from a single thread; newly scheduled deadlines are handed
+ * over to that thread through a queue, so the slots themselves need no
+ * locking.
+ *
+ * @param <T>
+ *            the type of item being timed; must have stable equals/hashCode
+ */
+public final class HashedTimingWheel<T> {
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> slots;
+    private final Map<T, Timeout<T>> pending = new ConcurrentHashMap<>();
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+
+    // Last tick processed by advance(); only accessed by the advancing thread
+    private long lastTick = -1;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param tickMillis
+     *            duration of one slot in milliseconds
+     * @param numSlots
+     *            number of slots, rounded up to the next power of two
+     */
+    public HashedTimingWheel(long tickMillis, int numSlots) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        if (numSlots <= 0 || numSlots > (1 << 20)) {
+            throw new IllegalArgumentException("numSlots out of range: " + numSlots);
+        }
+
+        int size = Integer.highestOneBit(numSlots);
+        if (size < numSlots) {
+            size <<= 1;
+        }
+
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Schedules (or reschedules) an item to expire at the given deadline.
+     *
+     * @param item
+     *            the item to time
+     * @param deadline
+     *            absolute deadline in milliseconds, on the same clock that is
+     *            passed to {@link #advance}
+     */
+    public void schedule(T item, long deadline) {
+        Timeout<T> timeout = new Timeout<>(item, deadline);
+        Timeout<T> previous = pending.put(item, timeout);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        incoming.add(timeout);
+    }
+
+    /**
+     * Cancels the pending deadline of an item, if any.
+     *
+     * @return true if a pending deadline was cancelled
+     */
+    public boolean cancel(T item) {
+        Timeout<T> timeout = pending.remove(item);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Checks if an item has a pending deadline.
+     */
+    public boolean isScheduled(T item) {
+        return pending.containsKey(item);
+    }
+
+    /**
+     * Returns the number of items with a pending deadline.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Removes all pending deadlines.
+     */
+    public void clear() {
+        for (Timeout<T> timeout : pending.values()) {
+            timeout.cancelled = true;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Advances the wheel to the given time and passes every item whose deadline
+     * is at or before {@code now} to the handler. The handler may reschedule the
+     * item; the new deadline is picked up on the next call.
+     *
+     * @param now
+     *            the current time in milliseconds
+     * @param handler
+     *            callback for expired items
+     * @return the number of items that expired
+     */
+    public int advance(long now, Consumer<? super T> handler) {
+        long currentTick = now / tickMillis;
+        if (lastTick < 0 || currentTick - lastTick > slots.size()) {
+            // First call or a long stall: one full rotation covers every slot
+            lastTick = currentTick - slots.size();
+        }
+
+        transferIncoming(currentTick);
+
+        // The current slot is always visited so that overdue deadlines handed
+        // over above fire even when the tick has already been processed
+        int expired = 0;
+        for (long tick = Math.min(lastTick + 1, currentTick); tick <= currentTick; tick++) {
+            expired += expireSlot(slots.get((int) (tick & mask)), now, handler);
+        }
+        lastTick = Math.max(lastTick, currentTick);
+        return expired;
+    }
+
+    private void transferIncoming(long currentTick) {
+        for (Timeout<T> timeout = incoming.poll(); timeout != null; timeout = incoming
+                .poll()) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            // Overdue deadlines go into the current slot so they fire on this pass
+            long tick = Math.max(timeout.deadline / tickMillis, currentTick);
+            slots.get((int) (tick & mask)).add(timeout);
+        }
+    }
+
+    private int expireSlot(List<Timeout<T>> slot, long now, Consumer<? super T> handler) {
+        int expired = 0;
+        int keep = 0;
+        int size = slot.size();
+        for (int i = 0; i < size; i++) {
+            Timeout<T> timeout = slot.get(i);
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.deadline > now) {
+                // Due in a later rotation
+                slot.set(keep++, timeout);
+                continue;
+            }
+            if (pending.remove(timeout.item, timeout)) {
+                expired++;
+                handler.accept(timeout.item);
+            }
+        }
+        for (int i = size - 1; i >= keep; i--) {
+            slot.remove(i);
+        }
+        return expired;
+    }
+
+    private static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
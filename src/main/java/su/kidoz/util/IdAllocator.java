@@ -0,0 +1,228 @@
+package su.kidoz.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free allocator for small integer IDs (user and game IDs) backed by a
+ * bitset in an {@link AtomicLongArray}. Allocation starts at a rotating cursor
+ * and claims the first free bit with a CAS, scanning 64 IDs per word, so
+ * allocate and release are O(1) amortized regardless of how full the ID space
+ * is.
+ *
+ * <p>
+ * Released IDs are held back for a reuse delay before they are handed out
+ * again, so clients do not see a quit and a join for the same ID in quick
+ * succession. If no other ID is free, a held-back ID is reused early rather
+ * than failing the allocation.
+ */
+public final class IdAllocator {
+    private final int minId;
+    private final int maxId;
+    private final long reuseDelayMillis;
+    private final LongSupplier clock;
+
+    private final AtomicLongArray bits;
+    private final AtomicInteger cursor;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    // Release timestamps, published by the CAS that clears the ID's bit
+    private final long[] releasedAt;
+
+    /**
+     * Creates an allocator handing out IDs in {@code [minId, maxId]}.
+     *
+     * @param minId
+     *            lowest ID to hand out (inclusive, at least 0)
+     * @param maxId
+     *            highest ID to hand out (inclusive)
+     * @param reuseDelayMillis
+     *            minimum time before a released ID is handed out again; 0 to
+     *            disable
+     */
+    public IdAllocator(int minId, int maxId, long reuseDelayMillis) {
+        this(minId, maxId, reuseDelayMillis, System::currentTimeMillis);
+    }
+
+    IdAllocator(int minId, int maxId, long reuseDelayMillis, LongSupplier clock) {
+        if (minId < 0 || maxId < minId) {
+            throw new IllegalArgumentException("Invalid ID range: " + minId + "-" + maxId);
+        }
+        if (reuseDelayMillis < 0) {
+            throw new IllegalArgumentException("reuseDelayMillis must not be negative");
+        }
+
+        this.minId = minId;
+        this.maxId = maxId;
+        this.reuseDelayMillis = reuseDelayMillis;
+        this.clock = clock;
+        this.bits = new AtomicLongArray((maxId >>> 6) + 1);
+        this.cursor = new AtomicInteger(minId);
+        this.releasedAt = reuseDelayMillis > 0 ? new long[maxId + 1] : null;
+    }
+
+    /**
+     * Allocates the next free ID, starting at the rotating cursor.
+     *
+     * @return the allocated ID
+     * @throws IllegalStateException
+     *             if every ID is in use
+     */
+    public int allocate() {
+        int id = tryAllocate(Integer.MAX_VALUE);
+        if (id < 0) {
+            throw new IllegalStateException("No available IDs");
+        }
+        return id;
+    }
+
+    /**
+     * Allocates the next free ID unless {@code limit} IDs are already allocated.
+     * The limit check and the reservation are a single CAS on the allocated
+     * count, so concurrent callers can never overshoot the limit.
+     *
+     * @param limit
+     *            maximum number of IDs that may be allocated at once
+     * @return the allocated ID, or -1 if the limit is reached or every ID is in
+     *         use
+     */
+    public int tryAllocate(int limit) {
+        for (;;) {
+            int count = allocated.get();
+            if (count >= limit) {
+                return -1;
+            }
+            if (allocated.compareAndSet(count, count + 1)) {
+                break;
+            }
+        }
+
+        long now = releasedAt != null ? clock.getAsLong() : 0;
+        int start = cursor.get();
+
+        int id = scan(start, now, true);
+        if (id < 0 && releasedAt != null) {
+            // Out of IDs: reusing one early beats refusing the allocation
+            id = scan(start, now, false);
+        }
+        if (id < 0) {
+            allocated.decrementAndGet();
+            return -1;
+        }
+
+        // The cursor is only a hint; a lost update just means a slightly longer scan
+        cursor.set(id >= maxId ? minId : id + 1);
+        return id;
+    }
+
+    /**
+     * Releases an ID so it can be allocated again after the reuse delay.
+     *
+     * @return true if the ID was allocated
+     */
+    public boolean release(int id) {
+        if (id < minId || id > maxId) {
+            return false;
+        }
+
+        int wordIndex = id >>> 6;
+        long mask = 1L << (id & 63);
+        if (releasedAt != null) {
+            releasedAt[id] = clock.getAsLong();
+        }
+
+        for (;;) {
+            long word = bits.get(wordIndex);
+            if ((word & mask) == 0) {
+                return false;
+            }
+            if (bits.compareAndSet(wordIndex, word, word & ~mask)) {
+                allocated.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks if an ID is currently allocated.
+     */
+    public boolean isAllocated(int id) {
+        if (id < minId || id > maxId) {
+            return false;
+        }
+        return (bits.get(id >>> 6) & (1L << (id & 63))) != 0;
+    }
+
+    /**
+     * Returns the number of allocated IDs.
+     */
+    public int getAllocatedCount() {
+        return allocated.get();
+    }
+
+    /**
+     * Releases every ID and resets the cursor.
+     */
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0);
+        }
+        allocated.set(0);
+        cursor.set(minId);
+    }
+
+    private int scan(int start, long now, boolean honorReuseDelay) {
+        int id = start;
+        int remaining = maxId - minId + 1;
+        while (remaining > 0) {
+            int wordIndex = id >>> 6;
+            int lo = id & 63;
+            int hi = Math.min(63, maxId - (wordIndex << 6));
+            long range = (-1L << lo) & (-1L >>> (63 - hi));
+
+            int found = claim(wordIndex, range, now, honorReuseDelay);
+            if (found >= 0) {
+                return found;
+            }
+
+            remaining -= hi - lo + 1;
+            id = (wordIndex << 6) + hi + 1;
+            if (id > maxId) {
+                id = minId;
+            }
+        }
+        return -1;
+    }
+
+    private int claim(int wordIndex, long range, long now, boolean honorReuseDelay) {
+        for (;;) {
+            long word = bits.get(wordIndex);
+            long free = ~word & range;
+            while (free != 0) {
+                int candidate = (wordIndex << 6) | Long.numberOfTrailingZeros(free);
+                if (!honorReuseDelay || !isHeldBack(candidate, now)) {
+                    break;
+                }
+                free &= free - 1;
+            }
+            if (free == 0) {
+                return -1;
+            }
+
+            long bit = Long.lowestOneBit(free);
+            if (bits.compareAndSet(wordIndex, word, word | bit)) {
+                return (wordIndex << 6) | Long.numberOfTrailingZeros(bit);
+            }
+            // Lost a race for this word; re-read it and try again
+        }
+    }
+
+    private boolean isHeldBack(int id, long now) {
+        if (releasedAt == null) {
+            return false;
+        }
+        long released = releasedAt[id];
+        return released != 0 && now - released < reuseDelayMillis;
+    }
+}
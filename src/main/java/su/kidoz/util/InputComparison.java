@@ -0,0 +1,85 @@
+package su.kidoz.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compares and hashes player input in place, without copying actions out of
+ * the game data arrays they arrive in.
+ *
+ * <p>
+ * Actions are 2, 4 or 8 bytes for nearly every emulator, so those sizes are
+ * compared as a single short, int or long load from each array. Other lengths
+ * use the range overload of {@link Arrays#equals(byte[], int, int, byte[], int,
+ * int)}, which the JVM compiles to a vectorized mismatch check.
+ *
+ * <p>
+ * {@link #hash} returns the same value as {@link Arrays#hashCode(byte[])} does
+ * for a copy of the slice, so hashes of slices and whole arrays can be mixed.
+ */
+public final class InputComparison {
+
+    private static final VarHandle SHORT_VIEW = MethodHandles
+            .byteArrayViewVarHandle(short[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INT_VIEW = MethodHandles
+            .byteArrayViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG_VIEW = MethodHandles
+            .byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private InputComparison() {
+    }
+
+    /**
+     * Returns whether {@code length} bytes of {@code a} starting at
+     * {@code aOffset} equal those of {@code b} starting at {@code bOffset}.
+     *
+     * @throws IndexOutOfBoundsException
+     *             if either range is outside its array
+     */
+    public static boolean equals(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        return switch (length) {
+            case 2 -> (short) SHORT_VIEW.get(a, aOffset) == (short) SHORT_VIEW.get(b, bOffset);
+            case 4 -> (int) INT_VIEW.get(a, aOffset) == (int) INT_VIEW.get(b, bOffset);
+            case 8 -> (long) LONG_VIEW.get(a, aOffset) == (long) LONG_VIEW.get(b, bOffset);
+            default -> Arrays.equals(a, aOffset, aOffset + length, b, bOffset, bOffset + length);
+        };
+    }
+
+    /**
+     * Returns whether two whole arrays hold the same input.
+     */
+    public static boolean equals(byte[] a, byte[] b) {
+        return a.length == b.length && equals(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Hashes {@code length} bytes of {@code data} starting at {@code offset}.
+     *
+     * @throws IndexOutOfBoundsException
+     *             if the range is outside the array
+     */
+    public static int hash(byte[] data, int offset, int length) {
+        if (offset == 0 && length == data.length) {
+            // Intrinsified by the JVM for whole arrays
+            return Arrays.hashCode(data);
+        }
+
+        Objects.checkFromIndexSize(offset, length, data.length);
+        int result = 1;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            result = 31 * result + data[i];
+        }
+        return result;
+    }
+
+    /**
+     * Hashes a whole array.
+     */
+    public static int hash(byte[] data) {
+        return Arrays.hashCode(data);
+    }
+}
@@ -1,13 +1,18 @@
 package su.kidoz.util;
 
 import java.util.Arrays;
-import java.util.HashMap;
 
 // Adapted from http://www.smotricz.com/kabutz/Issue027.html
 
 public class ServerGameDataCache implements GameDataCache {
     protected byte[][] array;
-    protected HashMap<Integer, Integer> map;
+
+    // Hash index over array, looked up on every frame. Each slot keeps the
+    // hash of its data, and slots with the same bucket are chained through
+    // next, newest first. Links are stored as slot + 1 so 0 means none.
+    protected int[] hashes;
+    protected int[] buckets;
+    protected int[] next;
 
     // head points to the first logical element in the array, and
     // tail points to the element following the last. This means
@@ -23,7 +28,9 @@ public class ServerGameDataCache implements GameDataCache {
     // fixed size, goes not grow
     public ServerGameDataCache(int size) {
         array = new byte[size][];
-        map = new HashMap<Integer, Integer>(size, .05f);
+        hashes = new int[size];
+        next = new int[size];
+        buckets = new int[Integer.highestOneBit(Math.max(size, 1) * 4 - 1) << 1];
     }
 
     public String toString() {
@@ -45,17 +52,17 @@ public class ServerGameDataCache implements GameDataCache {
     }
 
     public int indexOf(byte[] data) {
-        Integer i = map.get(Arrays.hashCode(data));
-        if (i == null) {
-            return -1;
-        }
-        // Verify actual data match to handle hash collisions
-        int logicalIndex = unconvert(i);
-        byte[] cached = array[i];
-        if (cached == null || !Arrays.equals(cached, data)) {
-            return -1;
+        int hash = InputComparison.hash(data);
+        int link = buckets[hash & (buckets.length - 1)];
+        while (link != 0) {
+            int pos = link - 1;
+            // Verify actual data match to handle hash collisions
+            if (hashes[pos] == hash && InputComparison.equals(array[pos], data)) {
+                return unconvert(pos);
+            }
+            link = next[pos];
         }
-        return logicalIndex;
+        return -1;
     }
 
     public byte[] get(int index) {
@@ -67,8 +74,10 @@ public class ServerGameDataCache implements GameDataCache {
         rangeCheck(index);
         int convertedIndex = convert(index);
         byte[] oldValue = array[convertedIndex];
+        if (oldValue != null)
+            unlink(convertedIndex);
         array[convertedIndex] = data;
-        map.put(Arrays.hashCode(data), convertedIndex);
+        link(convertedIndex);
         return oldValue;
     }
 
@@ -79,9 +88,10 @@ public class ServerGameDataCache implements GameDataCache {
         rangeCheck(index);
 
         int pos = convert(index);
+        boolean moved = false;
 
         try {
-            map.remove(Arrays.hashCode(array[pos]));
+            unlink(pos);
             return array[pos];
         } finally {
             array[pos] = null; // Let gc do its work
@@ -100,8 +110,13 @@ public class ServerGameDataCache implements GameDataCache {
                     System.arraycopy(array, pos + 1, array, pos, tail - pos - 1);
                     tail = (tail - 1 + array.length) % array.length;
                 }
+                moved = true;
             }
             size--;
+
+            // entries moved to other slots
+            if (moved)
+                rebuildIndex();
         }
     }
 
@@ -112,7 +127,7 @@ public class ServerGameDataCache implements GameDataCache {
         head = 0;
         tail = 0;
         size = 0;
-        map.clear();
+        Arrays.fill(buckets, 0);
     }
 
     public int add(byte[] data) {
@@ -121,13 +136,47 @@ public class ServerGameDataCache implements GameDataCache {
 
         int pos = tail;
         array[tail] = data;
-        map.put(Arrays.hashCode(data), tail);
+        link(tail);
         tail = ((tail + 1) % array.length);
         size++;
 
         return unconvert(pos);
     }
 
+    private void link(int pos) {
+        int hash = InputComparison.hash(array[pos]);
+        int bucket = hash & (buckets.length - 1);
+        hashes[pos] = hash;
+        next[pos] = buckets[bucket];
+        buckets[bucket] = pos + 1;
+    }
+
+    private void unlink(int pos) {
+        int bucket = hashes[pos] & (buckets.length - 1);
+        if (buckets[bucket] == pos + 1) {
+            buckets[bucket] = next[pos];
+            return;
+        }
+        int link = buckets[bucket];
+        while (link != 0) {
+            if (next[link - 1] == pos + 1) {
+                next[link - 1] = next[pos];
+                return;
+            }
+            link = next[link - 1];
+        }
+    }
+
+    private void rebuildIndex() {
+        Arrays.fill(buckets, 0);
+        // oldest first, so the newest entry heads each chain
+        for (int i = 0; i < size; i++) {
+            int pos = convert(i);
+            if (array[pos] != null)
+                link(pos);
+        }
+    }
+
     // The convert() method takes a logical index (as if head was always 0) and
     // calculates the index within array
     protected int convert(int index) {
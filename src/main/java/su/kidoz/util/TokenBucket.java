@@ -0,0 +1,75 @@
+package su.kidoz.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket rate limiter. Implemented as a generic cell rate
+ * algorithm (GCRA): instead of a token count plus a refill timestamp, the
+ * bucket keeps a single "theoretical arrival time" that a CAS advances by one
+ * emission interval per admitted request. That keeps the whole state in one
+ * {@link AtomicLong} and makes {@link #tryAcquire} a single CAS in the common
+ * case.
+ *
+ * <p>
+ * Times are in nanoseconds on a monotonic clock such as
+ * {@link System#nanoTime()}, passed in by the caller so that one clock read
+ * can be shared between several buckets.
+ */
+public final class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    // Theoretical arrival time of the next request; the bucket is full whenever
+    // this is at or before now
+    private final AtomicLong tat;
+
+    /**
+     * Creates a bucket that starts full.
+     *
+     * @param ratePerSecond
+     *            sustained number of requests per second
+     * @param burst
+     *            maximum number of requests admitted back to back
+     * @param nowNanos
+     *            the current time
+     */
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive: " + ratePerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1: " + burst);
+        }
+
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return true if the request is admitted
+     */
+    public boolean tryAcquire(long nowNanos) {
+        for (;;) {
+            long current = tat.get();
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            if (start - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (tat.compareAndSet(current, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks if the bucket has refilled completely, i.e. it has seen no traffic
+     * for at least one full burst. Idle buckets can be discarded and recreated
+     * without changing behavior.
+     */
+    public boolean isIdle(long nowNanos) {
+        return tat.get() - nowNanos <= 0;
+    }
+}
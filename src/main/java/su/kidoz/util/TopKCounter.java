@@ -0,0 +1,109 @@
+package su.kidoz.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the most frequent keys of a stream in constant memory, using the
+ * Space-Saving algorithm.
+ *
+ * <p>
+ * At most {@code capacity} keys are tracked. A new key arriving when all are
+ * taken replaces the key with the lowest count and inherits that count, which
+ * is remembered as its possible overcount. Any key occurring more than
+ * {@code total / capacity} times is guaranteed to be tracked.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class TopKCounter {
+
+    /**
+     * A tracked key.
+     *
+     * @param count
+     *            the key's count, which may exceed its true count by at most
+     *            {@code error}
+     * @param error
+     *            the most the key may have been overcounted
+     */
+    public record Count(String key, long count, long error) {
+    }
+
+    private static final class Entry {
+        long count;
+        long error;
+    }
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+    private long total;
+
+    /**
+     * @param capacity
+     *            the number of keys tracked
+     */
+    public TopKCounter(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     */
+    public void add(String key) {
+        total++;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() < capacity) {
+                entry = new Entry();
+            } else {
+                // Only runs for keys not tracked, which are rare once the
+                // frequent keys are
+                Map.Entry<String, Entry> min = null;
+                for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                    if (min == null || candidate.getValue().count < min.getValue().count)
+                        min = candidate;
+                }
+                entry = entries.remove(min.getKey());
+                entry.error = entry.count;
+            }
+            entries.put(key, entry);
+        }
+        entry.count++;
+    }
+
+    /**
+     * Returns the total number of occurrences counted.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns up to {@code n} tracked keys, most frequent first.
+     */
+    public List<Count> top(int n) {
+        List<Count> counts = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            counts.add(new Count(entry.getKey(), entry.getValue().count,
+                    entry.getValue().error));
+        }
+        counts.sort(Comparator.comparingLong(Count::count).reversed()
+                .thenComparing(Count::key));
+        return counts.size() > n ? List.copyOf(counts.subList(0, n)) : counts;
+    }
+
+    /**
+     * Forgets all keys and counts.
+     */
+    public void clear() {
+        entries.clear();
+        total = 0;
+    }
+}
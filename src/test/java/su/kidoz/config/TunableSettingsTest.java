@@ -0,0 +1,203 @@
+package su.kidoz.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import su.kidoz.kaillera.controller.v086.V086Controller;
+
+/**
+ * Tests for TunableSettings - limits changed while the server runs.
+ */
+@DisplayName("TunableSettings Tests")
+class TunableSettingsTest {
+
+    private final ServerConfig serverConfig = new ServerConfig();
+    private final GameConfig gameConfig = new GameConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Set<String>> notifications = new ArrayList<>();
+
+    private TunableSettings settings() {
+        TunableSettings settings = new TunableSettings(serverConfig, gameConfig, null, registry);
+        settings.addListener(notifications::add);
+        return settings;
+    }
+
+    @Nested
+    @DisplayName("apply")
+    class Apply {
+
+        @Test
+        @DisplayName("should change the configuration and audit the changes")
+        void shouldChangeConfiguration() {
+            TunableSettings settings = settings();
+
+            List<TunableSettings.Change> changes = settings.apply(
+                    Map.of("server.max-users", 40, "game.timeout-millis", 2000),
+                    TunableSettings.SOURCE_ADMIN, "admin");
+
+            assertEquals(40, serverConfig.getMaxUsers());
+            assertEquals(2000, gameConfig.getTimeoutMillis());
+            assertEquals(2, changes.size());
+            assertEquals(changes, settings.getAudit());
+            assertEquals(List.of(Set.of("server.max-users", "game.timeout-millis")),
+                    notifications);
+        }
+
+        @Test
+        @DisplayName("should skip values equal to the current ones")
+        void shouldSkipUnchangedValues() {
+            TunableSettings settings = settings();
+
+            List<TunableSettings.Change> changes = settings.apply(
+                    Map.of("server.max-users", serverConfig.getMaxUsers()),
+                    TunableSettings.SOURCE_ADMIN, "admin");
+
+            assertEquals(List.of(), changes);
+            assertEquals(List.of(), settings.getAudit());
+            assertEquals(List.of(), notifications);
+        }
+
+        @Test
+        @DisplayName("should apply nothing if any value is invalid")
+        void shouldRejectAllOrNothing() {
+            TunableSettings settings = settings();
+            Map<String, Integer> values = new LinkedHashMap<>();
+            values.put("server.max-users", 40);
+            values.put("server.max-ping", 1000);
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> settings.apply(values, TunableSettings.SOURCE_ADMIN, "admin"));
+            assertEquals(25, serverConfig.getMaxUsers());
+            assertEquals(250, serverConfig.getMaxPing());
+            assertEquals(1, registry.get("kaillera.config.rejected").tag("source", "admin")
+                    .counter().count());
+        }
+
+        @Test
+        @DisplayName("should reject unknown settings")
+        void shouldRejectUnknownSetting() {
+            TunableSettings settings = settings();
+
+            assertThrows(IllegalArgumentException.class, () -> settings.apply(
+                    Map.of("server.max-user-name-length", 10), TunableSettings.SOURCE_ADMIN,
+                    "admin"));
+        }
+
+        @Test
+        @DisplayName("should leave max-users unchanged if the port range cannot grow")
+        void shouldRejectMaxUsersPastPortRange() {
+            V086Controller controller = new V086Controller(null, null, new ControllersConfig(),
+                    serverConfig, null, null);
+            TunableSettings settings = settings();
+            settings.addValidator(values -> {
+                Integer maxUsers = values.get("server.max-users");
+                if (maxUsers != null)
+                    controller.checkMaxUsers(maxUsers);
+            });
+
+            // The default ports start at 27889 with 10 extra ports
+            assertThrows(IllegalArgumentException.class, () -> settings.apply(
+                    Map.of("server.max-users", 37637, "server.max-ping", 100),
+                    TunableSettings.SOURCE_ADMIN, "admin"));
+            assertEquals(25, serverConfig.getMaxUsers());
+            assertEquals(250, serverConfig.getMaxPing());
+            assertEquals(List.of(), settings.getAudit());
+            assertEquals(List.of(), notifications);
+
+            settings.apply(Map.of("server.max-users", 37636), TunableSettings.SOURCE_ADMIN,
+                    "admin");
+            assertEquals(37636, serverConfig.getMaxUsers());
+        }
+
+        @Test
+        @DisplayName("should keep a bounded audit trail")
+        void shouldBoundAudit() {
+            TunableSettings settings = settings();
+            for (int i = 1; i <= TunableSettings.MAX_AUDIT_ENTRIES + 10; i++) {
+                settings.apply(Map.of("server.max-games", i), TunableSettings.SOURCE_ADMIN,
+                        "admin");
+            }
+
+            List<TunableSettings.Change> audit = settings.getAudit();
+            assertEquals(TunableSettings.MAX_AUDIT_ENTRIES, audit.size());
+            assertEquals(TunableSettings.MAX_AUDIT_ENTRIES + 10,
+                    audit.get(audit.size() - 1).newValue());
+        }
+
+        @Test
+        @DisplayName("should export the values and changes as metrics")
+        void shouldExportMetrics() {
+            TunableSettings settings = settings();
+            settings.apply(Map.of("server.max-users", 40), TunableSettings.SOURCE_ADMIN, "admin");
+
+            assertEquals(40, registry.get("kaillera.config.value")
+                    .tag("setting", "server.max-users").gauge().value());
+            assertEquals(1, registry.get("kaillera.config.changes")
+                    .tag("setting", "server.max-users").tag("source", "admin").counter().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("tuning file")
+    class TuningFile {
+
+        @TempDir
+        Path dir;
+
+        private TunableSettings watching(String content) throws IOException {
+            Path file = dir.resolve("tuning.properties");
+            Files.writeString(file, content);
+            serverConfig.setTuningFile(file.toString());
+            return settings();
+        }
+
+        @Test
+        @DisplayName("should apply the file when it is modified")
+        void shouldApplyModifiedFile() throws IOException {
+            TunableSettings settings = watching("server.max-users=40\ngame.buffer-size=2048\n");
+
+            settings.checkFile();
+            assertEquals(40, serverConfig.getMaxUsers());
+            assertEquals(2048, gameConfig.getBufferSize());
+            assertEquals(TunableSettings.SOURCE_FILE, settings.getAudit().get(0).source());
+
+            // Admin changes stay until the file is modified again
+            settings.apply(Map.of("server.max-users", 50), TunableSettings.SOURCE_ADMIN, "admin");
+            settings.checkFile();
+            assertEquals(50, serverConfig.getMaxUsers());
+
+            Path file = Path.of(serverConfig.getTuningFile());
+            Files.writeString(file, "server.max-users=60\n");
+            file.toFile().setLastModified(file.toFile().lastModified() + 1000);
+            settings.checkFile();
+            assertEquals(60, serverConfig.getMaxUsers());
+        }
+
+        @Test
+        @DisplayName("should ignore an invalid file")
+        void shouldIgnoreInvalidFile() throws IOException {
+            TunableSettings settings = watching("server.max-users=40\nserver.max-ping=many\n");
+
+            settings.checkFile();
+
+            assertEquals(25, serverConfig.getMaxUsers());
+            assertTrue(settings.getAudit().isEmpty());
+            assertEquals(1, registry.get("kaillera.config.rejected").tag("source", "file")
+                    .counter().count());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package su.kidoz.kaillera.access.pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("DnsResolvingPattern Tests")
+class DnsResolvingPatternTest {
+
+    @Test
+    @DisplayName("should resolve DNS entries to addresses")
+    void shouldResolveDnsEntries() {
+        DnsResolvingPattern pattern = new DnsResolvingPattern("10.0.0.*|dns:localhost");
+
+        assertTrue(pattern.hasDnsEntries());
+        assertFalse(pattern.getResolvedAddresses().isEmpty());
+        assertTrue(pattern.matches(pattern.getResolvedAddresses().get(0)));
+        assertTrue(pattern.matches("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("should report no change when addresses resolve the same")
+    void shouldReportUnchangedResolution() {
+        DnsResolvingPattern pattern = new DnsResolvingPattern("dns:localhost");
+
+        assertFalse(pattern.refreshDns());
+    }
+
+    @Test
+    @DisplayName("should report no change without DNS entries")
+    void shouldReportNoChangeWithoutDnsEntries() {
+        DnsResolvingPattern pattern = new DnsResolvingPattern("192.168.*");
+
+        assertFalse(pattern.hasDnsEntries());
+        assertFalse(pattern.refreshDns());
+    }
+}
@@ -0,0 +1,149 @@
+package su.kidoz.kaillera.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import su.kidoz.kaillera.admin.dto.AdminEventDTO;
+import su.kidoz.kaillera.model.KailleraGame;
+import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.event.ChatEvent;
+import su.kidoz.kaillera.model.event.GameTimeoutEvent;
+import su.kidoz.kaillera.model.event.UserJoinedEvent;
+import su.kidoz.kaillera.model.impl.KailleraServerImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests for AdminEventFeed - the admin dashboard's event deltas.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("AdminEventFeed Tests")
+class AdminEventFeedTest {
+
+    private static final int QUEUE_SIZE = 4;
+    private static final int MAX_SUBSCRIBERS = 2;
+
+    @Mock
+    private KailleraServerImpl server;
+
+    @Mock
+    private KailleraUser user;
+
+    @Mock
+    private KailleraGame game;
+
+    private AdminEventFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        when(user.getID()).thenReturn(7);
+        when(user.getName()).thenReturn("Player7");
+        when(game.getID()).thenReturn(3);
+        when(game.getRomName()).thenReturn("TestROM");
+
+        feed = new AdminEventFeed(server, QUEUE_SIZE, MAX_SUBSCRIBERS);
+    }
+
+    private AdminEventDTO next(AdminEventFeed.Subscription subscription) throws Exception {
+        return subscription.poll(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Nested
+    @DisplayName("Deltas")
+    class Deltas {
+
+        @Test
+        @DisplayName("should tap the server's events")
+        void shouldTapServerEvents() {
+            verify(server).setEventTap(any());
+        }
+
+        @Test
+        @DisplayName("should describe user events")
+        void shouldDescribeUserEvents() throws Exception {
+            AdminEventFeed.Subscription subscription = feed.subscribe().orElseThrow();
+
+            feed.publish(new UserJoinedEvent(server, user));
+
+            AdminEventDTO delta = next(subscription);
+            assertEquals("user.joined", delta.type());
+            assertEquals(7, delta.userId());
+            assertEquals("Player7", delta.userName());
+            assertNull(delta.gameId());
+        }
+
+        @Test
+        @DisplayName("should describe game events with their player")
+        void shouldDescribeGameEvents() throws Exception {
+            AdminEventFeed.Subscription subscription = feed.subscribe().orElseThrow();
+
+            feed.publish(new GameTimeoutEvent(game, user, 2));
+
+            AdminEventDTO delta = next(subscription);
+            assertEquals("game.timeout", delta.type());
+            assertEquals(3, delta.gameId());
+            assertEquals("TestROM", delta.romName());
+            assertEquals(7, delta.userId());
+            assertEquals("2", delta.detail());
+        }
+
+        @Test
+        @DisplayName("should ignore chat")
+        void shouldIgnoreChat() throws Exception {
+            AdminEventFeed.Subscription subscription = feed.subscribe().orElseThrow();
+
+            feed.publish(new ChatEvent(server, user, "hello"));
+
+            assertNull(next(subscription));
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscribers")
+    class Subscribers {
+
+        @Test
+        @DisplayName("should drop deltas a slow subscriber has no room for")
+        void shouldDropOverflow() throws Exception {
+            AdminEventFeed.Subscription subscription = feed.subscribe().orElseThrow();
+
+            for (int i = 0; i < QUEUE_SIZE + 3; i++) {
+                feed.publish(new UserJoinedEvent(server, user));
+            }
+
+            // The queued deltas predate the reload, so they are lost as well
+            AdminEventDTO dropped = next(subscription);
+            assertEquals("feed.dropped", dropped.type());
+            assertEquals(Integer.toString(QUEUE_SIZE + 3), dropped.detail());
+            assertNull(next(subscription));
+
+            feed.publish(new UserJoinedEvent(server, user));
+            assertEquals("user.joined", next(subscription).type());
+        }
+
+        @Test
+        @DisplayName("should limit the number of subscribers")
+        void shouldLimitSubscribers() {
+            AdminEventFeed.Subscription first = feed.subscribe().orElseThrow();
+            feed.subscribe().orElseThrow();
+
+            assertTrue(feed.subscribe().isEmpty());
+
+            first.close();
+            assertTrue(feed.subscribe().isPresent());
+        }
+    }
+}
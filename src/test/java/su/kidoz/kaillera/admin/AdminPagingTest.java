@@ -0,0 +1,161 @@
+package su.kidoz.kaillera.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import su.kidoz.kaillera.admin.dto.UserDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Tests for AdminPaging - filtering, sorting and paging of admin lists.
+ */
+@DisplayName("AdminPaging Tests")
+class AdminPagingTest {
+
+    private static final AdminPaging.Sort<UserDTO> BY_ID = AdminPaging.Sort.byId(UserDTO::id);
+    private static final AdminPaging.Sort<UserDTO> BY_PING = new AdminPaging.Sort<>(UserDTO::ping,
+            true, UserDTO::id);
+
+    private static final List<UserDTO> USERS = List.of(user(4, "Dave", 80), user(1, "alice", 20),
+            user(3, "Carol", 80), user(2, "Bob", 150), user(5, "Alex", 40));
+    private static final SnapshotCache.Snapshot<UserDTO> ALL = snapshot(USERS);
+
+    private static SnapshotCache.Snapshot<UserDTO> snapshot(List<UserDTO> users) {
+        return new SnapshotCache.Snapshot<>(users, 1);
+    }
+
+    private static UserDTO user(int id, String name, int ping) {
+        return new UserDTO(id, name, "Idle", "LAN", ping, "127.0.0.1:27889", 0);
+    }
+
+    private static List<Integer> ids(ResponseEntity<List<UserDTO>> response) {
+        return response.getBody().stream().map(UserDTO::id).toList();
+    }
+
+    private static String nextCursor(ResponseEntity<List<UserDTO>> response) {
+        return response.getHeaders().getFirst(AdminPaging.NEXT_CURSOR_HEADER);
+    }
+
+    @Nested
+    @DisplayName("Paging")
+    class Paging {
+
+        @Test
+        @DisplayName("should return everything without a limit")
+        void shouldReturnAllWithoutLimit() {
+            ResponseEntity<List<UserDTO>> response = AdminPaging.page(ALL, user -> true, BY_ID,
+                    null, null);
+
+            assertEquals(List.of(1, 2, 3, 4, 5), ids(response));
+            assertNull(nextCursor(response));
+            assertEquals("5", response.getHeaders().getFirst(AdminPaging.TOTAL_COUNT_HEADER));
+        }
+
+        @Test
+        @DisplayName("should follow the cursor to the next page")
+        void shouldFollowCursor() {
+            ResponseEntity<List<UserDTO>> first = AdminPaging.page(ALL, user -> true, BY_ID, null,
+                    2);
+            ResponseEntity<List<UserDTO>> second = AdminPaging.page(ALL, user -> true, BY_ID,
+                    nextCursor(first), 2);
+            ResponseEntity<List<UserDTO>> last = AdminPaging.page(ALL, user -> true, BY_ID,
+                    nextCursor(second), 2);
+
+            assertEquals(List.of(1, 2), ids(first));
+            assertEquals(List.of(3, 4), ids(second));
+            assertEquals(List.of(5), ids(last));
+            assertNull(nextCursor(last));
+        }
+
+        @Test
+        @DisplayName("should continue after the cursor when its item is gone")
+        void shouldContinueAfterRemovedItem() {
+            ResponseEntity<List<UserDTO>> first = AdminPaging.page(ALL, user -> true, BY_ID, null,
+                    2);
+            List<UserDTO> withoutBob = USERS.stream().filter(user -> user.id() != 2).toList();
+
+            ResponseEntity<List<UserDTO>> second = AdminPaging.page(snapshot(withoutBob),
+                    user -> true, BY_ID, nextCursor(first), 2);
+
+            assertEquals(List.of(3, 4), ids(second));
+        }
+
+        @Test
+        @DisplayName("should reject invalid cursors and limits")
+        void shouldRejectInvalidArguments() {
+            assertEquals(400, AdminPaging.page(ALL, user -> true, BY_ID, "not a cursor!", 2)
+                    .getStatusCode().value());
+            assertEquals(400,
+                    AdminPaging.page(ALL, user -> true, BY_ID, null, 0).getStatusCode().value());
+            assertEquals(400, AdminPaging
+                    .page(ALL, user -> true, BY_ID, null, AdminPaging.MAX_LIMIT + 1)
+                    .getStatusCode().value());
+        }
+    }
+
+    @Nested
+    @DisplayName("Sorting and filtering")
+    class SortingAndFiltering {
+
+        @Test
+        @DisplayName("should list the highest pings first, then by ID")
+        void shouldSortByPingDescending() {
+            ResponseEntity<List<UserDTO>> first = AdminPaging.page(ALL, user -> true, BY_PING,
+                    null, 2);
+            ResponseEntity<List<UserDTO>> second = AdminPaging.page(ALL, user -> true, BY_PING,
+                    nextCursor(first), 2);
+
+            assertEquals(List.of(2, 3), ids(first));
+            assertEquals(List.of(4, 5), ids(second));
+        }
+
+        @Test
+        @DisplayName("should count only matching items")
+        void shouldFilter() {
+            ResponseEntity<List<UserDTO>> response = AdminPaging.page(ALL,
+                    user -> AdminPaging.startsWith(user.name(), "AL"), BY_ID, null, null);
+
+            assertEquals(List.of(1, 5), ids(response));
+            assertEquals("2", response.getHeaders().getFirst(AdminPaging.TOTAL_COUNT_HEADER));
+        }
+    }
+
+    @Nested
+    @DisplayName("ETags")
+    class ETags {
+
+        private String etag(SnapshotCache.Snapshot<UserDTO> snapshot, String cursor) {
+            return AdminPaging.page(snapshot, user -> true, BY_ID, cursor, 2).getHeaders()
+                    .getETag();
+        }
+
+        @Test
+        @DisplayName("should keep the ETag of a page while the snapshot is unchanged")
+        void shouldKeepETagForSameSnapshot() {
+            assertEquals(etag(ALL, null),
+                    etag(new SnapshotCache.Snapshot<>(List.copyOf(USERS), 1), null));
+        }
+
+        @Test
+        @DisplayName("should change the ETag with the snapshot version")
+        void shouldChangeETagWithVersion() {
+            assertNotEquals(etag(ALL, null),
+                    etag(new SnapshotCache.Snapshot<>(USERS, 2), null));
+        }
+
+        @Test
+        @DisplayName("should give each page of a snapshot its own ETag")
+        void shouldTagEachPage() {
+            String first = etag(ALL, null);
+            String cursor = AdminPaging.page(ALL, user -> true, BY_ID, null, 2)
+                    .getHeaders().getFirst(AdminPaging.NEXT_CURSOR_HEADER);
+
+            assertNotEquals(first, etag(ALL, cursor));
+        }
+    }
+}
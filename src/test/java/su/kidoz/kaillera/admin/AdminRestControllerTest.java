@@ -63,7 +63,8 @@ class AdminRestControllerTest {
     @BeforeEach
     void setUp() {
         AdminRestController controller = new AdminRestController(userService, gameService,
-                releaseInfo, connectController, executor, Optional.empty(), Optional.empty());
+                releaseInfo, connectController, executor, Optional.empty(), Optional.empty(),
+                Optional.empty());
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
@@ -174,6 +175,40 @@ class AdminRestControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/admin/users/{userId}")
+    class GetUser {
+
+        @Test
+        @DisplayName("should return 404 for an unknown user")
+        void shouldReturnNotFoundForUnknownUser() throws Exception {
+            doReturn(Optional.empty()).when(userService).findUser(9);
+
+            mockMvc.perform(get("/api/admin/users/9").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("should return the user without network stats when it has no session")
+        void shouldReturnUserWithoutSession() throws Exception {
+            KailleraUser user = mock(KailleraUser.class);
+            when(user.getID()).thenReturn(3);
+            when(user.getName()).thenReturn("Player3");
+            when(user.getStatus()).thenReturn((int) KailleraUser.STATUS_IDLE);
+            when(user.getConnectionType()).thenReturn(KailleraUser.CONNECTION_TYPE_LAN);
+            when(user.getPing()).thenReturn(20);
+            when(user.getSocketAddress()).thenReturn(new InetSocketAddress("10.0.0.3", 27889));
+            when(user.getConnectTime()).thenReturn(System.currentTimeMillis());
+            doReturn(Optional.of(user)).when(userService).findUser(3);
+            when(connectController.getControllers()).thenReturn(Collections.emptyList());
+
+            mockMvc.perform(get("/api/admin/users/3").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$.user.id").value(3))
+                    .andExpect(jsonPath("$.user.name").value("Player3"))
+                    .andExpect(jsonPath("$.network").doesNotExist());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/admin/games")
     class GetGames {
@@ -59,7 +59,8 @@ class AdminSecurityTest {
     @BeforeEach
     void setUp() {
         AdminRestController controller = new AdminRestController(userService, gameService,
-                releaseInfo, connectController, executor, Optional.empty(), Optional.empty());
+                releaseInfo, connectController, executor, Optional.empty(), Optional.empty(),
+                Optional.empty());
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
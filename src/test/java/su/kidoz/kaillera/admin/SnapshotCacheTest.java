@@ -0,0 +1,66 @@
+package su.kidoz.kaillera.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for SnapshotCache - shared, versioned snapshots of admin lists.
+ */
+@DisplayName("SnapshotCache Tests")
+class SnapshotCacheTest {
+
+    private final List<String> items = new ArrayList<>(List.of("a", "b"));
+    private int builds;
+
+    private SnapshotCache<String> cache(Duration ttl) {
+        return new SnapshotCache<>(() -> {
+            builds++;
+            return items;
+        }, ttl);
+    }
+
+    @Test
+    @DisplayName("should share a snapshot until it expires")
+    void shouldShareSnapshot() {
+        SnapshotCache<String> cache = cache(Duration.ofHours(1));
+
+        SnapshotCache.Snapshot<String> first = cache.get();
+        items.add("c");
+
+        assertSame(first, cache.get());
+        assertEquals(1, builds);
+    }
+
+    @Test
+    @DisplayName("should keep the version while rebuilds yield equal items")
+    void shouldKeepVersionForEqualItems() {
+        SnapshotCache<String> cache = cache(Duration.ZERO);
+
+        long version = cache.get().version();
+
+        assertEquals(version, cache.get().version());
+        assertEquals(2, builds);
+    }
+
+    @Test
+    @DisplayName("should change the version when the items change")
+    void shouldChangeVersionForNewItems() {
+        SnapshotCache<String> cache = cache(Duration.ZERO);
+
+        long version = cache.get().version();
+        items.set(0, "z");
+        SnapshotCache.Snapshot<String> changed = cache.get();
+        items.set(0, "a");
+
+        assertNotEquals(version, changed.version());
+        assertEquals(List.of("z", "b"), changed.items());
+        assertNotEquals(changed.version(), cache.get().version());
+    }
+}
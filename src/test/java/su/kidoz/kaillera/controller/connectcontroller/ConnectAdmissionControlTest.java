@@ -0,0 +1,87 @@
+package su.kidoz.kaillera.controller.connectcontroller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import su.kidoz.config.ControllersConfig;
+import su.kidoz.kaillera.controller.connectcontroller.ConnectAdmissionControl.Decision;
+
+@DisplayName("ConnectAdmissionControl Tests")
+class ConnectAdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    private ControllersConfig.Connect config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ControllersConfig.Connect();
+        config.setHelloRatePerAddress(1);
+        config.setHelloBurstPerAddress(2);
+        config.setHelloRateGlobal(10);
+        config.setHelloBurstGlobal(3);
+        config.setMaxTrackedAddresses(4);
+    }
+
+    private static InetAddress address(int last) throws Exception {
+        return InetAddress.getByAddress(new byte[]{10, 0, 0, (byte) last});
+    }
+
+    @Test
+    @DisplayName("should shed a single address exceeding its burst")
+    void shouldLimitPerAddress() throws Exception {
+        ConnectAdmissionControl control = new ConnectAdmissionControl(config, START);
+
+        assertEquals(Decision.ADMITTED, control.tryAdmit(address(1), START));
+        assertEquals(Decision.ADMITTED, control.tryAdmit(address(1), START));
+        assertEquals(Decision.SHED_ADDRESS_RATE, control.tryAdmit(address(1), START));
+        assertEquals(Decision.ADMITTED, control.tryAdmit(address(2), START));
+    }
+
+    @Test
+    @DisplayName("should shed once the global burst is used up")
+    void shouldLimitGlobally() throws Exception {
+        ConnectAdmissionControl control = new ConnectAdmissionControl(config, START);
+
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(Decision.ADMITTED, control.tryAdmit(address(i), START));
+        }
+        assertEquals(Decision.SHED_GLOBAL_RATE, control.tryAdmit(address(4), START));
+    }
+
+    @Test
+    @DisplayName("should cap tracked addresses and drop idle buckets")
+    void shouldCapTrackedAddresses() throws Exception {
+        config.setHelloRateGlobal(0);
+        ConnectAdmissionControl control = new ConnectAdmissionControl(config, START);
+
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Decision.ADMITTED, control.tryAdmit(address(i), START));
+        }
+        assertEquals(Decision.SHED_TOO_MANY_ADDRESSES, control.tryAdmit(address(5), START));
+
+        // After the buckets refill, the next sweep frees their slots
+        assertEquals(Decision.ADMITTED, control.tryAdmit(address(5), START + 2 * SECOND));
+        assertEquals(1, control.getTrackedAddressCount());
+    }
+
+    @Test
+    @DisplayName("should admit everything when limits are disabled")
+    void shouldAllowDisablingLimits() throws Exception {
+        config.setHelloRatePerAddress(0);
+        config.setHelloRateGlobal(0);
+        ConnectAdmissionControl control = new ConnectAdmissionControl(config, START);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Decision.ADMITTED, control.tryAdmit(address(1), START));
+        }
+        assertEquals(0, control.getTrackedAddressCount());
+    }
+}
@@ -0,0 +1,125 @@
+package su.kidoz.kaillera.controller.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import su.kidoz.kaillera.controller.v086.protocol.Chat_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.ServerStatus;
+import su.kidoz.util.EncodedString;
+
+@DisplayName("ProtocolStringCodec Tests")
+class ProtocolStringCodecTest {
+
+    private static final Charset[] CHARSETS = {StandardCharsets.UTF_8,
+            StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII, Charset.forName("windows-1252")};
+
+    @Nested
+    @DisplayName("Compatibility with Charset")
+    class Compatibility {
+        @ParameterizedTest
+        @ValueSource(strings = {"", "Player1", "héllo", "日本語",
+                "smile😀!", "lone\uD800x", "ÿĀ"})
+        @DisplayName("should encode, measure and decode like Charset.encode/decode")
+        void shouldMatchCharset(String s) {
+            for (Charset charset : CHARSETS) {
+                ByteBuffer expected = charset.encode(s);
+                byte[] expectedBytes = new byte[expected.remaining()];
+                expected.get(expectedBytes);
+
+                ByteBuffer buffer = ByteBuffer.allocate(64);
+                ProtocolStringCodec.write(buffer, s, 0x00, charset);
+                buffer.flip();
+
+                assertEquals(expectedBytes.length + 1, buffer.remaining(), charset.name());
+                assertEquals(expectedBytes.length, ProtocolStringCodec.encodedLength(s, charset),
+                        charset.name());
+                assertArrayEquals(expectedBytes,
+                        Arrays.copyOf(buffer.array(), expectedBytes.length), charset.name());
+
+                String decoded = charset.decode(ByteBuffer.wrap(expectedBytes)).toString();
+                assertEquals(decoded, ProtocolStringCodec.read(buffer, 0x00, charset),
+                        charset.name());
+                assertEquals(0, buffer.remaining());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Reading")
+    class Reading {
+        @Test
+        @DisplayName("should stop at the terminator and consume it")
+        void shouldConsumeTerminator() {
+            ByteBuffer buffer = ByteBuffer.wrap(new byte[]{'a', 'b', 0, 'c', 0});
+
+            assertEquals("ab", ProtocolStringCodec.read(buffer, 0x00, StandardCharsets.UTF_8));
+            assertEquals(3, buffer.position());
+            assertEquals("c", ProtocolStringCodec.read(buffer, 0x00, StandardCharsets.UTF_8));
+            assertEquals(0, buffer.remaining());
+        }
+
+        @Test
+        @DisplayName("should read to the end when there is no terminator")
+        void shouldReadUnterminated() {
+            ByteBuffer buffer = ByteBuffer.wrap(new byte[]{'a', 'b'});
+
+            assertEquals("ab", ProtocolStringCodec.read(buffer, 0x00, StandardCharsets.UTF_8));
+            assertEquals(0, buffer.remaining());
+        }
+
+        @Test
+        @DisplayName("should read from sliced and direct buffers")
+        void shouldReadSlicedAndDirectBuffers() {
+            ByteBuffer sliced = ByteBuffer.wrap(new byte[]{'x', 'h', 'i', 0}).position(1)
+                    .slice();
+            assertEquals("hi", ProtocolStringCodec.read(sliced, 0x00, StandardCharsets.UTF_8));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(8);
+            direct.put(new byte[]{'h', 'i', 0, 'x'}).flip();
+            assertEquals("hi", ProtocolStringCodec.read(direct, 0x00, StandardCharsets.UTF_8));
+            assertEquals(1, direct.remaining());
+        }
+    }
+
+    @Test
+    @DisplayName("message body length should match the bytes written for multi-byte text")
+    void bodyLengthShouldMatchWrittenBytes() throws Exception {
+        Chat_Notification chat = new Chat_Notification(1, "ユーザー",
+                "café 😀");
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+
+        chat.writeBodyTo(buffer);
+
+        assertEquals(chat.getBodyLength(), buffer.position());
+    }
+
+    @Test
+    @DisplayName("pre-encoded names should write the same bytes as plain strings")
+    void preEncodedNamesShouldMatchStrings() throws Exception {
+        ServerStatus.Game plain = new ServerStatus.Game("Street Fighter Ⅱ", 3, "MAME",
+                "ユーザー", "1/2", (byte) 0);
+        ServerStatus.Game encoded = new ServerStatus.Game(
+                new EncodedString("Street Fighter Ⅱ"), 3, new EncodedString("MAME"),
+                new EncodedString("ユーザー"), "1/2", (byte) 0);
+
+        ByteBuffer plainBuffer = ByteBuffer.allocate(128);
+        plain.writeTo(plainBuffer);
+        ByteBuffer encodedBuffer = ByteBuffer.allocate(128);
+        encoded.writeTo(encodedBuffer);
+
+        assertEquals(plain.getLength(), encoded.getLength());
+        assertEquals(encoded.getLength(), encodedBuffer.position());
+        assertEquals(plainBuffer.flip(), encodedBuffer.flip());
+    }
+}
@@ -0,0 +1,55 @@
+package su.kidoz.kaillera.controller.v086;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for PortAllocatorImpl - the pool of client ports.
+ */
+@DisplayName("PortAllocatorImpl Tests")
+class PortAllocatorImplTest {
+
+    @Test
+    @DisplayName("should hand out each port once until released")
+    void shouldAllocateAndRelease() {
+        PortAllocatorImpl allocator = new PortAllocatorImpl(27900, 2);
+
+        assertEquals(OptionalInt.of(27900), allocator.allocate());
+        assertEquals(OptionalInt.of(27901), allocator.allocate());
+        assertEquals(OptionalInt.empty(), allocator.allocate());
+
+        allocator.release(27900);
+        assertEquals(OptionalInt.of(27900), allocator.allocate());
+    }
+
+    @Test
+    @DisplayName("should grow the range at its end while ports are in use")
+    void shouldGrow() {
+        PortAllocatorImpl allocator = new PortAllocatorImpl(27900, 2);
+        allocator.allocate();
+
+        allocator.grow(4);
+        allocator.grow(3);
+
+        assertEquals(3, allocator.availableCount());
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            ports.add(allocator.allocate().getAsInt());
+        assertEquals(List.of(27901, 27902, 27903), ports);
+    }
+
+    @Test
+    @DisplayName("should not grow past the last port")
+    void shouldRejectRangePastLastPort() {
+        PortAllocatorImpl allocator = new PortAllocatorImpl(65530, 6);
+
+        assertThrows(IllegalArgumentException.class, () -> allocator.grow(7));
+        assertEquals(6, allocator.availableCount());
+    }
+}
@@ -0,0 +1,83 @@
+package su.kidoz.kaillera.controller.v086;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for SessionStats - the network quality of a client session.
+ */
+@DisplayName("SessionStats Tests")
+class SessionStatsTest {
+
+    private static final int MAX_BUNDLE_SIZE = 5;
+
+    private final SessionStats stats = new SessionStats(null, MAX_BUNDLE_SIZE);
+
+    @Nested
+    @DisplayName("Inbound")
+    class Inbound {
+
+        @Test
+        @DisplayName("should count redundant messages and gaps")
+        void shouldCountRedundantMessagesAndGaps() {
+            stats.recordReceived(30, 3, 1);
+            stats.recordReceived(30, 3, 2);
+            stats.recordGap(1);
+
+            SessionStats.Snapshot snapshot = stats.snapshot();
+            assertEquals(2, snapshot.packetsIn());
+            assertEquals(60, snapshot.bytesIn());
+            assertEquals(6, snapshot.messagesIn());
+            assertEquals(3, snapshot.redundantMessagesIn());
+            assertEquals(1, snapshot.gaps());
+            assertEquals(1, snapshot.missingMessages());
+        }
+    }
+
+    @Nested
+    @DisplayName("Outbound")
+    class Outbound {
+
+        @Test
+        @DisplayName("should report the average bundle fill")
+        void shouldReportBundleFill() {
+            stats.recordSent(40, 5);
+            stats.recordSent(20, 3);
+            stats.recordResend();
+
+            SessionStats.Snapshot snapshot = stats.snapshot();
+            assertEquals(2, snapshot.packetsOut());
+            assertEquals(60, snapshot.bytesOut());
+            assertEquals(0.8, snapshot.averageBundleFill(), 1e-9);
+            assertEquals(1, snapshot.resends());
+        }
+
+        @Test
+        @DisplayName("should report no fill before anything is sent")
+        void shouldReportNoFillWhenIdle() {
+            assertEquals(0.0, stats.snapshot().averageBundleFill());
+        }
+    }
+
+    @Nested
+    @DisplayName("Round trip time")
+    class RoundTripTime {
+
+        @Test
+        @DisplayName("should start from the first sample and smooth later ones")
+        void shouldSmoothSamples() {
+            stats.recordRtt(40);
+            assertEquals(40, stats.snapshot().rttMillis(), 1e-9);
+            assertEquals(20, stats.snapshot().rttVarianceMillis(), 1e-9);
+
+            stats.recordRtt(80);
+            SessionStats.Snapshot snapshot = stats.snapshot();
+            assertEquals(45, snapshot.rttMillis(), 1e-9);
+            assertEquals(25, snapshot.rttVarianceMillis(), 1e-9);
+            assertEquals(2, snapshot.rttSamples());
+        }
+    }
+}
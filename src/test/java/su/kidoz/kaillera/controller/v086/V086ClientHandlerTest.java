@@ -7,6 +7,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import su.kidoz.kaillera.controller.v086.protocol.V086BundleReader;
+
 /**
  * Unit tests for V086ClientHandler - per-client session handler.
  *
@@ -83,14 +85,11 @@ class V086ClientHandlerTest {
         }
 
         /**
-         * Simulates the message number comparison logic from V086ClientHandler. This
-         * determines if a candidate message number is newer than the last received.
+         * The message number comparison used by V086ClientHandler. This determines
+         * if a candidate message number is newer than the last received.
          */
         private boolean isNewerMessage(int candidate, int last) {
-            if (last < 0)
-                return true;
-            int diff = (candidate - last) & 0xFFFF;
-            return diff > 0 && diff < 0x8000;
+            return V086BundleReader.isNewerMessage(candidate, last);
         }
     }
 
@@ -0,0 +1,150 @@
+package su.kidoz.kaillera.controller.v086.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import su.kidoz.kaillera.controller.messaging.ParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for V086BundleReader - the allocation-free inbound bundle reader.
+ */
+@DisplayName("V086BundleReader Tests")
+class V086BundleReaderTest {
+
+    private V086BundleReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new V086BundleReader();
+    }
+
+    /**
+     * Writes a bundle the way a client does: newest message first.
+     */
+    private static ByteBuffer bundle(V086Message... messages) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+        new V086Bundle(messages).writeTo(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    @Nested
+    @DisplayName("Header Scanning")
+    class HeaderScanning {
+
+        @Test
+        @DisplayName("should record number, ID and body of each message")
+        void shouldScanHeaders() throws Exception {
+            ByteBuffer buffer = bundle(new GameData(3, new byte[]{1, 2, 3}),
+                    new CachedGameData(2, 7), new KeepAlive(1, (short) 0));
+
+            assertEquals(3, reader.read(buffer, -1));
+
+            assertEquals(3, reader.getMessageNumber(0));
+            assertEquals(GameData.ID, reader.getMessageID(0));
+            assertEquals(2, reader.getMessageNumber(1));
+            assertEquals(CachedGameData.ID, reader.getMessageID(1));
+            assertEquals(1, reader.getMessageNumber(2));
+            assertEquals(KeepAlive.ID, reader.getMessageID(2));
+        }
+
+        @Test
+        @DisplayName("should stop at the first message already seen")
+        void shouldStopAtSeenMessage() throws Exception {
+            ByteBuffer buffer = bundle(new KeepAlive(12, (short) 0),
+                    new KeepAlive(11, (short) 0), new KeepAlive(10, (short) 0));
+
+            assertEquals(1, reader.read(buffer, 11));
+            assertEquals(12, reader.getMessageNumber(0));
+        }
+
+        @Test
+        @DisplayName("should treat message numbers across the 16-bit wrap as newer")
+        void shouldHandleWrap() throws Exception {
+            ByteBuffer buffer = bundle(new KeepAlive(1, (short) 0),
+                    new KeepAlive(0, (short) 0), new KeepAlive(0xFFFF, (short) 0),
+                    new KeepAlive(0xFFFE, (short) 0));
+
+            assertEquals(3, reader.read(buffer, 0xFFFE));
+            assertEquals(0xFFFF, reader.getMessageNumber(2));
+        }
+
+        @Test
+        @DisplayName("should reject a message length past the end of the buffer")
+        void shouldRejectBadLength() {
+            ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put((byte) 1);
+            buffer.putShort((short) 1);
+            buffer.putShort((short) 100);
+            buffer.put(KeepAlive.ID);
+            buffer.put((byte) 0);
+            buffer.flip();
+
+            assertThrows(ParseException.class, () -> reader.read(buffer, -1));
+        }
+
+        @Test
+        @DisplayName("should reject an invalid message count")
+        void shouldRejectBadCount() {
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            buffer.put((byte) 33);
+            buffer.position(16);
+            buffer.flip();
+
+            assertThrows(V086BundleFormatException.class, () -> reader.read(buffer, -1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Message Access")
+    class MessageAccess {
+
+        @Test
+        @DisplayName("should expose the body as a view over the receive buffer")
+        void shouldExposeBody() throws Exception {
+            ByteBuffer buffer = bundle(new CachedGameData(2, 7),
+                    new GameData(1, new byte[]{4, 5, 6}));
+            reader.read(buffer, -1);
+
+            ByteBuffer gameDataBody = reader.getBody(1);
+            assertEquals(6, gameDataBody.remaining());
+            assertArrayEquals(new byte[]{4, 5, 6}, GameData.parseGameData(gameDataBody));
+
+            assertEquals(7, CachedGameData.parseKey(reader.getBody(0)));
+        }
+
+        @Test
+        @DisplayName("should materialize messages in any order")
+        void shouldMaterialize() throws Exception {
+            ByteBuffer buffer = bundle(new Chat_Request(2, "hello"),
+                    new GameData(1, new byte[]{9}));
+            reader.read(buffer, -1);
+
+            GameData gameData = assertInstanceOf(GameData.class, reader.materialize(1));
+            assertArrayEquals(new byte[]{9}, gameData.getGameData());
+
+            Chat_Request chat = assertInstanceOf(Chat_Request.class, reader.materialize(0));
+            assertEquals(2, chat.getNumber());
+            assertEquals("hello", chat.getMessage());
+        }
+
+        @Test
+        @DisplayName("should reuse its state between bundles")
+        void shouldReuseState() throws Exception {
+            reader.read(bundle(new KeepAlive(2, (short) 0), new KeepAlive(1, (short) 0)), -1);
+            assertEquals(1, reader.read(bundle(new KeepAlive(3, (short) 0)), 2));
+
+            assertEquals(1, reader.getNumMessages());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.getMessageNumber(1));
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package su.kidoz.kaillera.load;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closed-loop load generator for a running server.
+ *
+ * <p>
+ * Each simulated client is a {@link UdpKailleraClient} on its own virtual
+ * thread. It connects, logs in, then follows its {@link LoadScenario}: idle in
+ * the lobby, chat, or play. Players of a game create, join and start it
+ * together, then send input at 60 frames per second, bundled by connection
+ * type. A player sends its next packet only after the server's response to
+ * the last one, like an emulator does, so a slow server lowers the frame rate
+ * instead of building a backlog.
+ *
+ * <p>
+ * Clients start along the ramp of the {@link LoadProfile} and run until the
+ * end of the run. Connect, login and frame round-trip latencies are reported
+ * as HdrHistogram percentiles, with timeouts, desynchs and drops.
+ *
+ * <p>
+ * With {@code --impair-up} and {@code --impair-down}, every session runs
+ * through a seeded {@link su.kidoz.net.NetworkImpairment}, and the report
+ * shows how many messages bundle redundancy and resends recovered.
+ *
+ * <p>
+ * The server must allow enough users and multiple connections per address
+ * ({@code server.max-users}, {@code server.allow-multiple-connections}). HELLO
+ * messages are rate limited per address, so larger runs against a loopback
+ * server should spread clients over several source addresses with
+ * {@code --sources}, or raise {@code controllers.connect.hello-rate-per-address}.
+ *
+ * <p>
+ * Run with: {@code ./gradlew loadGenerator -PloadArgs="--clients=500 --ramp-seconds=60"}
+ */
+public final class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final String ROM_NAME = "Street Fighter II' - Champion Edition (World 920313)";
+    private static final String CLIENT_TYPE = "MAME32k 0.64 (Feb  1 2003)";
+    private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final long LAUNCH_INTERVAL_MS = 10;
+    // Longest run of frames a player holds the same input for
+    private static final int MAX_HOLD_FRAMES = 20;
+
+    private final LoadProfile profile;
+    private final LoadGeneratorMetrics metrics = new LoadGeneratorMetrics();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Times the delays of impaired sessions
+    private final ScheduledExecutorService impairmentScheduler;
+    private volatile long endNanos;
+
+    LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+        if (profile.impairUp.isNone() && profile.impairDown.isNone()) {
+            impairmentScheduler = null;
+        } else {
+            impairmentScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "load-impairment");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile;
+        try {
+            profile = LoadProfile.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.print(LoadProfile.USAGE);
+            throw e;
+        }
+
+        new LoadGenerator(profile).run();
+    }
+
+    void run() throws InterruptedException, IOException {
+        List<LoadScenario> order = profile.launchOrder();
+        System.out.println("=== Kaillera Load Generator ===");
+        System.out.println("Server: " + profile.host + ":" + profile.port);
+        System.out.println(
+                "Ramp: " + profile.ramp + ", duration " + profile.durationSeconds + " s");
+        System.out.println("Mix: " + profile.mix + ", " + profile.playersPerGame
+                + " players per game, connection type " + profile.connectionType);
+        if (impairmentScheduler != null) {
+            System.out.println("Impairment: up " + profile.impairUp + ", down "
+                    + profile.impairDown);
+        }
+        System.out.println();
+
+        long startNanos = System.nanoTime();
+        endNanos = startNanos + TimeUnit.SECONDS.toNanos(profile.durationSeconds);
+        long reportNanos = TimeUnit.SECONDS.toNanos(profile.reportSeconds);
+        long nextReport = startNanos + reportNanos;
+        int launched = 0;
+        int next = 0;
+
+        long now = startNanos;
+        while (now < endNanos) {
+            int target = profile.clientsAt((now - startNanos) / 1e9);
+            while (next < order.size() && launched < target) {
+                launched += launch(order.get(next++), launched);
+            }
+
+            if (now >= nextReport) {
+                System.out.println(metrics.intervalLine(target));
+                nextReport += reportNanos;
+            }
+
+            Thread.sleep(LAUNCH_INTERVAL_MS);
+            now = System.nanoTime();
+        }
+
+        // Clients quit on their own at the end of the run
+        executor.shutdown();
+        long graceMs = profile.loginTimeoutMs + profile.frameTimeoutMs;
+        if (!executor.awaitTermination(graceMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Clients still running after {} ms, interrupting", graceMs);
+            executor.shutdownNow();
+        }
+        if (impairmentScheduler != null) {
+            impairmentScheduler.shutdownNow();
+        }
+
+        System.out.println(metrics.report());
+        if (profile.hgrmDir != null) {
+            Path dir = Path.of(profile.hgrmDir);
+            metrics.writeHistograms(dir);
+            System.out.println("Histograms written to " + dir.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Starts the clients of one scenario unit and returns how many it started.
+     */
+    private int launch(LoadScenario scenario, int firstIndex) {
+        if (scenario != LoadScenario.GAME) {
+            executor.execute(() -> session(firstIndex, scenario, null, false));
+            return 1;
+        }
+
+        CompletableFuture<Integer> gameID = new CompletableFuture<>();
+        for (int i = 0; i < profile.playersPerGame; i++) {
+            int index = firstIndex + i;
+            boolean owner = i == 0;
+            executor.execute(() -> session(index, scenario, gameID, owner));
+        }
+        return profile.playersPerGame;
+    }
+
+    /**
+     * Runs one client from connect to quit.
+     *
+     * @param gameID
+     *            completed by the game owner with the ID of the game, or -1 if
+     *            it could not be created
+     */
+    private void session(int index, LoadScenario scenario, CompletableFuture<Integer> gameID,
+            boolean owner) {
+        metrics.started.increment();
+        metrics.running.incrementAndGet();
+        UdpKailleraClient client = null;
+        try {
+            client = new UdpKailleraClient(profile.host, profile.port, "Load" + index,
+                    CLIENT_TYPE, profile.connectionType, sourceAddress(index));
+            if (impairmentScheduler != null) {
+                client.setImpairment(profile.impairUp, profile.impairDown, profile.seed + index,
+                        impairmentScheduler);
+            }
+
+            long start = System.nanoTime();
+            if (!client.connect(profile.loginTimeoutMs)) {
+                metrics.connectFailures.increment();
+                return;
+            }
+            metrics.recordConnect(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            if (!client.login(profile.loginTimeoutMs)) {
+                if (client.isRejected()) {
+                    metrics.loginRejections.increment();
+                } else {
+                    metrics.loginFailures.increment();
+                }
+                return;
+            }
+            metrics.recordLogin(System.nanoTime() - start);
+
+            switch (scenario) {
+                case IDLE -> idle(client);
+                case CHAT -> chat(client);
+                case GAME -> game(client, gameID, owner, index);
+                default -> throw new IllegalStateException("Unknown scenario: " + scenario);
+            }
+        } catch (IOException | MessageFormatException e) {
+            metrics.errors.increment();
+            log.debug("Client {} failed: {}", index, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (gameID != null && owner) {
+                // Lets the other players give up if the game was never created
+                gameID.complete(-1);
+            }
+            if (client != null) {
+                metrics.addClientCounters(client);
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    log.debug("Client {} failed to close: {}", index, e.getMessage());
+                }
+            }
+            metrics.running.decrementAndGet();
+        }
+    }
+
+    private void idle(UdpKailleraClient client) throws IOException, MessageFormatException {
+        while (remainingMs() > 0) {
+            client.receiveAndProcess(remainingMs());
+        }
+    }
+
+    private void chat(UdpKailleraClient client) throws IOException, MessageFormatException {
+        long nextChat = System.nanoTime();
+        int count = 0;
+        while (remainingMs() > 0) {
+            if (System.nanoTime() >= nextChat) {
+                client.chat("load test message " + (++count));
+                metrics.chats.increment();
+                nextChat += TimeUnit.MILLISECONDS.toNanos(profile.chatIntervalMs);
+            }
+            long waitMs = Math.min(remainingMs(),
+                    TimeUnit.NANOSECONDS.toMillis(nextChat - System.nanoTime()));
+            client.receiveAndProcess(Math.max(1, waitMs));
+        }
+    }
+
+    private void game(UdpKailleraClient client, CompletableFuture<Integer> gameID, boolean owner,
+            int index) throws IOException, MessageFormatException, InterruptedException {
+        if (!setUpGame(client, gameID, owner)) {
+            metrics.gameSetupFailures.increment();
+            return;
+        }
+
+        metrics.inGame.incrementAndGet();
+        if (owner) {
+            metrics.gamesStarted.increment();
+        }
+        try {
+            play(client, new Random(profile.seed + index));
+        } finally {
+            metrics.inGame.decrementAndGet();
+            client.quitGame();
+        }
+    }
+
+    private boolean setUpGame(UdpKailleraClient client, CompletableFuture<Integer> gameID,
+            boolean owner) throws IOException, MessageFormatException, InterruptedException {
+        long timeoutMs = profile.loginTimeoutMs;
+        if (owner) {
+            int id = client.createGame(ROM_NAME, timeoutMs);
+            gameID.complete(id);
+            if (id < 0 || !client.awaitPlayers(profile.playersPerGame, timeoutMs)) {
+                return false;
+            }
+            client.startGame();
+        } else {
+            int id;
+            try {
+                // The other players may still be logging in
+                id = gameID.get(timeoutMs * 2, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                return false;
+            }
+            if (id < 0 || !client.joinGame(id, timeoutMs)) {
+                return false;
+            }
+        }
+        return client.awaitStartAndReady(timeoutMs);
+    }
+
+    /**
+     * Exchanges input with the server until the end of the run. Input is held
+     * for a random number of frames, the way buttons are, which gives the game
+     * data caches realistic hits.
+     */
+    private void play(UdpKailleraClient client, Random random)
+            throws IOException, MessageFormatException {
+        int actions = profile.connectionType;
+        int bytesPerAction = profile.bytesPerAction;
+        byte[][] inputs = new byte[profile.inputStates][bytesPerAction];
+        for (byte[] input : inputs) {
+            random.nextBytes(input);
+        }
+
+        byte[] held = inputs[0];
+        int holdFrames = 0;
+        long packetNanos = FRAME_NANOS * actions;
+        long nextPacket = System.nanoTime();
+        int consecutiveTimeouts = 0;
+
+        while (System.nanoTime() < endNanos) {
+            // The client cache keeps the array, so every packet gets its own
+            byte[] packet = new byte[actions * bytesPerAction];
+            for (int i = 0; i < actions; i++) {
+                if (holdFrames-- <= 0) {
+                    held = inputs[random.nextInt(inputs.length)];
+                    holdFrames = random.nextInt(MAX_HOLD_FRAMES);
+                }
+                System.arraycopy(held, 0, packet, i * bytesPerAction, bytesPerAction);
+            }
+
+            long sent = System.nanoTime();
+            client.sendGameData(packet);
+            while (!client.awaitGameData(profile.frameTimeoutMs)) {
+                if (System.nanoTime() >= endNanos) {
+                    // The other players have quit at the end of the run
+                    return;
+                }
+                if (client.isGameClosed()) {
+                    metrics.gamesAbandoned.increment();
+                    return;
+                }
+                metrics.frameTimeouts.increment();
+                if (++consecutiveTimeouts >= profile.maxFrameTimeouts) {
+                    metrics.gamesAbandoned.increment();
+                    return;
+                }
+            }
+            long received = System.nanoTime();
+            metrics.recordFrame(received - sent);
+            consecutiveTimeouts = 0;
+
+            // Emulators run the next frames as soon as input arrives, but never faster
+            // than real time
+            nextPacket = Math.max(nextPacket + packetNanos, received);
+            LockSupport.parkNanos(nextPacket - received);
+        }
+    }
+
+    private long remainingMs() {
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - System.nanoTime());
+    }
+
+    /**
+     * Returns the loopback address to send from, spreading clients over
+     * 127.1.0.1 onwards when more than one source is configured.
+     */
+    private InetAddress sourceAddress(int index) throws UnknownHostException {
+        if (profile.sources <= 1) {
+            return null;
+        }
+        int source = index % profile.sources;
+        return InetAddress.getByAddress(
+                new byte[]{127, 1, (byte) (source / 250), (byte) (source % 250 + 1)});
+    }
+}
@@ -0,0 +1,233 @@
+package su.kidoz.kaillera.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import su.kidoz.net.ImpairedLink;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histograms and counters for {@link LoadGenerator}.
+ *
+ * <p>
+ * Latencies are recorded in microseconds into HdrHistogram {@link Recorder}s,
+ * which client threads write to without locking. Each progress line drains the
+ * recorders into a per-interval histogram and adds it to the run totals, so
+ * the final report and the {@code .hgrm} files cover the whole run.
+ */
+final class LoadGeneratorMetrics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LatencyHistogram connect = new LatencyHistogram("connect");
+    private final LatencyHistogram login = new LatencyHistogram("login");
+    private final LatencyHistogram frame = new LatencyHistogram("frame-rtt");
+
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger inGame = new AtomicInteger();
+
+    final LongAdder started = new LongAdder();
+    final LongAdder connectFailures = new LongAdder();
+    final LongAdder loginFailures = new LongAdder();
+    final LongAdder loginRejections = new LongAdder();
+    final LongAdder chats = new LongAdder();
+    final LongAdder gamesStarted = new LongAdder();
+    final LongAdder gameSetupFailures = new LongAdder();
+    final LongAdder gamesAbandoned = new LongAdder();
+    final LongAdder frameTimeouts = new LongAdder();
+    final LongAdder cachedSent = new LongAdder();
+    final LongAdder cachedReceived = new LongAdder();
+    final LongAdder desynchs = new LongAdder();
+    final LongAdder drops = new LongAdder();
+    final LongAdder protocolErrors = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder resends = new LongAdder();
+    final LongAdder recoveredByRedundancy = new LongAdder();
+    final LongAdder recoveredByResend = new LongAdder();
+    final LongAdder lostMessages = new LongAdder();
+    final LongAdder packetsUp = new LongAdder();
+    final LongAdder droppedUp = new LongAdder();
+    final LongAdder packetsDown = new LongAdder();
+    final LongAdder droppedDown = new LongAdder();
+
+    private final long startNanos = System.nanoTime();
+    private long lastFrames;
+    private long lastReportNanos = startNanos;
+
+    void recordConnect(long nanos) {
+        connect.record(nanos);
+    }
+
+    void recordLogin(long nanos) {
+        login.record(nanos);
+    }
+
+    void recordFrame(long nanos) {
+        frame.record(nanos);
+    }
+
+    /**
+     * Adds the protocol counters of a finished client.
+     */
+    void addClientCounters(UdpKailleraClient client) {
+        cachedSent.add(client.getCachedGameDataSent());
+        cachedReceived.add(client.getCachedGameDataReceived());
+        desynchs.add(client.getDesynchs());
+        drops.add(client.getDrops());
+        protocolErrors.add(client.getProtocolErrors());
+        resends.add(client.getResends());
+        recoveredByRedundancy.add(client.getRecoveredByRedundancy());
+        recoveredByResend.add(client.getRecoveredByResend());
+        lostMessages.add(client.getLostMessages());
+        ImpairedLink up = client.getUpstreamLink();
+        if (up != null) {
+            packetsUp.add(up.getPackets());
+            droppedUp.add(up.getDropped());
+        }
+        ImpairedLink down = client.getDownstreamLink();
+        if (down != null) {
+            packetsDown.add(down.getPackets());
+            droppedDown.add(down.getDropped());
+        }
+    }
+
+    /**
+     * Drains the recorders and returns a one-line summary of the last interval.
+     */
+    String intervalLine(int target) {
+        long now = System.nanoTime();
+        connect.drain();
+        login.drain();
+        Histogram frames = frame.drain();
+
+        double seconds = (now - lastReportNanos) / 1e9;
+        long totalFrames = frame.total.getTotalCount();
+        double frameRate = (totalFrames - lastFrames) / seconds;
+        lastFrames = totalFrames;
+        lastReportNanos = now;
+
+        return String.format(
+                "%6.0fs clients=%d/%d in-game=%d frames/s=%.0f"
+                        + " rtt-ms p50=%.2f p99=%.2f max=%.2f timeouts=%d desynchs=%d",
+                (now - startNanos) / 1e9, running.get(), target, inGame.get(), frameRate,
+                millis(frames.getValueAtPercentile(50)), millis(frames.getValueAtPercentile(99)),
+                millis(frames.getMaxValue()), frameTimeouts.sum(), desynchs.sum());
+    }
+
+    /**
+     * Returns the report for the whole run.
+     */
+    String report() {
+        connect.drain();
+        login.drain();
+        frame.drain();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n=== Load Generator Results ===\n");
+        sb.append(String.format("Duration: %d s%n",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos)));
+        sb.append(String.format("Clients started: %d%n", started.sum()));
+
+        sb.append("\n--- Latency (ms) ---\n");
+        sb.append(String.format("%-10s %9s %8s %8s %8s %8s %8s %8s%n", "", "Count", "p50", "p90",
+                "p99", "p99.9", "p99.99", "Max"));
+        for (LatencyHistogram histogram : new LatencyHistogram[]{connect, login, frame}) {
+            Histogram h = histogram.total;
+            sb.append(String.format("%-10s %9d %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                    histogram.name, h.getTotalCount(), millis(h.getValueAtPercentile(50)),
+                    millis(h.getValueAtPercentile(90)), millis(h.getValueAtPercentile(99)),
+                    millis(h.getValueAtPercentile(99.9)), millis(h.getValueAtPercentile(99.99)),
+                    millis(h.getMaxValue())));
+        }
+
+        long frames = frame.total.getTotalCount();
+        sb.append("\n--- Counters ---\n");
+        appendCounter(sb, "Connect failures", connectFailures.sum());
+        appendCounter(sb, "Login failures", loginFailures.sum());
+        appendCounter(sb, "Login rejections", loginRejections.sum());
+        appendCounter(sb, "Chat messages", chats.sum());
+        appendCounter(sb, "Games started", gamesStarted.sum());
+        appendCounter(sb, "Game setup failures", gameSetupFailures.sum());
+        appendCounter(sb, "Games abandoned", gamesAbandoned.sum());
+        appendCounter(sb, "Frames", frames);
+        appendCounter(sb, "Frame timeouts", frameTimeouts.sum());
+        appendCounter(sb, "Desynchs", desynchs.sum());
+        appendCounter(sb, "Player drops", drops.sum());
+        appendCounter(sb, "Protocol errors", protocolErrors.sum());
+        appendCounter(sb, "Client errors", errors.sum());
+        if (frames > 0) {
+            sb.append(String.format("%-20s: %.1f%% sent, %.1f%% received%n", "Cached game data",
+                    cachedSent.sum() * 100.0 / frames, cachedReceived.sum() * 100.0 / frames));
+        }
+
+        sb.append("\n--- Recovery of server messages ---\n");
+        if (packetsUp.sum() > 0) {
+            sb.append(String.format("%-20s: %d of %d packets%n", "Dropped upstream",
+                    droppedUp.sum(), packetsUp.sum()));
+        }
+        if (packetsDown.sum() > 0) {
+            sb.append(String.format("%-20s: %d of %d packets%n", "Dropped downstream",
+                    droppedDown.sum(), packetsDown.sum()));
+        }
+        appendCounter(sb, "Resends requested", resends.sum());
+        appendCounter(sb, "By redundancy", recoveredByRedundancy.sum());
+        appendCounter(sb, "By resend", recoveredByResend.sum());
+        appendCounter(sb, "Lost", lostMessages.sum());
+        return sb.toString();
+    }
+
+    /**
+     * Writes the run's percentile distributions, one {@code .hgrm} file per
+     * latency, in milliseconds.
+     */
+    void writeHistograms(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (LatencyHistogram histogram : new LatencyHistogram[]{connect, login, frame}) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(dir.resolve(histogram.name + ".hgrm")), false,
+                    StandardCharsets.UTF_8)) {
+                histogram.total.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void appendCounter(StringBuilder sb, String name, long value) {
+        sb.append(String.format("%-20s: %d%n", name, value));
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    /**
+     * A recorder for client threads and the run total it is drained into.
+     */
+    private static final class LatencyHistogram {
+        private final String name;
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        private LatencyHistogram(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        private Histogram drain() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return interval;
+        }
+    }
+}
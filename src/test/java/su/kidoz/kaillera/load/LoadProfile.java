@@ -0,0 +1,264 @@
+package su.kidoz.kaillera.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import su.kidoz.net.NetworkImpairment;
+
+/**
+ * Options for {@link LoadGenerator}: where to connect, how many clients to
+ * start and when, what they do and how they report.
+ *
+ * <p>
+ * Options are given as {@code --name=value}. The ramp is a list of
+ * {@code seconds:clients} points, and the number of running clients follows
+ * straight lines between them. The scenario mix is a list of
+ * {@code scenario:weight} pairs, for example {@code idle:20,chat:30,game:50}.
+ * Network impairments are {@link NetworkImpairment} specifications.
+ */
+final class LoadProfile {
+
+    static final String USAGE = """
+            Usage: LoadGenerator [--name=value ...]
+              --host=localhost          server address
+              --port=27888              server connect port
+              --clients=100             clients to start, when --ramp is not given
+              --ramp-seconds=30         time to start them over, when --ramp is not given
+              --ramp=0:0,30:100         seconds:clients points of the ramp
+              --duration=90             total run time in seconds
+              --mix=idle:20,chat:30,game:50
+                                        scenario:weight pairs
+              --players=2               players per game
+              --connection-type=1       1 (LAN, 60 packets/s) to 6 (Bad, 10 packets/s)
+              --bytes-per-action=2      input bytes per player per frame
+              --input-states=16         distinct inputs a player cycles through
+              --chat-interval-ms=5000   time between lobby chat messages
+              --login-timeout-ms=5000   timeout for connect, login and game setup
+              --frame-timeout-ms=1000   timeout for one game data response
+              --max-frame-timeouts=5    consecutive timeouts before leaving a game
+              --sources=1               loopback addresses to spread clients over
+              --impair-up=              network impairment of packets to the server,
+                                        for example loss=0.02,latency=40,jitter=10
+              --impair-down=            network impairment of packets from the server
+              --report-seconds=5        time between progress lines
+              --hgrm-dir=               directory for .hgrm histogram files
+              --seed=1                  random seed for the mix and player input
+            """;
+
+    /** A point of the ramp: the number of clients running at a given time. */
+    record RampPoint(double seconds, int clients) {
+    }
+
+    final String host;
+    final int port;
+    final List<RampPoint> ramp;
+    final int durationSeconds;
+    final Map<LoadScenario, Integer> mix;
+    final int playersPerGame;
+    final byte connectionType;
+    final int bytesPerAction;
+    final int inputStates;
+    final long chatIntervalMs;
+    final long loginTimeoutMs;
+    final long frameTimeoutMs;
+    final int maxFrameTimeouts;
+    final int sources;
+    final NetworkImpairment impairUp;
+    final NetworkImpairment impairDown;
+    final int reportSeconds;
+    final String hgrmDir;
+    final long seed;
+
+    private LoadProfile(Map<String, String> options) {
+        host = options.getOrDefault("host", "localhost");
+        port = intOption(options, "port", 27888, 1);
+        if (options.containsKey("ramp")) {
+            ramp = parseRamp(options.get("ramp"));
+        } else {
+            int clients = intOption(options, "clients", 100, 1);
+            int rampSeconds = intOption(options, "ramp-seconds", 30, 0);
+            ramp = List.of(new RampPoint(0, 0), new RampPoint(rampSeconds, clients));
+        }
+        double rampEnd = ramp.getLast().seconds();
+        durationSeconds = intOption(options, "duration", (int) Math.ceil(rampEnd) + 60, 1);
+        mix = parseMix(options.getOrDefault("mix", "idle:20,chat:30,game:50"));
+        playersPerGame = intOption(options, "players", 2, 1);
+        connectionType = (byte) intOption(options, "connection-type", 1, 1);
+        if (connectionType > UdpKailleraClient.CONNECTION_BAD) {
+            throw new IllegalArgumentException("--connection-type must be 1 to 6");
+        }
+        bytesPerAction = intOption(options, "bytes-per-action", 2, 1);
+        inputStates = intOption(options, "input-states", 16, 1);
+        chatIntervalMs = intOption(options, "chat-interval-ms", 5000, 1);
+        loginTimeoutMs = intOption(options, "login-timeout-ms", 5000, 1);
+        frameTimeoutMs = intOption(options, "frame-timeout-ms", 1000, 1);
+        maxFrameTimeouts = intOption(options, "max-frame-timeouts", 5, 1);
+        sources = intOption(options, "sources", 1, 1);
+        impairUp = NetworkImpairment.parse(options.get("impair-up"));
+        impairDown = NetworkImpairment.parse(options.get("impair-down"));
+        reportSeconds = intOption(options, "report-seconds", 5, 1);
+        hgrmDir = options.get("hgrm-dir");
+        seed = Long.parseLong(options.getOrDefault("seed", "1"));
+    }
+
+    /**
+     * Parses command line arguments.
+     *
+     * @throws IllegalArgumentException
+     *             if an argument is malformed or unknown
+     */
+    static LoadProfile parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            if (!USAGE.contains("--" + name + "=")) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            String value = arg.substring(eq + 1);
+            if (!value.isEmpty()) {
+                options.put(name, value);
+            }
+        }
+        return new LoadProfile(options);
+    }
+
+    /** Returns the largest number of clients the ramp reaches. */
+    int maxClients() {
+        int max = 0;
+        for (RampPoint point : ramp) {
+            max = Math.max(max, point.clients());
+        }
+        return max;
+    }
+
+    /** Returns the number of clients that should be running at a given time. */
+    int clientsAt(double seconds) {
+        RampPoint previous = ramp.getFirst();
+        if (seconds <= previous.seconds()) {
+            return previous.clients();
+        }
+        for (RampPoint point : ramp) {
+            if (seconds < point.seconds()) {
+                double fraction = (seconds - previous.seconds())
+                        / (point.seconds() - previous.seconds());
+                return previous.clients()
+                        + (int) (fraction * (point.clients() - previous.clients()));
+            }
+            previous = point;
+        }
+        return previous.clients();
+    }
+
+    /**
+     * Splits the largest client count between the scenarios by weight, then
+     * returns the order the scenarios start in. Game clients are rounded down
+     * to whole games and each game appears once, for all of its players.
+     */
+    List<LoadScenario> launchOrder() {
+        int total = maxClients();
+        int weightSum = 0;
+        for (int weight : mix.values()) {
+            weightSum += weight;
+        }
+
+        Map<LoadScenario, Integer> counts = new EnumMap<>(LoadScenario.class);
+        int assigned = 0;
+        for (Map.Entry<LoadScenario, Integer> entry : mix.entrySet()) {
+            int count = (int) ((long) total * entry.getValue() / weightSum);
+            if (entry.getKey() == LoadScenario.GAME) {
+                count -= count % playersPerGame;
+            }
+            counts.put(entry.getKey(), count);
+            assigned += count;
+        }
+
+        // Rounding leftovers go to the first scenario that takes single clients
+        for (LoadScenario scenario : mix.keySet()) {
+            if (scenario != LoadScenario.GAME) {
+                counts.merge(scenario, total - assigned, Integer::sum);
+                break;
+            }
+        }
+
+        List<LoadScenario> order = new ArrayList<>();
+        counts.forEach((scenario, count) -> {
+            int units = scenario == LoadScenario.GAME ? count / playersPerGame : count;
+            order.addAll(Collections.nCopies(units, scenario));
+        });
+        Collections.shuffle(order, new Random(seed));
+        return order;
+    }
+
+    private static List<RampPoint> parseRamp(String value) {
+        List<RampPoint> points = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected seconds:clients in --ramp: " + part);
+            }
+            RampPoint point = new RampPoint(Double.parseDouble(pair[0]),
+                    Integer.parseInt(pair[1]));
+            if (point.seconds() < 0 || point.clients() < 0) {
+                throw new IllegalArgumentException("Negative value in --ramp: " + part);
+            }
+            if (!points.isEmpty()) {
+                RampPoint last = points.getLast();
+                if (point.seconds() < last.seconds() || point.clients() < last.clients()) {
+                    throw new IllegalArgumentException(
+                            "--ramp must not go back in time or down in clients: " + part);
+                }
+            }
+            points.add(point);
+        }
+        if (points.isEmpty() || points.getLast().clients() == 0) {
+            throw new IllegalArgumentException("--ramp must reach at least one client");
+        }
+        return points;
+    }
+
+    private static Map<LoadScenario, Integer> parseMix(String value) {
+        Map<LoadScenario, Integer> mix = new EnumMap<>(LoadScenario.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected scenario:weight in --mix: " + part);
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in --mix: " + part);
+            }
+            if (weight > 0) {
+                mix.put(LoadScenario.of(pair[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix must give some scenario a weight");
+        }
+        return mix;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue,
+            int min) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed = Integer.parseInt(value);
+        if (parsed < min) {
+            throw new IllegalArgumentException("--" + name + " must be at least " + min);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,108 @@
+package su.kidoz.kaillera.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LoadProfile - the load generator's options.
+ */
+@DisplayName("LoadProfile Tests")
+class LoadProfileTest {
+
+    @Nested
+    @DisplayName("Ramp")
+    class Ramp {
+
+        @Test
+        @DisplayName("should ramp linearly to --clients over --ramp-seconds")
+        void shouldRampLinearly() {
+            LoadProfile profile = LoadProfile.parse(
+                    new String[]{"--clients=100", "--ramp-seconds=10"});
+
+            assertEquals(0, profile.clientsAt(0));
+            assertEquals(50, profile.clientsAt(5));
+            assertEquals(100, profile.clientsAt(10));
+            assertEquals(100, profile.clientsAt(60));
+            assertEquals(70, profile.durationSeconds);
+        }
+
+        @Test
+        @DisplayName("should follow every point of --ramp")
+        void shouldFollowRampPoints() {
+            LoadProfile profile = LoadProfile.parse(new String[]{"--ramp=0:10,10:10,20:30"});
+
+            assertEquals(10, profile.clientsAt(0));
+            assertEquals(10, profile.clientsAt(8));
+            assertEquals(20, profile.clientsAt(15));
+            assertEquals(30, profile.clientsAt(25));
+            assertEquals(30, profile.maxClients());
+        }
+
+        @Test
+        @DisplayName("should reject a ramp that goes down")
+        void shouldRejectDecreasingRamp() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> LoadProfile.parse(new String[]{"--ramp=0:10,10:5"}));
+        }
+    }
+
+    @Nested
+    @DisplayName("Scenario mix")
+    class Mix {
+
+        @Test
+        @DisplayName("should split clients by weight and start each game once")
+        void shouldSplitClientsByWeight() {
+            LoadProfile profile = LoadProfile.parse(new String[]{"--clients=10",
+                    "--mix=idle:1,chat:1,game:2", "--players=4"});
+
+            List<LoadScenario> order = profile.launchOrder();
+
+            // 5 game clients round down to one game, the rest idle
+            assertEquals(1, Collections.frequency(order, LoadScenario.GAME));
+            assertEquals(2, Collections.frequency(order, LoadScenario.CHAT));
+            assertEquals(4, Collections.frequency(order, LoadScenario.IDLE));
+        }
+
+        @Test
+        @DisplayName("should shuffle the same way for the same seed")
+        void shouldBeRepeatable() {
+            String[] args = {"--clients=50", "--seed=7"};
+
+            assertEquals(LoadProfile.parse(args).launchOrder(),
+                    LoadProfile.parse(args).launchOrder());
+        }
+    }
+
+    @Nested
+    @DisplayName("Arguments")
+    class Arguments {
+
+        @Test
+        @DisplayName("should reject unknown options")
+        void shouldRejectUnknownOption() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> LoadProfile.parse(new String[]{"--client=10"}));
+        }
+
+        @Test
+        @DisplayName("should reject arguments without a value")
+        void shouldRejectMissingValue() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> LoadProfile.parse(new String[]{"--clients"}));
+        }
+
+        @Test
+        @DisplayName("should reject connection types above Bad")
+        void shouldRejectConnectionType() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> LoadProfile.parse(new String[]{"--connection-type=7"}));
+        }
+    }
+}
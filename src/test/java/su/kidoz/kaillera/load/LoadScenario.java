@@ -0,0 +1,23 @@
+package su.kidoz.kaillera.load;
+
+import java.util.Locale;
+
+/**
+ * What a simulated client does once it is logged in.
+ */
+enum LoadScenario {
+    /** Stays in the lobby and answers keep-alives. */
+    IDLE,
+    /** Sends lobby chat at a fixed interval. */
+    CHAT,
+    /** Creates or joins a game and plays it at full frame rate. */
+    GAME;
+
+    static LoadScenario of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+    }
+}
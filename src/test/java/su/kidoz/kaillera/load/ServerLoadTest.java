@@ -17,6 +17,7 @@ import su.kidoz.config.ServerConfig;
 import su.kidoz.config.ServerConfigs;
 import su.kidoz.config.ServerInfrastructure;
 import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.access.AccessRulesListener;
 import su.kidoz.kaillera.metrics.ServerMetrics;
 import su.kidoz.kaillera.service.ServerPolicyServices;
 import su.kidoz.kaillera.model.KailleraGame;
@@ -99,7 +100,7 @@ class ServerLoadTest {
         ServerConfigs configs = new ServerConfigs(serverConfig, gameConfig, masterListConfig);
         ServerPolicyServices policyServices = new ServerPolicyServices(loginValidator,
                 chatModerationService, announcementService);
-        ServerMetrics serverMetrics = new ServerMetrics(new TestStatsCollector(), null);
+        ServerMetrics serverMetrics = new ServerMetrics(new TestStatsCollector(), null, null);
 
         server = new KailleraServerImpl(infrastructure, configs, policyServices, serverMetrics,
                 new AutoFireDetectorFactoryImpl(), userManager, gameManager);
@@ -632,6 +633,10 @@ class ServerLoadTest {
         public boolean clearTemp(InetAddress address) {
             return true;
         }
+
+        @Override
+        public void addAccessRulesListener(AccessRulesListener listener) {
+        }
     }
 
     private static final class TestStatsCollector implements StatsCollector {
@@ -640,12 +645,17 @@ class ServerLoadTest {
         }
 
         @Override
-        public List<String> getStartedGamesList() {
+        public void concurrencyChanged(int users, int games) {
+        }
+
+        @Override
+        public List<String> drainStartedGames() {
             return List.of();
         }
 
         @Override
-        public void clearStartedGamesList() {
+        public Snapshot getStats() {
+            return new Snapshot(null, null, 0);
         }
     }
 }
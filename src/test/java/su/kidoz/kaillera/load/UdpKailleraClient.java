@@ -2,14 +2,59 @@ package su.kidoz.kaillera.load;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.DatagramChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-
+import java.util.function.BooleanSupplier;
+
+import su.kidoz.kaillera.controller.messaging.MessageFormatException;
+import su.kidoz.kaillera.controller.messaging.ParseException;
+import su.kidoz.kaillera.controller.v086.protocol.AllReady;
+import su.kidoz.kaillera.controller.v086.protocol.CachedGameData;
+import su.kidoz.kaillera.controller.v086.protocol.Chat_Request;
+import su.kidoz.kaillera.controller.v086.protocol.ClientACK;
+import su.kidoz.kaillera.controller.v086.protocol.CloseGame;
+import su.kidoz.kaillera.controller.v086.protocol.ConnectionRejected;
+import su.kidoz.kaillera.controller.v086.protocol.CreateGame_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.CreateGame_Request;
+import su.kidoz.kaillera.controller.v086.protocol.GameChat_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.GameData;
+import su.kidoz.kaillera.controller.v086.protocol.JoinGame_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.JoinGame_Request;
+import su.kidoz.kaillera.controller.v086.protocol.KeepAlive;
+import su.kidoz.kaillera.controller.v086.protocol.PlayerDrop_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.PlayerInformation;
+import su.kidoz.kaillera.controller.v086.protocol.QuitGame_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.QuitGame_Request;
+import su.kidoz.kaillera.controller.v086.protocol.Quit_Request;
+import su.kidoz.kaillera.controller.v086.protocol.ServerACK;
+import su.kidoz.kaillera.controller.v086.protocol.StartGame_Notification;
+import su.kidoz.kaillera.controller.v086.protocol.StartGame_Request;
+import su.kidoz.kaillera.controller.v086.protocol.UserInformation;
+import su.kidoz.kaillera.controller.v086.protocol.UserJoined;
+import su.kidoz.kaillera.controller.v086.protocol.V086Bundle;
+import su.kidoz.kaillera.controller.v086.protocol.V086BundleFormatException;
+import su.kidoz.kaillera.controller.v086.protocol.V086Message;
+import su.kidoz.net.ImpairedLink;
+import su.kidoz.net.NetworkImpairment;
+import su.kidoz.util.ClientGameDataCache;
+import su.kidoz.util.EmuLang;
+import su.kidoz.util.GameDataCache;
+import su.kidoz.util.ServerGameDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,14 +62,34 @@ import org.slf4j.LoggerFactory;
  * Simple UDP-based Kaillera v0.86 client for load testing.
  *
  * <p>
- * This client implements the bare minimum of the Kaillera protocol to:
+ * This client implements enough of the Kaillera protocol to:
  * <ul>
  * <li>Connect to the server (HELLO handshake)</li>
- * <li>Login with user information</li>
+ * <li>Login with user information and answer the ACK speed test</li>
  * <li>Send chat messages</li>
+ * <li>Create, join and start games, and exchange game data</li>
  * <li>Respond to keep-alives</li>
  * <li>Quit gracefully</li>
  * </ul>
+ *
+ * <p>
+ * Messages are encoded and parsed with the server's own V086 protocol classes.
+ * Like a real client, each bundle repeats the last few messages sent, so a
+ * single lost packet does not stall the session.
+ *
+ * <p>
+ * Game data uses the same caches as the server: outgoing input already in the
+ * client cache is sent as {@link CachedGameData}, and incoming
+ * {@link CachedGameData} is resolved against the server cache mirror.
+ *
+ * <p>
+ * The session can run through a {@link NetworkImpairment} in each direction.
+ * Messages from the server are then counted as recovered by bundle
+ * redundancy, recovered by a resend, or lost.
+ *
+ * <p>
+ * A client is not thread-safe. Every blocking call pumps incoming messages on
+ * the calling thread until its condition is met or the timeout expires.
  */
 public final class UdpKailleraClient implements Closeable {
 
@@ -35,13 +100,17 @@ public final class UdpKailleraClient implements Closeable {
     private static final String HELLOD00D_PREFIX = "HELLOD00D";
     private static final String PROTOCOL_VERSION = "0.83";
 
-    // Message type IDs
-    private static final byte MSG_QUIT = 0x01;
-    private static final byte MSG_USER_INFO = 0x03;
-    private static final byte MSG_SERVER_ACK = 0x05;
-    private static final byte MSG_CLIENT_ACK = 0x06;
-    private static final byte MSG_CHAT = 0x07;
-    private static final byte MSG_KEEP_ALIVE = 0x09;
+    // Messages repeated in each outgoing bundle
+    private static final int SEND_HISTORY = 3;
+    private static final int GAME_DATA_CACHE_SIZE = 256;
+    // Silence while waiting for the server before resending
+    private static final long RESEND_INTERVAL_MS = 300;
+
+    // Game chat sender names the server uses to report a desynch
+    private static final String GAME_DESYNCH = EmuLang
+            .getString("GameDesynchEventRenderer.DesynchDetected");
+    private static final String PLAYER_DESYNCH = EmuLang
+            .getString("PlayerDesynchEventRenderer.DesynchDetected");
 
     // Connection types
     public static final byte CONNECTION_LAN = 1;
@@ -56,16 +125,58 @@ public final class UdpKailleraClient implements Closeable {
     private final String clientName;
     private final String clientType;
     private final byte connectionType;
+    private final InetAddress localAddress;
 
     private DatagramChannel channel;
     private InetSocketAddress serverAddress;
     private int assignedPort;
     private final AtomicInteger messageNumber = new AtomicInteger(0);
+    private int lastReceivedNumber = -1;
     private volatile boolean connected = false;
     private volatile boolean loggedIn = false;
-
-    private final ByteBuffer sendBuffer = ByteBuffer.allocate(2048);
-    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(2048);
+    private boolean rejected = false;
+
+    private final V086Message[] sendHistory = new V086Message[SEND_HISTORY];
+    private int sendCount;
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(2048)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] receiveBytes = new byte[2048];
+    private final DatagramPacket receivePacket = new DatagramPacket(receiveBytes,
+            receiveBytes.length);
+
+    // Network impairment of the session, set before connecting
+    private NetworkImpairment upstream = NetworkImpairment.NONE;
+    private NetworkImpairment downstream = NetworkImpairment.NONE;
+    private long impairmentSeed;
+    private ScheduledExecutorService impairmentScheduler;
+    private ImpairedLink upstreamLink;
+    private ImpairedLink downstreamLink;
+    private final BlockingQueue<ByteBuffer> delivered = new LinkedBlockingQueue<>();
+    private boolean resendRequested;
+
+    // Game state, updated as messages arrive
+    private int gameID = -1;
+    private final Set<String> gamePlayers = new HashSet<>();
+    private boolean gameClosed;
+    private int playerNumber;
+    private int numPlayers;
+    private boolean allReady;
+    private GameDataCache outgoingCache = new ClientGameDataCache(GAME_DATA_CACHE_SIZE);
+    private GameDataCache incomingCache = new ServerGameDataCache(GAME_DATA_CACHE_SIZE);
+    private long gameDataSent;
+    private long gameDataReceived;
+    private byte[] lastGameData;
+
+    // Counters for the load generator
+    private long cachedGameDataSent;
+    private long cachedGameDataReceived;
+    private long desynchs;
+    private long drops;
+    private long protocolErrors;
+    private long resends;
+    private long recoveredByRedundancy;
+    private long recoveredByResend;
+    private long lostMessages;
 
     public UdpKailleraClient(String serverHost, int connectPort, String clientName) {
         this(serverHost, connectPort, clientName, "LoadTestClient/1.0", CONNECTION_LAN);
@@ -73,11 +184,45 @@ public final class UdpKailleraClient implements Closeable {
 
     public UdpKailleraClient(String serverHost, int connectPort, String clientName,
             String clientType, byte connectionType) {
+        this(serverHost, connectPort, clientName, clientType, connectionType, null);
+    }
+
+    /**
+     * @param localAddress
+     *            address to send from, or null for the wildcard address
+     */
+    public UdpKailleraClient(String serverHost, int connectPort, String clientName,
+            String clientType, byte connectionType, InetAddress localAddress) {
         this.serverHost = serverHost;
         this.connectPort = connectPort;
         this.clientName = clientName;
         this.clientType = clientType;
         this.connectionType = connectionType;
+        this.localAddress = localAddress;
+    }
+
+    /**
+     * Passes the session's packets through network impairments. The HELLO
+     * handshake is not impaired.
+     *
+     * @param upstream
+     *            impairment of the packets this client sends
+     * @param downstream
+     *            impairment of the packets the server sends
+     * @param seed
+     *            seed for the random losses and delays
+     * @param scheduler
+     *            times the delays, and delivers the packets
+     */
+    public void setImpairment(NetworkImpairment upstream, NetworkImpairment downstream, long seed,
+            ScheduledExecutorService scheduler) {
+        if (channel != null) {
+            throw new IllegalStateException("Already connected");
+        }
+        this.upstream = upstream;
+        this.downstream = downstream;
+        this.impairmentSeed = seed;
+        this.impairmentScheduler = scheduler;
     }
 
     /**
@@ -89,14 +234,12 @@ public final class UdpKailleraClient implements Closeable {
      */
     public boolean connect(long timeoutMs) throws IOException {
         // Use IPv4 explicitly to avoid IPv6 issues
-        channel = DatagramChannel.open(java.net.StandardProtocolFamily.INET);
+        channel = DatagramChannel.open(StandardProtocolFamily.INET);
         channel.configureBlocking(true);
-        channel.socket().setSoTimeout((int) timeoutMs);
 
         // Bind to a local port so we can receive responses
-        channel.bind(null);
-        log.debug("{}: Bound to local port {}", clientName,
-                ((InetSocketAddress) channel.getLocalAddress()).getPort());
+        channel.bind(new InetSocketAddress(localAddress, 0));
+        log.debug("{}: Bound to {}", clientName, channel.getLocalAddress());
 
         // Send HELLO to connect port
         InetSocketAddress connectAddress = new InetSocketAddress(serverHost, connectPort);
@@ -109,27 +252,13 @@ public final class UdpKailleraClient implements Closeable {
         log.debug("{}: Sent HELLO to {}:{}", clientName, serverHost, connectPort);
 
         // Receive HELLOD00D with assigned port
-        receiveBuffer.clear();
-        java.net.SocketAddress responseAddr;
-        try {
-            responseAddr = channel.receive(receiveBuffer);
-        } catch (ClosedChannelException e) {
-            log.debug("{}: Channel closed during receive", clientName);
-            return false;
-        }
-        receiveBuffer.flip();
-
-        if (receiveBuffer.remaining() == 0) {
+        if (!receive(timeoutMs)) {
             log.error("{}: No response received (timeout)", clientName);
             return false;
         }
 
-        log.debug("{}: Received {} bytes from {}", clientName, receiveBuffer.remaining(),
-                responseAddr);
-
-        byte[] responseBytes = new byte[receiveBuffer.remaining()];
-        receiveBuffer.get(responseBytes);
-        String response = new String(responseBytes, StandardCharsets.US_ASCII);
+        String response = new String(receiveBytes, 0, receivePacket.getLength(),
+                StandardCharsets.US_ASCII);
 
         log.debug("{}: Response string: {}", clientName, response.replace("\0", "\\0"));
 
@@ -147,103 +276,174 @@ public final class UdpKailleraClient implements Closeable {
 
         serverAddress = new InetSocketAddress(serverHost, assignedPort);
         connected = true;
+        startImpairment();
 
         log.debug("{}: Connected, assigned port {}", clientName, assignedPort);
         return true;
     }
 
     /**
-     * Logs in to the server with user information.
+     * Logs in to the server with user information. Login is complete once the
+     * server announces this user in the lobby.
      *
      * @param timeoutMs
      *            timeout in milliseconds
      * @return true if login successful
      */
-    public boolean login(long timeoutMs) throws IOException {
+    public boolean login(long timeoutMs) throws IOException, MessageFormatException {
         if (!connected) {
             throw new IllegalStateException("Not connected");
         }
 
-        channel.socket().setSoTimeout((int) timeoutMs);
+        send(new UserInformation(nextMessageNumber(), clientName, clientType, connectionType));
+        log.debug("{}: Sent UserInformation", clientName);
 
-        // Send UserInformation message
-        sendUserInformation();
+        return await(() -> loggedIn || rejected, timeoutMs) && loggedIn;
+    }
 
-        // Wait for ServerACK
-        long deadline = System.currentTimeMillis() + timeoutMs;
-        while (System.currentTimeMillis() < deadline) {
-            if (receiveAndProcess()) {
-                if (loggedIn) {
-                    return true;
-                }
-            }
+    /**
+     * Sends a chat message.
+     */
+    public void chat(String message) throws IOException, MessageFormatException {
+        if (!loggedIn) {
+            throw new IllegalStateException("Not logged in");
         }
 
-        return loggedIn;
+        send(new Chat_Request(nextMessageNumber(), message));
     }
 
     /**
-     * Sends a chat message.
+     * Creates a game and waits for the server to announce it.
+     *
+     * @return the game ID, or -1 if the game was not created in time
      */
-    public void chat(String message) throws IOException {
+    public int createGame(String romName, long timeoutMs)
+            throws IOException, MessageFormatException {
         if (!loggedIn) {
             throw new IllegalStateException("Not logged in");
         }
 
-        sendBuffer.clear();
-        sendBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        resetGame();
+        send(new CreateGame_Request(nextMessageNumber(), romName));
+
+        if (!await(() -> gameID >= 0, timeoutMs)) {
+            return -1;
+        }
+        gamePlayers.add(clientName);
+        return gameID;
+    }
+
+    /**
+     * Joins a game and waits for the server to confirm it.
+     *
+     * @return true if this client joined the game
+     */
+    public boolean joinGame(int gameID, long timeoutMs) throws IOException, MessageFormatException {
+        if (!loggedIn) {
+            throw new IllegalStateException("Not logged in");
+        }
 
-        // Bundle header: 1 message
-        sendBuffer.put((byte) 1);
+        resetGame();
+        this.gameID = gameID;
+        send(new JoinGame_Request(nextMessageNumber(), gameID, connectionType));
 
-        // Message header
-        int msgNum = messageNumber.incrementAndGet() & 0xFFFF;
-        sendBuffer.putShort((short) msgNum);
+        return await(() -> gamePlayers.contains(clientName) || gameClosed, timeoutMs)
+                && !gameClosed;
+    }
 
-        // Message body: msgType(1) + username\0(1) + message\0
-        byte[] msgBytes = (message + "\0").getBytes(StandardCharsets.US_ASCII);
-        int bodyLength = 1 + 1 + msgBytes.length; // msgType + empty_username\0 + message\0
-        sendBuffer.putShort((short) bodyLength);
-        sendBuffer.put(MSG_CHAT);
-        sendBuffer.put((byte) 0x00); // empty username (server fills it in)
-        sendBuffer.put(msgBytes);
+    /**
+     * Waits until the current game has the given number of players.
+     */
+    public boolean awaitPlayers(int count, long timeoutMs)
+            throws IOException, MessageFormatException {
+        return await(() -> gamePlayers.size() >= count || gameClosed, timeoutMs) && !gameClosed;
+    }
 
-        sendBuffer.flip();
-        channel.send(sendBuffer, serverAddress);
+    /**
+     * Asks the server to start the current game. Only the owner may start it.
+     */
+    public void startGame() throws IOException, MessageFormatException {
+        send(new StartGame_Request(nextMessageNumber()));
+    }
+
+    /**
+     * Waits for the current game to start, then tells the server this client is
+     * ready and waits for all players to be ready.
+     *
+     * @return true if every player is ready to exchange game data
+     */
+    public boolean awaitStartAndReady(long timeoutMs) throws IOException, MessageFormatException {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        if (!await(() -> playerNumber > 0 || gameClosed, timeoutMs) || gameClosed) {
+            return false;
+        }
+
+        send(new AllReady(nextMessageNumber()));
+        long remainingMs = Math.max(1, (deadline - System.nanoTime()) / 1_000_000L);
+        return await(() -> allReady || gameClosed, remainingMs) && !gameClosed;
+    }
+
+    /**
+     * Sends one packet of input, as {@link CachedGameData} when the server
+     * already has it cached.
+     */
+    public void sendGameData(byte[] input) throws IOException, MessageFormatException {
+        int key = outgoingCache.indexOf(input);
+        if (key < 0) {
+            outgoingCache.add(input);
+            send(new GameData(nextMessageNumber(), input));
+        } else {
+            send(new CachedGameData(nextMessageNumber(), key));
+            cachedGameDataSent++;
+        }
+        gameDataSent++;
+    }
+
+    /**
+     * Waits for the server's response to every packet of input sent so far.
+     *
+     * @return true if all responses arrived in time
+     */
+    public boolean awaitGameData(long timeoutMs) throws IOException, MessageFormatException {
+        return await(() -> gameDataReceived >= gameDataSent || gameClosed, timeoutMs)
+                && !gameClosed;
+    }
+
+    /**
+     * Sends the last messages again without a new one, as emulators do when
+     * the server does not answer. A server that already has them resends its
+     * own last messages in return. Waiting calls resend on their own after
+     * {@value #RESEND_INTERVAL_MS} ms of silence.
+     */
+    public void resend() throws IOException {
+        if (sendCount == 0) {
+            return;
+        }
+        resendRequested = true;
+        resends++;
+        sendHistory();
+    }
+
+    /**
+     * Leaves the current game.
+     */
+    public void quitGame() throws IOException, MessageFormatException {
+        if (gameID >= 0 && connected) {
+            send(new QuitGame_Request(nextMessageNumber()));
+        }
+        resetGame();
     }
 
     /**
      * Sends a quit message and closes the connection.
      */
-    public void quit(String message) throws IOException {
+    public void quit(String message) throws IOException, MessageFormatException {
         if (!connected) {
             return;
         }
 
         try {
-            sendBuffer.clear();
-            sendBuffer.order(ByteOrder.LITTLE_ENDIAN);
-
-            // Bundle header: 1 message
-            sendBuffer.put((byte) 1);
-
-            // Message header
-            int msgNum = messageNumber.incrementAndGet() & 0xFFFF;
-            sendBuffer.putShort((short) msgNum);
-
-            // Message body: msgType(1) + userName\0(1) + userID(2) + message\0
-            byte[] msgBytes = (message + "\0").getBytes(StandardCharsets.US_ASCII);
-            int bodyLength = 1 + 1 + 2 + msgBytes.length; // msgType + empty_username\0 + userID +
-                                                          // message\0
-            sendBuffer.putShort((short) bodyLength);
-            sendBuffer.put(MSG_QUIT);
-            sendBuffer.put((byte) 0x00); // empty username
-            sendBuffer.putShort((short) 0xFFFF); // userID (0xFFFF = request)
-            sendBuffer.put(msgBytes);
-
-            sendBuffer.flip();
-            channel.send(sendBuffer, serverAddress);
-
+            send(new Quit_Request(nextMessageNumber(), message));
             log.debug("{}: Sent QUIT", clientName);
         } finally {
             connected = false;
@@ -252,151 +452,318 @@ public final class UdpKailleraClient implements Closeable {
     }
 
     /**
-     * Receives and processes incoming messages.
+     * Waits up to the given time for a packet and processes the messages in it.
      *
-     * @return true if a message was processed
+     * @return true if a packet was processed
      */
-    public boolean receiveAndProcess() throws IOException {
-        receiveBuffer.clear();
+    public boolean receiveAndProcess(long timeoutMs) throws IOException, MessageFormatException {
+        ByteBuffer buffer = receiveSession(timeoutMs);
+        if (buffer == null) {
+            return false;
+        }
+
+        V086Bundle bundle;
         try {
-            channel.receive(receiveBuffer);
-        } catch (java.net.SocketTimeoutException e) {
+            bundle = V086Bundle.parse(buffer, lastReceivedNumber);
+        } catch (ParseException | V086BundleFormatException | MessageFormatException e) {
+            protocolErrors++;
+            log.debug("{}: Failed to parse bundle: {}", clientName, e.getMessage());
+            return false;
+        }
+
+        // Messages are newest first
+        V086Message[] messages = bundle.getMessages();
+        int count = bundle.getNumMessages();
+        if (count > 0) {
+            countRecovery(messages[count - 1].getNumber(), count);
+            lastReceivedNumber = messages[0].getNumber();
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            process(messages[i]);
+        }
+        return true;
+    }
+
+    private void process(V086Message message) throws IOException, MessageFormatException {
+        switch (message) {
+            case ServerACK ack -> {
+                log.debug("{}: Received ServerACK #{}", clientName, ack.getNumber());
+                send(new ClientACK(nextMessageNumber()));
+            }
+            case KeepAlive keepAlive -> send(new KeepAlive(nextMessageNumber()));
+            case UserJoined joined when joined.getUserName().equals(clientName) -> loggedIn = true;
+            case ConnectionRejected reject -> {
+                log.debug("{}: Connection rejected: {}", clientName, reject.getMessage());
+                rejected = true;
+            }
+            case CreateGame_Notification created when created.getUserName()
+                    .equals(clientName) -> gameID = created.getGameID();
+            case JoinGame_Notification joined when joined.getGameID() == gameID -> gamePlayers
+                    .add(joined.getUserName());
+            case PlayerInformation players -> {
+                for (PlayerInformation.Player player : players.getPlayers()) {
+                    gamePlayers.add(player.getUserName());
+                }
+            }
+            case QuitGame_Notification left -> gamePlayers.remove(left.getUserName());
+            case CloseGame closed when closed.getGameID() == gameID -> gameClosed = true;
+            case StartGame_Notification started -> {
+                playerNumber = started.getPlayerNumber();
+                numPlayers = started.getNumPlayers();
+            }
+            case AllReady ready -> allReady = true;
+            case GameData data -> {
+                incomingCache.add(data.getGameData());
+                lastGameData = data.getGameData();
+                gameDataReceived++;
+            }
+            case CachedGameData cached -> {
+                lastGameData = incomingCache.get(cached.getKey());
+                if (lastGameData == null) {
+                    protocolErrors++;
+                }
+                cachedGameDataReceived++;
+                gameDataReceived++;
+            }
+            case GameChat_Notification chat when chat.getUserName().equals(GAME_DESYNCH)
+                    || chat.getUserName().equals(PLAYER_DESYNCH) -> desynchs++;
+            case PlayerDrop_Notification dropped -> drops++;
+            default -> {
+                // Lobby traffic the load generator does not track
+            }
+        }
+    }
+
+    /**
+     * Counts the new messages of a bundle that an earlier packet should have
+     * delivered. The first bundle to arrive after a resend was requested is
+     * credited to the resend. Otherwise only the newest message of a bundle is
+     * sent for the first time; older ones were lost or late in the packets
+     * before and are recovered by the bundle's redundancy. Messages skipped
+     * over entirely are lost.
+     */
+    private void countRecovery(int oldestNumber, int count) {
+        if (lastReceivedNumber < 0) {
+            return;
+        }
+        lostMessages += (oldestNumber - lastReceivedNumber - 1) & 0xFFFF;
+        if (resendRequested) {
+            recoveredByResend += count;
+            resendRequested = false;
+        } else {
+            recoveredByRedundancy += count - 1;
+        }
+    }
+
+    private boolean await(BooleanSupplier condition, long timeoutMs)
+            throws IOException, MessageFormatException {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        while (!condition.getAsBoolean()) {
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remainingMs <= 0 || !connected) {
+                return false;
+            }
+            if (!receiveAndProcess(Math.min(remainingMs, RESEND_INTERVAL_MS))) {
+                resend();
+            }
+        }
+        return true;
+    }
+
+    private boolean receive(long timeoutMs) throws IOException {
+        // The socket adaptor honors the timeout, DatagramChannel.receive does not
+        channel.socket().setSoTimeout((int) Math.max(1, Math.min(timeoutMs, Integer.MAX_VALUE)));
+        try {
+            channel.socket().receive(receivePacket);
+            return true;
+        } catch (SocketTimeoutException e) {
             return false;
         } catch (ClosedChannelException e) {
             log.debug("{}: Channel closed during receive", clientName);
             return false;
         }
-        receiveBuffer.flip();
+    }
 
-        if (receiveBuffer.remaining() < 5) {
-            return false;
+    /**
+     * Waits for a packet from the server's session port, through the
+     * downstream impairment if there is one.
+     *
+     * @return the packet, or null if none arrived in time
+     */
+    private ByteBuffer receiveSession(long timeoutMs) throws IOException {
+        if (downstreamLink == null) {
+            if (!receive(timeoutMs)) {
+                return null;
+            }
+            return ByteBuffer.wrap(receiveBytes, 0, receivePacket.getLength());
         }
 
-        receiveBuffer.order(ByteOrder.LITTLE_ENDIAN);
-        int messageCount = receiveBuffer.get() & 0xFF;
-
-        for (int i = 0; i < messageCount && receiveBuffer.remaining() >= 5; i++) {
-            int msgNum = receiveBuffer.getShort() & 0xFFFF;
-            int msgLen = receiveBuffer.getShort() & 0xFFFF;
-            byte msgType = receiveBuffer.get();
+        try {
+            return delivered.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while receiving", e);
+        }
+    }
 
-            int bodyLen = msgLen - 1;
-            if (bodyLen > receiveBuffer.remaining()) {
-                break;
-            }
+    private void startImpairment() {
+        if (!upstream.isNone()) {
+            upstreamLink = new ImpairedLink(upstream, impairmentSeed, impairmentScheduler,
+                    Runnable::run, (buffer, address) -> {
+                        try {
+                            channel.send(buffer, address);
+                        } catch (IOException e) {
+                            log.debug("{}: Failed to send: {}", clientName, e.getMessage());
+                        }
+                    });
+        }
+        if (!downstream.isNone()) {
+            downstreamLink = new ImpairedLink(downstream, ~impairmentSeed, impairmentScheduler,
+                    Runnable::run, (buffer, address) -> delivered.add(buffer));
+            Thread.ofVirtual().name(clientName + "-receiver").start(this::receiveDownstream);
+        }
+    }
 
-            switch (msgType) {
-                case MSG_SERVER_ACK :
-                    log.debug("{}: Received ServerACK #{}", clientName, msgNum);
-                    // Skip the ACK body (17 bytes)
-                    receiveBuffer.position(receiveBuffer.position() + Math.min(bodyLen, 17));
-                    // Send ClientACK in response
-                    sendClientAck(msgNum);
-                    loggedIn = true;
-                    break;
-
-                case MSG_KEEP_ALIVE :
-                    log.debug("{}: Received KeepAlive #{}", clientName, msgNum);
-                    receiveBuffer.position(receiveBuffer.position() + bodyLen);
-                    // Respond with keep-alive
-                    sendKeepAlive();
-                    break;
-
-                default :
-                    // Skip other messages
-                    receiveBuffer.position(receiveBuffer.position() + bodyLen);
-                    break;
+    // Feeds the downstream link until the channel closes
+    private void receiveDownstream() {
+        ByteBuffer buffer = ByteBuffer.allocate(receiveBytes.length);
+        try {
+            while (channel.isOpen()) {
+                buffer.clear();
+                InetSocketAddress from = (InetSocketAddress) channel.receive(buffer);
+                downstreamLink.offer(buffer.flip(), from);
             }
+        } catch (IOException e) {
+            log.debug("{}: Receiver stopped: {}", clientName, e.getMessage());
         }
+    }
 
-        return true;
+    private void send(V086Message message) throws IOException {
+        sendHistory[sendCount % SEND_HISTORY] = message;
+        sendCount++;
+        sendHistory();
     }
 
-    private void sendUserInformation() throws IOException {
+    private void sendHistory() throws IOException {
+        int count = Math.min(sendCount, SEND_HISTORY);
+        V086Message[] messages = new V086Message[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = sendHistory[(sendCount - 1 - i) % SEND_HISTORY];
+        }
+
         sendBuffer.clear();
-        sendBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        new V086Bundle(messages).writeTo(sendBuffer);
+        sendBuffer.flip();
+        if (upstreamLink != null) {
+            upstreamLink.offer(sendBuffer, serverAddress);
+        } else {
+            channel.send(sendBuffer, serverAddress);
+        }
+    }
 
-        // Bundle header: 1 message
-        sendBuffer.put((byte) 1);
+    private int nextMessageNumber() {
+        return messageNumber.incrementAndGet() & 0xFFFF;
+    }
 
-        // Message header
-        int msgNum = messageNumber.incrementAndGet() & 0xFFFF;
-        sendBuffer.putShort((short) msgNum);
+    private void resetGame() {
+        gameID = -1;
+        gamePlayers.clear();
+        gameClosed = false;
+        playerNumber = 0;
+        numPlayers = 0;
+        allReady = false;
+        outgoingCache = new ClientGameDataCache(GAME_DATA_CACHE_SIZE);
+        incomingCache = new ServerGameDataCache(GAME_DATA_CACHE_SIZE);
+        gameDataSent = 0;
+        gameDataReceived = 0;
+        lastGameData = null;
+    }
 
-        // Calculate body length
-        byte[] nameBytes = (clientName + "\0").getBytes(StandardCharsets.US_ASCII);
-        byte[] typeBytes = (clientType + "\0").getBytes(StandardCharsets.US_ASCII);
-        int bodyLength = nameBytes.length + typeBytes.length + 1; // +1 for connectionType
+    public boolean isConnected() {
+        return connected;
+    }
 
-        sendBuffer.putShort((short) bodyLength);
-        sendBuffer.put(MSG_USER_INFO);
-        sendBuffer.put(nameBytes);
-        sendBuffer.put(typeBytes);
-        sendBuffer.put(connectionType);
+    public boolean isLoggedIn() {
+        return loggedIn;
+    }
 
-        sendBuffer.flip();
-        channel.send(sendBuffer, serverAddress);
+    public boolean isRejected() {
+        return rejected;
+    }
 
-        log.debug("{}: Sent UserInformation", clientName);
+    public String getClientName() {
+        return clientName;
     }
 
-    private void sendClientAck(int ackMsgNum) throws IOException {
-        sendBuffer.clear();
-        sendBuffer.order(ByteOrder.LITTLE_ENDIAN);
+    public int getAssignedPort() {
+        return assignedPort;
+    }
 
-        // Bundle header: 1 message
-        sendBuffer.put((byte) 1);
+    public int getGameID() {
+        return gameID;
+    }
 
-        // Message header
-        int msgNum = messageNumber.incrementAndGet() & 0xFFFF;
-        sendBuffer.putShort((short) msgNum);
-        sendBuffer.putShort((short) 18); // body length: 1 + 4*4 = 17, total = 18
-        sendBuffer.put(MSG_CLIENT_ACK);
+    public int getPlayerNumber() {
+        return playerNumber;
+    }
 
-        // ACK body: 0x00 followed by 0, 1, 2, 3 as unsigned ints
-        sendBuffer.put((byte) 0x00);
-        sendBuffer.putInt(0);
-        sendBuffer.putInt(1);
-        sendBuffer.putInt(2);
-        sendBuffer.putInt(3);
+    public int getNumPlayers() {
+        return numPlayers;
+    }
 
-        sendBuffer.flip();
-        channel.send(sendBuffer, serverAddress);
+    public boolean isGameClosed() {
+        return gameClosed;
+    }
 
-        log.debug("{}: Sent ClientACK", clientName);
+    /** Returns the game data received for the last packet of input. */
+    public byte[] getLastGameData() {
+        return lastGameData;
     }
 
-    private void sendKeepAlive() throws IOException {
-        sendBuffer.clear();
-        sendBuffer.order(ByteOrder.LITTLE_ENDIAN);
+    public long getCachedGameDataSent() {
+        return cachedGameDataSent;
+    }
 
-        // Bundle header: 1 message
-        sendBuffer.put((byte) 1);
+    public long getCachedGameDataReceived() {
+        return cachedGameDataReceived;
+    }
 
-        // Message header
-        int msgNum = messageNumber.incrementAndGet() & 0xFFFF;
-        sendBuffer.putShort((short) msgNum);
-        sendBuffer.putShort((short) 1); // body length: just the message type
-        sendBuffer.put(MSG_KEEP_ALIVE);
+    public long getDesynchs() {
+        return desynchs;
+    }
 
-        sendBuffer.flip();
-        channel.send(sendBuffer, serverAddress);
+    public long getDrops() {
+        return drops;
     }
 
-    public boolean isConnected() {
-        return connected;
+    public long getProtocolErrors() {
+        return protocolErrors;
     }
 
-    public boolean isLoggedIn() {
-        return loggedIn;
+    public long getResends() {
+        return resends;
     }
 
-    public String getClientName() {
-        return clientName;
+    public long getRecoveredByRedundancy() {
+        return recoveredByRedundancy;
     }
 
-    public int getAssignedPort() {
-        return assignedPort;
+    public long getRecoveredByResend() {
+        return recoveredByResend;
+    }
+
+    public long getLostMessages() {
+        return lostMessages;
+    }
+
+    /** Returns the link of the packets this client sends, or null if not impaired. */
+    public ImpairedLink getUpstreamLink() {
+        return upstreamLink;
+    }
+
+    /** Returns the link of the packets the server sends, or null if not impaired. */
+    public ImpairedLink getDownstreamLink() {
+        return downstreamLink;
     }
 
     @Override
@@ -405,6 +772,8 @@ public final class UdpKailleraClient implements Closeable {
             if (connected) {
                 quit("Client closing");
             }
+        } catch (MessageFormatException e) {
+            throw new IOException(e);
         } finally {
             if (channel != null) {
                 channel.close();
@@ -0,0 +1,122 @@
+package su.kidoz.kaillera.master;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import su.kidoz.kaillera.model.KailleraGame;
+import su.kidoz.kaillera.model.KailleraServer;
+import su.kidoz.util.TopKCounter;
+
+/**
+ * Tests for WindowedStatsCollector - the bounded usage statistics.
+ */
+@DisplayName("WindowedStatsCollector Tests")
+class WindowedStatsCollectorTest {
+
+    private static final long WINDOW = 60_000;
+    private static final long START = 1_000_000;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private final WindowedStatsCollector collector = new WindowedStatsCollector(WINDOW,
+            now::get);
+    private final KailleraServer server = mock(KailleraServer.class);
+
+    private KailleraGame game(String romName, String emulator) {
+        KailleraGame game = mock(KailleraGame.class);
+        when(game.getRomName()).thenReturn(romName);
+        when(game.getClientType()).thenReturn(emulator);
+        when(game.getStatus()).thenReturn((int) KailleraGame.STATUS_SYNCHRONIZING);
+        return game;
+    }
+
+    private void start(KailleraGame game) {
+        when(server.getGames()).thenAnswer(invocation -> List.of(game));
+        collector.gameStarted(server, game);
+    }
+
+    @Nested
+    @DisplayName("Windows")
+    class Windows {
+
+        @Test
+        @DisplayName("should count starts by ROM and emulator")
+        void shouldCountStarts() {
+            start(game("Street Fighter II", "MAME32"));
+            start(game("Street Fighter II", "MAME32"));
+            start(game("Metal Slug", "Kawaks"));
+
+            StatsCollector.Window current = collector.getStats().current();
+            assertEquals(3, current.gamesStarted());
+            assertEquals(new TopKCounter.Count("Street Fighter II", 2, 0),
+                    current.topRoms().get(0));
+            assertEquals(new TopKCounter.Count("MAME32", 2, 0), current.topEmulators().get(0));
+            assertEquals(1, current.peakGamesPlaying());
+            assertNull(collector.getStats().last());
+        }
+
+        @Test
+        @DisplayName("should keep the last window once its time is up")
+        void shouldRollWindow() {
+            collector.concurrencyChanged(5, 2);
+            collector.concurrencyChanged(3, 1);
+            start(game("Metal Slug", "Kawaks"));
+
+            now.addAndGet(WINDOW);
+            StatsCollector.Snapshot stats = collector.getStats();
+
+            assertEquals(1, stats.last().gamesStarted());
+            assertEquals(5, stats.last().peakUsers());
+            assertEquals(2, stats.last().peakGames());
+            assertEquals(0, stats.current().gamesStarted());
+            assertEquals(3, stats.current().peakUsers());
+            assertEquals(1, stats.totalGamesStarted());
+        }
+
+        @Test
+        @DisplayName("should report an empty last window after an idle one")
+        void shouldSkipIdleWindows() {
+            start(game("Metal Slug", "Kawaks"));
+
+            now.addAndGet(3 * WINDOW + 1);
+            StatsCollector.Window last = collector.getStats().last();
+
+            assertEquals(0, last.gamesStarted());
+            assertEquals(START + 3 * WINDOW, last.endMillis());
+        }
+    }
+
+    @Nested
+    @DisplayName("Master list")
+    class MasterList {
+
+        @Test
+        @DisplayName("should drain the started ROMs once")
+        void shouldDrainStartedGames() {
+            start(game("Street Fighter II", "MAME32"));
+            start(game("Metal Slug", "Kawaks"));
+
+            assertEquals(List.of("Street Fighter II", "Metal Slug"),
+                    collector.drainStartedGames());
+            assertEquals(List.of(), collector.drainStartedGames());
+        }
+
+        @Test
+        @DisplayName("should keep only the newest started ROMs")
+        void shouldBoundStartedGames() {
+            for (int i = 0; i < WindowedStatsCollector.MAX_PENDING_STARTS + 5; i++)
+                start(game("Game " + i, "MAME32"));
+
+            List<String> started = collector.drainStartedGames();
+            assertEquals(WindowedStatsCollector.MAX_PENDING_STARTS, started.size());
+            assertEquals("Game 5", started.get(0));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package su.kidoz.kaillera.master.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for MasterListPublisher - the schedule and delta checks of master list
+ * touches.
+ */
+@DisplayName("MasterListPublisher Tests")
+class MasterListPublisherTest {
+
+    private static final long INTERVAL = 60_000;
+    private static final long REFRESH = 120_000;
+    private static final long MAX_BACKOFF = 300_000;
+
+    // nextDouble() is always 0: the shortest jittered delays
+    private static final RandomGenerator LOWEST = () -> 0L;
+
+    private final FakeTask task = new FakeTask();
+    private final List<MasterListReport> sent = new ArrayList<>();
+    private boolean failing;
+
+    private final MasterListPublisher publisher = new MasterListPublisher(task, INTERVAL, REFRESH,
+            MAX_BACKOFF, LOWEST);
+
+    private long publish(long now) {
+        return publisher.publish(now, (touched, report) -> {
+            if (failing)
+                throw new IOException("unreachable");
+            sent.add(report);
+        });
+    }
+
+    private static final class FakeTask implements MasterListUpdateTask {
+        String state = "users=1";
+        boolean events;
+
+        public String getName() {
+            return "Fake master";
+        }
+
+        public MasterListReport buildReport() {
+            return new MasterListReport("http://master/touch?" + state, Map.of(), events);
+        }
+
+        public void send(MasterListReport report) {
+        }
+    }
+
+    @Nested
+    @DisplayName("Delta")
+    class Delta {
+
+        @Test
+        @DisplayName("should skip an unchanged report until the refresh interval")
+        void shouldSkipUnchangedReport() {
+            publish(0);
+            publish(INTERVAL);
+            assertEquals(1, sent.size());
+
+            publish(REFRESH);
+            assertEquals(2, sent.size());
+        }
+
+        @Test
+        @DisplayName("should send a changed report")
+        void shouldSendChangedReport() {
+            publish(0);
+            task.state = "users=2";
+            publish(INTERVAL);
+
+            assertEquals(2, sent.size());
+        }
+
+        @Test
+        @DisplayName("should send a report with events even if unchanged")
+        void shouldSendEvents() {
+            task.events = true;
+            publish(0);
+            publish(INTERVAL);
+
+            assertEquals(2, sent.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Schedule")
+    class Schedule {
+
+        @Test
+        @DisplayName("should vary the interval by up to the jitter")
+        void shouldJitterInterval() {
+            long delay = publish(0);
+
+            assertEquals((long) (INTERVAL * (1 - MasterListPublisher.JITTER)), delay);
+            assertTrue(publisher.initialDelayMillis() < INTERVAL);
+        }
+
+        @Test
+        @DisplayName("should back off exponentially up to the maximum")
+        void shouldBackOff() {
+            failing = true;
+
+            assertEquals(INTERVAL, publish(0));
+            assertEquals(2 * INTERVAL, publish(0));
+            assertEquals(MAX_BACKOFF / 2, publish(0));
+            for (int i = 0; i < 40; i++)
+                publish(0);
+            assertEquals(MAX_BACKOFF / 2, publish(0));
+        }
+
+        @Test
+        @DisplayName("should not retry a failing master sooner than the interval")
+        void shouldRetryNoSoonerThanInterval() {
+            failing = true;
+
+            assertTrue(publish(0) >= INTERVAL);
+
+            // Even if the maximum backoff is shorter than the interval
+            MasterListPublisher capped = new MasterListPublisher(task, INTERVAL, REFRESH,
+                    INTERVAL / 2, LOWEST);
+            assertEquals(INTERVAL, capped.publish(0, (touched, report) -> {
+                throw new IOException("unreachable");
+            }));
+        }
+
+        @Test
+        @DisplayName("should resume the interval after a success")
+        void shouldRecover() {
+            failing = true;
+            publish(0);
+            publish(0);
+
+            failing = false;
+            long delay = publish(0);
+
+            assertEquals(0, publisher.getFailures());
+            assertEquals((long) (INTERVAL * (1 - MasterListPublisher.JITTER)), delay);
+            assertEquals(1, sent.size());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package su.kidoz.kaillera.master.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for MasterListRegistry - the servers on the built-in master list.
+ */
+@DisplayName("MasterListRegistry Tests")
+class MasterListRegistryTest {
+
+    private static final long EXPIRY = 300_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private static MasterListRegistry.Server server(String address, int numUsers) {
+        return new MasterListRegistry.Server("Server " + address, address, 27888, "Here", "",
+                numUsers, 25, 0, 0, "1.0", 1);
+    }
+
+    @Test
+    @DisplayName("should list servers by users and replace their listings")
+    void shouldListServers() {
+        MasterListRegistry registry = new MasterListRegistry(EXPIRY, 10, now::get);
+        registry.touch(server("10.0.0.1", 3));
+        registry.touch(server("10.0.0.2", 5));
+        registry.touch(server("10.0.0.1", 7));
+
+        List<MasterListRegistry.Listing> listings = registry.getListings();
+        assertEquals(2, listings.size());
+        assertEquals(7, listings.get(0).server().numUsers());
+        assertEquals("10.0.0.2", listings.get(1).server().connectAddress());
+    }
+
+    @Test
+    @DisplayName("should drop servers that stopped touching")
+    void shouldExpireServers() {
+        MasterListRegistry registry = new MasterListRegistry(EXPIRY, 10, now::get);
+        registry.touch(server("10.0.0.1", 3));
+
+        now.addAndGet(EXPIRY);
+
+        assertEquals(List.of(), registry.getListings());
+    }
+
+    @Test
+    @DisplayName("should refuse new servers while full")
+    void shouldRefuseWhenFull() {
+        MasterListRegistry registry = new MasterListRegistry(EXPIRY, 1, now::get);
+        assertTrue(registry.touch(server("10.0.0.1", 3)));
+
+        assertFalse(registry.touch(server("10.0.0.2", 3)));
+        assertTrue(registry.touch(server("10.0.0.1", 4)));
+
+        now.addAndGet(EXPIRY);
+        assertTrue(registry.touch(server("10.0.0.2", 3)));
+    }
+}
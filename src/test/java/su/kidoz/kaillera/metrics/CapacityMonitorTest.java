@@ -0,0 +1,164 @@
+package su.kidoz.kaillera.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import jdk.management.VirtualThreadSchedulerMXBean;
+import su.kidoz.config.ServerConfig;
+import su.kidoz.kaillera.controller.v086.V086Controller;
+import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.impl.GameManager;
+import su.kidoz.kaillera.model.impl.KailleraUserImpl;
+import su.kidoz.kaillera.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests for CapacityMonitor - the headroom behind the readiness probe.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("CapacityMonitor Tests")
+class CapacityMonitorTest {
+
+    private static final int PORTS = 100;
+    private static final int MAX_USERS = 100;
+    private static final int CARRIERS = 8;
+
+    @Mock
+    private V086Controller v086Controller;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private VirtualThreadSchedulerMXBean scheduler;
+
+    private CapacityMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        when(v086Controller.getPortCount()).thenReturn(PORTS);
+        when(v086Controller.getAvailablePortCount()).thenReturn(PORTS);
+        when(userService.getMaxUsers()).thenReturn(MAX_USERS);
+        when(userService.getUserCount()).thenReturn(0);
+        when(userService.getAllUsers()).thenReturn(List.of());
+        when(scheduler.getParallelism()).thenReturn(CARRIERS);
+
+        GameMetricsCollector gameMetrics = new GameMetricsCollector(new SimpleMeterRegistry(),
+                mock(GameManager.class));
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.getCapacity().setNotReadyHeadroom(0.1);
+        serverConfig.getCapacity().setReadyHeadroom(0.2);
+
+        monitor = new CapacityMonitor(v086Controller, userService, gameMetrics, serverConfig,
+                scheduler);
+    }
+
+    private void setUsers(int count) {
+        when(userService.getUserCount()).thenReturn(count);
+    }
+
+    @Nested
+    @DisplayName("Headroom")
+    class Headroom {
+
+        @Test
+        @DisplayName("should have full headroom when idle")
+        void shouldHaveFullHeadroomWhenIdle() {
+            CapacityMonitor.Snapshot capacity = monitor.check();
+
+            assertEquals(1.0, capacity.headroom());
+            assertTrue(capacity.ready());
+        }
+
+        @Test
+        @DisplayName("should take the lowest headroom of the resources")
+        void shouldTakeLowestHeadroom() {
+            setUsers(60);
+            when(v086Controller.getAvailablePortCount()).thenReturn(70);
+
+            CapacityMonitor.Snapshot capacity = monitor.check();
+
+            assertEquals(0.4, capacity.headroom());
+            assertEquals(0.4, capacity.resources().get("users"));
+            assertEquals(0.7, capacity.resources().get("ports"));
+        }
+
+        @Test
+        @DisplayName("should count queued events against all users' queues")
+        void shouldCountQueuedEvents() {
+            KailleraUser busy = mock(KailleraUser.class);
+            when(busy.getEventQueueSize()).thenReturn(KailleraUserImpl.MAX_EVENT_QUEUE_SIZE);
+            KailleraUser idle = mock(KailleraUser.class);
+            when(idle.getEventQueueSize()).thenReturn(0);
+            when(userService.getAllUsers()).thenAnswer(invocation -> List.of(busy, idle));
+
+            assertEquals(0.5, monitor.check().resources().get("eventQueues"));
+        }
+
+        @Test
+        @DisplayName("should count carrier threads running or waiting for virtual threads")
+        void shouldCountBusyCarriers() {
+            when(scheduler.getMountedVirtualThreadCount()).thenReturn(6);
+            when(scheduler.getQueuedVirtualThreadCount()).thenReturn(4L);
+
+            assertEquals(0.0, monitor.check().resources().get("carrierThreads"));
+        }
+
+        @Test
+        @DisplayName("should ignore the user limit when there is none")
+        void shouldIgnoreUnlimitedUsers() {
+            when(userService.getMaxUsers()).thenReturn(0);
+            setUsers(500);
+
+            assertEquals(1.0, monitor.check().resources().get("users"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Readiness")
+    class Readiness {
+
+        @Test
+        @DisplayName("should stop being ready below the not-ready headroom")
+        void shouldStopBeingReady() {
+            setUsers(95);
+
+            assertFalse(monitor.check().ready());
+        }
+
+        @Test
+        @DisplayName("should stay not ready until the ready headroom is reached")
+        void shouldApplyHysteresis() {
+            setUsers(95);
+            monitor.check();
+
+            setUsers(85);
+            assertFalse(monitor.check().ready());
+
+            setUsers(80);
+            assertTrue(monitor.check().ready());
+        }
+
+        @Test
+        @DisplayName("should stay ready above the not-ready headroom")
+        void shouldStayReady() {
+            setUsers(85);
+
+            assertTrue(monitor.check().ready());
+        }
+    }
+}
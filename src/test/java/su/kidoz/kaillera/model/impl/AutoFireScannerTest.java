@@ -0,0 +1,214 @@
+package su.kidoz.kaillera.model.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import su.kidoz.kaillera.metrics.GameMetricsCollector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests for AutoFireScanner - the streaming autofire detector.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("AutoFireScanner Tests")
+class AutoFireScannerTest {
+
+    private static final int BYTES_PER_ACTION = 2;
+    // Most sensitive: runs of up to 6 actions, 5 repetitions
+    private static final int SENSITIVITY = 5;
+
+    @Mock
+    private KailleraGameImpl game;
+
+    @Mock
+    private KailleraUserImpl player;
+
+    private SimpleMeterRegistry registry;
+    private GameMetricsCollector metrics;
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @BeforeEach
+    void setUp() {
+        when(game.getStartDate()).thenReturn(new Date());
+        when(game.getRomName()).thenReturn("TestROM");
+        when(player.getName()).thenReturn("Player");
+        when(player.getSocketAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 27888));
+
+        registry = new SimpleMeterRegistry();
+        metrics = new GameMetricsCollector(registry, mock(GameManager.class));
+    }
+
+    private AutoFireScanner startScanner(long budgetNanos) {
+        AutoFireScanner scanner = new AutoFireScanner(game, SENSITIVITY, metrics, budgetNanos,
+                clock::get);
+        scanner.start(1);
+        scanner.addPlayer(player, 1);
+        return scanner;
+    }
+
+    /**
+     * Returns one frame of a single action, pressed or released.
+     */
+    private static byte[] frame(boolean pressed) {
+        return new byte[]{(byte) (pressed ? 1 : 0), 0};
+    }
+
+    /**
+     * Feeds a button toggled every {@code period} actions, one action per frame.
+     */
+    private static void feedToggling(AutoFireScanner scanner, int period, int actions) {
+        for (int i = 0; i < actions; i++) {
+            scanner.addData(1, frame((i / period) % 2 == 0), BYTES_PER_ACTION);
+        }
+    }
+
+    @Nested
+    @DisplayName("Detection")
+    class Detection {
+
+        @Test
+        @DisplayName("should detect autofire spread over many frames")
+        void shouldDetectAcrossFrames() {
+            AutoFireScanner scanner = startScanner(0);
+
+            feedToggling(scanner, 2, 30);
+
+            verify(game).announce(anyString());
+            assertEquals(1, registry.get("kaillera.games.autofire.detected").counter().count());
+        }
+
+        @Test
+        @DisplayName("should detect autofire within a single block of input")
+        void shouldDetectWithinBlock() {
+            AutoFireScanner scanner = startScanner(0);
+
+            byte[] data = new byte[60 * BYTES_PER_ACTION];
+            for (int i = 0; i < 60; i++) {
+                data[i * BYTES_PER_ACTION] = (byte) ((i / 3) % 2);
+            }
+            scanner.addData(1, data, BYTES_PER_ACTION);
+
+            verify(game).announce(anyString());
+        }
+
+        @Test
+        @DisplayName("should not report a held button")
+        void shouldIgnoreHeldButton() {
+            AutoFireScanner scanner = startScanner(0);
+
+            for (int i = 0; i < 200; i++) {
+                scanner.addData(1, frame(true), BYTES_PER_ACTION);
+            }
+
+            verify(game, never()).announce(anyString());
+        }
+
+        @Test
+        @DisplayName("should not report toggling slower than the sensitivity allows")
+        void shouldIgnoreSlowToggling() {
+            AutoFireScanner scanner = startScanner(0);
+
+            feedToggling(scanner, 10, 400);
+
+            verify(game, never()).announce(anyString());
+        }
+
+        @Test
+        @DisplayName("should announce a sustained burst once")
+        void shouldReportEachBurst() {
+            AutoFireScanner scanner = startScanner(0);
+
+            feedToggling(scanner, 2, 60);
+
+            verify(game, times(1)).announce(anyString());
+            assertEquals(2, registry.get("kaillera.games.autofire.detected").counter().count());
+        }
+
+        @Test
+        @DisplayName("should announce a continuing burst again after the hold-off")
+        void shouldReportAgainAfterHoldOff() {
+            AutoFireScanner scanner = startScanner(0);
+
+            feedToggling(scanner, 2, 60);
+            clock.addAndGet(AutoFireScanner.HOLD_OFF_MILLIS - 1);
+            feedToggling(scanner, 2, 60);
+            verify(game, times(1)).announce(anyString());
+
+            clock.addAndGet(1);
+            feedToggling(scanner, 2, 60);
+            verify(game, times(2)).announce(anyString());
+        }
+
+        @Test
+        @DisplayName("should announce a new burst once the pattern breaks")
+        void shouldReportAfterPatternBreaks() {
+            AutoFireScanner scanner = startScanner(0);
+
+            feedToggling(scanner, 2, 30);
+            for (int i = 0; i < 20; i++) {
+                scanner.addData(1, frame(false), BYTES_PER_ACTION);
+            }
+            feedToggling(scanner, 2, 30);
+
+            verify(game, times(2)).announce(anyString());
+        }
+
+        @Test
+        @DisplayName("should stop scanning a stopped player")
+        void shouldIgnoreStoppedPlayer() {
+            AutoFireScanner scanner = startScanner(0);
+
+            scanner.stop(1);
+            feedToggling(scanner, 2, 60);
+
+            verify(game, never()).announce(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Budget and Metrics")
+    class BudgetAndMetrics {
+
+        @Test
+        @DisplayName("should record the cost of each scanned block")
+        void shouldRecordScanCost() {
+            AutoFireScanner scanner = startScanner(0);
+
+            feedToggling(scanner, 10, 25);
+
+            assertEquals(25, registry.get("kaillera.games.autofire.scan").timer().count());
+        }
+
+        @Test
+        @DisplayName("should skip input once the budget is spent")
+        void shouldSkipOverBudget() {
+            // Any scan spends more than a nanosecond, so only the first is allowed
+            AutoFireScanner scanner = startScanner(1);
+
+            feedToggling(scanner, 2, 60);
+
+            verify(game, never()).announce(anyString());
+            assertEquals(1, registry.get("kaillera.games.autofire.scan").timer().count());
+            assertTrue(registry.get("kaillera.games.autofire.skipped").counter().count() >= 59);
+        }
+    }
+}
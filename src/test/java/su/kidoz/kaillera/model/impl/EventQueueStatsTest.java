@@ -0,0 +1,82 @@
+package su.kidoz.kaillera.model.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for EventQueueStats - the queue wait of a user's events.
+ */
+@DisplayName("EventQueueStats Tests")
+class EventQueueStatsTest {
+
+    private static final long SLOW_NANOS = 1_000_000;
+
+    @Nested
+    @DisplayName("Windows")
+    class Windows {
+
+        @Test
+        @DisplayName("should report the 99th percentile once a window is full")
+        void shouldReportP99OfFullWindow() {
+            EventQueueStats stats = new EventQueueStats(SLOW_NANOS);
+
+            for (int i = 1; i < EventQueueStats.WINDOW_SIZE; i++)
+                assertFalse(stats.record(i, 0));
+            assertEquals(0, stats.getP99Nanos());
+
+            stats.record(EventQueueStats.WINDOW_SIZE, 0);
+            assertEquals(EventQueueStats.WINDOW_SIZE - 1, stats.getP99Nanos());
+        }
+
+        @Test
+        @DisplayName("should end a window after its time is up")
+        void shouldEndWindowOnTime() {
+            EventQueueStats stats = new EventQueueStats(SLOW_NANOS);
+
+            stats.record(10, 0);
+            stats.record(20, EventQueueStats.WINDOW_NANOS);
+
+            assertEquals(20, stats.getP99Nanos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Slow consumers")
+    class SlowConsumers {
+
+        @Test
+        @DisplayName("should flag a slow consumer until it catches up")
+        void shouldFlagSlowConsumer() {
+            EventQueueStats stats = new EventQueueStats(SLOW_NANOS);
+
+            boolean changed = false;
+            for (int i = 0; i < EventQueueStats.WINDOW_SIZE; i++)
+                changed = stats.record(2 * SLOW_NANOS, 0);
+            assertTrue(changed);
+            assertTrue(stats.isSlow());
+
+            for (int i = 0; i < EventQueueStats.WINDOW_SIZE; i++)
+                changed = stats.record(SLOW_NANOS / 2, 0);
+            assertTrue(changed);
+            assertFalse(stats.isSlow());
+        }
+
+        @Test
+        @DisplayName("should ignore a single slow event in a window")
+        void shouldIgnoreOutlier() {
+            EventQueueStats stats = new EventQueueStats(SLOW_NANOS);
+
+            stats.record(10 * SLOW_NANOS, 0);
+            for (int i = 1; i < EventQueueStats.WINDOW_SIZE; i++)
+                stats.record(1000, 0);
+
+            assertFalse(stats.isSlow());
+            assertEquals(1000, stats.getP99Nanos());
+        }
+    }
+}
@@ -47,10 +47,22 @@ class GameManagerTest {
                 gameManager.getNextGameID();
             }
             assertEquals(0xFFFF, gameManager.getNextGameID());
-            // Should wrap to 1
+            // IDs stay reserved until released; a released ID is reused once
+            // nothing else is free
+            assertThrows(IllegalStateException.class, () -> gameManager.getNextGameID());
+            gameManager.releaseGameID(1);
             assertEquals(1, gameManager.getNextGameID());
         }
 
+        @Test
+        @DisplayName("should not immediately reuse released IDs")
+        void shouldNotImmediatelyReuseReleasedIds() {
+            assertEquals(1, gameManager.getNextGameID());
+            assertEquals(2, gameManager.getNextGameID());
+            gameManager.releaseGameID(1);
+            assertEquals(3, gameManager.getNextGameID());
+        }
+
         @Test
         @DisplayName("should be thread-safe")
         void shouldBeThreadSafe() throws InterruptedException {
@@ -7,14 +7,25 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.metrics.GameMetricsCollector;
 import su.kidoz.kaillera.model.KailleraGame;
 import su.kidoz.kaillera.model.KailleraUser;
 import su.kidoz.kaillera.model.event.DefaultEventDispatcher;
 import su.kidoz.kaillera.model.event.EventDispatcher;
+import su.kidoz.kaillera.model.exception.GameDataException;
 import su.kidoz.kaillera.model.exception.JoinGameException;
 import su.kidoz.kaillera.model.exception.StartGameException;
 import org.junit.jupiter.api.BeforeEach;
@@ -355,4 +366,161 @@ class KailleraGameImplTest {
             assertTrue(detailed.contains("id=1"));
         }
     }
+
+    @Nested
+    @DisplayName("Game Data Exchange")
+    class GameDataExchange {
+
+        private static final int FRAMES = 20;
+
+        @Mock
+        private AccessManager accessManager;
+
+        private KailleraUserImpl player2;
+        private SimpleMeterRegistry registry;
+
+        @BeforeEach
+        void startGame() throws Exception {
+            when(server.getAccessManager()).thenReturn(accessManager);
+            when(accessManager.getAccess(any())).thenReturn(AccessManager.ACCESS_NORMAL);
+
+            owner.setConnectionType((byte) 1);
+            owner.setClientType("TestEmu");
+
+            // The game takes its connection type from the owner when created
+            registry = new SimpleMeterRegistry();
+            when(server.getGameMetricsCollector())
+                    .thenReturn(new GameMetricsCollector(registry, mock(GameManager.class)));
+            game = new KailleraGameImpl(1, "TestROM", owner, server, BUFFER_SIZE, TIMEOUT_MILLIS,
+                    DESYNCH_TIMEOUTS);
+
+            InetSocketAddress address2 = new InetSocketAddress("127.0.0.2", 27889);
+            player2 = new KailleraUserImpl(2, "v086", address2, eventDispatcher, server);
+            player2.setName("Player2");
+            player2.setSocketAddress(address2);
+            player2.setConnectionType(owner.getConnectionType());
+            player2.setClientType(owner.getClientType());
+
+            game.join(owner);
+            game.join(player2);
+            game.start(owner);
+            game.ready(owner, 1);
+            game.ready(player2, 2);
+        }
+
+        @Test
+        @DisplayName("players adding data at the same time should not wait for timeouts")
+        void concurrentAddDataShouldNotStall() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> first = executor.submit(() -> addFrames(owner, 1));
+                Future<?> second = executor.submit(() -> addFrames(player2, 2));
+
+                // Well under one timeout per frame
+                first.get(TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+                second.get(TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertTrue(game.isSynched());
+            assertTrue(owner.getEventQueueSize() >= FRAMES);
+            assertTrue(player2.getEventQueueSize() >= FRAMES);
+        }
+
+        @Test
+        @DisplayName("a drop should release a player waiting for the dropped player's input")
+        void dropShouldReleaseWaitingPlayer() throws Exception {
+            // Player 2 sends nothing, so the owner waits for its input
+            CompletableFuture<Void> waiting = addDataInBackground(owner, 1);
+
+            long start = System.nanoTime();
+            game.drop(player2, 2);
+
+            // The frame may still complete, without input from the dropped player
+            assertReleased(waiting, start);
+            assertFalse(game.isSynched());
+        }
+
+        @Test
+        @DisplayName("closing the game should release a player waiting for input")
+        void closeShouldReleaseWaitingPlayer() throws Exception {
+            // The owner sends nothing, so player 2 waits for its input
+            CompletableFuture<Void> waiting = addDataInBackground(player2, 2);
+
+            long start = System.nanoTime();
+            game.close(owner);
+
+            assertReleased(waiting, start);
+            assertFalse(game.isSynched());
+        }
+
+        @Test
+        @DisplayName("should record the timing of every player's frames")
+        void shouldRecordFrameTimings() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> first = executor.submit(() -> addFrames(owner, 1));
+                Future<?> second = executor.submit(() -> addFrames(player2, 2));
+                first.get(TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+                second.get(TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(FRAMES * 2, registry.get("kaillera.games.frame.latency")
+                    .tag("connection.type", "Lan").tag("players", "2").timer().count());
+            assertEquals(FRAMES * 2, registry.get("kaillera.games.frame.wait").timer().count());
+            // The first two inputs of each player only establish an interval
+            assertEquals((FRAMES - 2) * 2,
+                    registry.get("kaillera.games.input.jitter").timer().count());
+            assertEquals(0.0, registry.get("kaillera.games.players.timeouts").counter().count());
+        }
+
+        /**
+         * Starts one addData call on its own thread and returns once it waits
+         * for the other player's input.
+         */
+        private CompletableFuture<Void> addDataInBackground(KailleraUserImpl player,
+                int playerNumber) throws InterruptedException {
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    game.addData(player, playerNumber, new byte[]{1, 0});
+                    result.complete(null);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            thread.start();
+
+            // Only PlayerActionQueue.getAction waits with a timeout
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS / 2;
+            while (thread.getState() != Thread.State.TIMED_WAITING
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(Thread.State.TIMED_WAITING, thread.getState());
+            return result;
+        }
+
+        // Well before the waiting player's first timeout
+        private void assertReleased(CompletableFuture<Void> waiting, long startNanos)
+                throws Exception {
+            try {
+                waiting.get(TIMEOUT_MILLIS / 2, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof GameDataException);
+            }
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS
+                    .toNanos(TIMEOUT_MILLIS));
+        }
+
+        private Void addFrames(KailleraUserImpl player, int playerNumber) throws Exception {
+            for (int frame = 0; frame < FRAMES; frame++) {
+                game.addData(player, playerNumber, new byte[]{(byte) frame, 0});
+            }
+            return null;
+        }
+    }
 }
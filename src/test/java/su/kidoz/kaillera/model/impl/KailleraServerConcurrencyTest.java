@@ -20,6 +20,7 @@ import su.kidoz.config.ServerConfig;
 import su.kidoz.config.ServerConfigs;
 import su.kidoz.config.ServerInfrastructure;
 import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.access.AccessRulesListener;
 import su.kidoz.kaillera.master.StatsCollector;
 import su.kidoz.kaillera.metrics.ServerMetrics;
 import su.kidoz.kaillera.service.ServerPolicyServices;
@@ -77,7 +78,7 @@ class KailleraServerConcurrencyTest {
         ServerConfigs configs = new ServerConfigs(serverConfig, gameConfig, masterListConfig);
         ServerPolicyServices policyServices = new ServerPolicyServices(loginValidator,
                 chatModerationService, announcementService);
-        ServerMetrics metrics = new ServerMetrics(new TestStatsCollector(), null);
+        ServerMetrics metrics = new ServerMetrics(new TestStatsCollector(), null, null);
 
         server = new KailleraServerImpl(infrastructure, configs, policyServices, metrics,
                 new AutoFireDetectorFactoryImpl(), userManager, gameManager);
@@ -417,6 +418,10 @@ class KailleraServerConcurrencyTest {
         public boolean clearTemp(InetAddress address) {
             return true;
         }
+
+        @Override
+        public void addAccessRulesListener(AccessRulesListener listener) {
+        }
     }
 
     private static final class TestStatsCollector implements StatsCollector {
@@ -425,12 +430,17 @@ class KailleraServerConcurrencyTest {
         }
 
         @Override
-        public List<String> getStartedGamesList() {
+        public void concurrencyChanged(int users, int games) {
+        }
+
+        @Override
+        public List<String> drainStartedGames() {
             return List.of();
         }
 
         @Override
-        public void clearStartedGamesList() {
+        public Snapshot getStats() {
+            return new Snapshot(null, null, 0);
         }
     }
 }
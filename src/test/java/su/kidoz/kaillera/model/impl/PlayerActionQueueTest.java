@@ -6,18 +6,26 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -245,4 +253,38 @@ class PlayerActionQueueTest {
             assertNull(queue.getLastTimeout());
         }
     }
+
+    @Nested
+    @DisplayName("Flight Recorder")
+    class FlightRecorder {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("should record waits for input that has not arrived")
+        void shouldRecordFrameWaits() throws Exception {
+            when(player.getID()).thenReturn(7);
+            queue.setSynched(true);
+            queue.addActions(new byte[]{1, 2});
+            Path file = tempDir.resolve("frames.jfr");
+
+            try (Recording recording = new Recording()) {
+                recording.enable("kaillux.FrameWait");
+                recording.start();
+                queue.getAction(2, new byte[2], 0, 2);
+                assertThrows(PlayerTimeoutException.class,
+                        () -> queue.getAction(2, new byte[2], 0, 2));
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> waits = RecordingFile.readAllEvents(file);
+            assertEquals(1, waits.size());
+            assertEquals(7, waits.get(0).getInt("userId"));
+            assertEquals(1, waits.get(0).getInt("playerNumber"));
+            assertEquals(2, waits.get(0).getInt("waitingPlayerNumber"));
+            assertTrue(waits.get(0).getBoolean("timedOut"));
+        }
+    }
 }
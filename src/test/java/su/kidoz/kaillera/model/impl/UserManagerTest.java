@@ -3,7 +3,10 @@ package su.kidoz.kaillera.model.impl;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -46,10 +49,32 @@ class UserManagerTest {
                 userManager.getNextUserID();
             }
             assertEquals(0xFFFF, userManager.getNextUserID());
-            // Should wrap to 1
+            // IDs stay reserved until released; a released ID is reused once
+            // nothing else is free
+            assertThrows(IllegalStateException.class, () -> userManager.getNextUserID());
+            userManager.releaseUserID(1);
             assertEquals(1, userManager.getNextUserID());
         }
 
+        @Test
+        @DisplayName("should not immediately reuse released IDs")
+        void shouldNotImmediatelyReuseReleasedIds() {
+            assertEquals(1, userManager.getNextUserID());
+            assertEquals(2, userManager.getNextUserID());
+            userManager.releaseUserID(1);
+            assertEquals(3, userManager.getNextUserID());
+        }
+
+        @Test
+        @DisplayName("should not reserve IDs beyond the user limit")
+        void shouldReserveUpToMaxUsers() {
+            assertEquals(1, userManager.reserveUserID(2));
+            assertEquals(2, userManager.reserveUserID(2));
+            assertEquals(-1, userManager.reserveUserID(2));
+            // No limit, e.g. for admins
+            assertEquals(3, userManager.reserveUserID(0));
+        }
+
         @Test
         @DisplayName("should be thread-safe")
         void shouldBeThreadSafe() throws InterruptedException {
@@ -204,4 +229,81 @@ class UserManagerTest {
             assertTrue(userManager.isEmpty());
         }
     }
+
+    @Nested
+    @DisplayName("Secondary Indexes")
+    class SecondaryIndexes {
+        private KailleraUserImpl loggedInUser(int id, String name, String address)
+                throws Exception {
+            KailleraUserImpl user = mock(KailleraUserImpl.class);
+            lenient().when(user.getID()).thenReturn(id);
+            lenient().when(user.getName()).thenReturn(name);
+            lenient().when(user.isLoggedIn()).thenReturn(true);
+            lenient().when(user.getConnectSocketAddress())
+                    .thenReturn(new InetSocketAddress(InetAddress.getByName(address), 27888));
+            userManager.addUser(user);
+            userManager.userLoggedIn(user);
+            return user;
+        }
+
+        @Test
+        @DisplayName("should index users by connect address")
+        void shouldIndexByAddress() throws Exception {
+            KailleraUserImpl user1 = loggedInUser(1, "alice", "10.0.0.1");
+            KailleraUserImpl user2 = loggedInUser(2, "bob", "10.0.0.1");
+            loggedInUser(3, "carol", "10.0.0.2");
+
+            Collection<KailleraUserImpl> sameAddress = userManager
+                    .getUsersByAddress(InetAddress.getByName("10.0.0.1"));
+            assertEquals(2, sameAddress.size());
+            assertTrue(sameAddress.contains(user1));
+            assertTrue(sameAddress.contains(user2));
+
+            userManager.removeUser(1);
+            assertEquals(List.of(user2), List.copyOf(
+                    userManager.getUsersByAddress(InetAddress.getByName("10.0.0.1"))));
+            assertTrue(userManager.getUsersByAddress(InetAddress.getByName("10.0.0.9"))
+                    .isEmpty());
+        }
+
+        @Test
+        @DisplayName("should find users by name ignoring case")
+        void shouldFindByName() throws Exception {
+            KailleraUserImpl user = loggedInUser(1, "Alice", "10.0.0.1");
+            loggedInUser(2, "Alicia", "10.0.0.2");
+
+            assertEquals(List.of(user), userManager.findUsersByName("aLiCe"));
+            assertEquals(2, userManager.findUsersByNamePrefix("ali").size());
+            assertTrue(userManager.findUsersByNamePrefix("bob").isEmpty());
+
+            userManager.removeUser(1);
+            assertTrue(userManager.findUsersByName("alice").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should match wildcard patterns")
+        void shouldFindByWildcard() throws Exception {
+            KailleraUserImpl alice = loggedInUser(1, "Alice", "10.0.0.1");
+            KailleraUserImpl alicia = loggedInUser(2, "Alicia", "10.0.0.2");
+            KailleraUserImpl bob = loggedInUser(3, "Bob", "10.0.0.3");
+
+            assertEquals(List.of(alice), userManager.findUsers("Alice"));
+            assertEquals(2, userManager.findUsers("Ali*").size());
+            assertEquals(List.of(bob), userManager.findUsers("*ob"));
+            assertEquals(List.of(alicia), userManager.findUsers("Ali*ia"));
+            assertEquals(3, userManager.findUsers("*").size());
+        }
+
+        @Test
+        @DisplayName("should clear indexes with users")
+        void shouldClearIndexes() throws Exception {
+            loggedInUser(1, "alice", "10.0.0.1");
+
+            userManager.clear();
+
+            assertTrue(userManager.findUsersByName("alice").isEmpty());
+            assertTrue(userManager.getUsersByAddress(InetAddress.getByName("10.0.0.1"))
+                    .isEmpty());
+        }
+    }
 }
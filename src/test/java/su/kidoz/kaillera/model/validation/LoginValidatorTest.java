@@ -42,7 +42,8 @@ class LoginValidatorTest {
 
     @BeforeEach
     void setUp() {
-        when(serverConfig.getMaxPing()).thenReturn(100);
+        // Read on each login, so only stubbed for the tests that check ping
+        lenient().when(serverConfig.getMaxPing()).thenReturn(100);
         when(serverConfig.getMaxUserNameLength()).thenReturn(30);
         when(serverConfig.getMaxClientNameLength()).thenReturn(50);
         when(serverConfig.isAllowMultipleConnections()).thenReturn(false);
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.net.InetAddress;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import su.kidoz.config.ControllersConfig;
 import su.kidoz.config.GameConfig;
@@ -14,6 +15,9 @@ import su.kidoz.config.ServerConfig;
 import su.kidoz.config.ServerConfigs;
 import su.kidoz.config.ServerInfrastructure;
 import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.access.AccessRulesListener;
+import su.kidoz.kaillera.metrics.ConnectMetricsCollector;
+import su.kidoz.kaillera.metrics.NetworkMetricsCollector;
 import su.kidoz.kaillera.metrics.ServerMetrics;
 import su.kidoz.kaillera.service.ServerPolicyServices;
 import su.kidoz.kaillera.controller.KailleraServerController;
@@ -124,7 +128,7 @@ class ProtocolE2ETest {
         ServerConfigs configs = new ServerConfigs(serverConfig, gameConfig, masterListConfig);
         ServerPolicyServices policyServices = new ServerPolicyServices(loginValidator,
                 chatModerationService, announcementService);
-        ServerMetrics serverMetrics = new ServerMetrics(new TestStatsCollector(), null);
+        ServerMetrics serverMetrics = new ServerMetrics(new TestStatsCollector(), null, null);
 
         // Create server
         server = new KailleraServerImpl(infrastructure, configs, policyServices, serverMetrics,
@@ -136,13 +140,13 @@ class ProtocolE2ETest {
 
         // Create V086 controller
         v086Controller = new V086Controller(server, executor, controllersConfig, serverConfig,
-                actionRouter);
+                actionRouter, new NetworkMetricsCollector(new SimpleMeterRegistry()));
         v086Controller.start();
 
         // Create connect controller
         KailleraServerController[] controllers = new KailleraServerController[]{v086Controller};
         connectController = new ConnectController(executor, controllers, new TestAccessManager(),
-                controllersConfig);
+                controllersConfig, new ConnectMetricsCollector(new SimpleMeterRegistry()));
 
         log.info("E2E test server started on port {}", TEST_PORT);
     }
@@ -542,6 +546,10 @@ class ProtocolE2ETest {
         public boolean clearTemp(InetAddress address) {
             return true;
         }
+
+        @Override
+        public void addAccessRulesListener(AccessRulesListener listener) {
+        }
     }
 
     private static final class TestStatsCollector implements StatsCollector {
@@ -550,12 +558,17 @@ class ProtocolE2ETest {
         }
 
         @Override
-        public List<String> getStartedGamesList() {
+        public void concurrencyChanged(int users, int games) {
+        }
+
+        @Override
+        public List<String> drainStartedGames() {
             return List.of();
         }
 
         @Override
-        public void clearStartedGamesList() {
+        public Snapshot getStats() {
+            return new Snapshot(null, null, 0);
         }
     }
 }
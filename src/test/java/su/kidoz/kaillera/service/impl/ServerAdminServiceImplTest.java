@@ -0,0 +1,120 @@
+package su.kidoz.kaillera.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.stream.Collectors;
+import su.kidoz.kaillera.access.AccessManager;
+import su.kidoz.kaillera.model.KailleraUser;
+import su.kidoz.kaillera.model.event.DefaultEventDispatcher;
+import su.kidoz.kaillera.model.impl.KailleraServerImpl;
+import su.kidoz.kaillera.model.impl.KailleraUserImpl;
+import su.kidoz.kaillera.model.impl.UserManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests for ServerAdminServiceImpl - admin operations on the server.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ServerAdminServiceImpl Tests")
+class ServerAdminServiceImplTest {
+
+    @Mock
+    private KailleraServerImpl server;
+
+    @Mock
+    private AccessManager accessManager;
+
+    private final UserManager userManager = new UserManager(16);
+    private ServerAdminServiceImpl service;
+    private KailleraUserImpl admin;
+
+    @BeforeEach
+    void setUp() {
+        when(server.getUsers()).thenReturn(userManager.getUsers());
+        when(server.findUsersByNamePrefix(anyString())).thenAnswer(
+                invocation -> userManager.findUsersByNamePrefix(invocation.getArgument(0)));
+        service = new ServerAdminServiceImpl(server, accessManager);
+
+        admin = user(100, "Admin");
+        admin.setAccess(AccessManager.ACCESS_ADMIN);
+    }
+
+    private KailleraUserImpl user(int id, String name) {
+        KailleraUserImpl user = new KailleraUserImpl(id, "v086",
+                new InetSocketAddress("127.0.0.1", 27888), new DefaultEventDispatcher(), server);
+        user.setName(name);
+        return user;
+    }
+
+    private void loggedIn(int id, String name) {
+        KailleraUserImpl user = user(id, name);
+        userManager.addUser(user);
+        user.setLoggedIn(true);
+        userManager.userLoggedIn(user);
+    }
+
+    private Set<String> find(String namePattern) {
+        return service.findUsers(admin, namePattern).stream().map(KailleraUser::getName)
+                .collect(Collectors.toSet());
+    }
+
+    @Nested
+    @DisplayName("findUsers")
+    class FindUsers {
+
+        @BeforeEach
+        void addUsers() {
+            loggedIn(1, "foo");
+            loggedIn(2, "FooBar");
+            loggedIn(3, "xfoo");
+            loggedIn(4, "a*foo");
+            // Connected but not logged in yet
+            userManager.addUser(user(5, "foolish"));
+        }
+
+        @Test
+        @DisplayName("should match names containing the pattern, ignoring case")
+        void shouldMatchSubstring() {
+            assertEquals(Set.of("foo", "FooBar", "xfoo", "a*foo"), find("FOO"));
+        }
+
+        @Test
+        @DisplayName("should match names starting with a pattern ending in *")
+        void shouldMatchPrefix() {
+            assertEquals(Set.of("foo", "FooBar"), find("foo*"));
+        }
+
+        @Test
+        @DisplayName("should match a * anywhere but the end literally")
+        void shouldMatchLeadingStarLiterally() {
+            assertEquals(Set.of("a*foo"), find("*foo"));
+        }
+
+        @Test
+        @DisplayName("should find every logged-in user for a bare *")
+        void shouldMatchAllForBareStar() {
+            assertEquals(Set.of("foo", "FooBar", "xfoo", "a*foo"), find("*"));
+        }
+
+        @Test
+        @DisplayName("should find nothing for a non-admin")
+        void shouldRejectNonAdmin() {
+            admin.setAccess(AccessManager.ACCESS_NORMAL);
+
+            assertEquals(Set.of(), find("foo"));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package su.kidoz.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ImpairedLink - seeded loss, delay and duplication of packets.
+ */
+@DisplayName("ImpairedLink Tests")
+class ImpairedLinkTest {
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 27888);
+    private static final int PACKETS = 200;
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should deliver every packet in order through latency and jitter")
+    void shouldKeepOrderWithJitter() throws InterruptedException {
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        ImpairedLink link = link(NetworkImpairment.parse("latency=5,jitter=5"), 1, delivered);
+
+        offerAll(link);
+
+        awaitDelivered(delivered, PACKETS);
+        for (int i = 0; i < PACKETS; i++) {
+            assertEquals(i, delivered.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("should drop the same packets for the same seed")
+    void shouldBeRepeatable() throws InterruptedException {
+        NetworkImpairment impairment = NetworkImpairment.parse("loss=0.2");
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        ImpairedLink firstLink = link(impairment, 42, first);
+        ImpairedLink secondLink = link(impairment, 42, second);
+
+        offerAll(firstLink);
+        offerAll(secondLink);
+
+        long expected = PACKETS - firstLink.getDropped();
+        awaitDelivered(first, expected);
+        awaitDelivered(second, expected);
+        assertTrue(firstLink.getDropped() > 0);
+        assertEquals(firstLink.getDropped(), secondLink.getDropped());
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("should deliver duplicated packets twice")
+    void shouldDuplicate() throws InterruptedException {
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        ImpairedLink link = link(NetworkImpairment.parse("duplicate=1"), 1, delivered);
+
+        offerAll(link);
+
+        awaitDelivered(delivered, PACKETS * 2L);
+        assertEquals(PACKETS, link.getDuplicated());
+        assertEquals(PACKETS, link.getPackets());
+    }
+
+    @Test
+    @DisplayName("should copy packets so senders can reuse their buffer")
+    void shouldCopyPackets() throws InterruptedException {
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        ImpairedLink link = link(NetworkImpairment.parse("latency=20"), 1, delivered);
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+
+        buffer.putInt(0, 7);
+        link.offer(buffer, ADDRESS);
+        buffer.putInt(0, 8);
+
+        awaitDelivered(delivered, 1);
+        assertEquals(List.of(7), delivered);
+    }
+
+    private ImpairedLink link(NetworkImpairment impairment, long seed, List<Integer> delivered) {
+        return new ImpairedLink(impairment, seed, scheduler, Runnable::run,
+                (buffer, address) -> delivered.add(buffer.getInt()));
+    }
+
+    private static void offerAll(ImpairedLink link) {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        for (int i = 0; i < PACKETS; i++) {
+            buffer.clear();
+            buffer.putInt(i).flip();
+            link.offer(buffer, ADDRESS);
+        }
+    }
+
+    private static void awaitDelivered(List<Integer> delivered, long count)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delivered.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, delivered.size());
+    }
+}
@@ -0,0 +1,54 @@
+package su.kidoz.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for NetworkImpairment - parsing impairment specifications.
+ */
+@DisplayName("NetworkImpairment Tests")
+class NetworkImpairmentTest {
+
+    @Test
+    @DisplayName("should parse every setting")
+    void shouldParseSettings() {
+        NetworkImpairment impairment = NetworkImpairment.parse(
+                "loss=0.05, duplicate=0.01,reorder=0.02,latency=40,jitter=10,reorder-delay=25");
+
+        assertEquals(0.05, impairment.loss());
+        assertEquals(0.01, impairment.duplicate());
+        assertEquals(0.02, impairment.reorder());
+        assertEquals(40, impairment.latencyMillis());
+        assertEquals(10, impairment.jitterMillis());
+        assertEquals(25, impairment.reorderDelayMillis());
+        assertFalse(impairment.isNone());
+    }
+
+    @Test
+    @DisplayName("should treat an empty specification as no impairment")
+    void shouldParseEmptyAsNone() {
+        assertSame(NetworkImpairment.NONE, NetworkImpairment.parse(null));
+        assertSame(NetworkImpairment.NONE, NetworkImpairment.parse(" "));
+        assertTrue(NetworkImpairment.NONE.isNone());
+    }
+
+    @Test
+    @DisplayName("should reject unknown settings and out of range values")
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> NetworkImpairment.parse("drop=0.1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> NetworkImpairment.parse("loss=1.5"));
+        assertThrows(IllegalArgumentException.class,
+                () -> NetworkImpairment.parse("latency=-1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> NetworkImpairment.parse("latency=fast"));
+        assertThrows(IllegalArgumentException.class, () -> NetworkImpairment.parse("loss"));
+    }
+}
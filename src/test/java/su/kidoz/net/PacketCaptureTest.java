@@ -0,0 +1,141 @@
+package su.kidoz.net;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for PacketCapture - the off-heap packet ring and its pcap export.
+ */
+@DisplayName("PacketCapture Tests")
+class PacketCaptureTest {
+
+    private static final InetSocketAddress SERVER = new InetSocketAddress("10.0.0.1", 27889);
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("10.0.0.2", 50000);
+
+    private static ByteBuffer packet(int... bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+        for (int b : bytes)
+            buffer.put((byte) b);
+        return buffer.flip();
+    }
+
+    @Nested
+    @DisplayName("Ring")
+    class Ring {
+
+        @Test
+        @DisplayName("should copy packets without moving their position")
+        void shouldCopyPackets() {
+            PacketCapture capture = new PacketCapture(4, 64);
+            ByteBuffer in = packet(1, 2, 3);
+
+            capture.record(true, in);
+            capture.record(false, packet(4, 5));
+
+            assertEquals(0, in.position());
+            List<PacketCapture.Packet> packets = capture.snapshot();
+            assertEquals(2, packets.size());
+            assertTrue(packets.get(0).inbound());
+            assertArrayEquals(new byte[]{1, 2, 3}, packets.get(0).data());
+            assertFalse(packets.get(1).inbound());
+            assertArrayEquals(new byte[]{4, 5}, packets.get(1).data());
+        }
+
+        @Test
+        @DisplayName("should keep only the newest packets, oldest first")
+        void shouldOverwriteOldestPackets() {
+            PacketCapture capture = new PacketCapture(2, 64);
+
+            for (int i = 1; i <= 5; i++)
+                capture.record(true, packet(i));
+
+            List<PacketCapture.Packet> packets = capture.snapshot();
+            assertEquals(5, capture.getPacketCount());
+            assertEquals(2, packets.size());
+            assertEquals(4, packets.get(0).data()[0]);
+            assertEquals(5, packets.get(1).data()[0]);
+        }
+
+        @Test
+        @DisplayName("should truncate packets to the snap length")
+        void shouldTruncatePackets() {
+            PacketCapture capture = new PacketCapture(2, 2);
+
+            capture.record(true, packet(1, 2, 3, 4));
+
+            PacketCapture.Packet captured = capture.snapshot().get(0);
+            assertEquals(4, captured.length());
+            assertArrayEquals(new byte[]{1, 2}, captured.data());
+        }
+    }
+
+    @Nested
+    @DisplayName("Memory")
+    class Memory {
+
+        @Test
+        @DisplayName("should refuse a ring over the size limit without overflowing")
+        void shouldRefuseLargeRing() {
+            assertTrue(PacketCapture.ringBytes(65536, 65507) > PacketCapture.MAX_RING_BYTES);
+            assertThrows(IllegalArgumentException.class, () -> new PacketCapture(65536, 65507));
+        }
+
+        @Test
+        @DisplayName("should refuse captures over the budget until one is released")
+        void shouldKeepCapturesInBudget() {
+            PacketCapture.Budget budget = new PacketCapture.Budget(
+                    2 * PacketCapture.ringBytes(16, 64));
+            PacketCapture first = new PacketCapture(16, 64, budget);
+            new PacketCapture(16, 64, budget);
+
+            assertThrows(IllegalStateException.class, () -> new PacketCapture(16, 64, budget));
+
+            first.release();
+            first.release();
+            new PacketCapture(16, 64, budget);
+            assertEquals(2 * PacketCapture.ringBytes(16, 64), budget.getReservedBytes());
+        }
+    }
+
+    @Nested
+    @DisplayName("Pcap export")
+    class PcapExport {
+
+        @Test
+        @DisplayName("should wrap packets in IPv4 and UDP headers")
+        void shouldWritePcap() throws Exception {
+            PacketCapture capture = new PacketCapture(4, 64);
+            capture.record(true, packet(7, 8, 9));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            PcapWriter.write(out, List.of(new PcapWriter.Source(capture, SERVER, CLIENT)));
+
+            ByteBuffer pcap = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(24 + 16 + 28 + 3, pcap.remaining());
+            assertEquals(0xa1b2c3d4, pcap.getInt(0));
+            assertEquals(101, pcap.getInt(20));
+            assertEquals(31, pcap.getInt(32));
+            assertEquals(31, pcap.getInt(36));
+
+            pcap.order(ByteOrder.BIG_ENDIAN);
+            assertEquals(0x45, pcap.get(40));
+            // Inbound: from the client to the server
+            assertEquals(50000, pcap.getShort(60) & 0xFFFF);
+            assertEquals(27889, pcap.getShort(62) & 0xFFFF);
+            assertEquals(11, pcap.getShort(64));
+            assertEquals(7, pcap.get(68));
+        }
+    }
+}
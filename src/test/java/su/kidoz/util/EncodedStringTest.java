@@ -0,0 +1,54 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for EncodedString - the cached wire encoding of user names, game
+ * names and client types.
+ */
+@DisplayName("EncodedString Tests")
+class EncodedStringTest {
+
+    @Test
+    @DisplayName("should encode once per charset and reuse the bytes")
+    void shouldCacheBytes() {
+        EncodedString name = new EncodedString("Plåyer");
+
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        assertSame(utf8, name.getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals("Plåyer".getBytes(StandardCharsets.UTF_8), utf8);
+
+        byte[] latin1 = name.getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(6, latin1.length);
+    }
+
+    @Test
+    @DisplayName("should replace unmappable characters like Charset.encode")
+    void shouldMatchCharsetEncode() {
+        String value = "日本 😀";
+        ByteBuffer expected = StandardCharsets.ISO_8859_1.encode(value);
+        byte[] expectedBytes = new byte[expected.remaining()];
+        expected.get(expectedBytes);
+
+        assertArrayEquals(expectedBytes,
+                new EncodedString(value).getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    @DisplayName("should compare and print by value")
+    void shouldBehaveLikeValue() {
+        assertEquals(new EncodedString("abc"), EncodedString.of("abc"));
+        assertEquals("abc".hashCode(), new EncodedString("abc").hashCode());
+        assertEquals("abc", new EncodedString("abc").toString());
+        assertNull(EncodedString.of(null));
+    }
+}
@@ -0,0 +1,146 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for HashedTimingWheel - used by ServerMaintenanceTask for user
+ * timeouts.
+ */
+@DisplayName("HashedTimingWheel Tests")
+class HashedTimingWheelTest {
+
+    private static final long TICK = 100;
+
+    private HashedTimingWheel<String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(TICK, 8);
+        expired = new ArrayList<>();
+        wheel.advance(1000, expired::add);
+    }
+
+    @Nested
+    @DisplayName("Expiry")
+    class Expiry {
+        @Test
+        @DisplayName("should not expire items before their deadline")
+        void shouldNotExpireEarly() {
+            wheel.schedule("a", 1250);
+
+            assertEquals(0, wheel.advance(1200, expired::add));
+            assertTrue(expired.isEmpty());
+            assertTrue(wheel.isScheduled("a"));
+        }
+
+        @Test
+        @DisplayName("should expire items once their deadline passes")
+        void shouldExpireAtDeadline() {
+            wheel.schedule("a", 1250);
+
+            assertEquals(1, wheel.advance(1300, expired::add));
+            assertEquals(List.of("a"), expired);
+            assertFalse(wheel.isScheduled("a"));
+        }
+
+        @Test
+        @DisplayName("should expire overdue items on the next advance")
+        void shouldExpireOverdueItems() {
+            wheel.schedule("late", 500);
+
+            wheel.advance(1001, expired::add);
+            assertEquals(List.of("late"), expired);
+        }
+
+        @Test
+        @DisplayName("should keep deadlines beyond one rotation until they are due")
+        void shouldHandleDeadlinesBeyondOneRotation() {
+            // 8 slots * 100ms = 800ms per rotation
+            wheel.schedule("far", 3000);
+
+            for (long now = 1100; now < 3000; now += TICK) {
+                wheel.advance(now, expired::add);
+            }
+            assertTrue(expired.isEmpty());
+
+            wheel.advance(3000, expired::add);
+            assertEquals(List.of("far"), expired);
+        }
+
+        @Test
+        @DisplayName("should catch up after a long stall")
+        void shouldCatchUpAfterStall() {
+            wheel.schedule("a", 1200);
+            wheel.schedule("b", 1700);
+
+            wheel.advance(100_000, expired::add);
+            assertEquals(2, expired.size());
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rescheduling")
+    class Rescheduling {
+        @Test
+        @DisplayName("should replace the previous deadline")
+        void shouldReplacePreviousDeadline() {
+            wheel.schedule("a", 1200);
+            wheel.schedule("a", 2000);
+
+            wheel.advance(1500, expired::add);
+            assertTrue(expired.isEmpty());
+            assertEquals(1, wheel.size());
+
+            wheel.advance(2000, expired::add);
+            assertEquals(List.of("a"), expired);
+        }
+
+        @Test
+        @DisplayName("should allow the handler to reschedule the expired item")
+        void shouldAllowRescheduleFromHandler() {
+            wheel.schedule("a", 1100);
+
+            wheel.advance(1100, item -> {
+                expired.add(item);
+                wheel.schedule(item, 1400);
+            });
+            assertTrue(wheel.isScheduled("a"));
+
+            wheel.advance(1400, expired::add);
+            assertEquals(List.of("a", "a"), expired);
+        }
+
+        @Test
+        @DisplayName("should not expire cancelled items")
+        void shouldNotExpireCancelledItems() {
+            wheel.schedule("a", 1200);
+            assertTrue(wheel.cancel("a"));
+            assertFalse(wheel.cancel("a"));
+
+            wheel.advance(2000, expired::add);
+            assertTrue(expired.isEmpty());
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    @DisplayName("should reject invalid arguments")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>(0, 8));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HashedTimingWheel<String>(100, 0));
+    }
+}
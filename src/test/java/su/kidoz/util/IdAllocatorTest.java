@@ -0,0 +1,188 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for IdAllocator - used by UserManager and GameManager for ID
+ * generation.
+ */
+@DisplayName("IdAllocator Tests")
+class IdAllocatorTest {
+
+    private static final long REUSE_DELAY = 5_000;
+
+    private AtomicLong clock;
+    private IdAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+        allocator = new IdAllocator(1, 200, REUSE_DELAY, clock::get);
+    }
+
+    @Nested
+    @DisplayName("Allocation")
+    class Allocation {
+        @Test
+        @DisplayName("should allocate sequentially from the minimum ID")
+        void shouldAllocateSequentially() {
+            assertEquals(1, allocator.allocate());
+            assertEquals(2, allocator.allocate());
+            assertEquals(3, allocator.allocate());
+            assertEquals(3, allocator.getAllocatedCount());
+            assertTrue(allocator.isAllocated(2));
+        }
+
+        @Test
+        @DisplayName("should span bitset words and stop at the maximum ID")
+        void shouldSpanWords() {
+            for (int expected = 1; expected <= 200; expected++) {
+                assertEquals(expected, allocator.allocate());
+            }
+            assertThrows(IllegalStateException.class, allocator::allocate);
+        }
+
+        @Test
+        @DisplayName("should refuse allocations beyond the limit")
+        void shouldRespectLimit() {
+            assertEquals(1, allocator.tryAllocate(2));
+            assertEquals(2, allocator.tryAllocate(2));
+            assertEquals(-1, allocator.tryAllocate(2));
+            assertEquals(2, allocator.getAllocatedCount());
+
+            allocator.release(1);
+            assertEquals(3, allocator.tryAllocate(2));
+        }
+
+        @Test
+        @DisplayName("should never overshoot the limit under contention")
+        void shouldNotOvershootLimitConcurrently() throws InterruptedException {
+            IdAllocator shared = new IdAllocator(1, 0xFFFF, 0);
+            int numThreads = 8;
+            int limit = 1_000;
+            AtomicInteger granted = new AtomicInteger();
+            CountDownLatch latch = new CountDownLatch(numThreads);
+            ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+            for (int t = 0; t < numThreads; t++) {
+                executor.submit(() -> {
+                    try {
+                        for (int i = 0; i < limit; i++) {
+                            if (shared.tryAllocate(limit) >= 0) {
+                                granted.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            executor.shutdown();
+            assertEquals(limit, granted.get());
+            assertEquals(limit, shared.getAllocatedCount());
+        }
+
+        @Test
+        @DisplayName("should not allocate duplicates under contention")
+        void shouldNotAllocateDuplicatesConcurrently() throws InterruptedException {
+            IdAllocator shared = new IdAllocator(1, 0xFFFF, 0);
+            int numThreads = 8;
+            int idsPerThread = 5_000;
+            Set<Integer> ids = ConcurrentHashMap.newKeySet();
+            AtomicInteger duplicates = new AtomicInteger();
+            CountDownLatch latch = new CountDownLatch(numThreads);
+            ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+            for (int t = 0; t < numThreads; t++) {
+                executor.submit(() -> {
+                    try {
+                        for (int i = 0; i < idsPerThread; i++) {
+                            if (!ids.add(shared.allocate())) {
+                                duplicates.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            executor.shutdown();
+            assertEquals(0, duplicates.get());
+            assertEquals(numThreads * idsPerThread, shared.getAllocatedCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Release and Reuse")
+    class ReleaseAndReuse {
+        @Test
+        @DisplayName("should only release allocated IDs")
+        void shouldOnlyReleaseAllocatedIds() {
+            int id = allocator.allocate();
+
+            assertTrue(allocator.release(id));
+            assertFalse(allocator.release(id));
+            assertFalse(allocator.release(999));
+            assertEquals(0, allocator.getAllocatedCount());
+        }
+
+        @Test
+        @DisplayName("should hold back released IDs for the reuse delay")
+        void shouldHoldBackReleasedIds() {
+            for (int i = 1; i <= 200; i++) {
+                allocator.allocate();
+            }
+            allocator.release(10);
+            allocator.release(20);
+
+            clock.addAndGet(REUSE_DELAY);
+            allocator.release(5);
+
+            // Cursor has wrapped to 1; 5 is still held back, 10 is reusable
+            assertEquals(10, allocator.allocate());
+        }
+
+        @Test
+        @DisplayName("should reuse held-back IDs when nothing else is free")
+        void shouldReuseHeldBackIdsWhenExhausted() {
+            for (int i = 1; i <= 200; i++) {
+                allocator.allocate();
+            }
+            allocator.release(42);
+
+            assertEquals(42, allocator.allocate());
+        }
+
+        @Test
+        @DisplayName("should reset on clear")
+        void shouldResetOnClear() {
+            allocator.allocate();
+            allocator.allocate();
+            allocator.clear();
+
+            assertEquals(0, allocator.getAllocatedCount());
+            assertEquals(1, allocator.allocate());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Unit tests for InputComparison - in-place comparison and hashing of player
+ * input used by the autofire scanner and the server game data cache.
+ */
+@DisplayName("InputComparison Tests")
+class InputComparisonTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 6, 8, 12, 32})
+    @DisplayName("should compare and hash slices like Arrays on copies")
+    void shouldMatchArrays(int length) {
+        Random random = new Random(length);
+        byte[] data = new byte[length * 16 + 3];
+
+        for (int round = 0; round < 200; round++) {
+            // Few distinct values so equal slices are common
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) random.nextInt(2);
+            }
+            int a = random.nextInt(data.length - length + 1);
+            int b = random.nextInt(data.length - length + 1);
+            byte[] sliceA = Arrays.copyOfRange(data, a, a + length);
+            byte[] sliceB = Arrays.copyOfRange(data, b, b + length);
+
+            assertEquals(Arrays.equals(sliceA, sliceB),
+                    InputComparison.equals(data, a, data, b, length));
+            assertEquals(Arrays.hashCode(sliceA), InputComparison.hash(data, a, length));
+        }
+    }
+
+    @Test
+    @DisplayName("should compare whole arrays of different lengths as unequal")
+    void shouldCompareWholeArrays() {
+        assertTrue(InputComparison.equals(new byte[]{1, 2}, new byte[]{1, 2}));
+        assertFalse(InputComparison.equals(new byte[]{1, 2}, new byte[]{1, 2, 0}));
+        assertEquals(Arrays.hashCode(new byte[]{5, 6, 7}),
+                InputComparison.hash(new byte[]{5, 6, 7}));
+    }
+
+    @Test
+    @DisplayName("should reject ranges outside the array")
+    void shouldCheckBounds() {
+        byte[] data = new byte[8];
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> InputComparison.equals(data, 6, data, 0, 4));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> InputComparison.equals(data, 0, data, 2, 8));
+        assertThrows(IndexOutOfBoundsException.class, () -> InputComparison.hash(data, 6, 4));
+    }
+}
@@ -0,0 +1,92 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ServerGameDataCache - the per-client cache of game data sent
+ * to the client, looked up on every frame.
+ */
+@DisplayName("ServerGameDataCache Tests")
+class ServerGameDataCacheTest {
+
+    @Test
+    @DisplayName("should find added data by content and evict the oldest")
+    void shouldFindAndEvict() {
+        ServerGameDataCache cache = new ServerGameDataCache(2);
+
+        assertEquals(0, cache.add(new byte[]{1, 2}));
+        assertEquals(1, cache.add(new byte[]{3, 4}));
+        assertEquals(0, cache.indexOf(new byte[]{1, 2}));
+        assertEquals(1, cache.indexOf(new byte[]{3, 4}));
+
+        cache.add(new byte[]{5, 6});
+        assertFalse(cache.contains(new byte[]{1, 2}));
+        assertEquals(0, cache.indexOf(new byte[]{3, 4}));
+        assertEquals(1, cache.indexOf(new byte[]{5, 6}));
+    }
+
+    @Test
+    @DisplayName("should tell apart data with the same hash")
+    void shouldHandleHashCollisions() {
+        // {0, 31} and {1, 0} have the same Arrays.hashCode
+        byte[] a = {0, 31};
+        byte[] b = {1, 0};
+        assertEquals(Arrays.hashCode(a), Arrays.hashCode(b));
+
+        ServerGameDataCache cache = new ServerGameDataCache(4);
+        cache.add(a);
+        cache.add(b);
+
+        assertEquals(0, cache.indexOf(new byte[]{0, 31}));
+        assertEquals(1, cache.indexOf(new byte[]{1, 0}));
+
+        cache.remove(0);
+        assertEquals(0, cache.indexOf(new byte[]{1, 0}));
+        assertEquals(-1, cache.indexOf(new byte[]{0, 31}));
+    }
+
+    @Test
+    @DisplayName("should keep the index consistent with set, remove and clear")
+    void shouldMatchLinearSearch() {
+        Random random = new Random(42);
+        ServerGameDataCache cache = new ServerGameDataCache(16);
+
+        for (int round = 0; round < 5_000; round++) {
+            byte[] data = {(byte) random.nextInt(4), (byte) random.nextInt(4)};
+            int op = random.nextInt(20);
+            if (op == 0) {
+                cache.clear();
+            } else if (op == 1 && cache.size() > 0) {
+                cache.remove(random.nextInt(cache.size()));
+            } else if (op == 2 && cache.size() > 0) {
+                cache.set(random.nextInt(cache.size()), data);
+            } else if (cache.indexOf(data) < 0) {
+                cache.add(data);
+            }
+
+            List<byte[]> contents = new ArrayList<>();
+            for (int i = 0; i < cache.size(); i++) {
+                contents.add(cache.get(i));
+            }
+            byte[] probe = {(byte) random.nextInt(4), (byte) random.nextInt(4)};
+            int index = cache.indexOf(probe);
+            boolean present = contents.stream().anyMatch(c -> Arrays.equals(c, probe));
+            assertEquals(present, index >= 0, "round " + round);
+            if (present) {
+                assertArrayEquals(probe, cache.get(index));
+            }
+        }
+        assertTrue(cache.size() <= 16);
+    }
+}
@@ -0,0 +1,95 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TokenBucket - used by ConnectAdmissionControl to rate limit
+ * connection requests.
+ */
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    @DisplayName("should admit a full burst and then deny")
+    void shouldAdmitBurst() {
+        TokenBucket bucket = new TokenBucket(1, 3, START);
+
+        assertTrue(bucket.tryAcquire(START));
+        assertTrue(bucket.tryAcquire(START));
+        assertTrue(bucket.tryAcquire(START));
+        assertFalse(bucket.tryAcquire(START));
+    }
+
+    @Test
+    @DisplayName("should refill at the configured rate")
+    void shouldRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 1, START);
+
+        assertTrue(bucket.tryAcquire(START));
+        assertFalse(bucket.tryAcquire(START + SECOND / 4));
+        assertTrue(bucket.tryAcquire(START + SECOND / 2));
+        assertFalse(bucket.tryAcquire(START + SECOND / 2));
+    }
+
+    @Test
+    @DisplayName("should report idle once fully refilled")
+    void shouldReportIdle() {
+        TokenBucket bucket = new TokenBucket(1, 2, START);
+        assertTrue(bucket.isIdle(START));
+
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+        assertFalse(bucket.isIdle(START + SECOND));
+        assertTrue(bucket.isIdle(START + 2 * SECOND));
+    }
+
+    @Test
+    @DisplayName("should not over-admit under contention")
+    void shouldNotOverAdmitConcurrently() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 100, START);
+        int numThreads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        for (int t = 0; t < numThreads; t++) {
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryAcquire(START)) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(100, admitted.get());
+    }
+
+    @Test
+    @DisplayName("should reject invalid arguments")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, START));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, START));
+    }
+}
@@ -0,0 +1,75 @@
+package su.kidoz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TopKCounter - used by WindowedStatsCollector to count the
+ * most started ROMs and emulators.
+ */
+@DisplayName("TopKCounter Tests")
+class TopKCounterTest {
+
+    @Test
+    @DisplayName("should count keys exactly while under capacity")
+    void shouldCountExactly() {
+        TopKCounter counter = new TopKCounter(4);
+        counter.add("a");
+        counter.add("b");
+        counter.add("a");
+
+        List<TopKCounter.Count> top = counter.top(10);
+        assertEquals(List.of(new TopKCounter.Count("a", 2, 0), new TopKCounter.Count("b", 1, 0)),
+                top);
+        assertEquals(3, counter.getTotal());
+    }
+
+    @Test
+    @DisplayName("should keep frequent keys when rare keys overflow the capacity")
+    void shouldKeepFrequentKeys() {
+        TopKCounter counter = new TopKCounter(3);
+        for (int i = 0; i < 100; i++) {
+            counter.add("frequent");
+            counter.add("rare" + i);
+        }
+
+        List<TopKCounter.Count> top = counter.top(1);
+        assertEquals("frequent", top.get(0).key());
+        assertEquals(100, top.get(0).count());
+        assertEquals(200, counter.getTotal());
+        assertEquals(3, counter.top(10).size());
+    }
+
+    @Test
+    @DisplayName("should bound the overcount of a replacing key by its error")
+    void shouldReportError() {
+        TopKCounter counter = new TopKCounter(1);
+        counter.add("a");
+        counter.add("a");
+        counter.add("b");
+
+        assertEquals(List.of(new TopKCounter.Count("b", 3, 2)), counter.top(10));
+    }
+
+    @Test
+    @DisplayName("should forget everything on clear")
+    void shouldClear() {
+        TopKCounter counter = new TopKCounter(2);
+        counter.add("a");
+        counter.clear();
+
+        assertEquals(List.of(), counter.top(10));
+        assertEquals(0, counter.getTotal());
+    }
+
+    @Test
+    @DisplayName("should reject a non-positive capacity")
+    void shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKCounter(0));
+    }
+}